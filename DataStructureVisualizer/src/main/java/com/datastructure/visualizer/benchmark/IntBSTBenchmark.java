@@ -0,0 +1,47 @@
+package com.datastructure.visualizer.benchmark;
+
+import com.datastructure.visualizer.model.BST;
+import com.datastructure.visualizer.model.IntBST;
+
+import java.util.Random;
+
+// 泛型 BST<Integer> 与 int 特化 IntBST 的对比基准（插入 + 查找随机整数）。
+// 运行: java ... IntBSTBenchmark [节点数]
+public class IntBSTBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 5);
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] keys = new Random(42).ints(count).toArray();
+        // 一半命中一半未命中
+        int[] probes = new int[count];
+        Random random = new Random(7);
+        for (int i = 0; i < count; i++) {
+            probes[i] = (i & 1) == 0 ? keys[random.nextInt(count)] : random.nextInt();
+        }
+
+        System.out.printf("=== BST 基准测试: %d 个随机整数 ===%n", count);
+        HARNESS.report("BST<Integer> 插入+查找", () -> {
+            BST<Integer> tree = new BST<>();
+            for (int key : keys) {
+                tree.insert(key);   // 自动装箱
+            }
+            long hits = 0;
+            for (int probe : probes) {
+                if (tree.search(probe)) hits++;
+            }
+            return hits;
+        });
+        HARNESS.report("IntBST 插入+查找", () -> {
+            IntBST tree = new IntBST();
+            for (int key : keys) {
+                tree.insert(key);
+            }
+            long hits = 0;
+            for (int probe : probes) {
+                if (tree.search(probe)) hits++;
+            }
+            return hits;
+        });
+    }
+}
@@ -14,7 +14,7 @@ public class LinearStructureController {
 
     public LinearStructureController(LinearStructureView view) {
         this.view = view;
-        this.currentStructure = new LinkedList<>();
+        this.currentStructure = new LinkedList<>(true);
         setupEventHandlers();
         updateView();
     }
@@ -182,7 +182,7 @@ public class LinearStructureController {
     private void changeStructure(String structureType) {
         switch (structureType) {
             case "链表":
-                currentStructure = new LinkedList<>();
+                currentStructure = new LinkedList<>(true);
                 view.toggleStackButtons(false);
                 break;
             case "顺序表":
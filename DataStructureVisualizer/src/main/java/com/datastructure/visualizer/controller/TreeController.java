@@ -6,6 +6,9 @@ import com.datastructure.visualizer.view.components.TreeNodeView;
 import com.datastructure.visualizer.view.components.AnimationUtils;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextInputDialog;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class TreeController {
@@ -13,6 +16,49 @@ public class TreeController {
     private DataStructure<String> currentTree;
     private HuffmanTree huffmanTree;
 
+    // 当前显示的节点视图按值索引（同值取先序遍历中的第一个），查找时直接改颜色，不重建视图
+    private final Map<String, TreeNodeView> nodeIndex = new HashMap<>();
+    private TreeNodeView markedNode;
+
+    // 二叉搜索树的模型节点到节点视图的对应关系；插入、删除时按 BST 报告的改动修改视图，不再整体重建
+    private final Map<TreeNode<String>, TreeNodeView> viewIndex = new IdentityHashMap<>();
+    private final TreeChangeListener<String> viewUpdater = new TreeChangeListener<String>() {
+        @Override
+        public void nodeInserted(TreeNode<String> parent, TreeNode<String> node, boolean left) {
+            TreeNodeView nodeView = new TreeNodeView(node.data);
+            viewIndex.put(node, nodeView);
+            nodeIndex.putIfAbsent(nodeView.getValue(), nodeView);
+            view.insertNode(parent != null ? viewIndex.get(parent) : null, nodeView, left);
+        }
+
+        @Override
+        public void nodeRemoved(TreeNode<String> parent, TreeNode<String> node, TreeNode<String> replacement) {
+            TreeNodeView nodeView = viewIndex.remove(node);
+            if (nodeView == null) {
+                return;
+            }
+            nodeIndex.remove(nodeView.getValue(), nodeView);
+            if (markedNode == nodeView) {
+                markedNode = null;
+            }
+            view.removeNode(parent != null ? viewIndex.get(parent) : null, nodeView,
+                    replacement != null ? viewIndex.get(replacement) : null);
+        }
+
+        @Override
+        public void valueChanged(TreeNode<String> node) {
+            TreeNodeView nodeView = viewIndex.get(node);
+            if (nodeView == null) {
+                return;
+            }
+            nodeIndex.remove(nodeView.getValue(), nodeView);
+            nodeView.setValue(node.data);
+            // 删除有两个子节点的节点时，这里换上的是后继的值，后继的视图随后被移除；
+            // 必须由这个视图接管索引，否则移除后继时会把这个值从索引中删掉
+            nodeIndex.put(nodeView.getValue(), nodeView);
+        }
+    };
+
     public TreeController(TreeView view) {
         this.view = view;
         this.currentTree = new BinaryTree<>();
@@ -69,15 +115,26 @@ public class TreeController {
     }
 
     private void insert(String value) {
-        currentTree.insert(value);
-        updateView();
+        try {
+            currentTree.insert(value);
+        } catch (IllegalArgumentException e) {
+            view.logOperation("插入失败: " + e.getMessage());
+            return;
+        }
+        refreshView();
         view.logOperation("插入: " + value + " -> " + currentTree.visualize());
     }
 
     private void delete(String value) {
-        boolean existed = currentTree.search(value);
-        currentTree.delete(value);
-        updateView();
+        boolean existed;
+        try {
+            existed = currentTree.search(value);
+            currentTree.delete(value);
+        } catch (IllegalArgumentException e) {
+            view.logOperation("删除失败: " + e.getMessage());
+            return;
+        }
+        refreshView();
 
         if (existed) {
             view.logOperation("删除: " + value + " -> " + currentTree.visualize());
@@ -87,12 +144,16 @@ public class TreeController {
     }
 
     private void search(String value) {
-        boolean found = currentTree.search(value);
+        boolean found;
+        try {
+            found = currentTree.search(value);
+        } catch (IllegalArgumentException e) {
+            view.logOperation("查找失败: " + e.getMessage());
+            return;
+        }
 
         // 高亮找到的节点
-        TreeNodeView rootView = createTreeView();
-        highlightNode(rootView, value, found);
-        view.updateVisualization(rootView);
+        highlightNode(value, found);
 
         view.logOperation("查找: " + value + " -> " + (found ? "找到" : "未找到"));
 
@@ -128,7 +189,9 @@ public class TreeController {
             for (var entry : huffmanTree.getHuffmanCodes().entrySet()) {
                 codes.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
             }
-            codes.append("编码结果: ").append(huffmanTree.getEncodedText());
+            codes.append("编码结果: ").append(huffmanTree.getEncodedText()).append("\n");
+            codes.append(String.format("原始: %d 位, 压缩后: %d 位 (%d 字节)",
+                    text.length() * 8L, huffmanTree.getEncodedBitLength(), huffmanTree.getEncodedBytes().length));
 
             view.logOperation("构建哈夫曼树: " + text);
             view.logOperation(codes.toString());
@@ -147,7 +210,13 @@ public class TreeController {
                 currentTree = new BinaryTree<>();
                 break;
             case "二叉搜索树":
-                currentTree = new BST<>();
+                BST<String> bst = new BST<>();
+                bst.setChangeListener(viewUpdater);
+                currentTree = bst;
+                break;
+            case "整数BST":
+                // int 特化版本，按数值而不是字符串比较
+                currentTree = new IntStructureAdapter(new IntBST());
                 break;
             case "哈夫曼树":
                 // 哈夫曼树需要单独构建
@@ -159,10 +228,29 @@ public class TreeController {
         view.logOperation("切换到: " + treeType);
     }
 
+    // 二叉搜索树的视图已经随插入、删除改好，只需去掉查找标记、刷新信息；其他树整体重建
+    private void refreshView() {
+        if (!(currentTree instanceof BST) || view.getTreeType().getValue().equals("哈夫曼树")) {
+            updateView();
+            return;
+        }
+        if (markedNode != null) {
+            markedNode.resetColor();
+            markedNode = null;
+        }
+        updateInfo();
+    }
+
     private void updateView() {
+        nodeIndex.clear();
+        viewIndex.clear();
+        markedNode = null;
         TreeNodeView rootView = createTreeView();
         view.updateVisualization(rootView);
+        updateInfo();
+    }
 
+    private void updateInfo() {
         String treeInfo;
         if (view.getTreeType().getValue().equals("哈夫曼树") && huffmanTree.getRoot() != null) {
             treeInfo = "哈夫曼树 | 叶子节点: " + countLeaves(huffmanTree.getRoot());
@@ -180,14 +268,31 @@ public class TreeController {
         } else if (currentTree instanceof BinaryTree) {
             BinaryTree<String> binaryTree = (BinaryTree<String>) currentTree;
             return buildTreeView(binaryTree.getRoot());
+        } else if (currentTree instanceof IntStructureAdapter
+                && ((IntStructureAdapter) currentTree).getDelegate() instanceof IntBST) {
+            IntBST intBST = (IntBST) ((IntStructureAdapter) currentTree).getDelegate();
+            return buildIntTreeView(intBST.getRoot());
         }
         return null;
     }
 
+    private TreeNodeView buildIntTreeView(IntTreeNode node) {
+        if (node == null) return null;
+
+        TreeNodeView viewNode = new TreeNodeView(String.valueOf(node.data));
+        nodeIndex.putIfAbsent(viewNode.getValue(), viewNode);
+        viewNode.setLeft(buildIntTreeView(node.left));
+        viewNode.setRight(buildIntTreeView(node.right));
+
+        return viewNode;
+    }
+
     private TreeNodeView buildTreeView(com.datastructure.visualizer.model.TreeNode<String> node) {
         if (node == null) return null;
 
         TreeNodeView viewNode = new TreeNodeView(node.data);
+        nodeIndex.putIfAbsent(viewNode.getValue(), viewNode);
+        viewIndex.put(node, viewNode);
         viewNode.setLeft(buildTreeView(node.left));
         viewNode.setRight(buildTreeView(node.right));
 
@@ -208,22 +313,29 @@ public class TreeController {
         return viewNode;
     }
 
-    private void highlightNode(TreeNodeView node, String value, boolean found) {
-        if (node == null) return;
-
-        if (node.getValue().contains(value)) {
-            if (found) {
-                node.markFound();
-                AnimationUtils.pulseNode(node);
-            } else {
-                node.markDeleted();
-            }
-        } else {
-            node.resetColor();
+    // 只恢复上一次标记的节点、标记这一次的节点，与树的大小无关
+    private void highlightNode(String value, boolean found) {
+        if (markedNode != null) {
+            markedNode.resetColor();
+            markedNode = null;
         }
+        if (!found) {
+            return;
+        }
+        markedNode = nodeIndex.get(indexKey(value));
+        assert markedNode != null : "找到的值没有对应的节点视图: " + value;
+        if (markedNode != null) {
+            markedNode.markFound();
+            AnimationUtils.pulseNode(markedNode);
+        }
+    }
 
-        highlightNode(node.getLeft(), value, found);
-        highlightNode(node.getRight(), value, found);
+    // 整数BST的节点按数值显示，输入 " 007" 也要对应到 "7"
+    private String indexKey(String value) {
+        if (currentTree instanceof IntStructureAdapter) {
+            return String.valueOf(Integer.parseInt(value.trim()));
+        }
+        return value;
     }
 
     private int countLeaves(HuffmanTree.HuffmanNode node) {
@@ -1,10 +1,20 @@
 package com.datastructure.visualizer.model;
 
 public class BST<T extends Comparable<T>> extends BinaryTree<T> {
+    private TreeChangeListener<T> changeListener;
+
+    // 设置后插入、删除时逐个报告被改动的节点；传 null 取消
+    public void setChangeListener(TreeChangeListener<T> changeListener) {
+        this.changeListener = changeListener;
+    }
 
     @Override
     public void insert(T data) {
+        boolean wasEmpty = root == null;
         root = insertRec(root, data);
+        if (wasEmpty && changeListener != null) {
+            changeListener.nodeInserted(null, root, false);
+        }
     }
 
     protected TreeNode<T> insertRec(TreeNode<T> node, T data) {
@@ -13,9 +23,17 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
         }
 
         if (data.compareTo(node.data) < 0) {
+            boolean leaf = node.left == null;
             node.left = insertRec(node.left, data);
+            if (leaf && changeListener != null) {
+                changeListener.nodeInserted(node, node.left, true);
+            }
         } else if (data.compareTo(node.data) > 0) {
+            boolean leaf = node.right == null;
             node.right = insertRec(node.right, data);
+            if (leaf && changeListener != null) {
+                changeListener.nodeInserted(node, node.right, false);
+            }
         }
 
         return node;
@@ -23,23 +41,31 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
 
     @Override
     public void delete(T data) {
-        root = deleteRec(root, data);
+        root = deleteRec(null, root, data);
     }
 
-    private TreeNode<T> deleteRec(TreeNode<T> node, T data) {
+    private TreeNode<T> deleteRec(TreeNode<T> parent, TreeNode<T> node, T data) {
         if (node == null) return null;
 
         if (data.compareTo(node.data) < 0) {
-            node.left = deleteRec(node.left, data);
+            node.left = deleteRec(node, node.left, data);
         } else if (data.compareTo(node.data) > 0) {
-            node.right = deleteRec(node.right, data);
+            node.right = deleteRec(node, node.right, data);
         } else {
-            if (node.left == null) return node.right;
-            if (node.right == null) return node.left;
+            if (node.left == null || node.right == null) {
+                TreeNode<T> child = node.left == null ? node.right : node.left;
+                if (changeListener != null) {
+                    changeListener.nodeRemoved(parent, node, child);
+                }
+                return child;
+            }
 
             TreeNode<T> minNode = findMin(node.right);
             node.data = minNode.data;
-            node.right = deleteRec(node.right, minNode.data);
+            if (changeListener != null) {
+                changeListener.valueChanged(node);
+            }
+            node.right = deleteRec(node, node.right, minNode.data);
         }
         return node;
     }
@@ -35,17 +35,16 @@ public class HuffmanTree {
     private HuffmanNode root;
     private Map<Character, String> huffmanCodes;
     private String originalText;
+    private HuffmanCodec codec;
+    private HuffmanCodec.BitWriter encoded;
 
     public void buildTree(String text) {
         if (text == null || text.isEmpty()) return;
 
         this.originalText = text;
 
-        // 计算字符频率
-        Map<Character, Integer> frequencyMap = new HashMap<>();
-        for (char c : text.toCharArray()) {
-            frequencyMap.put(c, frequencyMap.getOrDefault(c, 0) + 1);
-        }
+        // 计算字符频率（基本类型计数表，大文本并行统计）
+        Map<Character, Integer> frequencyMap = FrequencyCounter.countChars(text).toCharacterMap();
 
         // 创建优先队列
         PriorityQueue<HuffmanNode> queue = new PriorityQueue<>();
@@ -66,19 +65,35 @@ public class HuffmanTree {
         }
 
         root = queue.poll();
+
+        // 只取叶子深度作为码长，由编解码器分配规范编码
+        int[] symbols = new int[frequencyMap.size()];
+        int[] lengths = new int[frequencyMap.size()];
+        int[] count = new int[1];
+        collectCodeLengths(root, 0, symbols, lengths, count);
+        long[] frequencies = new long[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            frequencies[i] = frequencyMap.get((char) symbols[i]);
+        }
+        codec = HuffmanCodec.fromTreeDepths(symbols, lengths, frequencies);
+
         huffmanCodes = new HashMap<>();
-        buildCodes(root, "", huffmanCodes);
+        for (int symbol : symbols) {
+            huffmanCodes.put((char) symbol, codec.getCodeString(symbol));
+        }
+        encoded = codec.encodeChars(text);
     }
 
-    private void buildCodes(HuffmanNode node, String code, Map<Character, String> codes) {
-        if (node == null) return;
-
+    private int collectCodeLengths(HuffmanNode node, int depth, int[] symbols, int[] lengths, int[] count) {
+        if (node == null) return 0;
         if (node.isLeaf()) {
-            codes.put(node.character, code.isEmpty() ? "0" : code);
+            symbols[count[0]] = node.character;
+            lengths[count[0]] = depth;
+            count[0]++;
+            return depth;
         }
-
-        buildCodes(node.left, code + "0", codes);
-        buildCodes(node.right, code + "1", codes);
+        return Math.max(collectCodeLengths(node.left, depth + 1, symbols, lengths, count),
+                collectCodeLengths(node.right, depth + 1, symbols, lengths, count));
     }
 
     public Map<Character, String> getHuffmanCodes() {
@@ -93,13 +108,22 @@ public class HuffmanTree {
         return originalText;
     }
 
+    // 返回实际打包后的比特流
     public String getEncodedText() {
-        if (originalText == null || huffmanCodes == null) return "";
+        if (encoded == null) return "";
+        return encoded.toBitString(Integer.MAX_VALUE);
+    }
 
-        StringBuilder encoded = new StringBuilder();
-        for (char c : originalText.toCharArray()) {
-            encoded.append(huffmanCodes.get(c));
-        }
-        return encoded.toString();
+    public byte[] getEncodedBytes() {
+        return encoded == null ? new byte[0] : encoded.toByteArray();
+    }
+
+    public long getEncodedBitLength() {
+        return encoded == null ? 0 : encoded.getBitLength();
+    }
+
+    public String decode(byte[] data, int length) {
+        if (codec == null) return "";
+        return codec.decodeChars(data, length);
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.datastructure.visualizer.model;
+
+// int 特化的二叉搜索树：节点直接保存 int，比较是基本类型比较而不是 compareTo 虚调用
+public class IntBST implements IntDataStructure {
+    private IntTreeNode root;
+    private int size;
+
+    @Override
+    public void insert(int data) {
+        if (root == null) {
+            root = new IntTreeNode(data);
+            size++;
+            return;
+        }
+
+        IntTreeNode current = root;
+        while (true) {
+            if (data < current.data) {
+                if (current.left == null) {
+                    current.left = new IntTreeNode(data);
+                    size++;
+                    return;
+                }
+                current = current.left;
+            } else if (data > current.data) {
+                if (current.right == null) {
+                    current.right = new IntTreeNode(data);
+                    size++;
+                    return;
+                }
+                current = current.right;
+            } else {
+                return; // 不允许重复值
+            }
+        }
+    }
+
+    @Override
+    public void delete(int data) {
+        IntTreeNode parent = null;
+        IntTreeNode current = root;
+        while (current != null && current.data != data) {
+            parent = current;
+            current = data < current.data ? current.left : current.right;
+        }
+        if (current == null) return;
+
+        // 两个子节点：用右子树最小值替换，再删除该最小节点
+        if (current.left != null && current.right != null) {
+            IntTreeNode minParent = current;
+            IntTreeNode min = current.right;
+            while (min.left != null) {
+                minParent = min;
+                min = min.left;
+            }
+            current.data = min.data;
+            parent = minParent;
+            current = min;
+        }
+
+        IntTreeNode child = current.left != null ? current.left : current.right;
+        if (parent == null) {
+            root = child;
+        } else if (parent.left == current) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+        size--;
+    }
+
+    @Override
+    public boolean search(int data) {
+        IntTreeNode current = root;
+        while (current != null) {
+            if (data == current.data) return true;
+            current = data < current.data ? current.left : current.right;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    public String visualize() {
+        StringBuilder sb = new StringBuilder();
+        inOrderTraversal(root, sb);
+        return "In-order: " + sb.toString();
+    }
+
+    private void inOrderTraversal(IntTreeNode node, StringBuilder sb) {
+        if (node != null) {
+            inOrderTraversal(node.left, sb);
+            sb.append(node.data).append(" ");
+            inOrderTraversal(node.right, sb);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public IntTreeNode getRoot() {
+        return root;
+    }
+}
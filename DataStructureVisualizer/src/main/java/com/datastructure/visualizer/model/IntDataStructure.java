@@ -0,0 +1,12 @@
+package com.datastructure.visualizer.model;
+
+// DataStructure 的 int 特化版本，整数负载不需要装箱
+public interface IntDataStructure {
+    void insert(int data);
+    void delete(int data);
+    boolean search(int data);
+    void clear();
+    String visualize();
+    int size();
+    boolean isEmpty();
+}
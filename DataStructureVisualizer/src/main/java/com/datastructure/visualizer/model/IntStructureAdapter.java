@@ -0,0 +1,58 @@
+package com.datastructure.visualizer.model;
+
+// 把 int 特化结构适配为 DataStructure<String>，供现有控制器和视图使用；
+// 只在界面输入处解析一次字符串，结构内部不再装箱
+public class IntStructureAdapter implements DataStructure<String> {
+    private final IntDataStructure delegate;
+
+    public IntStructureAdapter(IntDataStructure delegate) {
+        this.delegate = delegate;
+    }
+
+    public IntDataStructure getDelegate() {
+        return delegate;
+    }
+
+    private static int parse(String data) {
+        try {
+            return Integer.parseInt(data.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("请输入整数: " + data);
+        }
+    }
+
+    @Override
+    public void insert(String data) {
+        delegate.insert(parse(data));
+    }
+
+    @Override
+    public void delete(String data) {
+        delegate.delete(parse(data));
+    }
+
+    @Override
+    public boolean search(String data) {
+        return delegate.search(parse(data));
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public String visualize() {
+        return delegate.visualize();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+}
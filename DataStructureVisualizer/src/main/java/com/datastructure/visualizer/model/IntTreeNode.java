@@ -0,0 +1,16 @@
+package com.datastructure.visualizer.model;
+
+public class IntTreeNode {
+    public int data;
+    public IntTreeNode left;
+    public IntTreeNode right;
+
+    public IntTreeNode(int data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(data);
+    }
+}
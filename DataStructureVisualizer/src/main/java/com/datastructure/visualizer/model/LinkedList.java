@@ -1,5 +1,14 @@
 package com.datastructure.visualizer.model;
 
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// 链表只维护节点链，不再同步父类的 elements 列表；
+// 可选的哈希多重集索引记录每个值出现的次数，使 search 为 O(1)
 public class LinkedList<T> extends LinearStructure<T> {
     public static class Node<T> {
         public T data;
@@ -11,33 +20,47 @@ public class LinkedList<T> extends LinearStructure<T> {
     }
 
     private Node<T> head;
+    private Node<T> tail;
+    private int size;
+    private final Map<T, Integer> valueCounts;
+    private final List<T> elementsView = new ElementsView();
 
     public LinkedList() {
+        this(false);
+    }
+
+    public LinkedList(boolean indexed) {
         this.head = null;
+        this.tail = null;
+        this.valueCounts = indexed ? new HashMap<>() : null;
     }
 
+    // 通过尾指针 O(1) 追加
     @Override
     public void insert(T data) {
         Node<T> newNode = new Node<>(data);
         if (head == null) {
             head = newNode;
         } else {
-            Node<T> current = head;
-            while (current.next != null) {
-                current = current.next;
-            }
-            current.next = newNode;
+            tail.next = newNode;
+        }
+        tail = newNode;
+        size++;
+        if (valueCounts != null) {
+            valueCounts.merge(data, 1, Integer::sum);
         }
-        elements.add(data);
     }
 
     @Override
     public void delete(T data) {
         if (head == null) return;
+        // 索引中没有该值时无需遍历
+        if (valueCounts != null && !valueCounts.containsKey(data)) return;
 
         if (head.data.equals(data)) {
             head = head.next;
-            elements.remove(data);
+            if (head == null) tail = null;
+            removed(data);
             return;
         }
 
@@ -47,13 +70,24 @@ public class LinkedList<T> extends LinearStructure<T> {
         }
 
         if (current.next != null) {
+            if (current.next == tail) tail = current;
             current.next = current.next.next;
-            elements.remove(data);
+            removed(data);
+        }
+    }
+
+    private void removed(T data) {
+        size--;
+        if (valueCounts != null) {
+            valueCounts.computeIfPresent(data, (key, count) -> count == 1 ? null : count - 1);
         }
     }
 
     @Override
     public boolean search(T data) {
+        if (valueCounts != null) {
+            return valueCounts.containsKey(data);
+        }
         Node<T> current = head;
         while (current != null) {
             if (current.data.equals(data)) {
@@ -67,7 +101,11 @@ public class LinkedList<T> extends LinearStructure<T> {
     @Override
     public void clear() {
         head = null;
-        elements.clear();
+        tail = null;
+        size = 0;
+        if (valueCounts != null) {
+            valueCounts.clear();
+        }
     }
 
     @Override
@@ -85,4 +123,68 @@ public class LinkedList<T> extends LinearStructure<T> {
     public Node<T> getHead() {
         return head;
     }
+
+    public Node<T> getTail() {
+        return tail;
+    }
+
+    public boolean isIndexed() {
+        return valueCounts != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 返回节点链上的只读实时视图，不复制元素
+    @Override
+    public List<T> getElements() {
+        return elementsView;
+    }
+
+    private class ElementsView extends AbstractList<T> {
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            Node<T> current = head;
+            for (int i = 0; i < index; i++) {
+                current = current.next;
+            }
+            return current.data;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // 顺序遍历直接沿 next 前进，避免逐个 get 的 O(n^2)
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private Node<T> next = head;
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public T next() {
+                    if (next == null) throw new NoSuchElementException();
+                    T data = next.data;
+                    next = next.next;
+                    return data;
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.datastructure.visualizer.model;
+
+// BST 结构变化的回调，在修改过程中按发生顺序调用，视图据此只改动受影响的节点
+public interface TreeChangeListener<T extends Comparable<T>> {
+    // node 作为 parent 的左（left 为 true）或右子节点插入；parent 为 null 表示 node 成为根
+    void nodeInserted(TreeNode<T> parent, TreeNode<T> node, boolean left);
+
+    // node 从 parent 下摘除，由 replacement（可以为 null）接替它的位置；parent 为 null 表示 node 是根
+    void nodeRemoved(TreeNode<T> parent, TreeNode<T> node, TreeNode<T> replacement);
+
+    // node 的值被替换（删除有两个子节点的节点时换成后继的值）
+    void valueChanged(TreeNode<T> node);
+}
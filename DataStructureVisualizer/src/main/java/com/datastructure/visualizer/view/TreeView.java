@@ -8,6 +8,9 @@ import javafx.scene.shape.Line;
 import javafx.geometry.Insets;
 import javafx.scene.text.Text;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public class TreeView {
     private VBox root;
     private ComboBox<String> treeType;
@@ -17,6 +20,24 @@ public class TreeView {
     private Label infoLabel;
     private TextArea operationLog;
 
+    // 已布局节点的位置、到子节点的水平间距和来自父节点的连线（根为 null），
+    // 插入、删除时据此只重新布局受影响的子树
+    private static class Slot {
+        final double x;
+        final double y;
+        final double hGap;
+        final Line edge;
+
+        Slot(double x, double y, double hGap, Line edge) {
+            this.x = x;
+            this.y = y;
+            this.hGap = hGap;
+            this.edge = edge;
+        }
+    }
+
+    private final Map<TreeNodeView, Slot> slots = new IdentityHashMap<>();
+
     public TreeView() {
         initialize();
     }
@@ -60,7 +81,7 @@ public class TreeView {
         controlPanel.setStyle("-fx-background-color: #ecf0f1; -fx-border-radius: 5;");
 
         treeType = new ComboBox<>();
-        treeType.getItems().addAll("二叉树", "二叉搜索树", "哈夫曼树");
+        treeType.getItems().addAll("二叉树", "二叉搜索树", "整数BST", "哈夫曼树");
         treeType.setValue("二叉树");
         treeType.setPrefWidth(120);
 
@@ -93,41 +114,109 @@ public class TreeView {
 
     public void updateVisualization(TreeNodeView rootNode) {
         visualizationPane.getChildren().clear();
+        slots.clear();
         if (rootNode != null) {
-            layoutTree(rootNode, 400, 50, 300);
+            layoutTree(rootNode, 400, 50, 300, null, false);
             addNodeToPane(rootNode);
         }
     }
 
-    private void layoutTree(TreeNodeView node, double x, double y, double hGap) {
+    // 把 child 挂到已显示的 parent 下并只布局 child 这棵子树；parent 为 null 时 child 成为根，整体重绘
+    public void insertNode(TreeNodeView parent, TreeNodeView child, boolean left) {
+        Slot parentSlot = parent != null ? slots.get(parent) : null;
+        if (parentSlot == null) {
+            updateVisualization(child);
+            return;
+        }
+        if (left) {
+            parent.setLeft(child);
+        } else {
+            parent.setRight(child);
+        }
+        double childX = left ? parentSlot.x - parentSlot.hGap : parentSlot.x + parentSlot.hGap;
+        double childY = parentSlot.y + 80;
+        Line edge = createEdge(parentSlot.x, parentSlot.y + 20, childX, childY - 20, true);
+        layoutTree(child, childX, childY, parentSlot.hGap / 1.8, edge, true);
+        addNodeToPane(child);
+    }
+
+    // 移除 node，由 replacement（可以为 null，必须是 node 的子节点）接替它的位置：
+    // 只有 replacement 子树需要移动，节点和连线都复用；parent 为 null 时 replacement 成为根
+    public void removeNode(TreeNodeView parent, TreeNodeView node, TreeNodeView replacement) {
+        Slot slot = slots.remove(node);
+        if (slot == null) {
+            return;
+        }
+        visualizationPane.getChildren().remove(node);
+        if (parent != null) {
+            if (parent.getLeft() == node) {
+                parent.setLeft(replacement);
+            } else {
+                parent.setRight(replacement);
+            }
+        }
+        if (replacement == null) {
+            if (slot.edge != null) {
+                visualizationPane.getChildren().remove(slot.edge);
+            }
+            return;
+        }
+        // node 到 replacement 的连线不再需要，父节点到 node 的连线原样留给 replacement
+        Slot replaced = slots.get(replacement);
+        if (replaced != null && replaced.edge != null) {
+            visualizationPane.getChildren().remove(replaced.edge);
+        }
+        layoutTree(replacement, slot.x, slot.y, slot.hGap, slot.edge, true);
+    }
+
+    // 布局以 node 为根的子树；已有连线的子节点复用原来的连线，只更新端点。
+    // incremental 为 true 时画布上已有其他节点，新连线放到最底层，不遮挡节点
+    private void layoutTree(TreeNodeView node, double x, double y, double hGap, Line edge, boolean incremental) {
         if (node == null) return;
 
         node.setLayoutX(x - 20);
         node.setLayoutY(y);
+        slots.put(node, new Slot(x, y, hGap, edge));
 
         if (node.getLeft() != null) {
             double childX = x - hGap;
             double childY = y + 80;
-            layoutTree(node.getLeft(), childX, childY, hGap / 1.8);
-
-            // 绘制连接线
-            Line line = new Line(x, y + 20, childX, childY - 20);
-            line.setStroke(Color.BLACK);
-            line.setStrokeWidth(2);
-            visualizationPane.getChildren().add(line);
+            layoutTree(node.getLeft(), childX, childY, hGap / 1.8,
+                    placeEdge(node.getLeft(), x, y + 20, childX, childY - 20, incremental), incremental);
         }
 
         if (node.getRight() != null) {
             double childX = x + hGap;
             double childY = y + 80;
-            layoutTree(node.getRight(), childX, childY, hGap / 1.8);
+            layoutTree(node.getRight(), childX, childY, hGap / 1.8,
+                    placeEdge(node.getRight(), x, y + 20, childX, childY - 20, incremental), incremental);
+        }
+    }
+
+    private Line placeEdge(TreeNodeView child, double startX, double startY, double endX, double endY,
+                           boolean incremental) {
+        Slot previous = slots.get(child);
+        if (previous == null || previous.edge == null) {
+            return createEdge(startX, startY, endX, endY, incremental);
+        }
+        previous.edge.setStartX(startX);
+        previous.edge.setStartY(startY);
+        previous.edge.setEndX(endX);
+        previous.edge.setEndY(endY);
+        return previous.edge;
+    }
 
-            // 绘制连接线
-            Line line = new Line(x, y + 20, childX, childY - 20);
-            line.setStroke(Color.BLACK);
-            line.setStrokeWidth(2);
+    // 绘制连接线
+    private Line createEdge(double startX, double startY, double endX, double endY, boolean incremental) {
+        Line line = new Line(startX, startY, endX, endY);
+        line.setStroke(Color.BLACK);
+        line.setStrokeWidth(2);
+        if (incremental) {
+            visualizationPane.getChildren().add(0, line);
+        } else {
             visualizationPane.getChildren().add(line);
         }
+        return line;
     }
 
     private void addNodeToPane(TreeNodeView node) {
@@ -58,6 +58,11 @@ public class TreeNodeView extends StackPane {
 
     // Getters and setters
     public String getValue() { return value; }
+    // 节点复用时只换显示的值
+    public void setValue(String value) {
+        this.value = value;
+        text.setText(value);
+    }
     public TreeNodeView getLeft() { return left; }
     public void setLeft(TreeNodeView left) { this.left = left; }
     public TreeNodeView getRight() { return right; }
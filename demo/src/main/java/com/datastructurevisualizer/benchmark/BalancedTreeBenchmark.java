@@ -0,0 +1,194 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.AVLTree;
+import com.datastructurevisualizer.model.BTree;
+import com.datastructurevisualizer.model.BatchOp;
+import com.datastructurevisualizer.model.RedBlackTree;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+// 平衡树基准：AVL 树、红黑树、int[] 块存储的 B+ 树（两种阶数）和 java.util.TreeSet，
+// 比较逐个插入的建树时间、旋转/分裂次数、树高和命中/未命中各半的查找吞吐量，最后测逐个删除一半键。
+// AVL 的批量重建（applyBatch）单独列出作为参照。
+// 运行: java ... BalancedTreeBenchmark [规模]
+public class BalancedTreeBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(2, 5);
+    private static final int SMALL_ORDER = 8;
+    private static final int LARGE_ORDER = 64;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] keys = randomKeys(count, 42);
+        int[] probes = probeKeys(keys, 7);
+
+        System.out.println("=== 平衡树基准测试 ===");
+        System.out.printf("插入 %d 个随机键:%n", count);
+        HARNESS.report("  AVL", () -> avlBuild(keys).size());
+        HARNESS.report("  AVL(批量重建)", () -> avlBulkBuild(keys).size());
+        HARNESS.report("  红黑树", () -> redBlackBuild(keys).size());
+        HARNESS.report("  B+树 " + SMALL_ORDER + " 阶", () -> bTreeBuild(SMALL_ORDER, keys).size());
+        HARNESS.report("  B+树 " + LARGE_ORDER + " 阶", () -> bTreeBuild(LARGE_ORDER, keys).size());
+        HARNESS.report("  TreeSet", () -> treeSetBuild(keys).size());
+
+        AVLTree avl = avlBuild(keys);
+        RedBlackTree redBlack = redBlackBuild(keys);
+        BTree small = bTreeBuild(SMALL_ORDER, keys);
+        BTree large = bTreeBuild(LARGE_ORDER, keys);
+        TreeSet<Integer> treeSet = treeSetBuild(keys);
+
+        System.out.println("结构:");
+        System.out.printf("  AVL: 高度 %d, 旋转 %d%n", avl.height(), avl.getRotations());
+        System.out.printf("  红黑树: 高度 %d, 黑高 %d, 旋转 %d, 染色 %d%n",
+                redBlack.height(), redBlack.blackHeight(), redBlack.getRotations(), redBlack.getRecolors());
+        describe("  B+树 " + SMALL_ORDER + " 阶", small);
+        describe("  B+树 " + LARGE_ORDER + " 阶", large);
+
+        System.out.printf("查找 %d 次 (命中/未命中各半):%n", probes.length);
+        HARNESS.reportThroughput("  AVL", probes.length, () -> {
+            long hits = 0;
+            for (int key : probes) {
+                if (avl.search(key)) hits++;
+            }
+            return hits;
+        });
+        HARNESS.reportThroughput("  红黑树", probes.length, () -> {
+            long hits = 0;
+            for (int key : probes) {
+                if (redBlack.search(key)) hits++;
+            }
+            return hits;
+        });
+        HARNESS.reportThroughput("  B+树 " + SMALL_ORDER + " 阶", probes.length, () -> lookup(small, probes));
+        HARNESS.reportThroughput("  B+树 " + LARGE_ORDER + " 阶", probes.length, () -> lookup(large, probes));
+        HARNESS.reportThroughput("  TreeSet", probes.length, () -> {
+            long hits = 0;
+            for (int key : probes) {
+                if (treeSet.contains(key)) hits++;
+            }
+            return hits;
+        });
+
+        // 删除会改变树，每轮都在新建的树上删除，计时只包含删除本身
+        int[] victims = Arrays.copyOf(keys, count / 2);
+        System.out.printf("删除 %d 个键:%n", victims.length);
+        HARNESS.reportPrepared("  AVL", () -> {
+            AVLTree tree = avlBuild(keys);
+            return () -> {
+                long removed = 0;
+                for (int key : victims) {
+                    if (tree.delete(key)) removed++;
+                }
+                return removed;
+            };
+        });
+        HARNESS.reportPrepared("  AVL(批量重建)", () -> {
+            AVLTree tree = avlBulkBuild(keys);
+            return () -> tree.applyBatch(BatchOp.deletes(victims));
+        });
+        HARNESS.reportPrepared("  红黑树", () -> {
+            RedBlackTree tree = redBlackBuild(keys);
+            return () -> {
+                long removed = 0;
+                for (int key : victims) {
+                    if (tree.delete(key)) removed++;
+                }
+                return removed;
+            };
+        });
+        HARNESS.reportPrepared("  B+树 " + SMALL_ORDER + " 阶", () -> bTreeDelete(bTreeBuild(SMALL_ORDER, keys), victims));
+        HARNESS.reportPrepared("  B+树 " + LARGE_ORDER + " 阶", () -> bTreeDelete(bTreeBuild(LARGE_ORDER, keys), victims));
+        HARNESS.reportPrepared("  TreeSet", () -> {
+            TreeSet<Integer> set = treeSetBuild(keys);
+            return () -> {
+                long removed = 0;
+                for (int key : victims) {
+                    if (set.remove(key)) removed++;
+                }
+                return removed;
+            };
+        });
+    }
+
+    private static int[] randomKeys(int count, long seed) {
+        Random random = new Random(seed);
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt();
+        }
+        return keys;
+    }
+
+    // 一半取自已插入的键，一半是新的随机数（几乎都不在树中）
+    private static int[] probeKeys(int[] keys, long seed) {
+        Random random = new Random(seed);
+        int[] probes = new int[keys.length];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = (i & 1) == 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+        }
+        return probes;
+    }
+
+    private static AVLTree avlBuild(int[] keys) {
+        AVLTree tree = new AVLTree();
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private static AVLTree avlBulkBuild(int[] keys) {
+        AVLTree tree = new AVLTree();
+        tree.applyBatch(BatchOp.inserts(keys));
+        return tree;
+    }
+
+    private static RedBlackTree redBlackBuild(int[] keys) {
+        RedBlackTree tree = new RedBlackTree();
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private static BTree bTreeBuild(int order, int[] keys) {
+        BTree tree = new BTree(order);
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private static TreeSet<Integer> treeSetBuild(int[] keys) {
+        TreeSet<Integer> set = new TreeSet<Integer>();
+        for (int key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    private static long lookup(BTree tree, int[] probes) {
+        long hits = 0;
+        for (int key : probes) {
+            if (tree.contains(key)) hits++;
+        }
+        return hits;
+    }
+
+    private static BenchmarkHarness.Workload bTreeDelete(BTree tree, int[] victims) {
+        return () -> {
+            long removed = 0;
+            for (int key : victims) {
+                if (tree.delete(key)) removed++;
+            }
+            return removed;
+        };
+    }
+
+    private static void describe(String name, BTree tree) {
+        System.out.printf("%s: 高度 %d, 节点 %d, 分裂 %d, 平均每节点 %.1f 个键, 占用 %.1f MB%n",
+                name, tree.height(), tree.getNodeCount(), tree.getSplits(),
+                (double) tree.size() / tree.getNodeCount(), tree.memoryBytes() / (1024.0 * 1024.0));
+    }
+}
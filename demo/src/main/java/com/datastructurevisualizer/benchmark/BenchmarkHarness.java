@@ -0,0 +1,99 @@
+package com.datastructurevisualizer.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// 各基准共用的计时：每项先预热 warmupRounds 轮，再测 measureRounds 轮，取中位数和最快一轮。
+// 每轮的返回值累加成 checksum 一起打印，JIT 不能把没用到的结果优化掉
+final class BenchmarkHarness {
+    interface Workload {
+        long run();
+    }
+
+    interface Setup {
+        Workload prepare();
+    }
+
+    // 自己计时的一轮（例如多线程负载），index 从 0 开始，预热轮也计数
+    interface Round<R, E extends Exception> {
+        R run(int index) throws E;
+    }
+
+    // 一项测量的结果，时间单位为纳秒
+    static final class Timing {
+        final long median;
+        final long fastest;
+        final long checksum;
+
+        private Timing(long median, long fastest, long checksum) {
+            this.median = median;
+            this.fastest = fastest;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("中位数 %.2f ms (最快 %.2f ms)", median / 1_000_000.0, fastest / 1_000_000.0);
+        }
+    }
+
+    private final int warmupRounds;
+    private final int measureRounds;
+
+    BenchmarkHarness(int warmupRounds, int measureRounds) {
+        this.warmupRounds = warmupRounds;
+        this.measureRounds = measureRounds;
+    }
+
+    int getWarmupRounds() {
+        return warmupRounds;
+    }
+
+    // 每轮计时前先用 setup 准备好数据，准备时间不计入
+    Timing measure(Setup setup) {
+        long checksum = 0;
+        for (int i = 0; i < warmupRounds; i++) {
+            checksum += setup.prepare().run();
+        }
+        long[] times = new long[measureRounds];
+        for (int i = 0; i < measureRounds; i++) {
+            Workload workload = setup.prepare();
+            long start = System.nanoTime();
+            checksum += workload.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return new Timing(times[measureRounds / 2], times[0], checksum);
+    }
+
+    // 预热后返回用时处于中位数的那一轮的结果
+    <R, E extends Exception> R medianRound(Round<R, E> round, ToLongFunction<R> elapsedNanos) throws E {
+        for (int i = 0; i < warmupRounds; i++) {
+            round.run(i);
+        }
+        List<R> results = new ArrayList<R>(measureRounds);
+        for (int i = 0; i < measureRounds; i++) {
+            results.add(round.run(warmupRounds + i));
+        }
+        results.sort(Comparator.comparingLong(elapsedNanos));
+        return results.get(measureRounds / 2);
+    }
+
+    void report(String name, Workload workload) {
+        reportPrepared(name, () -> workload);
+    }
+
+    void reportPrepared(String name, Setup setup) {
+        Timing timing = measure(setup);
+        System.out.printf("%s: %s [checksum %d]%n", name, timing, timing.checksum);
+    }
+
+    void reportThroughput(String name, int operations, Workload workload) {
+        Timing timing = measure(() -> workload);
+        System.out.printf("%s: 中位数 %.2f ms, %.2f 百万次/秒 [checksum %d]%n",
+                name, timing.median / 1_000_000.0, operations / (timing.median / 1_000.0), timing.checksum);
+    }
+}
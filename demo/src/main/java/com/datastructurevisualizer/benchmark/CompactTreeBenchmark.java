@@ -0,0 +1,176 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.AVLTree;
+import com.datastructurevisualizer.model.BST;
+import com.datastructurevisualizer.model.CompactTree;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// 节点存储基准：对象节点的 BST / AVLTree 与 IntNodePool 并行数组存储的 CompactTree（不平衡 / AVL）
+// 在同样的随机键上比较建树、查找（命中/未命中各半）和删除一半键的用时，以及建成后的堆占用。
+// 对象树的占用由建树前后 GC 后的堆使用量之差估算，CompactTree 同时列出节点数组的大小；
+// CompactTree 建成后与排好序的去重键逐一比对
+// 运行: java ... CompactTreeBenchmark [规模]
+public class CompactTreeBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(2, 5);
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] keys = randomKeys(count, 42);
+        int[] probes = probeKeys(keys, 7);
+
+        System.out.println("=== 紧凑树基准测试 ===");
+        checkContents(compactBuild(false, keys), keys);
+        checkContents(compactBuild(true, keys), keys);
+
+        System.out.printf("插入 %d 个随机键:%n", count);
+        HARNESS.report("  BST(对象节点)", () -> bstBuild(keys).size());
+        HARNESS.report("  CompactTree", () -> compactBuild(false, keys).size());
+        HARNESS.report("  AVL(对象节点)", () -> avlBuild(keys).size());
+        HARNESS.report("  CompactTree(AVL)", () -> compactBuild(true, keys).size());
+
+        System.out.println("堆占用（估算）:");
+        long base = usedHeap();
+        BST bst = bstBuild(keys);
+        long bstBytes = usedHeap() - base;
+        AVLTree avl = avlBuild(keys);
+        long avlBytes = usedHeap() - base - bstBytes;
+        CompactTree compact = compactBuild(false, keys);
+        long compactBytes = usedHeap() - base - bstBytes - avlBytes;
+        CompactTree compactAvl = compactBuild(true, keys);
+        long compactAvlBytes = usedHeap() - base - bstBytes - avlBytes - compactBytes;
+        describe("  BST(对象节点)", bst.size(), bst.height(), bstBytes);
+        describe("  AVL(对象节点)", avl.size(), avl.height(), avlBytes);
+        describe("  CompactTree", compact.size(), compact.height(), compactBytes);
+        describe("  CompactTree(AVL)", compactAvl.size(), compactAvl.height(), compactAvlBytes);
+        System.out.printf("  CompactTree 节点数组 %.1f MB (容量 %d)%n",
+                compact.getPool().memoryBytes() / (1024.0 * 1024.0), compact.getPool().capacity());
+
+        System.out.printf("查找 %d 次 (命中/未命中各半):%n", probes.length);
+        HARNESS.reportThroughput("  BST(对象节点)", probes.length, () -> {
+            long hits = 0;
+            for (int key : probes) {
+                if (bst.search(key)) hits++;
+            }
+            return hits;
+        });
+        HARNESS.reportThroughput("  CompactTree", probes.length, () -> lookup(compact, probes));
+        HARNESS.reportThroughput("  AVL(对象节点)", probes.length, () -> {
+            long hits = 0;
+            for (int key : probes) {
+                if (avl.search(key)) hits++;
+            }
+            return hits;
+        });
+        HARNESS.reportThroughput("  CompactTree(AVL)", probes.length, () -> lookup(compactAvl, probes));
+
+        // 删除会改变树，每轮都在新建的树上删除，计时只包含删除本身
+        int[] victims = Arrays.copyOf(keys, count / 2);
+        System.out.printf("删除 %d 个键:%n", victims.length);
+        HARNESS.reportPrepared("  BST(对象节点)", () -> {
+            BST tree = bstBuild(keys);
+            return () -> {
+                long removed = 0;
+                for (int key : victims) {
+                    if (tree.delete(key)) removed++;
+                }
+                return removed;
+            };
+        });
+        HARNESS.reportPrepared("  CompactTree", () -> compactDelete(compactBuild(false, keys), victims));
+        HARNESS.reportPrepared("  AVL(对象节点)", () -> {
+            AVLTree tree = avlBuild(keys);
+            return () -> {
+                long removed = 0;
+                for (int key : victims) {
+                    if (tree.delete(key)) removed++;
+                }
+                return removed;
+            };
+        });
+        HARNESS.reportPrepared("  CompactTree(AVL)", () -> compactDelete(compactBuild(true, keys), victims));
+    }
+
+    private static int[] randomKeys(int count, long seed) {
+        Random random = new Random(seed);
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt();
+        }
+        return keys;
+    }
+
+    // 一半取自已插入的键，一半是新的随机数（几乎都不在树中）
+    private static int[] probeKeys(int[] keys, long seed) {
+        Random random = new Random(seed);
+        int[] probes = new int[keys.length];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = (i & 1) == 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+        }
+        return probes;
+    }
+
+    private static BST bstBuild(int[] keys) {
+        BST tree = new BST();
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private static AVLTree avlBuild(int[] keys) {
+        AVLTree tree = new AVLTree();
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private static CompactTree compactBuild(boolean balanced, int[] keys) {
+        CompactTree tree = new CompactTree(balanced, keys.length);
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private static long lookup(CompactTree tree, int[] probes) {
+        long hits = 0;
+        for (int key : probes) {
+            if (tree.contains(key)) hits++;
+        }
+        return hits;
+    }
+
+    private static BenchmarkHarness.Workload compactDelete(CompactTree tree, int[] victims) {
+        return () -> {
+            long removed = 0;
+            for (int key : victims) {
+                if (tree.delete(key)) removed++;
+            }
+            return removed;
+        };
+    }
+
+    private static void checkContents(CompactTree tree, int[] keys) {
+        int[] expected = Arrays.stream(keys).sorted().distinct().toArray();
+        if (!Arrays.equals(tree.toSortedArray(), expected)) {
+            throw new IllegalStateException((tree.isBalanced() ? "CompactTree(AVL)" : "CompactTree")
+                    + " 的中序结果与插入的键不一致");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void describe(String name, int size, int height, long bytes) {
+        System.out.printf("%s: %d 个节点, 高度 %d, 约 %.1f MB, 每节点约 %.1f 字节%n",
+                name, size, height, bytes / (1024.0 * 1024.0), (double) bytes / Math.max(1, size));
+    }
+}
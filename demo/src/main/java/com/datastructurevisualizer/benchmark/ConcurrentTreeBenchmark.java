@@ -0,0 +1,67 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.BST;
+import com.datastructurevisualizer.model.ConcurrentBST;
+import com.datastructurevisualizer.model.ConcurrentWorkload;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// 并发有序集合基准：同一负载下细粒度锁的 ConcurrentBST、整树一把锁的 BST
+// 和 java.util.concurrent.ConcurrentSkipListSet 的吞吐量随线程数（虚拟线程）的变化，
+// 分读多写少（90% 查找）和读写各半两种比例。每个线程数都在新填充的集合上测，预热一轮后取中位数。
+// 运行: java ... ConcurrentTreeBenchmark [每线程操作数] [最大线程数] [键范围]
+public class ConcurrentTreeBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(1, 3);
+
+    private interface TargetFactory {
+        ConcurrentWorkload.Target create();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        int keyRange = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 16;
+
+        System.out.println("=== 并发有序集合基准测试 ===");
+        System.out.printf("每线程 %d 次操作, 键范围 %d, CPU 核数 %d%n",
+                operations, keyRange, Runtime.getRuntime().availableProcessors());
+        for (int searchPercent : new int[]{90, 50}) {
+            ConcurrentWorkload workload = new ConcurrentWorkload(operations, keyRange, searchPercent);
+            System.out.printf("查找 %d%%, 插入/删除各 %d%%:%n", searchPercent, (100 - searchPercent) / 2);
+            report("  细粒度锁 BST", workload, maxThreads,
+                    () -> ConcurrentWorkload.target(new ConcurrentBST()));
+            report("  整树一把锁 BST", workload, maxThreads,
+                    () -> ConcurrentWorkload.lockedTarget(new BST()));
+            report("  ConcurrentSkipListSet", workload, maxThreads, ConcurrentTreeBenchmark::skipListTarget);
+        }
+    }
+
+    private static ConcurrentWorkload.Target skipListTarget() {
+        ConcurrentSkipListSet<Integer> set = new ConcurrentSkipListSet<Integer>();
+        return new ConcurrentWorkload.Target() {
+            @Override public boolean insert(int value) { return set.add(value); }
+            @Override public boolean search(int value) { return set.contains(value); }
+            @Override public boolean delete(int value) { return set.remove(value); }
+            @Override public long getContentions() { return 0; }
+        };
+    }
+
+    private static void report(String name, ConcurrentWorkload workload, int maxThreads,
+                               TargetFactory factory) throws InterruptedException {
+        System.out.println(name + ":");
+        for (int threads : ConcurrentWorkload.threadCounts(maxThreads)) {
+            // 轮次编号同时作为填充和负载的随机种子
+            ConcurrentWorkload.Result median = HARNESS.medianRound(
+                    round -> measureOnce(workload, factory, threads, round), result -> result.elapsedNanos);
+            System.out.println("    " + median);
+        }
+    }
+
+    private static ConcurrentWorkload.Result measureOnce(ConcurrentWorkload workload, TargetFactory factory,
+                                                         int threads, long seed) throws InterruptedException {
+        ConcurrentWorkload.Target target = factory.create();
+        workload.prefill(target, seed);
+        return workload.run(target, threads, seed);
+    }
+}
@@ -0,0 +1,158 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.IntHashMap;
+
+import java.util.HashMap;
+import java.util.Random;
+
+// 哈希表性能基准：插入、命中/未命中各半的查找、插入删除混合三种负载，
+// 对比开放定址的 IntHashMap（线性探测、Robin Hood）与 java.util.HashMap<Integer,Integer>。
+// 最后单独测一次逐个插入时最慢的单次 put，看渐进扩容是否消除了扩容时的停顿。
+// 运行: java ... HashMapBenchmark [规模]
+public class HashMapBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 5);
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] keys = randomKeys(count, 42);
+        int[] probes = probeKeys(keys, 7);
+
+        System.out.println("=== 哈希表基准测试 ===");
+        System.out.printf("插入 %d 个随机键:%n", count);
+        HARNESS.report("  HashMap", () -> hashMapInsert(keys));
+        HARNESS.report("  线性探测", () -> intMapInsert(new IntHashMap(IntHashMap.Probing.LINEAR), keys));
+        HARNESS.report("  Robin Hood", () -> intMapInsert(new IntHashMap(IntHashMap.Probing.ROBIN_HOOD), keys));
+
+        System.out.printf("查找 %d 次 (命中/未命中各半):%n", probes.length);
+        HashMap<Integer, Integer> hashMap = new HashMap<Integer, Integer>();
+        for (int key : keys) {
+            hashMap.put(key, key);
+        }
+        IntHashMap linear = filled(IntHashMap.Probing.LINEAR, keys);
+        IntHashMap robinHood = filled(IntHashMap.Probing.ROBIN_HOOD, keys);
+        HARNESS.report("  HashMap", () -> hashMapLookup(hashMap, probes));
+        HARNESS.report("  线性探测", () -> intMapLookup(linear, probes));
+        HARNESS.report("  Robin Hood", () -> intMapLookup(robinHood, probes));
+
+        System.out.printf("插入删除混合 %d 次:%n", count);
+        HARNESS.report("  HashMap", () -> hashMapMixed(keys));
+        HARNESS.report("  线性探测", () -> intMapMixed(new IntHashMap(IntHashMap.Probing.LINEAR), keys));
+        HARNESS.report("  Robin Hood", () -> intMapMixed(new IntHashMap(IntHashMap.Probing.ROBIN_HOOD), keys));
+
+        System.out.printf("逐个插入 %d 个键时最慢的单次 put:%n", count);
+        reportPause("  HashMap", keys, null);
+        reportPause("  线性探测", keys, IntHashMap.Probing.LINEAR);
+        reportPause("  Robin Hood", keys, IntHashMap.Probing.ROBIN_HOOD);
+
+        System.out.println();
+        System.out.print(linear.getStatistics());
+        System.out.print(robinHood.getStatistics());
+    }
+
+    private static int[] randomKeys(int count, long seed) {
+        Random random = new Random(seed);
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt();
+        }
+        return keys;
+    }
+
+    // 一半取自已插入的键，一半是新的随机数（几乎都不在表中）
+    private static int[] probeKeys(int[] keys, long seed) {
+        Random random = new Random(seed);
+        int[] probes = new int[keys.length];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = (i & 1) == 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+        }
+        return probes;
+    }
+
+    private static IntHashMap filled(IntHashMap.Probing probing, int[] keys) {
+        IntHashMap map = new IntHashMap(probing);
+        intMapInsert(map, keys);
+        return map;
+    }
+
+    private static long hashMapInsert(int[] keys) {
+        HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
+        for (int key : keys) {
+            map.put(key, key);
+        }
+        return map.size();
+    }
+
+    private static long intMapInsert(IntHashMap map, int[] keys) {
+        for (int key : keys) {
+            map.put(key, key);
+        }
+        return map.size();
+    }
+
+    private static long hashMapLookup(HashMap<Integer, Integer> map, int[] probes) {
+        long checksum = 0;
+        for (int key : probes) {
+            Integer value = map.get(key);
+            checksum += value == null ? -1 : value;
+        }
+        return checksum;
+    }
+
+    private static long intMapLookup(IntHashMap map, int[] probes) {
+        long checksum = 0;
+        for (int key : probes) {
+            checksum += map.get(key, -1);
+        }
+        return checksum;
+    }
+
+    // 键的范围只有规模的一半，插入、删除各约一半，表大小在稳定值附近反复扩容前后的区间里
+    private static long hashMapMixed(int[] keys) {
+        HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
+        int range = Math.max(1, keys.length / 2);
+        long checksum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int key = Math.floorMod(keys[i], range);
+            if ((keys[i] & 1) == 0) {
+                map.put(key, i);
+            } else if (map.remove(key) != null) {
+                checksum++;
+            }
+        }
+        return checksum + map.size();
+    }
+
+    private static long intMapMixed(IntHashMap map, int[] keys) {
+        int range = Math.max(1, keys.length / 2);
+        long checksum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int key = Math.floorMod(keys[i], range);
+            if ((keys[i] & 1) == 0) {
+                map.put(key, i);
+            } else if (map.remove(key)) {
+                checksum++;
+            }
+        }
+        return checksum + map.size();
+    }
+
+    // 每次 put 单独计时，取预热后最后一轮的最大值；probing 为 null 时测 HashMap
+    private static void reportPause(String name, int[] keys, IntHashMap.Probing probing) {
+        long worst = 0;
+        for (int round = 0; round <= HARNESS.getWarmupRounds(); round++) {
+            worst = 0;
+            HashMap<Integer, Integer> hashMap = probing == null ? new HashMap<Integer, Integer>() : null;
+            IntHashMap intMap = probing == null ? null : new IntHashMap(probing);
+            for (int key : keys) {
+                long start = System.nanoTime();
+                if (hashMap != null) {
+                    hashMap.put(key, key);
+                } else {
+                    intMap.put(key, key);
+                }
+                worst = Math.max(worst, System.nanoTime() - start);
+            }
+        }
+        System.out.printf("%s: 最慢 %.3f ms%n", name, worst / 1_000_000.0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.HuffmanTree;
+import com.datastructurevisualizer.model.IntHeap;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// 哈夫曼合并阶段的优先队列对比：java.util.PriorityQueue 与基本类型的 IntHeap。
+// 先只比较队列本身（按频率反复取出两个最小值再放回和），再比较完整的 HuffmanTree.buildTree。
+// 运行: java ... HuffmanQueueBenchmark [字符种类数] [文本长度]
+public class HuffmanQueueBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 5);
+
+    public static void main(String[] args) {
+        int symbols = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random random = new Random(42);
+        // 频率大致服从长尾分布，和真实文本一样有大量低频字符
+        int[] frequencies = new int[symbols];
+        for (int i = 0; i < symbols; i++) {
+            frequencies[i] = 1 + (int) (1_000_000 / (1.0 + i + random.nextInt(16)));
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            int index = (int) Math.min(symbols - 1, Math.abs(random.nextGaussian()) * symbols / 3);
+            chars[i] = (char) ('一' + index % 20_000 + (index / 20_000) * 0x100);
+        }
+        String text = new String(chars);
+
+        System.out.printf("=== 哈夫曼合并队列基准测试: %d 种频率 ===%n", symbols);
+        HARNESS.report("PriorityQueue<Integer> 合并", () -> {
+            PriorityQueue<Integer> queue = new PriorityQueue<>();
+            for (int frequency : frequencies) {
+                queue.offer(frequency);   // 自动装箱
+            }
+            long total = 0;
+            while (queue.size() > 1) {
+                int sum = queue.poll() + queue.poll();
+                total += sum;
+                queue.offer(sum);
+            }
+            return total;
+        });
+        HARNESS.report("IntHeap 合并 (heapify)", () -> {
+            IntHeap heap = new IntHeap();
+            heap.heapify(frequencies);
+            long total = 0;
+            while (heap.size() > 1) {
+                int sum = heap.poll() + heap.poll();
+                total += sum;
+                heap.insert(sum);
+            }
+            return total;
+        });
+        HARNESS.report("IntHeap(4叉) 合并 (heapify)", () -> {
+            IntHeap heap = new IntHeap(4);
+            heap.heapify(frequencies);
+            long total = 0;
+            while (heap.size() > 1) {
+                int sum = heap.poll() + heap.poll();
+                total += sum;
+                heap.insert(sum);
+            }
+            return total;
+        });
+
+        System.out.printf("=== HuffmanTree.buildTree: %d 个字符 ===%n", length);
+        for (HuffmanTree.QueueKind kind : HuffmanTree.QueueKind.values()) {
+            HARNESS.report("buildTree " + kind, () -> {
+                HuffmanTree tree = new HuffmanTree();
+                tree.setQueueKind(kind);
+                tree.buildTree(text);
+                return tree.getEncodedBitLength();
+            });
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.LinkedList;
+
+import java.util.Random;
+
+// 链表性能基准：尾部追加为主的负载和随机位置插入/删除负载，
+// 对比带检查点索引的链表与普通单链表。运行: java ... LinkedListBenchmark [规模]
+public class LinkedListBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(3, 5);
+
+    public static void main(String[] args) {
+        int appendCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int randomCount = Math.min(appendCount, 50_000);
+
+        System.out.println("=== 链表基准测试 ===");
+        System.out.printf("尾部追加 %d 个节点:%n", appendCount);
+        HARNESS.report("  带索引", () -> appendWorkload(new LinkedList(true), appendCount));
+        HARNESS.report("  无索引", () -> appendWorkload(new LinkedList(false), appendCount));
+
+        System.out.printf("随机位置插入/删除 %d 次 (初始 %d 个节点):%n", randomCount, randomCount);
+        HARNESS.report("  带索引", () -> randomWorkload(new LinkedList(true), randomCount));
+        HARNESS.report("  无索引", () -> randomWorkload(new LinkedList(false), randomCount));
+    }
+
+    private static long appendWorkload(LinkedList list, int count) {
+        for (int i = 0; i < count; i++) {
+            list.insert(i, list.getSize());
+        }
+        return list.getSize();
+    }
+
+    // 先追加 count 个节点，再做 count 次随机位置操作（插入、删除、读取各约三分之一）
+    private static long randomWorkload(LinkedList list, int count) {
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            list.insert(i, list.getSize());
+        }
+        long checksum = 0;
+        for (int i = 0; i < count; i++) {
+            int op = random.nextInt(3);
+            if (op == 0) {
+                list.insert(i, random.nextInt(list.getSize() + 1));
+            } else if (op == 1 && !list.isEmpty()) {
+                list.delete(random.nextInt(list.getSize()));
+            } else if (!list.isEmpty()) {
+                checksum += list.get(random.nextInt(list.getSize())).data;
+            }
+        }
+        return checksum + list.getSize();
+    }
+}
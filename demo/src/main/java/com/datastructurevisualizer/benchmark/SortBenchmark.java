@@ -0,0 +1,85 @@
+package com.datastructurevisualizer.benchmark;
+
+import com.datastructurevisualizer.model.ArraySorter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// 排序基准：ArraySorter 的各个算法和 Arrays.sort / Arrays.parallelSort 在不同规模的随机 int 数组上的用时，
+// 同时列出比较、交换和写入次数。插入排序只测到 INSERTION_LIMIT 个元素。
+// 每轮在原始数据的副本上排序，复制不计入用时；排序结果都会检查
+// 运行: java ... SortBenchmark [规模1 规模2 ...]
+public class SortBenchmark {
+    private static final BenchmarkHarness HARNESS = new BenchmarkHarness(1, 3);
+    private static final int INSERTION_LIMIT = 100_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10_000, 100_000, 1_000_000, 10_000_000};
+
+        System.out.println("=== 排序基准测试 ===");
+        System.out.printf("CPU 核数 %d%n", Runtime.getRuntime().availableProcessors());
+        for (int size : sizes) {
+            int[] data = randomValues(size, 42);
+            System.out.printf("%d 个随机数:%n", size);
+            for (ArraySorter.Algorithm algorithm : ArraySorter.Algorithm.values()) {
+                if (algorithm.isQuadratic() && size > INSERTION_LIMIT) {
+                    System.out.printf("  %s: 跳过（超过 %d 个元素）%n", algorithm.getLabel(), INSERTION_LIMIT);
+                    continue;
+                }
+                report(algorithm, data);
+            }
+            reportBaseline("  Arrays.sort", data, false);
+            reportBaseline("  Arrays.parallelSort", data, true);
+        }
+    }
+
+    private static int[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+
+    // 操作次数每轮相同，取最后一轮的。上一轮的结果在准备下一轮时检查，检查不计入用时
+    private static void report(ArraySorter.Algorithm algorithm, int[] data) {
+        int[][] sorted = new int[1][];
+        ArraySorter.Result[] last = new ArraySorter.Result[1];
+        BenchmarkHarness.Timing timing = HARNESS.measure(() -> {
+            checkSorted(algorithm.getLabel(), sorted[0]);
+            int[] copy = data.clone();
+            sorted[0] = copy;
+            return () -> {
+                last[0] = ArraySorter.sort(copy, algorithm);
+                return last[0].compares;
+            };
+        });
+        checkSorted(algorithm.getLabel(), sorted[0]);
+        System.out.printf("  %s: %s, 比较 %d, 交换 %d, 写入 %d%n",
+                algorithm.getLabel(), timing, last[0].compares, last[0].swaps, last[0].writes);
+    }
+
+    private static void checkSorted(String name, int[] values) {
+        if (values != null && !ArraySorter.isSorted(values, values.length)) {
+            throw new IllegalStateException(name + " 的结果没有排好序");
+        }
+    }
+
+    private static void reportBaseline(String name, int[] data, boolean parallel) {
+        BenchmarkHarness.Timing timing = HARNESS.measure(() -> {
+            int[] copy = data.clone();
+            return () -> {
+                if (parallel) {
+                    Arrays.parallelSort(copy);
+                } else {
+                    Arrays.sort(copy);
+                }
+                return copy.length;
+            };
+        });
+        System.out.printf("%s: %s%n", name, timing);
+    }
+}
@@ -2,11 +2,17 @@ package com.datastructurevisualizer.controller;
 
 import com.datastructurevisualizer.model.ArchiveManager;
 import com.datastructurevisualizer.model.ArrayList;
+import com.datastructurevisualizer.model.ArraySorter;
+import com.datastructurevisualizer.model.BatchOp;
+import com.datastructurevisualizer.model.IntHashMap;
+import com.datastructurevisualizer.model.JournaledArchive;
 import com.datastructurevisualizer.model.LinkedList;
 import com.datastructurevisualizer.model.Stack;
 import com.datastructurevisualizer.view.components.LinearStructureView;
+import com.datastructurevisualizer.view.components.RenderScheduler;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -15,13 +21,17 @@ import javafx.util.Duration;
 
 import java.net.URL;
 import java.util.List;
+import java.util.Random;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
 
 public class LinearStructureController implements Initializable {
 
     @FXML private Pane listCanvas;
     @FXML private Pane stackCanvas;
     @FXML private Pane arrayCanvas;
+    @FXML private Pane hashCanvas;
+    @FXML private Pane sortCanvas;
 
     // 链表控件
     @FXML private TextField listValueField;
@@ -29,6 +39,8 @@ public class LinearStructureController implements Initializable {
     @FXML private Button createListBtn;
     @FXML private Button insertListBtn;
     @FXML private Button deleteListBtn;
+    @FXML private TextField listBatchField;
+    @FXML private Button batchListBtn;
     @FXML private TextArea listOutput;
 
     // 栈控件
@@ -37,6 +49,8 @@ public class LinearStructureController implements Initializable {
     @FXML private Button createStackBtn;
     @FXML private Button pushStackBtn;
     @FXML private Button popStackBtn;
+    @FXML private TextField stackBatchField;
+    @FXML private Button batchPushStackBtn;
     @FXML private TextArea stackOutput;
 
     // 顺序表控件
@@ -45,6 +59,8 @@ public class LinearStructureController implements Initializable {
     @FXML private Button createArrayBtn;
     @FXML private Button insertArrayBtn;
     @FXML private Button deleteArrayBtn;
+    @FXML private TextField arrayBatchField;
+    @FXML private Button batchArrayBtn;
     @FXML private TextArea arrayOutput;
 
     // 顺序表步骤导航控件
@@ -53,6 +69,35 @@ public class LinearStructureController implements Initializable {
     @FXML private Button arrayAutoDemoBtn;
     @FXML private Label arrayStepInfoLabel;
 
+    // 哈希表控件
+    @FXML private ComboBox<String> hashProbingCombo;
+    @FXML private TextField hashKeyField;
+    @FXML private TextField hashValueField;
+    @FXML private Button putHashBtn;
+    @FXML private Button findHashBtn;
+    @FXML private Button removeHashBtn;
+    @FXML private Button clearHashBtn;
+    @FXML private TextField hashBatchField;
+    @FXML private Button batchHashBtn;
+    @FXML private Button hashStatsBtn;
+    @FXML private Button prevHashStepBtn;
+    @FXML private Button nextHashStepBtn;
+    @FXML private Button hashAutoDemoBtn;
+    @FXML private Label hashStepInfoLabel;
+    @FXML private TextArea hashOutput;
+
+    // 排序控件
+    @FXML private ComboBox<String> sortAlgorithmCombo;
+    @FXML private TextField sortSizeField;
+    @FXML private Button generateSortDataBtn;
+    @FXML private Button sortBtn;
+    @FXML private Button compareSortsBtn;
+    @FXML private Button prevSortStepBtn;
+    @FXML private Button nextSortStepBtn;
+    @FXML private Button sortAutoDemoBtn;
+    @FXML private Label sortStepInfoLabel;
+    @FXML private TextArea sortOutput;
+
     // 存档管理控件
     @FXML private TextField archiveNameField;
     @FXML private TextField archiveDescriptionField;
@@ -69,34 +114,81 @@ public class LinearStructureController implements Initializable {
     private LinkedList linkedList;
     private Stack stack;
     private ArrayList arrayList;
+    private IntHashMap hashMap;
     private LinearStructureView listView;
     private LinearStructureView stackView;
     private LinearStructureView arrayView;
+    private LinearStructureView hashView;
+    private LinearStructureView sortView;
+
+    // 画布绘制经过调度器，同一脉冲内对同一画布的重复绘制只执行最后一次
+    private final RenderScheduler renderScheduler = new RenderScheduler();
 
     // 顺序表步骤演示相关字段
     private List<ArrayList.OperationStep> currentArraySteps;
     private int currentArrayStepIndex;
     private Timeline arrayAnimation;
 
+    // 哈希表步骤演示相关字段
+    private List<IntHashMap.HashStep> currentHashSteps;
+    private int currentHashStepIndex;
+    private Timeline hashAnimation;
+
+    // 排序演示相关字段：待排序的原始数据和它的取值范围（柱子高度按它缩放）
+    private static final int MAX_SORT_SIZE = 10_000_000;
+    private static final int MAX_QUADRATIC_SORT_SIZE = 20_000;
+    private static final int MAX_SORT_STEPS = 2000;
+    private static final double SORT_DEMO_STEP_MILLIS = 100;
+    private int[] sortData;
+    private int sortMin;
+    private int sortMax;
+    private List<ArrayList.OperationStep> currentSortSteps;
+    private int currentSortStepIndex;
+    private Timeline sortAnimation;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // 初始化视图组件
         listView = new LinearStructureView(listCanvas);
         stackView = new LinearStructureView(stackCanvas);
         arrayView = new LinearStructureView(arrayCanvas);
+        hashView = new LinearStructureView(hashCanvas);
+        sortView = new LinearStructureView(sortCanvas);
+        listView.setRenderScheduler(renderScheduler);
+        stackView.setRenderScheduler(renderScheduler);
+        arrayView.setRenderScheduler(renderScheduler);
 
         // 初始化数据结构
         linkedList = new LinkedList();
         stack = new Stack();
         arrayList = new ArrayList();
+        hashMap = new IntHashMap();
+
+        // 视图订阅数据结构的变更，之后的插入删除只局部重绘
+        listView.attach(linkedList);
+        stackView.attach(stack);
+        arrayView.attach(arrayList);
 
         // 初始化步骤演示
         currentArraySteps = new java.util.ArrayList<>();
         currentArrayStepIndex = 0;
+        currentHashSteps = new java.util.ArrayList<>();
+        currentHashStepIndex = 0;
+        currentSortSteps = new java.util.ArrayList<>();
+        currentSortStepIndex = 0;
+
+        hashProbingCombo.getItems().addAll("线性探测", "Robin Hood");
+        hashProbingCombo.setValue("线性探测");
+        for (ArraySorter.Algorithm algorithm : ArraySorter.Algorithm.values()) {
+            sortAlgorithmCombo.getItems().add(algorithm.getLabel());
+        }
+        sortAlgorithmCombo.setValue(ArraySorter.Algorithm.QUICK.getLabel());
 
         setupEventHandlers();
         setupArchiveHandlers();
         updateArrayStepNavigation();
+        updateHashStepNavigation();
+        updateSortStepNavigation();
         refreshSavedFiles();
     }
 
@@ -105,21 +197,46 @@ public class LinearStructureController implements Initializable {
         createListBtn.setOnAction(e -> createLinkedList());
         insertListBtn.setOnAction(e -> insertListNode());
         deleteListBtn.setOnAction(e -> deleteListNode());
+        batchListBtn.setOnAction(e -> batchAppendList());
 
         // 栈事件处理
         createStackBtn.setOnAction(e -> createStack());
         pushStackBtn.setOnAction(e -> pushStack());
         popStackBtn.setOnAction(e -> popStack());
+        batchPushStackBtn.setOnAction(e -> batchPushStack());
 
         // 顺序表事件处理
         createArrayBtn.setOnAction(e -> createArrayList());
         insertArrayBtn.setOnAction(e -> insertArrayElement());
         deleteArrayBtn.setOnAction(e -> deleteArrayElement());
+        batchArrayBtn.setOnAction(e -> batchAppendArray());
 
         // 顺序表步骤导航事件处理
         prevArrayStepBtn.setOnAction(e -> previousArrayStep());
         nextArrayStepBtn.setOnAction(e -> nextArrayStep());
         arrayAutoDemoBtn.setOnAction(e -> startArrayAutoDemo());
+
+        // 哈希表事件处理
+        hashProbingCombo.setOnAction(e -> changeHashProbing());
+        putHashBtn.setOnAction(e -> putHashEntry());
+        findHashBtn.setOnAction(e -> findHashKey());
+        removeHashBtn.setOnAction(e -> removeHashKey());
+        clearHashBtn.setOnAction(e -> clearHashMap());
+        batchHashBtn.setOnAction(e -> batchPutHash());
+        hashStatsBtn.setOnAction(e -> hashOutput.setText(hashMap.getStatistics()));
+
+        // 哈希表步骤导航事件处理
+        prevHashStepBtn.setOnAction(e -> previousHashStep());
+        nextHashStepBtn.setOnAction(e -> nextHashStep());
+        hashAutoDemoBtn.setOnAction(e -> startHashAutoDemo());
+
+        // 排序事件处理
+        generateSortDataBtn.setOnAction(e -> generateSortData());
+        sortBtn.setOnAction(e -> runSortDemo());
+        compareSortsBtn.setOnAction(e -> compareSorts());
+        prevSortStepBtn.setOnAction(e -> previousSortStep());
+        nextSortStepBtn.setOnAction(e -> nextSortStep());
+        sortAutoDemoBtn.setOnAction(e -> startSortAutoDemo());
     }
 
     private void setupArchiveHandlers() {
@@ -145,7 +262,8 @@ public class LinearStructureController implements Initializable {
     private void createLinkedList() {
         linkedList = new LinkedList();
         listOutput.setText("链表创建成功！");
-        listView.drawLinkedList(linkedList);
+        listView.attach(linkedList);
+        render(listView, () -> listView.drawLinkedList(linkedList));
     }
 
     private void insertListNode() {
@@ -156,7 +274,6 @@ public class LinearStructureController implements Initializable {
 
             linkedList.insert(value, index);
             listOutput.setText("在位置 " + index + " 插入节点: " + value + "\n当前链表大小: " + linkedList.getSize());
-            listView.drawLinkedList(linkedList);
 
             listValueField.clear();
             listIndexField.clear();
@@ -175,7 +292,6 @@ public class LinearStructureController implements Initializable {
             int index = Integer.parseInt(indexText);
             linkedList.delete(index);
             listOutput.setText("删除位置 " + index + " 的节点\n当前链表大小: " + linkedList.getSize());
-            listView.drawLinkedList(linkedList);
 
             listIndexField.clear();
         } catch (Exception e) {
@@ -183,6 +299,18 @@ public class LinearStructureController implements Initializable {
         }
     }
 
+    // 批量追加不记录步骤，链表只发出一个 RESET 事件，视图只重绘一次
+    private void batchAppendList() {
+        try {
+            int[] values = BatchOp.parseValues(listBatchField.getText());
+            linkedList.applyBatch(BatchOp.inserts(values));
+            listOutput.setText("批量追加 " + values.length + " 个节点\n当前链表大小: " + linkedList.getSize());
+            listBatchField.clear();
+        } catch (Exception e) {
+            listOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
     // ========== 栈操作 ==========
 
     private void createStack() {
@@ -190,7 +318,8 @@ public class LinearStructureController implements Initializable {
             int capacity = stackCapacityField.getText().isEmpty() ? 10 : Integer.parseInt(stackCapacityField.getText());
             stack = new Stack(capacity);
             stackOutput.setText("栈创建成功！容量: " + capacity);
-            stackView.drawStack(stack);
+            stackView.attach(stack);
+            render(stackView, () -> stackView.drawStack(stack));
         } catch (Exception e) {
             stackOutput.setText("错误: " + e.getMessage());
         }
@@ -201,7 +330,6 @@ public class LinearStructureController implements Initializable {
             int value = Integer.parseInt(stackValueField.getText());
             stack.push(value);
             stackOutput.setText("入栈: " + value + "\n当前栈大小: " + stack.size());
-            stackView.drawStack(stack);
 
             stackValueField.clear();
         } catch (Exception e) {
@@ -213,7 +341,17 @@ public class LinearStructureController implements Initializable {
         try {
             int value = stack.pop();
             stackOutput.setText("出栈: " + value + "\n当前栈大小: " + stack.size());
-            stackView.drawStack(stack);
+        } catch (Exception e) {
+            stackOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void batchPushStack() {
+        try {
+            int[] values = BatchOp.parseValues(stackBatchField.getText());
+            stack.applyBatch(BatchOp.pushes(values));
+            stackOutput.setText("批量入栈 " + values.length + " 个元素\n当前栈大小: " + stack.size());
+            stackBatchField.clear();
         } catch (Exception e) {
             stackOutput.setText("错误: " + e.getMessage());
         }
@@ -224,7 +362,8 @@ public class LinearStructureController implements Initializable {
     private void createArrayList() {
         arrayList = new ArrayList();
         arrayOutput.setText("顺序表创建成功！");
-        arrayView.drawArrayList(arrayList);
+        arrayView.attach(arrayList);
+        render(arrayView, () -> arrayView.drawArrayList(arrayList));
         resetArraySteps();
     }
 
@@ -241,7 +380,7 @@ public class LinearStructureController implements Initializable {
                 showArrayStep(currentArrayStepIndex);
                 arrayOutput.setText("开始插入演示... 使用导航按钮查看详细步骤");
             } else {
-                arrayView.drawArrayList(arrayList);
+                render(arrayView, () -> arrayView.drawArrayList(arrayList));
                 arrayOutput.setText("插入完成！当前数组大小: " + arrayList.size());
             }
 
@@ -275,6 +414,21 @@ public class LinearStructureController implements Initializable {
         }
     }
 
+    // 批量追加跳过逐元素的步骤演示：一次扩容、一次复制，画布只重绘一次
+    private void batchAppendArray() {
+        try {
+            int[] values = BatchOp.parseValues(arrayBatchField.getText());
+            arrayList.applyBatch(BatchOp.inserts(values));
+            resetArraySteps();
+            // 画布可能停在步骤演示上，此时视图不响应事件，与事件引起的重绘合并为一次
+            render(arrayView, () -> arrayView.drawArrayList(arrayList));
+            arrayOutput.setText("批量追加 " + values.length + " 个元素\n当前数组大小: " + arrayList.size());
+            arrayBatchField.clear();
+        } catch (Exception e) {
+            arrayOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
     // ========== 顺序表步骤导航方法 ==========
 
     private void showArrayStep(int stepIndex) {
@@ -288,9 +442,9 @@ public class LinearStructureController implements Initializable {
         currentArrayStepIndex = stepIndex;
         ArrayList.OperationStep step = currentArraySteps.get(stepIndex);
 
-        arrayView.drawArrayListWithSteps(arrayList, step);
+        render(arrayView, () -> arrayView.drawArrayListWithSteps(arrayList, step));
         updateArrayStepNavigation();
-        arrayOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentArraySteps.size() + "\n" + step.description);
+        arrayOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentArraySteps.size() + "\n" + step.getDescription());
     }
 
     private void previousArrayStep() {
@@ -361,6 +515,401 @@ public class LinearStructureController implements Initializable {
         }
     }
 
+    // ========== 哈希表操作 ==========
+
+    private IntHashMap.Probing selectedProbing() {
+        return "Robin Hood".equals(hashProbingCombo.getValue())
+                ? IntHashMap.Probing.ROBIN_HOOD : IntHashMap.Probing.LINEAR;
+    }
+
+    // 换探测方式时把现有的键值插入新表
+    private void changeHashProbing() {
+        IntHashMap.Probing probing = selectedProbing();
+        if (hashMap.getProbing() == probing) {
+            return;
+        }
+        IntHashMap rebuilt = new IntHashMap(probing);
+        for (int key : hashMap.keys()) {
+            rebuilt.put(key, hashMap.get(key, 0));
+        }
+        hashMap = rebuilt;
+        resetHashSteps();
+        render(hashView, () -> hashView.drawHashTable(hashMap));
+        hashOutput.setText("改为" + hashProbingCombo.getValue() + "，重新插入 " + hashMap.size() + " 个键");
+    }
+
+    private void putHashEntry() {
+        try {
+            int key = Integer.parseInt(hashKeyField.getText().trim());
+            String valueText = hashValueField.getText().trim();
+            int value = valueText.isEmpty() ? 0 : Integer.parseInt(valueText);
+            boolean existed = hashMap.containsKey(key);
+            startHashSteps(hashMap.putWithSteps(key, value));
+            hashOutput.setText((existed ? "更新键 " : "插入键 ") + key + " = " + value
+                    + "... 使用导航按钮查看探测过程");
+            hashKeyField.clear();
+            hashValueField.clear();
+        } catch (Exception e) {
+            hashOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void findHashKey() {
+        try {
+            int key = Integer.parseInt(hashKeyField.getText().trim());
+            startHashSteps(hashMap.findWithSteps(key));
+            hashOutput.setText(hashMap.containsKey(key)
+                    ? "找到键 " + key + "，值: " + hashMap.get(key, 0) + "... 使用导航按钮查看探测过程"
+                    : "键 " + key + " 不在表中... 使用导航按钮查看探测过程");
+        } catch (Exception e) {
+            hashOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void removeHashKey() {
+        try {
+            int key = Integer.parseInt(hashKeyField.getText().trim());
+            boolean existed = hashMap.containsKey(key);
+            startHashSteps(hashMap.removeWithSteps(key));
+            hashOutput.setText(existed ? "删除键 " + key + "... 使用导航按钮查看前移过程"
+                    : "键 " + key + " 不在表中");
+            hashKeyField.clear();
+        } catch (Exception e) {
+            hashOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void clearHashMap() {
+        hashMap = new IntHashMap(selectedProbing());
+        resetHashSteps();
+        render(hashView, () -> hashView.drawHashTable(hashMap));
+        hashOutput.setText("哈希表已清空");
+    }
+
+    // 批量插入跳过步骤演示，键的值为 0，之后显示统计
+    private void batchPutHash() {
+        try {
+            int[] keys = BatchOp.parseValues(hashBatchField.getText());
+            for (int key : keys) {
+                hashMap.add(key);
+            }
+            resetHashSteps();
+            render(hashView, () -> hashView.drawHashTable(hashMap));
+            hashOutput.setText("批量插入 " + keys.length + " 个键\n" + hashMap.getStatistics());
+            hashBatchField.clear();
+        } catch (Exception e) {
+            hashOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void startHashSteps(List<IntHashMap.HashStep> steps) {
+        if (hashAnimation != null) {
+            hashAnimation.stop();
+        }
+        currentHashSteps = steps;
+        currentHashStepIndex = 0;
+        if (!currentHashSteps.isEmpty()) {
+            showHashStep(0);
+        } else {
+            render(hashView, () -> hashView.drawHashTable(hashMap));
+        }
+    }
+
+    // ========== 哈希表步骤导航方法 ==========
+
+    private void showHashStep(int stepIndex) {
+        if (currentHashSteps == null || currentHashSteps.isEmpty()) {
+            return;
+        }
+
+        if (stepIndex < 0) stepIndex = 0;
+        if (stepIndex >= currentHashSteps.size()) stepIndex = currentHashSteps.size() - 1;
+
+        currentHashStepIndex = stepIndex;
+        IntHashMap.HashStep step = currentHashSteps.get(stepIndex);
+
+        render(hashView, () -> hashView.drawHashTableStep(step));
+        updateHashStepNavigation();
+        hashOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentHashSteps.size() + "\n" + step.getDescription());
+    }
+
+    private void previousHashStep() {
+        if (currentHashStepIndex > 0) {
+            showHashStep(currentHashStepIndex - 1);
+        }
+    }
+
+    private void nextHashStep() {
+        if (currentHashStepIndex < currentHashSteps.size() - 1) {
+            showHashStep(currentHashStepIndex + 1);
+        }
+    }
+
+    private void startHashAutoDemo() {
+        if (currentHashSteps == null || currentHashSteps.isEmpty()) {
+            hashOutput.setText("请先执行插入、查找或删除操作");
+            return;
+        }
+
+        if (hashAnimation != null) {
+            hashAnimation.stop();
+        }
+
+        currentHashStepIndex = 0;
+        hashAnimation = new Timeline();
+
+        for (int i = 0; i < currentHashSteps.size(); i++) {
+            final int stepIndex = i;
+            KeyFrame keyFrame = new KeyFrame(
+                    Duration.seconds(i * 1.0),
+                    e -> showHashStep(stepIndex)
+            );
+            hashAnimation.getKeyFrames().add(keyFrame);
+        }
+
+        KeyFrame finalFrame = new KeyFrame(
+                Duration.seconds(currentHashSteps.size() * 1.0 + 1),
+                e -> hashOutput.setText("自动演示完成！使用导航按钮重新查看步骤")
+        );
+        hashAnimation.getKeyFrames().add(finalFrame);
+
+        hashAnimation.setCycleCount(1);
+        hashAnimation.play();
+        hashOutput.setText("自动演示中...");
+    }
+
+    private void resetHashSteps() {
+        if (hashAnimation != null) {
+            hashAnimation.stop();
+        }
+        currentHashSteps.clear();
+        currentHashStepIndex = 0;
+        updateHashStepNavigation();
+    }
+
+    private void updateHashStepNavigation() {
+        if (currentHashSteps == null || currentHashSteps.isEmpty()) {
+            hashStepInfoLabel.setText("步骤: 0/0");
+            prevHashStepBtn.setDisable(true);
+            nextHashStepBtn.setDisable(true);
+            hashAutoDemoBtn.setDisable(true);
+        } else {
+            hashStepInfoLabel.setText("步骤: " + (currentHashStepIndex + 1) + "/" + currentHashSteps.size());
+            prevHashStepBtn.setDisable(currentHashStepIndex == 0);
+            nextHashStepBtn.setDisable(currentHashStepIndex == currentHashSteps.size() - 1);
+            hashAutoDemoBtn.setDisable(false);
+        }
+    }
+
+    // ========== 排序操作 ==========
+
+    private ArraySorter.Algorithm selectedSortAlgorithm() {
+        for (ArraySorter.Algorithm algorithm : ArraySorter.Algorithm.values()) {
+            if (algorithm.getLabel().equals(sortAlgorithmCombo.getValue())) {
+                return algorithm;
+            }
+        }
+        return ArraySorter.Algorithm.QUICK;
+    }
+
+    // 随机生成待排序的数据，规模不大时取值在 100 以内，便于在柱子上读出
+    private void generateSortData() {
+        try {
+            int size = Integer.parseInt(sortSizeField.getText().trim());
+            if (size <= 0 || size > MAX_SORT_SIZE) {
+                sortOutput.setText("错误: 规模必须在 1 到 " + MAX_SORT_SIZE + " 之间");
+                return;
+            }
+            Random random = new Random();
+            int bound = Math.max(100, size);
+            int[] data = new int[size];
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                data[i] = 1 + random.nextInt(bound - 1);
+                min = Math.min(min, data[i]);
+                max = Math.max(max, data[i]);
+            }
+            sortData = data;
+            sortMin = min;
+            sortMax = max;
+            resetSortSteps();
+            render(sortView, () -> sortView.drawArrayBars(data, sortMin, sortMax));
+            sortOutput.setText("生成 " + size + " 个随机数，选择算法后开始排序演示或对比全部算法");
+        } catch (NumberFormatException e) {
+            sortOutput.setText("错误: 请输入有效的规模");
+        }
+    }
+
+    // 在数据的副本上排序并记录步骤，元素多时步骤按间隔取样，总数在 MAX_SORT_STEPS 左右
+    private void runSortDemo() {
+        if (sortData == null) {
+            sortOutput.setText("请先生成数据");
+            return;
+        }
+        ArraySorter.Algorithm algorithm = selectedSortAlgorithm();
+        if (algorithm.isQuadratic() && sortData.length > MAX_QUADRATIC_SORT_SIZE) {
+            sortOutput.setText(algorithm.getLabel() + "的比较次数随规模平方增长，请在 "
+                    + MAX_QUADRATIC_SORT_SIZE + " 个元素以内使用");
+            return;
+        }
+        int[] data = sortData;
+        resetSortSteps();
+        runSortTask(algorithm.getLabel(), () -> {
+            List<ArrayList.OperationStep> steps = ArrayList.fromArray(data).sortWithSteps(algorithm, MAX_SORT_STEPS);
+            return () -> {
+                startSortSteps(steps);
+                sortOutput.setText(steps.get(steps.size() - 1).getDescription()
+                        + "\n共 " + steps.size() + " 个演示步骤... 使用导航按钮查看排序过程");
+            };
+        });
+    }
+
+    // 同一份数据依次交给每个算法（各自排序一份副本），列出操作次数和用时
+    private void compareSorts() {
+        if (sortData == null) {
+            sortOutput.setText("请先生成数据");
+            return;
+        }
+        int[] data = sortData;
+        runSortTask("对比", () -> {
+            StringBuilder sb = new StringBuilder();
+            sb.append(data.length).append(" 个元素:\n");
+            for (ArraySorter.Algorithm algorithm : ArraySorter.Algorithm.values()) {
+                if (algorithm.isQuadratic() && data.length > MAX_QUADRATIC_SORT_SIZE) {
+                    sb.append(algorithm.getLabel()).append(": 跳过（超过 ")
+                            .append(MAX_QUADRATIC_SORT_SIZE).append(" 个元素）\n");
+                    continue;
+                }
+                sb.append(ArraySorter.sort(data.clone(), algorithm)).append("\n");
+            }
+            String report = sb.toString();
+            return () -> sortOutput.setText(report);
+        });
+    }
+
+    // 排序在后台线程进行，千万级数据时界面也不会卡住；完成后在界面线程执行 work 返回的更新
+    private void runSortTask(String action, Callable<Runnable> work) {
+        setSortButtonsDisabled(true);
+        sortOutput.setText("正在进行" + action + "...");
+
+        Thread worker = new Thread(() -> {
+            try {
+                Runnable update = work.call();
+                Platform.runLater(update);
+            } catch (Exception e) {
+                Platform.runLater(() -> sortOutput.setText(action + "失败: " + e.getMessage()));
+            } finally {
+                Platform.runLater(() -> setSortButtonsDisabled(false));
+            }
+        }, "sort-" + action);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void setSortButtonsDisabled(boolean disabled) {
+        generateSortDataBtn.setDisable(disabled);
+        sortBtn.setDisable(disabled);
+        compareSortsBtn.setDisable(disabled);
+    }
+
+    private void startSortSteps(List<ArrayList.OperationStep> steps) {
+        if (sortAnimation != null) {
+            sortAnimation.stop();
+        }
+        currentSortSteps = steps;
+        currentSortStepIndex = 0;
+        if (!currentSortSteps.isEmpty()) {
+            showSortStep(0);
+        }
+    }
+
+    // ========== 排序步骤导航方法 ==========
+
+    private void showSortStep(int stepIndex) {
+        if (currentSortSteps == null || currentSortSteps.isEmpty()) {
+            return;
+        }
+
+        if (stepIndex < 0) stepIndex = 0;
+        if (stepIndex >= currentSortSteps.size()) stepIndex = currentSortSteps.size() - 1;
+
+        currentSortStepIndex = stepIndex;
+        ArrayList.OperationStep step = currentSortSteps.get(stepIndex);
+
+        render(sortView, () -> sortView.drawArraySortStep(step, sortMin, sortMax));
+        updateSortStepNavigation();
+        sortOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentSortSteps.size() + "\n" + step.getDescription());
+    }
+
+    private void previousSortStep() {
+        if (currentSortStepIndex > 0) {
+            showSortStep(currentSortStepIndex - 1);
+        }
+    }
+
+    private void nextSortStep() {
+        if (currentSortStepIndex < currentSortSteps.size() - 1) {
+            showSortStep(currentSortStepIndex + 1);
+        }
+    }
+
+    private void startSortAutoDemo() {
+        if (currentSortSteps == null || currentSortSteps.isEmpty()) {
+            sortOutput.setText("请先执行排序演示");
+            return;
+        }
+
+        if (sortAnimation != null) {
+            sortAnimation.stop();
+        }
+
+        currentSortStepIndex = 0;
+        sortAnimation = new Timeline();
+
+        for (int i = 0; i < currentSortSteps.size(); i++) {
+            final int stepIndex = i;
+            KeyFrame keyFrame = new KeyFrame(
+                    Duration.millis(i * SORT_DEMO_STEP_MILLIS),
+                    e -> showSortStep(stepIndex)
+            );
+            sortAnimation.getKeyFrames().add(keyFrame);
+        }
+
+        KeyFrame finalFrame = new KeyFrame(
+                Duration.millis(currentSortSteps.size() * SORT_DEMO_STEP_MILLIS + 1000),
+                e -> sortOutput.setText("自动演示完成！使用导航按钮重新查看步骤")
+        );
+        sortAnimation.getKeyFrames().add(finalFrame);
+
+        sortAnimation.setCycleCount(1);
+        sortAnimation.play();
+        sortOutput.setText("自动演示中...");
+    }
+
+    private void resetSortSteps() {
+        if (sortAnimation != null) {
+            sortAnimation.stop();
+        }
+        currentSortSteps = new java.util.ArrayList<>();
+        currentSortStepIndex = 0;
+        updateSortStepNavigation();
+    }
+
+    private void updateSortStepNavigation() {
+        if (currentSortSteps == null || currentSortSteps.isEmpty()) {
+            sortStepInfoLabel.setText("步骤: 0/0");
+            prevSortStepBtn.setDisable(true);
+            nextSortStepBtn.setDisable(true);
+            sortAutoDemoBtn.setDisable(true);
+        } else {
+            sortStepInfoLabel.setText("步骤: " + (currentSortStepIndex + 1) + "/" + currentSortSteps.size());
+            prevSortStepBtn.setDisable(currentSortStepIndex == 0);
+            nextSortStepBtn.setDisable(currentSortStepIndex == currentSortSteps.size() - 1);
+            sortAutoDemoBtn.setDisable(false);
+        }
+    }
+
     // ========== 存档管理方法 ==========
 
     private void refreshSavedFiles() {
@@ -397,8 +946,8 @@ public class LinearStructureController implements Initializable {
             return;
         }
 
-        ArchiveManager.ArchiveData archiveData = arrayList.saveToArchive(description);
-        if (ArchiveManager.saveLinearStructure(archiveData, filename)) {
+        // 之前保存或加载过同名存档时只同步操作日志
+        if (ArchiveManager.saveLinearStructure(arrayList, filename, description, arrayList::saveToArchive)) {
             showAlert("成功", "顺序表保存成功: " + filename);
             refreshSavedFiles();
             archiveNameField.clear();
@@ -417,9 +966,12 @@ public class LinearStructureController implements Initializable {
 
         ArchiveManager.ArchiveData archiveData = ArchiveManager.loadLinearStructure(filename);
         if (archiveData != null && "array".equals(archiveData.structureType)) {
-            arrayList = ArrayList.loadFromArchive(archiveData);
-            arrayView.drawArrayList(arrayList);
-            arrayOutput.setText("顺序表加载成功: " + archiveData.description);
+            JournaledArchive.Resumed<ArrayList> loaded = ArchiveManager.resumeJournal(filename, archiveData,
+                    () -> ArrayList.loadFromArchive(archiveData), ArrayList::saveToArchive);
+            arrayList = loaded.structure;
+            arrayView.attach(arrayList);
+            render(arrayView, () -> arrayView.drawArrayList(arrayList));
+            arrayOutput.setText("顺序表加载成功: " + archiveData.description + replayInfo(loaded.replayed));
             resetArraySteps();
         } else {
             showAlert("错误", "文件格式不正确或不是顺序表存档");
@@ -440,8 +992,8 @@ public class LinearStructureController implements Initializable {
             return;
         }
 
-        ArchiveManager.ArchiveData archiveData = linkedList.saveToArchive(description);
-        if (ArchiveManager.saveLinearStructure(archiveData, filename)) {
+        // 之前保存或加载过同名存档时只同步操作日志
+        if (ArchiveManager.saveLinearStructure(linkedList, filename, description, linkedList::saveToArchive)) {
             showAlert("成功", "链表保存成功: " + filename);
             refreshSavedFiles();
             archiveNameField.clear();
@@ -460,9 +1012,12 @@ public class LinearStructureController implements Initializable {
 
         ArchiveManager.ArchiveData archiveData = ArchiveManager.loadLinearStructure(filename);
         if (archiveData != null && "linkedlist".equals(archiveData.structureType)) {
-            linkedList = LinkedList.loadFromArchive(archiveData);
-            listView.drawLinkedList(linkedList);
-            listOutput.setText("链表加载成功: " + archiveData.description);
+            JournaledArchive.Resumed<LinkedList> loaded = ArchiveManager.resumeJournal(filename, archiveData,
+                    () -> LinkedList.loadFromArchive(archiveData), LinkedList::saveToArchive);
+            linkedList = loaded.structure;
+            listView.attach(linkedList);
+            render(listView, () -> listView.drawLinkedList(linkedList));
+            listOutput.setText("链表加载成功: " + archiveData.description + replayInfo(loaded.replayed));
         } else {
             showAlert("错误", "文件格式不正确或不是链表存档");
         }
@@ -482,8 +1037,8 @@ public class LinearStructureController implements Initializable {
             return;
         }
 
-        ArchiveManager.ArchiveData archiveData = stack.saveToArchive(description);
-        if (ArchiveManager.saveLinearStructure(archiveData, filename)) {
+        // 之前保存或加载过同名存档时只同步操作日志
+        if (ArchiveManager.saveLinearStructure(stack, filename, description, stack::saveToArchive)) {
             showAlert("成功", "栈保存成功: " + filename);
             refreshSavedFiles();
             archiveNameField.clear();
@@ -502,14 +1057,29 @@ public class LinearStructureController implements Initializable {
 
         ArchiveManager.ArchiveData archiveData = ArchiveManager.loadLinearStructure(filename);
         if (archiveData != null && "stack".equals(archiveData.structureType)) {
-            stack = Stack.loadFromArchive(archiveData);
-            stackView.drawStack(stack);
-            stackOutput.setText("栈加载成功: " + archiveData.description);
+            JournaledArchive.Resumed<Stack> loaded = ArchiveManager.resumeJournal(filename, archiveData,
+                    () -> Stack.loadFromArchive(archiveData), Stack::saveToArchive);
+            stack = loaded.structure;
+            stackView.attach(stack);
+            render(stackView, () -> stackView.drawStack(stack));
+            stackOutput.setText("栈加载成功: " + archiveData.description + replayInfo(loaded.replayed));
         } else {
             showAlert("错误", "文件格式不正确或不是栈存档");
         }
     }
 
+    private String replayInfo(int replayed) {
+        if (replayed < 0) {
+            return "（操作日志无法重放，只加载了快照）";
+        }
+        return replayed > 0 ? "（重放日志 " + replayed + " 条操作）" : "";
+    }
+
+    // 在下一个脉冲绘制画布；之前尚未执行的同一画布的绘制被替换
+    private void render(LinearStructureView view, Runnable draw) {
+        renderScheduler.request(view, draw);
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -1,20 +1,28 @@
 package com.datastructurevisualizer.controller;
 
 import com.datastructurevisualizer.model.*;
+import com.datastructurevisualizer.view.components.RenderScheduler;
 import com.datastructurevisualizer.view.components.TreeVisualizer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Pane;
 import javafx.util.Duration;
 
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
 
 public class TreeController implements Initializable {
 
@@ -29,6 +37,14 @@ public class TreeController implements Initializable {
     private Pane huffmanCanvas;
     @FXML
     private Pane avlCanvas;
+    @FXML
+    private Pane heapCanvas;
+    @FXML
+    private Pane redBlackCanvas;
+    @FXML
+    private Pane bTreeCanvas;
+    @FXML
+    private Pane concurrentCanvas;
 
     // 二叉树控件
     @FXML
@@ -46,6 +62,10 @@ public class TreeController implements Initializable {
     @FXML
     private Button clearBinaryTreeBtn;
     @FXML
+    private TextField binaryTreeBatchField;
+    @FXML
+    private Button batchBinaryTreeBtn;
+    @FXML
     private Label binaryTreeInfoLabel;
     @FXML
     private Button traversalStepPrevBtn;
@@ -72,6 +92,14 @@ public class TreeController implements Initializable {
     @FXML
     private Button clearBstBtn;
     @FXML
+    private TextField bstBatchField;
+    @FXML
+    private Button batchInsertBstBtn;
+    @FXML
+    private Button batchDeleteBstBtn;
+    @FXML
+    private Button compactBstBtn;
+    @FXML
     private Label bstInfoLabel;
     @FXML
     private Label stepInfoLabel;
@@ -115,6 +143,16 @@ public class TreeController implements Initializable {
     private Label huffmanStepInfoLabel;
     @FXML
     private Button resetHuffmanBtn;
+    @FXML
+    private TextField huffmanFileField;
+    @FXML
+    private TextField huffmanBlockSizeField;
+    @FXML
+    private Button compressHuffmanFileBtn;
+    @FXML
+    private Button decompressHuffmanFileBtn;
+    @FXML
+    private ComboBox<String> huffmanQueueCombo;
 
     // AVL树控件
     @FXML
@@ -122,12 +160,20 @@ public class TreeController implements Initializable {
     @FXML
     private Button insertAvlBtn;
     @FXML
+    private Button deleteAvlBtn;
+    @FXML
     private Button searchAvlBtn;
     @FXML
     private TextArea avlOutput;
     @FXML
     private Button clearAvlBtn;
     @FXML
+    private TextField avlBatchField;
+    @FXML
+    private Button batchInsertAvlBtn;
+    @FXML
+    private Button batchDeleteAvlBtn;
+    @FXML
     private Label avlInfoLabel;
     @FXML
     private Button prevAvlStepBtn;
@@ -140,6 +186,112 @@ public class TreeController implements Initializable {
     @FXML
     private Button resetAvlBtn;
 
+    // 堆控件
+    @FXML
+    private Label heapInfoLabel;
+    @FXML
+    private ComboBox<Integer> heapArityCombo;
+    @FXML
+    private TextField heapValueField;
+    @FXML
+    private Button insertHeapBtn;
+    @FXML
+    private Button pollHeapBtn;
+    @FXML
+    private Button clearHeapBtn;
+    @FXML
+    private TextField heapIdField;
+    @FXML
+    private TextField heapNewKeyField;
+    @FXML
+    private Button decreaseKeyBtn;
+    @FXML
+    private TextField heapBatchField;
+    @FXML
+    private Button heapifyBtn;
+    @FXML
+    private Button prevHeapStepBtn;
+    @FXML
+    private Label heapStepInfoLabel;
+    @FXML
+    private Button nextHeapStepBtn;
+    @FXML
+    private Button heapAutoDemoBtn;
+    @FXML
+    private Button resetHeapBtn;
+    @FXML
+    private TextArea heapOutput;
+
+    // 红黑树控件
+    @FXML
+    private Label redBlackInfoLabel;
+    @FXML
+    private TextField redBlackValueField;
+    @FXML
+    private Button insertRedBlackBtn;
+    @FXML
+    private Button deleteRedBlackBtn;
+    @FXML
+    private Button searchRedBlackBtn;
+    @FXML
+    private Button clearRedBlackBtn;
+    @FXML
+    private TextField redBlackBatchField;
+    @FXML
+    private Button batchRedBlackBtn;
+    @FXML
+    private Button prevRedBlackStepBtn;
+    @FXML
+    private Label redBlackStepInfoLabel;
+    @FXML
+    private Button nextRedBlackStepBtn;
+    @FXML
+    private Button redBlackAutoDemoBtn;
+    @FXML
+    private Button resetRedBlackBtn;
+    @FXML
+    private TextArea redBlackOutput;
+
+    // B+树控件
+    @FXML
+    private Label bTreeInfoLabel;
+    @FXML
+    private ComboBox<Integer> bTreeOrderCombo;
+    @FXML
+    private TextField bTreeValueField;
+    @FXML
+    private Button insertBTreeBtn;
+    @FXML
+    private Button deleteBTreeBtn;
+    @FXML
+    private Button searchBTreeBtn;
+    @FXML
+    private Button clearBTreeBtn;
+    @FXML
+    private TextField bTreeBatchField;
+    @FXML
+    private Button batchBTreeBtn;
+    @FXML
+    private TextArea bTreeOutput;
+
+    // 并发BST控件
+    @FXML
+    private Label concurrentInfoLabel;
+    @FXML
+    private ComboBox<Integer> concurrentThreadsCombo;
+    @FXML
+    private TextField concurrentOpsField;
+    @FXML
+    private TextField concurrentKeyRangeField;
+    @FXML
+    private ComboBox<Integer> concurrentSearchCombo;
+    @FXML
+    private Button runConcurrentBtn;
+    @FXML
+    private TextArea concurrentOutput;
+    @FXML
+    private LineChart<Number, Number> concurrentChart;
+
     // 树存档管理控件
     @FXML
     private TextField treeArchiveNameField;
@@ -167,20 +319,50 @@ public class TreeController implements Initializable {
     private Button saveAvlBtn;
     @FXML
     private Button loadAvlBtn;
+    @FXML
+    private Button saveHeapBtn;
+    @FXML
+    private Button loadHeapBtn;
+    @FXML
+    private Button saveRedBlackBtn;
+    @FXML
+    private Button loadRedBlackBtn;
+    @FXML
+    private Button saveBTreeBtn;
+    @FXML
+    private Button loadBTreeBtn;
+
+    // 渲染调度统计
+    @FXML
+    private Label renderStatsLabel;
 
     // ========== 模型和视图对象 ==========
     private BinaryTree binaryTree;
     private BST bst;
     private HuffmanTree huffmanTree;
     private AVLTree avlTree;
+    private IntHeap heap;
+    private RedBlackTree redBlackTree;
+    private BTree bTree;
     private TreeVisualizer binaryTreeVisualizer;
     private TreeVisualizer bstVisualizer;
     private TreeVisualizer huffmanVisualizer;
     private TreeVisualizer avlVisualizer;
+    private TreeVisualizer heapVisualizer;
+    private TreeVisualizer redBlackVisualizer;
+    private TreeVisualizer bTreeVisualizer;
+    private TreeVisualizer concurrentVisualizer;
+    // 负载线程正在驱动的树，画布定时从 FX 线程读取
+    private volatile ConcurrentBST concurrentTree;
+    private Timeline concurrentRefresh;
+
+    // 所有画布绘制和信息栏刷新都经过调度器，同一脉冲内的重复请求只执行最后一次
+    private final RenderScheduler renderScheduler = new RenderScheduler();
+    private final Runnable treeInfoRefresh = this::refreshTreeInfo;
 
     // ========== 步骤演示相关字段 ==========
-    private List<BinaryTree.TraversalStep> currentTraversalSteps;
-    private int currentTraversalStepIndex;
+    // 遍历步骤惰性生成，只保留有限的历史用于后退
+    private StepCursor<BinaryTree.TraversalStep> traversalCursor;
     private Timeline traversalAnimation;
 
     // BST搜索演示
@@ -189,6 +371,8 @@ public class TreeController implements Initializable {
     private Timeline searchAnimation;
     private List<BST.DeleteStep> currentDeleteSteps;
     private int currentDeleteStepIndex;
+    // 删除演示定位到的待执行删除，点击执行时提交，重置或换树时放弃
+    private BST.PendingDelete pendingDelete;
     private Timeline deleteAnimation;
 
     // 哈夫曼树构建演示
@@ -201,6 +385,24 @@ public class TreeController implements Initializable {
     private int currentAvlStepIndex;
     private Timeline avlAnimation;
 
+    // 堆操作演示
+    private List<IntHeap.HeapStep> currentHeapSteps;
+    private int currentHeapStepIndex;
+    private Timeline heapAnimation;
+    // 超过这个数量的建堆不生成演示步骤，每一步都要复制整个数组
+    private static final int MAX_HEAP_DEMO_VALUES = 256;
+
+    // 文件压缩的块大小上限（KB），每个工作线程都要为一块分配输入和输出缓冲区
+    private static final int MAX_HUFFMAN_BLOCK_KB = 64 * 1024;
+
+    // 并发BST视图把这段时间内发生过锁竞争的节点标为热点
+    private static final long CONCURRENT_HOT_WINDOW_NANOS = 500_000_000L;
+
+    // 红黑树插入删除演示
+    private List<RedBlackTree.RBStep> currentRedBlackSteps;
+    private int currentRedBlackStepIndex;
+    private Timeline redBlackAnimation;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // 初始化可视化组件
@@ -208,14 +410,26 @@ public class TreeController implements Initializable {
         bstVisualizer = new TreeVisualizer(bstCanvas);
         huffmanVisualizer = new TreeVisualizer(huffmanCanvas);
         avlVisualizer = new TreeVisualizer(avlCanvas);
-        currentTraversalSteps = new ArrayList<>();
-        currentTraversalStepIndex = 0;
+        heapVisualizer = new TreeVisualizer(heapCanvas);
+        redBlackVisualizer = new TreeVisualizer(redBlackCanvas);
+        bTreeVisualizer = new TreeVisualizer(bTreeCanvas);
+        concurrentVisualizer = new TreeVisualizer(concurrentCanvas);
+        binaryTreeVisualizer.setRenderScheduler(renderScheduler);
+        bstVisualizer.setRenderScheduler(renderScheduler);
 
         // 初始化数据结构
         binaryTree = new BinaryTree();
         bst = new BST();
         huffmanTree = new HuffmanTree();
         avlTree = new AVLTree();
+        heap = new IntHeap();
+        redBlackTree = new RedBlackTree();
+        bTree = new BTree();
+        concurrentTree = new ConcurrentBST();
+
+        // 二叉树和BST视图订阅变更，插入删除只局部重绘
+        binaryTreeVisualizer.attach(binaryTree);
+        bstVisualizer.attach(bst);
 
         setupComboBoxes();
         setupEventHandlers();
@@ -244,6 +458,16 @@ public class TreeController implements Initializable {
         saveAvlBtn.setOnAction(e -> saveAVLTree());
         loadAvlBtn.setOnAction(e -> loadAVLTree());
 
+        // 堆存档
+        saveHeapBtn.setOnAction(e -> saveHeap());
+        loadHeapBtn.setOnAction(e -> loadHeap());
+
+        // 红黑树和B+树存档
+        saveRedBlackBtn.setOnAction(e -> saveRedBlackTree());
+        loadRedBlackBtn.setOnAction(e -> loadRedBlackTree());
+        saveBTreeBtn.setOnAction(e -> saveBTree());
+        loadBTreeBtn.setOnAction(e -> loadBTree());
+
         // 通用存档操作
         refreshTreeSavedBtn.setOnAction(e -> refreshTreeSavedFiles());
         deleteTreeSaveBtn.setOnAction(e -> deleteTreeSaveFile());
@@ -265,6 +489,26 @@ public class TreeController implements Initializable {
         // 插入方式
         insertMethodCombo.getItems().addAll("层次插入", "平衡插入", "随机插入");
         insertMethodCombo.setValue("层次插入");
+
+        // 哈夫曼合并队列
+        huffmanQueueCombo.getItems().addAll("PriorityQueue", "IntHeap");
+        huffmanQueueCombo.setValue("PriorityQueue");
+
+        // 堆的叉数
+        heapArityCombo.getItems().addAll(2, 3, 4);
+        heapArityCombo.setValue(IntHeap.DEFAULT_ARITY);
+        heapArityCombo.setOnAction(e -> changeHeapArity());
+
+        // B+树的阶数
+        bTreeOrderCombo.getItems().addAll(3, 4, 5, 8, 16, 64);
+        bTreeOrderCombo.setValue(BTree.DEFAULT_ORDER);
+        bTreeOrderCombo.setOnAction(e -> changeBTreeOrder());
+
+        // 并发负载的最大线程数和查找比例
+        concurrentThreadsCombo.getItems().addAll(2, 4, 8, 16, 32, 64, 256);
+        concurrentThreadsCombo.setValue(Math.max(2, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2)));
+        concurrentSearchCombo.getItems().addAll(0, 50, 80, 90, 99);
+        concurrentSearchCombo.setValue(80);
     }
 
     private void setupEventHandlers() {
@@ -272,12 +516,16 @@ public class TreeController implements Initializable {
         insertBinaryTreeBtn.setOnAction(e -> insertBinaryTree());
         traverseBtn.setOnAction(e -> traverseTree());
         clearBinaryTreeBtn.setOnAction(e -> clearBinaryTree());
+        batchBinaryTreeBtn.setOnAction(e -> batchInsertBinaryTree());
 
         // BST事件
         insertBstBtn.setOnAction(e -> insertBST());
         searchBstBtn.setOnAction(e -> searchBST());
         deleteBstBtn.setOnAction(e -> deleteBST());
         clearBstBtn.setOnAction(e -> clearBST());
+        batchInsertBstBtn.setOnAction(e -> batchBST(true));
+        batchDeleteBstBtn.setOnAction(e -> batchBST(false));
+        compactBstBtn.setOnAction(e -> showCompactBST());
 
         // BST搜索演示事件
         prevStepBtn.setOnAction(e -> previousStep());
@@ -295,6 +543,8 @@ public class TreeController implements Initializable {
         // 哈夫曼树事件
         buildHuffmanBtn.setOnAction(e -> buildHuffmanTree());
         clearHuffmanBtn.setOnAction(e -> clearHuffmanTree());
+        compressHuffmanFileBtn.setOnAction(e -> compressHuffmanFile());
+        decompressHuffmanFileBtn.setOnAction(e -> decompressHuffmanFile());
 
         // 哈夫曼树步骤导航事件
         prevHuffmanStepBtn.setOnAction(e -> previousHuffmanStep());
@@ -304,8 +554,11 @@ public class TreeController implements Initializable {
 
         // AVL树事件
         insertAvlBtn.setOnAction(e -> insertAVL());
+        deleteAvlBtn.setOnAction(e -> deleteAVL());
         searchAvlBtn.setOnAction(e -> searchAVL());
         clearAvlBtn.setOnAction(e -> clearAVL());
+        batchInsertAvlBtn.setOnAction(e -> batchAVL(true));
+        batchDeleteAvlBtn.setOnAction(e -> batchAVL(false));
 
         // AVL树步骤导航事件
         prevAvlStepBtn.setOnAction(e -> previousAvlStep());
@@ -313,6 +566,42 @@ public class TreeController implements Initializable {
         avlAutoDemoBtn.setOnAction(e -> startAvlAutoDemo());
         resetAvlBtn.setOnAction(e -> resetAvlSteps());
 
+        // 堆事件
+        insertHeapBtn.setOnAction(e -> insertHeap());
+        pollHeapBtn.setOnAction(e -> pollHeap());
+        clearHeapBtn.setOnAction(e -> clearHeap());
+        decreaseKeyBtn.setOnAction(e -> decreaseHeapKey());
+        heapifyBtn.setOnAction(e -> heapifyHeap());
+
+        // 堆步骤导航事件
+        prevHeapStepBtn.setOnAction(e -> previousHeapStep());
+        nextHeapStepBtn.setOnAction(e -> nextHeapStep());
+        heapAutoDemoBtn.setOnAction(e -> startHeapAutoDemo());
+        resetHeapBtn.setOnAction(e -> resetHeapSteps());
+
+        // 红黑树事件
+        insertRedBlackBtn.setOnAction(e -> insertRedBlack());
+        deleteRedBlackBtn.setOnAction(e -> deleteRedBlack());
+        searchRedBlackBtn.setOnAction(e -> searchRedBlack());
+        clearRedBlackBtn.setOnAction(e -> clearRedBlack());
+        batchRedBlackBtn.setOnAction(e -> batchRedBlack());
+
+        // 红黑树步骤导航事件
+        prevRedBlackStepBtn.setOnAction(e -> previousRedBlackStep());
+        nextRedBlackStepBtn.setOnAction(e -> nextRedBlackStep());
+        redBlackAutoDemoBtn.setOnAction(e -> startRedBlackAutoDemo());
+        resetRedBlackBtn.setOnAction(e -> resetRedBlackSteps());
+
+        // B+树事件
+        insertBTreeBtn.setOnAction(e -> insertBTree());
+        deleteBTreeBtn.setOnAction(e -> deleteBTree());
+        searchBTreeBtn.setOnAction(e -> searchBTree());
+        clearBTreeBtn.setOnAction(e -> clearBTree());
+        batchBTreeBtn.setOnAction(e -> batchBTree());
+
+        // 并发BST事件
+        runConcurrentBtn.setOnAction(e -> runConcurrentWorkload());
+
         // 键盘事件
         setupKeyboardHandlers();
     }
@@ -404,6 +693,64 @@ public class TreeController implements Initializable {
                     break;
             }
         });
+
+        heapCanvas.setFocusTraversable(true);
+        heapCanvas.setOnKeyPressed(event -> {
+            if (currentHeapSteps == null || currentHeapSteps.isEmpty()) return;
+
+            switch (event.getCode()) {
+                case LEFT:
+                case A:
+                    previousHeapStep();
+                    break;
+                case RIGHT:
+                case D:
+                    nextHeapStep();
+                    break;
+                case HOME:
+                    showHeapStep(0);
+                    break;
+                case END:
+                    showHeapStep(currentHeapSteps.size() - 1);
+                    break;
+                case SPACE:
+                    if (heapAnimation != null && heapAnimation.getStatus() == Timeline.Status.RUNNING) {
+                        heapAnimation.stop();
+                    } else {
+                        startHeapAutoDemo();
+                    }
+                    break;
+            }
+        });
+
+        redBlackCanvas.setFocusTraversable(true);
+        redBlackCanvas.setOnKeyPressed(event -> {
+            if (currentRedBlackSteps == null || currentRedBlackSteps.isEmpty()) return;
+
+            switch (event.getCode()) {
+                case LEFT:
+                case A:
+                    previousRedBlackStep();
+                    break;
+                case RIGHT:
+                case D:
+                    nextRedBlackStep();
+                    break;
+                case HOME:
+                    showRedBlackStep(0);
+                    break;
+                case END:
+                    showRedBlackStep(currentRedBlackSteps.size() - 1);
+                    break;
+                case SPACE:
+                    if (redBlackAnimation != null && redBlackAnimation.getStatus() == Timeline.Status.RUNNING) {
+                        redBlackAnimation.stop();
+                    } else {
+                        startRedBlackAutoDemo();
+                    }
+                    break;
+            }
+        });
     }
 
     private void initializeStepDemos() {
@@ -421,9 +768,23 @@ public class TreeController implements Initializable {
         currentAvlSteps = new ArrayList<>();
         currentAvlStepIndex = 0;
 
+        // 堆步骤演示初始化
+        currentHeapSteps = new ArrayList<>();
+        currentHeapStepIndex = 0;
+
+        // 红黑树步骤演示初始化
+        currentRedBlackSteps = new ArrayList<>();
+        currentRedBlackStepIndex = 0;
+
+        // 并发负载运行期间定时重绘锁竞争热点
+        concurrentRefresh = new Timeline(new KeyFrame(Duration.millis(250), e -> drawConcurrentTree()));
+        concurrentRefresh.setCycleCount(Timeline.INDEFINITE);
+
         updateStepNavigation();
         updateHuffmanStepNavigation();
         updateAvlStepNavigation();
+        updateHeapStepNavigation();
+        updateRedBlackStepNavigation();
         updateDeleteStepNavigation();
     }
 
@@ -434,8 +795,11 @@ public class TreeController implements Initializable {
             int value = Integer.parseInt(binaryTreeValueField.getText());
             if (binaryTree == null) {
                 binaryTree = new BinaryTree();
+                binaryTreeVisualizer.attach(binaryTree);
             }
 
+            // 遍历步骤在后台边走树边生成，修改之前先停掉
+            resetTraversalSteps();
             String insertMethod = insertMethodCombo.getValue();
             switch (insertMethod) {
                 case "层次插入":
@@ -450,7 +814,6 @@ public class TreeController implements Initializable {
             }
 
             binaryTreeOutput.setText("插入节点: " + value + " (方式: " + insertMethod + ")");
-            binaryTreeVisualizer.drawBinaryTree(binaryTree.getRoot(), "binary");
             binaryTreeValueField.clear();
             updateTreeInfo();
 
@@ -459,6 +822,20 @@ public class TreeController implements Initializable {
         }
     }
 
+    // 批量层次插入：不记录步骤，树只发出一个 RESET 事件，画布只重绘一次
+    private void batchInsertBinaryTree() {
+        try {
+            int[] values = BatchOp.parseValues(binaryTreeBatchField.getText());
+            resetTraversalSteps();
+            binaryTree.applyBatch(BatchOp.inserts(values));
+            binaryTreeOutput.setText("批量层次插入 " + values.length + " 个节点");
+            binaryTreeBatchField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            binaryTreeOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
     private void traverseTree() {
         if (binaryTree == null || binaryTree.isEmpty()) {
             binaryTreeOutput.setText("错误: 二叉树为空");
@@ -468,31 +845,51 @@ public class TreeController implements Initializable {
         String traversalType = traversalCombo.getValue();
         resetTreeVisitedState();
 
-        List<BinaryTree.TraversalStep> steps = null;
+        if (openTraversalCursor(traversalType)) {
+            showTraversalStep(traversalCursor.next());
+            binaryTreeOutput.setText("开始" + traversalType + "演示...\n使用导航按钮查看详细步骤");
+        } else {
+            String result = getTraversalResult(traversalType);
+            binaryTreeOutput.setText(traversalType + ":\n" + result);
+            render(binaryTreeVisualizer, () -> binaryTreeVisualizer.drawBinaryTree(binaryTree.getRoot(), "binary"));
+        }
+    }
+
+    // 打开新的遍历步骤流，之前未播放完的步骤流会被关闭
+    private boolean openTraversalCursor(String traversalType) {
+        closeTraversalCursor();
+
+        StepStream<BinaryTree.TraversalStep> steps = null;
         switch (traversalType) {
             case "前序遍历":
-                steps = binaryTree.preOrderTraversalWithSteps();
+                steps = binaryTree.preOrderTraversalStepStream();
                 break;
             case "中序遍历":
-                steps = binaryTree.inOrderTraversalWithSteps();
+                steps = binaryTree.inOrderTraversalStepStream();
                 break;
             case "后序遍历":
-                steps = binaryTree.postOrderTraversalWithSteps();
+                steps = binaryTree.postOrderTraversalStepStream();
                 break;
             case "层次遍历":
-                steps = binaryTree.levelOrderTraversalWithSteps();
+                steps = binaryTree.levelOrderTraversalStepStream();
                 break;
         }
 
-        if (steps != null && !steps.isEmpty()) {
-            currentTraversalSteps = steps;
-            currentTraversalStepIndex = 0;
-            showTraversalStep(currentTraversalStepIndex);
-            binaryTreeOutput.setText("开始" + traversalType + "演示...\n使用导航按钮查看详细步骤");
-        } else {
-            String result = getTraversalResult(traversalType);
-            binaryTreeOutput.setText(traversalType + ":\n" + result);
-            binaryTreeVisualizer.drawBinaryTree(binaryTree.getRoot(), "binary");
+        if (steps == null) {
+            return false;
+        }
+        traversalCursor = new StepCursor<>(steps);
+        if (!traversalCursor.hasNext()) {
+            closeTraversalCursor();
+            return false;
+        }
+        return true;
+    }
+
+    private void closeTraversalCursor() {
+        if (traversalCursor != null) {
+            traversalCursor.close();
+            traversalCursor = null;
         }
     }
 
@@ -524,23 +921,22 @@ public class TreeController implements Initializable {
         resetAllNodesVisited(node.getRight());
     }
 
-    private void showTraversalStep(int stepIndex) {
-        if (currentTraversalSteps == null || currentTraversalSteps.isEmpty()) {
+    private void showTraversalStep(BinaryTree.TraversalStep step) {
+        if (traversalCursor == null) {
             binaryTreeOutput.setText("错误: 没有遍历步骤数据");
             return;
         }
 
-        if (stepIndex < 0) stepIndex = 0;
-        if (stepIndex >= currentTraversalSteps.size()) stepIndex = currentTraversalSteps.size() - 1;
-
-        currentTraversalStepIndex = stepIndex;
-        BinaryTree.TraversalStep step = currentTraversalSteps.get(stepIndex);
+        // 先确认是否还有下一步，步骤流取完后总步骤数才确定
+        traversalCursor.hasNext();
+        int stepIndex = traversalCursor.getPosition();
+        int totalSteps = traversalCursor.getTotal();
 
-        binaryTreeVisualizer.drawTraversalStep(binaryTree.getRoot(), step, stepIndex, currentTraversalSteps.size());
+        render(binaryTreeVisualizer, () ->
+                binaryTreeVisualizer.drawTraversalStep(binaryTree.getRoot(), step, stepIndex, totalSteps));
         updateTraversalStepNavigation();
 
-        String output = "步骤 " + (stepIndex + 1) + "/" + currentTraversalSteps.size() +
-                "\n" + step.description;
+        String output = "步骤 " + formatTraversalProgress() + "\n" + step.getDescription();
 
         if (step.currentNode != null) {
             output += "\n当前节点: " + step.currentNode.getValue();
@@ -550,20 +946,26 @@ public class TreeController implements Initializable {
         binaryTreeOutput.setText(output);
     }
 
+    // 总步骤数未知时显示为 "?"
+    private String formatTraversalProgress() {
+        int total = traversalCursor.getTotal();
+        return (traversalCursor.getPosition() + 1) + "/" + (total < 0 ? "?" : String.valueOf(total));
+    }
+
     private void previousTraversalStep() {
-        if (currentTraversalStepIndex > 0) {
-            showTraversalStep(currentTraversalStepIndex - 1);
+        if (traversalCursor != null && traversalCursor.hasPrevious()) {
+            showTraversalStep(traversalCursor.previous());
         }
     }
 
     private void nextTraversalStep() {
-        if (currentTraversalStepIndex < currentTraversalSteps.size() - 1) {
-            showTraversalStep(currentTraversalStepIndex + 1);
+        if (traversalCursor != null && traversalCursor.hasNext()) {
+            showTraversalStep(traversalCursor.next());
         }
     }
 
     private void startTraversalAutoDemo() {
-        if (currentTraversalSteps == null || currentTraversalSteps.isEmpty()) {
+        if (traversalCursor == null) {
             binaryTreeOutput.setText("请先执行遍历操作");
             return;
         }
@@ -572,28 +974,22 @@ public class TreeController implements Initializable {
             traversalAnimation.stop();
         }
 
-        currentTraversalStepIndex = 0;
-        traversalAnimation = new Timeline();
-
-        for (int i = 0; i < currentTraversalSteps.size(); i++) {
-            final int stepIndex = i;
-            KeyFrame keyFrame = new KeyFrame(
-                    Duration.seconds(i * 1.5),
-                    e -> showTraversalStep(stepIndex)
-            );
-            traversalAnimation.getKeyFrames().add(keyFrame);
+        // 从头重新生成步骤，每一帧只取一个步骤，不预先构建全部关键帧
+        if (!openTraversalCursor(traversalCombo.getValue())) {
+            binaryTreeOutput.setText("请先执行遍历操作");
+            return;
         }
+        showTraversalStep(traversalCursor.next());
 
-        KeyFrame finalFrame = new KeyFrame(
-                Duration.seconds(currentTraversalSteps.size() * 1.5 + 1),
-                e -> {
-                    resetTraversalSteps();
-                    binaryTreeOutput.setText("自动演示完成！树状态已恢复");
-                }
-        );
-        traversalAnimation.getKeyFrames().add(finalFrame);
-
-        traversalAnimation.setCycleCount(1);
+        traversalAnimation = new Timeline(new KeyFrame(Duration.seconds(1.5), e -> {
+            if (traversalCursor != null && traversalCursor.hasNext()) {
+                showTraversalStep(traversalCursor.next());
+            } else {
+                resetTraversalSteps();
+                binaryTreeOutput.setText("自动演示完成！树状态已恢复");
+            }
+        }));
+        traversalAnimation.setCycleCount(Timeline.INDEFINITE);
         traversalAnimation.play();
         binaryTreeOutput.setText("自动演示中...\n演示完成后树状态将自动恢复");
     }
@@ -603,12 +999,11 @@ public class TreeController implements Initializable {
             traversalAnimation.stop();
         }
 
-        currentTraversalSteps.clear();
-        currentTraversalStepIndex = 0;
+        closeTraversalCursor();
         resetTreeVisitedState();
 
         if (binaryTree != null) {
-            binaryTreeVisualizer.drawBinaryTree(binaryTree.getRoot(), "binary");
+            render(binaryTreeVisualizer, binaryTreeVisualizer::redrawIfStale);
         }
 
         updateTraversalStepNavigation();
@@ -616,16 +1011,16 @@ public class TreeController implements Initializable {
     }
 
     private void updateTraversalStepNavigation() {
-        if (currentTraversalSteps == null || currentTraversalSteps.isEmpty()) {
+        if (traversalCursor == null) {
             traversalStepInfoLabel.setText("步骤: 0/0");
             traversalStepPrevBtn.setDisable(true);
             traversalStepNextBtn.setDisable(true);
             traversalAutoDemoBtn.setDisable(true);
             resetTraversalBtn.setDisable(true);
         } else {
-            traversalStepInfoLabel.setText("步骤: " + (currentTraversalStepIndex + 1) + "/" + currentTraversalSteps.size());
-            traversalStepPrevBtn.setDisable(currentTraversalStepIndex == 0);
-            traversalStepNextBtn.setDisable(currentTraversalStepIndex == currentTraversalSteps.size() - 1);
+            traversalStepInfoLabel.setText("步骤: " + formatTraversalProgress());
+            traversalStepPrevBtn.setDisable(!traversalCursor.hasPrevious());
+            traversalStepNextBtn.setDisable(!traversalCursor.hasNext());
             traversalAutoDemoBtn.setDisable(false);
             resetTraversalBtn.setDisable(false);
         }
@@ -634,7 +1029,8 @@ public class TreeController implements Initializable {
     private void clearBinaryTree() {
         binaryTree = new BinaryTree();
         binaryTreeOutput.setText("二叉树已清空");
-        binaryTreeVisualizer.drawBinaryTree(null, "binary");
+        binaryTreeVisualizer.attach(binaryTree);
+        render(binaryTreeVisualizer, () -> binaryTreeVisualizer.drawBinaryTree(null, "binary"));
         updateTreeInfo();
     }
 
@@ -645,10 +1041,10 @@ public class TreeController implements Initializable {
             int value = Integer.parseInt(bstValueField.getText());
             if (bst == null) {
                 bst = new BST();
+                bstVisualizer.attach(bst);
             }
             bst.insert(value);
             bstOutput.setText("插入BST节点: " + value);
-            bstVisualizer.drawBinaryTree(bst.getRoot(), "bst");
             bstValueField.clear();
             updateTreeInfo();
             resetSearch();
@@ -689,10 +1085,39 @@ public class TreeController implements Initializable {
         }
     }
 
+    // 逐项执行，树形与逐个插入/删除相同；进行中的搜索/删除演示作废
+    private void batchBST(boolean insert) {
+        try {
+            int[] values = BatchOp.parseValues(bstBatchField.getText());
+            bst.applyBatch(insert ? BatchOp.inserts(values) : BatchOp.deletes(values));
+            resetSearch();
+            resetDeleteSteps();
+            bstOutput.setText("批量" + (insert ? "插入 " : "删除 ") + values.length + " 个值");
+            bstBatchField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            bstOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    // 把当前BST按先序复制到 IntNodePool 句柄存储，形状不变，画布直接读节点池绘制；
+    // 之后BST一有修改，已绑定的画布就完整重绘回对象节点视图
+    private void showCompactBST() {
+        resetSearch();
+        resetDeleteSteps();
+        CompactTree compact = CompactTree.fromTreeNode(bst.getRoot(), false);
+        render(bstVisualizer, () -> bstVisualizer.drawCompactTree(compact, "bst"));
+        IntNodePool pool = compact.getPool();
+        bstOutput.setText(String.format("紧凑存储: %d 个节点, 高度 %d, 节点数组 %.1f KB (容量 %d)",
+                compact.size(), compact.height(), pool.memoryBytes() / 1024.0, pool.capacity()));
+    }
+
     private void clearBST() {
+        resetDeleteSteps();
         bst = new BST();
         bstOutput.setText("BST已清空");
-        bstVisualizer.drawBinaryTree(null, "bst");
+        bstVisualizer.attach(bst);
+        render(bstVisualizer, () -> bstVisualizer.drawBinaryTree(null, "bst"));
         updateTreeInfo();
         resetSearch();
     }
@@ -710,7 +1135,10 @@ public class TreeController implements Initializable {
         currentStepIndex = stepIndex;
         BST.SearchStep step = currentSearchSteps.get(stepIndex);
 
-        bstVisualizer.drawSearchStep(bst.getRoot(), step, stepIndex, currentSearchSteps.size());
+        int index = stepIndex;
+        int total = currentSearchSteps.size();
+        // 在当前画布上只改节点颜色和面板文字，不重绘整棵树
+        render(bstVisualizer, () -> bstVisualizer.showSearchStep(bst.getRoot(), step, index, total));
         updateStepNavigation();
         bstCanvas.requestFocus();
     }
@@ -766,7 +1194,10 @@ public class TreeController implements Initializable {
         }
         currentSearchSteps.clear();
         currentStepIndex = 0;
-        bstVisualizer.drawBinaryTree(bst.getRoot(), "bst");
+        render(bstVisualizer, () -> {
+            bstVisualizer.clearMarks();
+            bstVisualizer.redrawIfStale();
+        });
         updateStepNavigation();
     }
 
@@ -796,7 +1227,9 @@ public class TreeController implements Initializable {
                 return;
             }
 
-            currentDeleteSteps = bst.deleteWithSteps(value);
+            discardPendingDelete();
+            pendingDelete = bst.deleteWithSteps(value);
+            currentDeleteSteps = pendingDelete.getSteps();
             currentDeleteStepIndex = 0;
 
             if (!currentDeleteSteps.isEmpty()) {
@@ -811,24 +1244,45 @@ public class TreeController implements Initializable {
         }
     }
 
+    // 有删除演示时直接提交演示定位好的删除，不再重新查找；否则按输入框的值删除
     private void performActualDeletion() {
         try {
-            int value = Integer.parseInt(bstValueField.getText());
-            if (bst != null) {
-                bst.performActualDeletion(value);
-                bstVisualizer.drawBinaryTree(bst.getRoot(), "bst");
-                updateTreeInfo();
-                bstOutput.setText("✅ 删除操作已实际执行\n节点 " + value + " 已被删除");
-
-                currentDeleteSteps.clear();
-                currentDeleteStepIndex = 0;
-                updateDeleteStepNavigation();
+            if (bst == null) {
+                return;
+            }
+            int value;
+            boolean deleted;
+            if (pendingDelete != null && pendingDelete.isPending()) {
+                BST.PendingDelete pending = pendingDelete;
+                pendingDelete = null;
+                value = pending.getValue();
+                deleted = pending.commit();
+            } else {
+                value = Integer.parseInt(bstValueField.getText());
+                deleted = bst.delete(value);
             }
+            // 删除事件已修补或重绘了画布；值不存在时画布可能还停在删除演示上
+            render(bstVisualizer, bstVisualizer::redrawIfStale);
+            updateTreeInfo();
+            bstOutput.setText(deleted
+                    ? "✅ 删除操作已实际执行\n节点 " + value + " 已被删除"
+                    : "未找到节点 " + value + "，树未改变");
+
+            currentDeleteSteps.clear();
+            currentDeleteStepIndex = 0;
+            updateDeleteStepNavigation();
         } catch (Exception e) {
             bstOutput.setText("执行删除时出错: " + e.getMessage());
         }
     }
 
+    private void discardPendingDelete() {
+        if (pendingDelete != null) {
+            pendingDelete.rollback();
+            pendingDelete = null;
+        }
+    }
+
     private void showDeleteStep(int stepIndex) {
         if (currentDeleteSteps == null || currentDeleteSteps.isEmpty()) {
             return;
@@ -840,12 +1294,14 @@ public class TreeController implements Initializable {
         currentDeleteStepIndex = stepIndex;
         BST.DeleteStep step = currentDeleteSteps.get(stepIndex);
 
-        bstVisualizer.drawDeleteStep(bst.getRoot(), step, stepIndex, currentDeleteSteps.size());
+        int index = stepIndex;
+        int total = currentDeleteSteps.size();
+        render(bstVisualizer, () -> bstVisualizer.drawDeleteStep(bst.getRoot(), step, index, total));
         updateDeleteStepNavigation();
 
         String status = "🔍 步骤演示中 (树结构未改变)\n";
         bstOutput.setText(status + "步骤 " + (stepIndex + 1) + "/" + currentDeleteSteps.size() +
-                "\n" + step.description);
+                "\n" + step.getDescription());
 
         bstCanvas.requestFocus();
     }
@@ -899,9 +1355,10 @@ public class TreeController implements Initializable {
         if (deleteAnimation != null) {
             deleteAnimation.stop();
         }
+        discardPendingDelete();
         currentDeleteSteps.clear();
         currentDeleteStepIndex = 0;
-        bstVisualizer.drawBinaryTree(bst.getRoot(), "bst");
+        render(bstVisualizer, bstVisualizer::redrawIfStale);
         updateDeleteStepNavigation();
         bstOutput.setText("删除演示已重置");
     }
@@ -933,6 +1390,8 @@ public class TreeController implements Initializable {
             }
 
             huffmanTree = new HuffmanTree();
+            huffmanTree.setQueueKind("IntHeap".equals(huffmanQueueCombo.getValue())
+                    ? HuffmanTree.QueueKind.INT_HEAP : HuffmanTree.QueueKind.PRIORITY_QUEUE);
             currentHuffmanSteps = huffmanTree.buildTreeWithSteps(input);
             currentHuffmanStepIndex = 0;
 
@@ -949,11 +1408,99 @@ public class TreeController implements Initializable {
     private void clearHuffmanTree() {
         huffmanTree = new HuffmanTree();
         huffmanOutput.setText("哈夫曼树已清空");
-        huffmanVisualizer.drawHuffmanTree(null);
+        render(huffmanVisualizer, () -> huffmanVisualizer.drawHuffmanTree(null));
         huffmanInputField.clear();
         resetHuffmanSteps();
     }
 
+    // ========== 哈夫曼文件压缩操作 ==========
+
+    private void compressHuffmanFile() {
+        Path input = getHuffmanFilePath();
+        if (input == null) return;
+
+        int blockSize;
+        try {
+            long kilobytes = Long.parseLong(huffmanBlockSizeField.getText().trim());
+            if (kilobytes <= 0 || kilobytes > MAX_HUFFMAN_BLOCK_KB) throw new NumberFormatException();
+            blockSize = (int) kilobytes * 1024;
+        } catch (NumberFormatException e) {
+            huffmanOutput.setText("错误: 块大小必须是 1 到 " + MAX_HUFFMAN_BLOCK_KB + " 之间的整数(KB)");
+            return;
+        }
+
+        Path output = Paths.get(input + HuffmanFileCompressor.FILE_EXTENSION);
+        HuffmanFileCompressor compressor = new HuffmanFileCompressor(blockSize,
+                Runtime.getRuntime().availableProcessors());
+        runHuffmanFileTask("压缩", () -> compressor.compress(input, output), output);
+    }
+
+    private void decompressHuffmanFile() {
+        Path input = getHuffmanFilePath();
+        if (input == null) return;
+
+        String name = input.getFileName().toString();
+        if (!name.endsWith(HuffmanFileCompressor.FILE_EXTENSION)) {
+            huffmanOutput.setText("错误: 请选择 " + HuffmanFileCompressor.FILE_EXTENSION + " 压缩文件");
+            return;
+        }
+
+        Path output = input.resolveSibling(
+                name.substring(0, name.length() - HuffmanFileCompressor.FILE_EXTENSION.length()) + ".out");
+        HuffmanFileCompressor compressor = new HuffmanFileCompressor();
+        runHuffmanFileTask("解压", () -> compressor.decompress(input, output), output);
+    }
+
+    private Path getHuffmanFilePath() {
+        String text = huffmanFileField.getText().trim();
+        if (text.isEmpty()) {
+            huffmanOutput.setText("错误: 请输入文件路径");
+            return null;
+        }
+        Path path = Paths.get(text);
+        if (!Files.isRegularFile(path)) {
+            huffmanOutput.setText("错误: 文件不存在: " + path);
+            return null;
+        }
+        return path;
+    }
+
+    // 压缩/解压在后台线程执行，完成后回到 FX 线程显示每块统计和整体吞吐量
+    private void runHuffmanFileTask(String action, Callable<HuffmanFileCompressor.CompressionReport> work,
+                                    Path output) {
+        compressHuffmanFileBtn.setDisable(true);
+        decompressHuffmanFileBtn.setDisable(true);
+        huffmanOutput.setText("正在" + action + "...");
+
+        Thread worker = new Thread(() -> {
+            try {
+                HuffmanFileCompressor.CompressionReport report = work.call();
+                Platform.runLater(() -> showCompressionReport(action, report, output));
+            } catch (Exception e) {
+                Platform.runLater(() -> huffmanOutput.setText(action + "失败: " + e.getMessage()));
+            } finally {
+                Platform.runLater(() -> {
+                    compressHuffmanFileBtn.setDisable(false);
+                    decompressHuffmanFileBtn.setDisable(false);
+                });
+            }
+        }, "huffman-file-" + action);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void showCompressionReport(String action, HuffmanFileCompressor.CompressionReport report, Path output) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(action).append("完成: ").append(output).append("\n");
+        sb.append(report).append("\n");
+        for (HuffmanFileCompressor.BlockStats block : report.blocks) {
+            sb.append(block).append("\n");
+        }
+        huffmanOutput.setText(sb.toString());
+        render(huffmanVisualizer, () ->
+                huffmanVisualizer.drawCompressionReport(report, "哈夫曼文件" + action + " - 分块统计"));
+    }
+
     // ========== 哈夫曼树步骤演示操作 ==========
 
     private void showHuffmanStep(int stepIndex) {
@@ -967,11 +1514,19 @@ public class TreeController implements Initializable {
         currentHuffmanStepIndex = stepIndex;
         HuffmanTree.HuffmanStep step = currentHuffmanSteps.get(stepIndex);
 
-        huffmanVisualizer.drawHuffmanStep(huffmanTree.getRoot(), step,
-                stepIndex, currentHuffmanSteps.size());
+        int index = stepIndex;
+        int total = currentHuffmanSteps.size();
+        render(huffmanVisualizer, () ->
+                huffmanVisualizer.drawHuffmanStep(huffmanTree.getRoot(), step, index, total));
         updateHuffmanStepNavigation();
-        huffmanOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentHuffmanSteps.size() +
-                "\n" + step.description);
+
+        String output = "步骤 " + (stepIndex + 1) + "/" + currentHuffmanSteps.size() +
+                "\n" + step.getDescription();
+        if (step.encodedBits != null) {
+            output += "\n编码比特流: " + step.encodedBits +
+                    (step.encodedBits.length() < step.encodedBitLength ? "..." : "");
+        }
+        huffmanOutput.setText(output);
         huffmanCanvas.requestFocus();
     }
 
@@ -1066,6 +1621,25 @@ public class TreeController implements Initializable {
         }
     }
 
+    private void deleteAVL() {
+        try {
+            int value = Integer.parseInt(avlValueField.getText());
+            currentAvlSteps = avlTree.deleteWithSteps(value);
+            currentAvlStepIndex = 0;
+
+            if (!currentAvlSteps.isEmpty()) {
+                showAvlStep(currentAvlStepIndex);
+                avlOutput.setText("开始AVL树删除演示... 使用导航按钮查看回溯和旋转步骤");
+            }
+
+            avlValueField.clear();
+            updateTreeInfo();
+
+        } catch (Exception e) {
+            avlOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
     private void searchAVL() {
         try {
             int value = Integer.parseInt(avlValueField.getText());
@@ -1079,7 +1653,7 @@ public class TreeController implements Initializable {
             avlOutput.setText(result);
 
             if (found) {
-                avlVisualizer.drawAVLTree(avlTree.getRoot());
+                render(avlVisualizer, () -> avlVisualizer.drawAVLTree(avlTree.getRoot()));
             }
 
         } catch (Exception e) {
@@ -1087,10 +1661,25 @@ public class TreeController implements Initializable {
         }
     }
 
+    // AVL 画布不订阅事件，批量操作后直接重绘一次
+    private void batchAVL(boolean insert) {
+        try {
+            int[] values = BatchOp.parseValues(avlBatchField.getText());
+            avlTree.applyBatch(insert ? BatchOp.inserts(values) : BatchOp.deletes(values));
+            resetAvlSteps();
+            render(avlVisualizer, () -> avlVisualizer.drawAVLTree(avlTree.getRoot()));
+            avlOutput.setText("批量" + (insert ? "插入 " : "删除 ") + values.length + " 个值");
+            avlBatchField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            avlOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
     private void clearAVL() {
         avlTree = new AVLTree();
         avlOutput.setText("AVL树已清空");
-        avlVisualizer.drawAVLTree(null);
+        render(avlVisualizer, () -> avlVisualizer.drawAVLTree(null));
         updateTreeInfo();
         resetAvlSteps();
     }
@@ -1109,11 +1698,13 @@ public class TreeController implements Initializable {
         AVLTree.AVLStep step = currentAvlSteps.get(stepIndex);
 
         AVLTree.AVLNode currentTreeState = step.treeState != null ? step.treeState : avlTree.getRoot();
-        avlVisualizer.drawAVLTreeWithSteps(currentTreeState, step, stepIndex, currentAvlSteps.size());
+        int index = stepIndex;
+        int total = currentAvlSteps.size();
+        render(avlVisualizer, () -> avlVisualizer.drawAVLTreeWithSteps(currentTreeState, step, index, total));
         updateAvlStepNavigation();
 
         String output = "步骤 " + (stepIndex + 1) + "/" + currentAvlSteps.size() +
-                "\n" + step.description;
+                "\n" + step.getDescription();
 
         if (step.balanceFactor != 0) {
             output += "\n平衡因子: " + step.balanceFactor;
@@ -1204,23 +1795,538 @@ public class TreeController implements Initializable {
         }
     }
 
-    // ========== 树形结构存档管理方法 ==========
+    // ========== 堆操作 ==========
 
-    // 刷新保存文件列表
-    private void refreshTreeSavedFiles() {
-        List<String> savedFiles = TreeArchiveManager.getSavedTreeFiles();
-        savedTreeFilesCombo.getItems().setAll(savedFiles);
-        if (!savedFiles.isEmpty()) {
-            savedTreeFilesCombo.setValue(savedFiles.get(0));
+    private void insertHeap() {
+        try {
+            int value = Integer.parseInt(heapValueField.getText().trim());
+            int id = heap.getNextId();
+            startHeapSteps(heap.insertWithSteps(value));
+            heapOutput.setText("插入 " + value + "，编号 " + id + "... 使用导航按钮查看上浮过程");
+            heapValueField.clear();
+        } catch (Exception e) {
+            heapOutput.setText("错误: " + e.getMessage());
         }
     }
 
-    // 删除保存文件
-    private void deleteTreeSaveFile() {
-        String filename = savedTreeFilesCombo.getValue();
-        if (filename != null && !filename.isEmpty()) {
-            if (TreeArchiveManager.deleteTreeSaveFile(filename)) {
-                refreshTreeSavedFiles();
+    private void pollHeap() {
+        if (heap.isEmpty()) {
+            heapOutput.setText("错误: 堆为空");
+            return;
+        }
+        int top = heap.peek();
+        startHeapSteps(heap.pollWithSteps());
+        heapOutput.setText("取出堆顶 " + top + "... 使用导航按钮查看下沉过程");
+    }
+
+    private void decreaseHeapKey() {
+        try {
+            int id = Integer.parseInt(heapIdField.getText().trim());
+            int newKey = Integer.parseInt(heapNewKeyField.getText().trim());
+            startHeapSteps(heap.decreaseKeyWithSteps(id, newKey));
+            heapOutput.setText("编号 " + id + " 的键减小到 " + newKey + "... 使用导航按钮查看上浮过程");
+            heapIdField.clear();
+            heapNewKeyField.clear();
+        } catch (Exception e) {
+            heapOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    // 批量输入直接自底向上建堆（O(n)），编号为输入顺序 0 ~ n-1
+    private void heapifyHeap() {
+        try {
+            int[] values = BatchOp.parseValues(heapBatchField.getText());
+            heap = new IntHeap(heapArityCombo.getValue());
+            if (values.length <= MAX_HEAP_DEMO_VALUES) {
+                startHeapSteps(heap.heapifyWithSteps(values));
+            } else {
+                heap.heapify(values);
+                resetHeapSteps();
+                render(heapVisualizer, () -> heapVisualizer.drawHeap(heap));
+                updateTreeInfo();
+            }
+            heapOutput.setText("自底向上建堆: " + values.length + " 个值");
+            heapBatchField.clear();
+        } catch (Exception e) {
+            heapOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void clearHeap() {
+        heap = new IntHeap(heapArityCombo.getValue());
+        heapOutput.setText("堆已清空");
+        resetHeapSteps();
+        render(heapVisualizer, () -> heapVisualizer.drawHeap(heap));
+        updateTreeInfo();
+    }
+
+    // 换叉数时保留现有的键重新建堆，编号重新从 0 开始
+    private void changeHeapArity() {
+        Integer arity = heapArityCombo.getValue();
+        if (arity == null || heap == null || arity == heap.getArity()) {
+            return;
+        }
+        int[] keys = heap.toArray();
+        heap = new IntHeap(arity);
+        heap.heapify(keys);
+        resetHeapSteps();
+        render(heapVisualizer, () -> heapVisualizer.drawHeap(heap));
+        heapOutput.setText("改为 " + arity + " 叉堆，按现有的 " + keys.length + " 个键重新建堆（编号重新分配）");
+        updateTreeInfo();
+    }
+
+    private void startHeapSteps(List<IntHeap.HeapStep> steps) {
+        if (heapAnimation != null) {
+            heapAnimation.stop();
+        }
+        currentHeapSteps = steps;
+        currentHeapStepIndex = 0;
+        if (!currentHeapSteps.isEmpty()) {
+            showHeapStep(0);
+        }
+        updateTreeInfo();
+    }
+
+    // ========== 堆步骤演示操作 ==========
+
+    private void showHeapStep(int stepIndex) {
+        if (currentHeapSteps == null || currentHeapSteps.isEmpty()) {
+            return;
+        }
+
+        if (stepIndex < 0) stepIndex = 0;
+        if (stepIndex >= currentHeapSteps.size()) stepIndex = currentHeapSteps.size() - 1;
+
+        currentHeapStepIndex = stepIndex;
+        IntHeap.HeapStep step = currentHeapSteps.get(stepIndex);
+
+        int index = stepIndex;
+        int total = currentHeapSteps.size();
+        render(heapVisualizer, () -> heapVisualizer.drawHeapStep(step, index, total));
+        updateHeapStepNavigation();
+
+        heapOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentHeapSteps.size() + "\n" + step.getDescription());
+        heapCanvas.requestFocus();
+    }
+
+    private void previousHeapStep() {
+        if (currentHeapStepIndex > 0) {
+            showHeapStep(currentHeapStepIndex - 1);
+        }
+    }
+
+    private void nextHeapStep() {
+        if (currentHeapStepIndex < currentHeapSteps.size() - 1) {
+            showHeapStep(currentHeapStepIndex + 1);
+        }
+    }
+
+    private void startHeapAutoDemo() {
+        if (currentHeapSteps == null || currentHeapSteps.isEmpty()) {
+            heapOutput.setText("请先执行堆操作");
+            return;
+        }
+
+        if (heapAnimation != null) {
+            heapAnimation.stop();
+        }
+
+        currentHeapStepIndex = 0;
+        heapAnimation = new Timeline();
+
+        for (int i = 0; i < currentHeapSteps.size(); i++) {
+            final int stepIndex = i;
+            KeyFrame keyFrame = new KeyFrame(
+                    Duration.seconds(i * 1.0),
+                    e -> showHeapStep(stepIndex)
+            );
+            heapAnimation.getKeyFrames().add(keyFrame);
+        }
+
+        KeyFrame finalFrame = new KeyFrame(
+                Duration.seconds(currentHeapSteps.size() * 1.0 + 1),
+                e -> heapOutput.setText("自动演示完成！使用导航按钮重新查看步骤")
+        );
+        heapAnimation.getKeyFrames().add(finalFrame);
+
+        heapAnimation.setCycleCount(1);
+        heapAnimation.play();
+        heapOutput.setText("自动演示中...\n按空格键停止演示");
+    }
+
+    private void resetHeapSteps() {
+        if (heapAnimation != null) {
+            heapAnimation.stop();
+        }
+        currentHeapSteps.clear();
+        currentHeapStepIndex = 0;
+        updateHeapStepNavigation();
+    }
+
+    private void updateHeapStepNavigation() {
+        if (currentHeapSteps == null || currentHeapSteps.isEmpty()) {
+            heapStepInfoLabel.setText("步骤: 0/0");
+            prevHeapStepBtn.setDisable(true);
+            nextHeapStepBtn.setDisable(true);
+            heapAutoDemoBtn.setDisable(true);
+            resetHeapBtn.setDisable(true);
+        } else {
+            heapStepInfoLabel.setText("步骤: " + (currentHeapStepIndex + 1) + "/" + currentHeapSteps.size());
+            prevHeapStepBtn.setDisable(currentHeapStepIndex == 0);
+            nextHeapStepBtn.setDisable(currentHeapStepIndex == currentHeapSteps.size() - 1);
+            heapAutoDemoBtn.setDisable(false);
+            resetHeapBtn.setDisable(false);
+        }
+    }
+
+    // ========== 红黑树操作 ==========
+
+    private void insertRedBlack() {
+        try {
+            int value = Integer.parseInt(redBlackValueField.getText().trim());
+            startRedBlackSteps(redBlackTree.insertWithSteps(value));
+            redBlackOutput.setText("插入 " + value + "... 使用导航按钮查看染色和旋转过程");
+            redBlackValueField.clear();
+        } catch (Exception e) {
+            redBlackOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void deleteRedBlack() {
+        try {
+            int value = Integer.parseInt(redBlackValueField.getText().trim());
+            startRedBlackSteps(redBlackTree.deleteWithSteps(value));
+            redBlackOutput.setText("删除 " + value + "... 使用导航按钮查看修复过程");
+            redBlackValueField.clear();
+        } catch (Exception e) {
+            redBlackOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void searchRedBlack() {
+        try {
+            int value = Integer.parseInt(redBlackValueField.getText().trim());
+            if (redBlackTree.isEmpty()) {
+                redBlackOutput.setText("错误: 红黑树为空");
+                return;
+            }
+            boolean found = redBlackTree.search(value);
+            redBlackOutput.setText(found ? "✓ 找到节点: " + value : "✗ 未找到节点: " + value);
+        } catch (Exception e) {
+            redBlackOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    // 批量插入不生成步骤，完成后重绘一次
+    private void batchRedBlack() {
+        try {
+            int[] values = BatchOp.parseValues(redBlackBatchField.getText());
+            long rotationsBefore = redBlackTree.getRotations();
+            int inserted = 0;
+            for (int value : values) {
+                if (redBlackTree.insert(value)) {
+                    inserted++;
+                }
+            }
+            resetRedBlackSteps();
+            render(redBlackVisualizer, () -> redBlackVisualizer.drawRedBlackTree(redBlackTree.getRoot()));
+            redBlackOutput.setText("批量插入 " + inserted + " 个值，旋转 "
+                    + (redBlackTree.getRotations() - rotationsBefore) + " 次");
+            redBlackBatchField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            redBlackOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void clearRedBlack() {
+        redBlackTree = new RedBlackTree();
+        redBlackOutput.setText("红黑树已清空");
+        resetRedBlackSteps();
+        render(redBlackVisualizer, () -> redBlackVisualizer.drawRedBlackTree(null));
+        updateTreeInfo();
+    }
+
+    private void startRedBlackSteps(List<RedBlackTree.RBStep> steps) {
+        if (redBlackAnimation != null) {
+            redBlackAnimation.stop();
+        }
+        currentRedBlackSteps = steps;
+        currentRedBlackStepIndex = 0;
+        if (!currentRedBlackSteps.isEmpty()) {
+            showRedBlackStep(0);
+        }
+        updateTreeInfo();
+    }
+
+    // ========== 红黑树步骤演示操作 ==========
+
+    private void showRedBlackStep(int stepIndex) {
+        if (currentRedBlackSteps == null || currentRedBlackSteps.isEmpty()) {
+            return;
+        }
+
+        if (stepIndex < 0) stepIndex = 0;
+        if (stepIndex >= currentRedBlackSteps.size()) stepIndex = currentRedBlackSteps.size() - 1;
+
+        currentRedBlackStepIndex = stepIndex;
+        RedBlackTree.RBStep step = currentRedBlackSteps.get(stepIndex);
+
+        int index = stepIndex;
+        int total = currentRedBlackSteps.size();
+        render(redBlackVisualizer, () -> redBlackVisualizer.drawRedBlackStep(step, index, total));
+        updateRedBlackStepNavigation();
+
+        redBlackOutput.setText("步骤 " + (stepIndex + 1) + "/" + currentRedBlackSteps.size() + "\n" + step.getDescription());
+        redBlackCanvas.requestFocus();
+    }
+
+    private void previousRedBlackStep() {
+        if (currentRedBlackStepIndex > 0) {
+            showRedBlackStep(currentRedBlackStepIndex - 1);
+        }
+    }
+
+    private void nextRedBlackStep() {
+        if (currentRedBlackStepIndex < currentRedBlackSteps.size() - 1) {
+            showRedBlackStep(currentRedBlackStepIndex + 1);
+        }
+    }
+
+    private void startRedBlackAutoDemo() {
+        if (currentRedBlackSteps == null || currentRedBlackSteps.isEmpty()) {
+            redBlackOutput.setText("请先执行插入或删除操作");
+            return;
+        }
+
+        if (redBlackAnimation != null) {
+            redBlackAnimation.stop();
+        }
+
+        currentRedBlackStepIndex = 0;
+        redBlackAnimation = new Timeline();
+
+        for (int i = 0; i < currentRedBlackSteps.size(); i++) {
+            final int stepIndex = i;
+            KeyFrame keyFrame = new KeyFrame(
+                    Duration.seconds(i * 1.0),
+                    e -> showRedBlackStep(stepIndex)
+            );
+            redBlackAnimation.getKeyFrames().add(keyFrame);
+        }
+
+        KeyFrame finalFrame = new KeyFrame(
+                Duration.seconds(currentRedBlackSteps.size() * 1.0 + 1),
+                e -> redBlackOutput.setText("自动演示完成！使用导航按钮重新查看步骤")
+        );
+        redBlackAnimation.getKeyFrames().add(finalFrame);
+
+        redBlackAnimation.setCycleCount(1);
+        redBlackAnimation.play();
+        redBlackOutput.setText("自动演示中...\n按空格键停止演示");
+    }
+
+    private void resetRedBlackSteps() {
+        if (redBlackAnimation != null) {
+            redBlackAnimation.stop();
+        }
+        currentRedBlackSteps.clear();
+        currentRedBlackStepIndex = 0;
+        updateRedBlackStepNavigation();
+    }
+
+    private void updateRedBlackStepNavigation() {
+        if (currentRedBlackSteps == null || currentRedBlackSteps.isEmpty()) {
+            redBlackStepInfoLabel.setText("步骤: 0/0");
+            prevRedBlackStepBtn.setDisable(true);
+            nextRedBlackStepBtn.setDisable(true);
+            redBlackAutoDemoBtn.setDisable(true);
+            resetRedBlackBtn.setDisable(true);
+        } else {
+            redBlackStepInfoLabel.setText("步骤: " + (currentRedBlackStepIndex + 1) + "/" + currentRedBlackSteps.size());
+            prevRedBlackStepBtn.setDisable(currentRedBlackStepIndex == 0);
+            nextRedBlackStepBtn.setDisable(currentRedBlackStepIndex == currentRedBlackSteps.size() - 1);
+            redBlackAutoDemoBtn.setDisable(false);
+            resetRedBlackBtn.setDisable(false);
+        }
+    }
+
+    // ========== B+树操作 ==========
+
+    private void insertBTree() {
+        try {
+            int value = Integer.parseInt(bTreeValueField.getText().trim());
+            long splitsBefore = bTree.getSplits();
+            if (bTree.insert(value)) {
+                long splits = bTree.getSplits() - splitsBefore;
+                bTreeOutput.setText("插入 " + value + (splits > 0 ? "，分裂 " + splits + " 个节点" : ""));
+            } else {
+                bTreeOutput.setText("值 " + value + " 已存在");
+            }
+            render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, value));
+            bTreeValueField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            bTreeOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void deleteBTree() {
+        try {
+            int value = Integer.parseInt(bTreeValueField.getText().trim());
+            long mergesBefore = bTree.getMerges();
+            if (bTree.delete(value)) {
+                long merges = bTree.getMerges() - mergesBefore;
+                bTreeOutput.setText("删除 " + value + (merges > 0 ? "，合并 " + merges + " 次" : ""));
+            } else {
+                bTreeOutput.setText("值 " + value + " 不存在");
+            }
+            render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, null));
+            bTreeValueField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            bTreeOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void searchBTree() {
+        try {
+            int value = Integer.parseInt(bTreeValueField.getText().trim());
+            boolean found = bTree.contains(value);
+            bTreeOutput.setText(found ? "✓ 找到键: " + value + "（访问 " + bTree.height() + " 个节点）"
+                    : "✗ 未找到键: " + value);
+            render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, found ? value : null));
+        } catch (Exception e) {
+            bTreeOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void batchBTree() {
+        try {
+            int[] values = BatchOp.parseValues(bTreeBatchField.getText());
+            long splitsBefore = bTree.getSplits();
+            int inserted = 0;
+            for (int value : values) {
+                if (bTree.insert(value)) {
+                    inserted++;
+                }
+            }
+            render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, null));
+            bTreeOutput.setText("批量插入 " + inserted + " 个值，分裂 " + (bTree.getSplits() - splitsBefore) + " 次");
+            bTreeBatchField.clear();
+            updateTreeInfo();
+        } catch (Exception e) {
+            bTreeOutput.setText("错误: " + e.getMessage());
+        }
+    }
+
+    private void clearBTree() {
+        bTree = new BTree(bTreeOrderCombo.getValue());
+        bTreeOutput.setText("B+树已清空");
+        render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, null));
+        updateTreeInfo();
+    }
+
+    // 换阶数时按顺序重新插入现有的键
+    private void changeBTreeOrder() {
+        Integer order = bTreeOrderCombo.getValue();
+        if (order == null || bTree == null || order == bTree.getOrder()) {
+            return;
+        }
+        int[] keys = bTree.keys();
+        bTree = new BTree(order);
+        for (int key : keys) {
+            bTree.insert(key);
+        }
+        render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, null));
+        bTreeOutput.setText("改为 " + order + " 阶，重新插入现有的 " + keys.length + " 个键");
+        updateTreeInfo();
+    }
+
+    // ========== 并发BST负载 ==========
+
+    // 在后台线程按线程数 1, 2, 4, ... 逐档运行同一负载：先测整树一把锁的 BST 作对照，
+    // 再在新填充的 ConcurrentBST 上测细粒度锁，两者的吞吐量画在同一张折线图上。
+    // 工作线程是虚拟线程；运行期间画布每 250 ms 重绘一次当前树的锁竞争热点
+    private void runConcurrentWorkload() {
+        ConcurrentWorkload workload;
+        int maxThreads;
+        try {
+            workload = new ConcurrentWorkload(Integer.parseInt(concurrentOpsField.getText().trim()),
+                    Integer.parseInt(concurrentKeyRangeField.getText().trim()), concurrentSearchCombo.getValue());
+            maxThreads = concurrentThreadsCombo.getValue();
+        } catch (Exception e) {
+            concurrentOutput.setText("错误: " + e.getMessage());
+            return;
+        }
+
+        XYChart.Series<Number, Number> fineSeries = new XYChart.Series<>();
+        fineSeries.setName("细粒度锁 BST");
+        XYChart.Series<Number, Number> lockedSeries = new XYChart.Series<>();
+        lockedSeries.setName("整树一把锁 BST");
+        concurrentChart.getData().setAll(fineSeries, lockedSeries);
+
+        runConcurrentBtn.setDisable(true);
+        concurrentOutput.setText(String.format("每线程 %d 次操作, 键范围 %d, 查找 %d%%, 吞吐量单位: 百万次/秒%n",
+                workload.getOperationsPerThread(), workload.getKeyRange(), workload.getSearchPercent()));
+        concurrentRefresh.play();
+
+        Thread runner = new Thread(() -> {
+            try {
+                for (int threads : ConcurrentWorkload.threadCounts(maxThreads)) {
+                    ConcurrentWorkload.Target locked = ConcurrentWorkload.lockedTarget(new BST());
+                    workload.prefill(locked, threads);
+                    ConcurrentWorkload.Result coarse = workload.run(locked, threads, threads);
+
+                    ConcurrentBST tree = new ConcurrentBST();
+                    ConcurrentWorkload.Target target = ConcurrentWorkload.target(tree);
+                    workload.prefill(target, threads);
+                    concurrentTree = tree;
+                    ConcurrentWorkload.Result fine = workload.run(target, threads, threads);
+
+                    Platform.runLater(() -> {
+                        fineSeries.getData().add(new XYChart.Data<>(threads, fine.getThroughput()));
+                        lockedSeries.getData().add(new XYChart.Data<>(threads, coarse.getThroughput()));
+                        concurrentOutput.appendText("细粒度锁 " + fine + "\n整树加锁 " + coarse + "\n");
+                    });
+                }
+            } catch (Exception e) {
+                Platform.runLater(() -> concurrentOutput.appendText("运行失败: " + e.getMessage() + "\n"));
+            } finally {
+                Platform.runLater(() -> {
+                    concurrentRefresh.stop();
+                    runConcurrentBtn.setDisable(false);
+                    drawConcurrentTree();
+                    updateTreeInfo();
+                });
+            }
+        }, "concurrent-workload");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    private void drawConcurrentTree() {
+        ConcurrentBST tree = concurrentTree;
+        render(concurrentVisualizer, () -> concurrentVisualizer.drawConcurrentTree(tree, CONCURRENT_HOT_WINDOW_NANOS));
+    }
+
+    // ========== 树形结构存档管理方法 ==========
+
+    // 刷新保存文件列表
+    private void refreshTreeSavedFiles() {
+        List<String> savedFiles = TreeArchiveManager.getSavedTreeFiles();
+        savedTreeFilesCombo.getItems().setAll(savedFiles);
+        if (!savedFiles.isEmpty()) {
+            savedTreeFilesCombo.setValue(savedFiles.get(0));
+        }
+    }
+
+    // 删除保存文件
+    private void deleteTreeSaveFile() {
+        String filename = savedTreeFilesCombo.getValue();
+        if (filename != null && !filename.isEmpty()) {
+            if (TreeArchiveManager.deleteTreeSaveFile(filename)) {
+                refreshTreeSavedFiles();
                 showTreeAlert("成功", "文件删除成功: " + filename);
             } else {
                 showTreeAlert("错误", "文件删除失败: " + filename);
@@ -1265,7 +2371,8 @@ public class TreeController implements Initializable {
         TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
         if (archiveData != null && "binary".equals(archiveData.treeType)) {
             binaryTree = BinaryTree.loadFromArchive(archiveData);
-            binaryTreeVisualizer.drawBinaryTree(binaryTree.getRoot(), "binary");
+            binaryTreeVisualizer.attach(binaryTree);
+            render(binaryTreeVisualizer, () -> binaryTreeVisualizer.drawBinaryTree(binaryTree.getRoot(), "binary"));
             binaryTreeOutput.setText("二叉树加载成功: " + archiveData.description);
             updateTreeInfo();
         } else {
@@ -1288,8 +2395,8 @@ public class TreeController implements Initializable {
             return;
         }
 
-        TreeArchiveManager.TreeArchiveData archiveData = bst.saveToArchive(description);
-        if (TreeArchiveManager.saveTreeStructure(archiveData, filename)) {
+        // 之前保存或加载过同名存档时只同步操作日志
+        if (TreeArchiveManager.saveTreeStructure(bst, filename, description, bst::saveToArchive)) {
             showTreeAlert("成功", "BST保存成功: " + filename);
             refreshTreeSavedFiles();
             treeArchiveNameField.clear();
@@ -1309,9 +2416,13 @@ public class TreeController implements Initializable {
 
         TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
         if (archiveData != null && "bst".equals(archiveData.treeType)) {
-            bst = BST.loadFromArchive(archiveData);
-            bstVisualizer.drawBinaryTree(bst.getRoot(), "bst");
-            bstOutput.setText("BST加载成功: " + archiveData.description);
+            resetDeleteSteps();
+            JournaledArchive.Resumed<BST> loaded = TreeArchiveManager.resumeJournal(filename, archiveData,
+                    () -> BST.loadFromArchive(archiveData), BST::saveToArchive);
+            bst = loaded.structure;
+            bstVisualizer.attach(bst);
+            render(bstVisualizer, () -> bstVisualizer.drawBinaryTree(bst.getRoot(), "bst"));
+            bstOutput.setText("BST加载成功: " + archiveData.description + replayInfo(loaded.replayed));
             updateTreeInfo();
         } else {
             showTreeAlert("错误", "文件格式不正确或不是BST存档");
@@ -1355,7 +2466,7 @@ public class TreeController implements Initializable {
         TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
         if (archiveData != null && "huffman".equals(archiveData.treeType)) {
             huffmanTree = HuffmanTree.loadFromArchive(archiveData);
-            huffmanVisualizer.drawHuffmanTree(huffmanTree.getRoot());
+            render(huffmanVisualizer, () -> huffmanVisualizer.drawHuffmanTree(huffmanTree.getRoot()));
             huffmanOutput.setText("哈夫曼树加载成功: " + archiveData.description);
         } else {
             showTreeAlert("错误", "文件格式不正确或不是哈夫曼树存档");
@@ -1377,8 +2488,8 @@ public class TreeController implements Initializable {
             return;
         }
 
-        TreeArchiveManager.TreeArchiveData archiveData = avlTree.saveToArchive(description);
-        if (TreeArchiveManager.saveTreeStructure(archiveData, filename)) {
+        // 之前保存或加载过同名存档时只同步操作日志
+        if (TreeArchiveManager.saveTreeStructure(avlTree, filename, description, avlTree::saveToArchive)) {
             showTreeAlert("成功", "AVL树保存成功: " + filename);
             refreshTreeSavedFiles();
             treeArchiveNameField.clear();
@@ -1398,15 +2509,166 @@ public class TreeController implements Initializable {
 
         TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
         if (archiveData != null && "avl".equals(archiveData.treeType)) {
-            avlTree = AVLTree.loadFromArchive(archiveData);
-            avlVisualizer.drawAVLTree(avlTree.getRoot());
-            avlOutput.setText("AVL树加载成功: " + archiveData.description);
+            JournaledArchive.Resumed<AVLTree> loaded = TreeArchiveManager.resumeJournal(filename, archiveData,
+                    () -> AVLTree.loadFromArchive(archiveData), AVLTree::saveToArchive);
+            avlTree = loaded.structure;
+            render(avlVisualizer, () -> avlVisualizer.drawAVLTree(avlTree.getRoot()));
+            avlOutput.setText("AVL树加载成功: " + archiveData.description + replayInfo(loaded.replayed));
             updateTreeInfo();
         } else {
             showTreeAlert("错误", "文件格式不正确或不是AVL树存档");
         }
     }
 
+    // 保存堆（完整快照）
+    private void saveHeap() {
+        if (heap == null || heap.isEmpty()) {
+            showTreeAlert("错误", "请先创建堆");
+            return;
+        }
+
+        String filename = treeArchiveNameField.getText();
+        String description = treeArchiveDescriptionField.getText();
+
+        if (filename.isEmpty()) {
+            showTreeAlert("错误", "请输入存档名称");
+            return;
+        }
+
+        TreeArchiveManager.TreeArchiveData archiveData = heap.saveToArchive(description);
+        if (TreeArchiveManager.saveTreeStructure(archiveData, filename)) {
+            showTreeAlert("成功", "堆保存成功: " + filename);
+            refreshTreeSavedFiles();
+            treeArchiveNameField.clear();
+            treeArchiveDescriptionField.clear();
+        } else {
+            showTreeAlert("错误", "堆保存失败");
+        }
+    }
+
+    // 加载堆
+    private void loadHeap() {
+        String filename = savedTreeFilesCombo.getValue();
+        if (filename == null || filename.isEmpty()) {
+            showTreeAlert("错误", "请选择要加载的文件");
+            return;
+        }
+
+        TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
+        if (archiveData != null && "heap".equals(archiveData.treeType)) {
+            heap = IntHeap.loadFromArchive(archiveData);
+            heapArityCombo.setValue(heap.getArity());
+            resetHeapSteps();
+            render(heapVisualizer, () -> heapVisualizer.drawHeap(heap));
+            heapOutput.setText("堆加载成功: " + archiveData.description);
+            updateTreeInfo();
+        } else {
+            showTreeAlert("错误", "文件格式不正确或不是堆存档");
+        }
+    }
+
+    // 保存红黑树
+    private void saveRedBlackTree() {
+        if (redBlackTree == null || redBlackTree.isEmpty()) {
+            showTreeAlert("错误", "请先创建红黑树");
+            return;
+        }
+
+        String filename = treeArchiveNameField.getText();
+        String description = treeArchiveDescriptionField.getText();
+
+        if (filename.isEmpty()) {
+            showTreeAlert("错误", "请输入存档名称");
+            return;
+        }
+
+        TreeArchiveManager.TreeArchiveData archiveData = redBlackTree.saveToArchive(description);
+        if (TreeArchiveManager.saveTreeStructure(archiveData, filename)) {
+            showTreeAlert("成功", "红黑树保存成功: " + filename);
+            refreshTreeSavedFiles();
+            treeArchiveNameField.clear();
+            treeArchiveDescriptionField.clear();
+        } else {
+            showTreeAlert("错误", "红黑树保存失败");
+        }
+    }
+
+    // 加载红黑树
+    private void loadRedBlackTree() {
+        String filename = savedTreeFilesCombo.getValue();
+        if (filename == null || filename.isEmpty()) {
+            showTreeAlert("错误", "请选择要加载的文件");
+            return;
+        }
+
+        TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
+        if (archiveData != null && "redblack".equals(archiveData.treeType)) {
+            redBlackTree = RedBlackTree.loadFromArchive(archiveData);
+            resetRedBlackSteps();
+            render(redBlackVisualizer, () -> redBlackVisualizer.drawRedBlackTree(redBlackTree.getRoot()));
+            redBlackOutput.setText("红黑树加载成功: " + archiveData.description);
+            updateTreeInfo();
+        } else {
+            showTreeAlert("错误", "文件格式不正确或不是红黑树存档");
+        }
+    }
+
+    // 保存B+树
+    private void saveBTree() {
+        if (bTree == null || bTree.isEmpty()) {
+            showTreeAlert("错误", "请先创建B+树");
+            return;
+        }
+
+        String filename = treeArchiveNameField.getText();
+        String description = treeArchiveDescriptionField.getText();
+
+        if (filename.isEmpty()) {
+            showTreeAlert("错误", "请输入存档名称");
+            return;
+        }
+
+        TreeArchiveManager.TreeArchiveData archiveData = bTree.saveToArchive(description);
+        if (TreeArchiveManager.saveTreeStructure(archiveData, filename)) {
+            showTreeAlert("成功", "B+树保存成功: " + filename);
+            refreshTreeSavedFiles();
+            treeArchiveNameField.clear();
+            treeArchiveDescriptionField.clear();
+        } else {
+            showTreeAlert("错误", "B+树保存失败");
+        }
+    }
+
+    // 加载B+树
+    private void loadBTree() {
+        String filename = savedTreeFilesCombo.getValue();
+        if (filename == null || filename.isEmpty()) {
+            showTreeAlert("错误", "请选择要加载的文件");
+            return;
+        }
+
+        TreeArchiveManager.TreeArchiveData archiveData = TreeArchiveManager.loadTreeStructure(filename);
+        if (archiveData != null && "btree".equals(archiveData.treeType)) {
+            bTree = BTree.loadFromArchive(archiveData);
+            if (!bTreeOrderCombo.getItems().contains(bTree.getOrder())) {
+                bTreeOrderCombo.getItems().add(bTree.getOrder());
+            }
+            bTreeOrderCombo.setValue(bTree.getOrder());
+            render(bTreeVisualizer, () -> bTreeVisualizer.drawBTree(bTree, null));
+            bTreeOutput.setText("B+树加载成功: " + archiveData.description);
+            updateTreeInfo();
+        } else {
+            showTreeAlert("错误", "文件格式不正确或不是B+树存档");
+        }
+    }
+
+    private String replayInfo(int replayed) {
+        if (replayed < 0) {
+            return "（操作日志无法重放，只加载了快照）";
+        }
+        return replayed > 0 ? "（重放日志 " + replayed + " 条操作）" : "";
+    }
+
     // 辅助方法：显示树形结构提示框
     private void showTreeAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -1418,20 +2680,64 @@ public class TreeController implements Initializable {
 
     // ========== 辅助方法 ==========
 
+    // 在下一个脉冲绘制画布；之前尚未执行的同一画布的绘制被替换
+    private void render(TreeVisualizer view, Runnable draw) {
+        renderScheduler.request(view, draw);
+    }
+
+    // 树高需要遍历整棵树，同一脉冲内多次调用只计算一次
     private void updateTreeInfo() {
+        renderScheduler.request(treeInfoRefresh);
+    }
+
+    // 每棵树只做一次聚合遍历；大树由 TreeAggregates 拆成 ForkJoin 任务并行统计
+    private void refreshTreeInfo() {
         if (binaryTree != null) {
-            binaryTreeInfoLabel.setText(String.format("二叉树: 大小=%d, 高度=%d",
-                    binaryTree.getSize(), binaryTree.getHeight()));
+            TreeAggregates.Stats stats = TreeAggregates.compute(binaryTree.getRoot(), TreeAggregates.TREE_NODE);
+            binaryTreeInfoLabel.setText(String.format("二叉树: 大小=%d, 高度=%d, 平衡=%s",
+                    stats.size, stats.height, binaryTree.isBalanced() ? "是" : "否"));
         }
 
         if (bst != null) {
-            bstInfoLabel.setText(String.format("BST: 大小=%d, 高度=%d",
-                    bst.size(), bst.height()));
+            TreeAggregates.Stats stats = TreeAggregates.compute(bst.getRoot(), TreeAggregates.TREE_NODE);
+            bstInfoLabel.setText(stats.size == 0
+                    ? "BST: 大小=0, 高度=0"
+                    : String.format("BST: 大小=%d, 高度=%d, 范围=[%d, %d], 平均=%.1f",
+                            stats.size, stats.height, stats.min, stats.max, (double) stats.sum / stats.size));
         }
 
         if (avlTree != null) {
+            TreeAggregates.Stats stats = TreeAggregates.compute(avlTree.getRoot(), TreeAggregates.AVL_NODE);
             avlInfoLabel.setText(String.format("AVL树: 大小=%d, 高度=%d",
-                    avlTree.size(), avlTree.height()));
+                    stats.size, stats.height));
+        }
+
+        if (heap != null) {
+            heapInfoLabel.setText(String.format("堆: 大小=%d, 高度=%d, %d叉",
+                    heap.size(), heap.height(), heap.getArity()));
+        }
+
+        if (redBlackTree != null) {
+            redBlackInfoLabel.setText(String.format("红黑树: 大小=%d, 高度=%d, 黑高=%d, 旋转=%d",
+                    redBlackTree.size(), redBlackTree.height(), redBlackTree.blackHeight(),
+                    redBlackTree.getRotations()));
         }
+
+        if (bTree != null) {
+            bTreeInfoLabel.setText(String.format("B+树: 大小=%d, 高度=%d, %d阶, 节点=%d",
+                    bTree.size(), bTree.height(), bTree.getOrder(), bTree.getNodeCount()));
+        }
+
+        ConcurrentBST concurrent = concurrentTree;
+        if (concurrent != null) {
+            concurrentInfoLabel.setText(String.format("并发BST: 大小=%d, 节点=%d, 高度=%d, 锁竞争=%d, 重试=%d",
+                    concurrent.size(), concurrent.getNodeCount(), concurrent.height(),
+                    concurrent.getContentions(), concurrent.getRetries()));
+        }
+
+        // 信息栏本身也经过调度器刷新，这里显示的是截至本次刷新的累计值
+        renderStatsLabel.setText(String.format("渲染: 已绘制=%d, 合并跳过=%d, 脉冲=%d",
+                renderScheduler.getFramesRendered(), renderScheduler.getFramesSkipped(),
+                renderScheduler.getPulses()));
     }
 }
\ No newline at end of file
@@ -4,10 +4,14 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AVLTree {
+public class AVLTree implements Journaled<AVLTree.AVLNode> {
     private AVLNode root;
     private List<AVLStep> operationSteps;
     private AVLNode currentRoot;
+    private ChangeSupport<AVLNode> changes;
+    // 插入删除时的路径栈：AVL 树高度不超过 1.44log2(n+2)，int 范围内的节点数不会超过 64 层
+    private final AVLNode[] path = new AVLNode[64];
+    private long rotations;
 
     // 可序列化的AVL树数据
     public static class AVLTreeData implements Serializable {
@@ -23,7 +27,8 @@ public class AVLTree {
         }
     }
 
-    public class AVLNode {
+    // 静态嵌套类，节点不再持有外部 AVLTree 引用
+    public static class AVLNode {
         public int value;
         public int height;
         public AVLNode left;
@@ -70,8 +75,8 @@ public class AVLTree {
     }
 
     public class AVLStep {
-        public String type; // "insert", "check_balance", "before_rotate", "rotating", "after_rotate", "complete"
-        public String description;
+        public String type; // "insert", "exists", "delete", "not_found", "check_balance", "before_rotate", "after_rotate", "complete"
+        public StepMessage message;
         public AVLNode treeState; // 当前树的状态
         public AVLNode currentNode;
         public int balanceFactor;
@@ -79,9 +84,13 @@ public class AVLTree {
         public String rotationCase;
         public boolean needsRotation;
 
-        public AVLStep(String type, String description) {
+        public AVLStep(String type, StepMessage message) {
             this.type = type;
-            this.description = description;
+            this.message = message;
+        }
+
+        public String getDescription() {
+            return message.render();
         }
     }
 
@@ -126,158 +135,285 @@ public class AVLTree {
     }
 
 
+    // ========== 插入 ==========
+
+    // 不记录步骤的插入，返回 false 表示值已存在
+    public boolean insert(int value) {
+        return produceInsertSteps(value, null);
+    }
+
     // 带步骤演示的插入方法
     public List<AVLStep> insertWithSteps(int value) {
         operationSteps.clear();
+        produceInsertSteps(value, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
 
-        AVLStep startStep = new AVLStep("insert", "开始插入节点: " + value);
-        startStep.treeState = copyTree(root);
-        operationSteps.add(startStep);
+    // 插入和旋转的事件在整个插入（含步骤生成）结束后一起送达；steps 为 null 时不记录步骤
+    private boolean produceInsertSteps(int value, StepSink<AVLStep> steps) {
+        if (changes != null) {
+            changes.beginBatch();
+        }
+        try {
+            return insertNode(value, steps);
+        } finally {
+            if (changes != null) {
+                changes.endBatch();
+            }
+        }
+    }
+
+    private boolean insertNode(int value, StepSink<AVLStep> steps) {
+        if (steps != null) {
+            steps.add(step("insert", StepMessage.of(StepTemplate.AVL_INSERT_START, value), null));
+        }
 
-        // 执行BST插入
-        root = insertRecursive(root, value);
+        // 下降时把经过的节点压入路径栈，回溯时按相反顺序出栈
+        int depth = 0;
+        AVLNode current = root;
+        while (current != null) {
+            if (value == current.value) {
+                if (steps != null) {
+                    steps.add(step("exists", StepMessage.of(StepTemplate.AVL_EXISTS, value), current));
+                }
+                return false; // 不允许重复值
+            }
+            path[depth++] = current;
+            current = value < current.value ? current.left : current.right;
+        }
+
+        AVLNode created = new AVLNode(value);
+        AVLNode parent = depth > 0 ? path[depth - 1] : null;
+        if (parent == null) {
+            root = created;
+        } else if (value < parent.value) {
+            parent.left = created;
+        } else {
+            parent.right = created;
+        }
         currentRoot = root;
+        fireChange(ChangeEvent.nodeInserted(created, parent, value));
+        if (steps != null) {
+            steps.add(step("insert", StepMessage.of(StepTemplate.AVL_BST_INSERT_DONE), created));
+        }
+
+        // 插入后至多旋转一次：旋转后子树恢复插入前的高度，上方节点都不受影响
+        retrace(depth - 1, true, steps);
 
-        AVLStep afterInsertStep = new AVLStep("insert", "BST插入完成，开始平衡检查");
-        afterInsertStep.treeState = copyTree(root);
-        operationSteps.add(afterInsertStep);
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.AVL_INSERT_COMPLETE), null));
+        }
+        return true;
+    }
 
-        // 从新插入的节点开始向上检查平衡
-        checkBalanceFromNode(root, value);
+    // ========== 删除 ==========
 
-        AVLStep completeStep = new AVLStep("complete", "AVL树插入完成");
-        completeStep.treeState = copyTree(root);
-        operationSteps.add(completeStep);
+    // 不记录步骤的删除，返回 false 表示值不存在
+    public boolean delete(int value) {
+        return produceDeleteSteps(value, null);
+    }
 
+    public List<AVLStep> deleteWithSteps(int value) {
+        operationSteps.clear();
+        produceDeleteSteps(value, operationSteps::add);
         return new ArrayList<>(operationSteps);
     }
 
-    // 递归插入（不包含步骤记录）
-    private AVLNode insertRecursive(AVLNode node, int value) {
-        if (node == null) {
-            return new AVLNode(value);
+    private boolean produceDeleteSteps(int value, StepSink<AVLStep> steps) {
+        if (changes != null) {
+            changes.beginBatch();
+        }
+        try {
+            return deleteNode(value, steps);
+        } finally {
+            if (changes != null) {
+                changes.endBatch();
+            }
         }
+    }
 
-        if (value < node.value) {
-            node.left = insertRecursive(node.left, value);
-        } else if (value > node.value) {
-            node.right = insertRecursive(node.right, value);
+    private boolean deleteNode(int value, StepSink<AVLStep> steps) {
+        int depth = 0;
+        AVLNode target = root;
+        while (target != null && target.value != value) {
+            path[depth++] = target;
+            target = value < target.value ? target.left : target.right;
+        }
+        if (target == null) {
+            if (steps != null) {
+                steps.add(step("not_found", StepMessage.of(StepTemplate.AVL_DELETE_NOT_FOUND, value), null));
+            }
+            return false;
+        }
+        if (steps != null) {
+            steps.add(step("delete", StepMessage.of(StepTemplate.AVL_DELETE_START, value), target));
+        }
+
+        AVLNode parent = depth > 0 ? path[depth - 1] : null;
+        AVLNode replacement;
+        int retraceFrom;
+        boolean twoChildren = target.left != null && target.right != null;
+        if (!twoChildren) {
+            // 至多一个子节点：子节点（或空）直接顶替
+            replacement = target.left != null ? target.left : target.right;
+            retraceFrom = depth - 1;
         } else {
-            return node; // 不允许重复值
+            // 两个子节点：把右子树的最小节点（后继）摘下来放到 target 的位置，
+            // 后继在路径栈中占据 target 的位置，从后继原来的父节点开始回溯
+            int targetIndex = depth;
+            path[depth++] = target;
+            AVLNode successor = target.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            AVLNode successorParent = path[depth - 1];
+            if (successorParent == target) {
+                target.right = successor.right;
+            } else {
+                successorParent.left = successor.right;
+            }
+            successor.left = target.left;
+            successor.right = target.right;
+            // 回溯可能在到达后继之前就提前结束，后继先继承 target 的高度
+            successor.height = target.height;
+            path[targetIndex] = successor;
+            replacement = successor;
+            retraceFrom = depth - 1;
+        }
+        replaceChild(parent, target, replacement);
+        target.left = null;
+        target.right = null;
+        currentRoot = root;
+        fireChange(ChangeEvent.nodeRemoved(target, parent, replacement, value));
+        if (steps != null) {
+            steps.add(step("delete", twoChildren
+                    ? StepMessage.of(StepTemplate.AVL_DELETE_SUCCESSOR, value, replacement.value)
+                    : StepMessage.of(StepTemplate.AVL_DELETE_SPLICE, value), replacement));
         }
 
-        // 更新高度
-        node.height = 1 + Math.max(height(node.left), height(node.right));
+        // 删除后一次旋转可能让子树变矮，需要继续向上，直到某个节点的高度不变
+        retrace(retraceFrom, false, steps);
 
-        return node;
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.AVL_DELETE_COMPLETE, value), null));
+        }
+        return true;
     }
 
-    // 从插入节点向上检查平衡
-    private void checkBalanceFromNode(AVLNode startNode, int insertedValue) {
-        AVLNode current = startNode;
-
-        while (current != null) {
-            // 步骤1: 检查当前节点平衡
-            int balance = getBalance(current);
-
-            AVLStep checkStep = new AVLStep("check_balance",
-                    "检查节点 " + current.value + " 的平衡因子: " + balance);
-            checkStep.treeState = copyTree(root);
-            checkStep.currentNode = current;
-            checkStep.balanceFactor = balance;
-            checkStep.needsRotation = (Math.abs(balance) > 1);
-            operationSteps.add(checkStep);
-
-            // 步骤2: 如果需要旋转，执行旋转
-            if (Math.abs(balance) > 1) {
-                performRotationWithSteps(current, insertedValue);
-                break; // 旋转后重新从根节点开始检查
+    // ========== 回溯与旋转 ==========
+
+    // 沿路径栈从 path[from] 向根回溯：更新高度，失衡时旋转；
+    // 节点（或旋转后的子树根）高度与原来相同时，上方节点都不受影响，提前结束
+    private void retrace(int from, boolean afterInsert, StepSink<AVLStep> steps) {
+        for (int i = from; i >= 0; i--) {
+            AVLNode node = path[i];
+            int oldHeight = node.height;
+            updateHeight(node);
+            int balance = getBalance(node);
+
+            if (Math.abs(balance) <= 1) {
+                if (steps != null) {
+                    AVLStep checkStep = step("check_balance", node.height == oldHeight
+                            ? StepMessage.of(StepTemplate.AVL_HEIGHT_UNCHANGED, node.value, balance, node.height)
+                            : StepMessage.of(StepTemplate.AVL_CHECK_BALANCE, node.value, balance), node);
+                    checkStep.balanceFactor = balance;
+                    steps.add(checkStep);
+                }
+                if (node.height == oldHeight) {
+                    return;
+                }
+                continue;
             }
 
-            // 向上移动到父节点（这里简化处理，实际需要知道父节点关系）
-            if (insertedValue < current.value) {
-                current = current.left;
-            } else {
-                current = current.right;
+            AVLNode parent = i > 0 ? path[i - 1] : null;
+            AVLNode newRoot = rotate(node, parent, balance, steps);
+            if (afterInsert || newRoot.height == oldHeight) {
+                return;
             }
         }
     }
 
-    // 执行旋转并记录步骤
-    private void performRotationWithSteps(AVLNode unbalancedNode, int insertedValue) {
-        int balance = getBalance(unbalancedNode);
-
-        // 步骤1: 旋转前状态
-        AVLStep beforeRotateStep = new AVLStep("before_rotate",
-                "节点 " + unbalancedNode.value + " 不平衡，需要旋转");
-        beforeRotateStep.treeState = copyTree(root);
-        beforeRotateStep.currentNode = unbalancedNode;
-        beforeRotateStep.balanceFactor = balance;
-        operationSteps.add(beforeRotateStep);
-
-        // 确定旋转类型
-        String rotationType = "";
-        String rotationCase = "";
-
+    // 按失衡节点和较高子节点的平衡因子确定 LL/LR/RR/RL，旋转后接回父节点，返回子树的新根。
+    // 每次旋转只记录旋转前、旋转后两个步骤
+    private AVLNode rotate(AVLNode node, AVLNode parent, int balance, StepSink<AVLStep> steps) {
+        String rotationType;
+        String rotationCase;
+        StepTemplate rotationName;
+        // 删除时较高子节点的平衡因子可能为 0，此时单旋即可
         if (balance > 1) {
-            if (insertedValue < unbalancedNode.left.value) {
+            if (getBalance(node.left) >= 0) {
                 rotationType = "右旋转";
                 rotationCase = "LL";
+                rotationName = StepTemplate.AVL_ROTATE_RIGHT;
             } else {
                 rotationType = "左右旋转";
                 rotationCase = "LR";
+                rotationName = StepTemplate.AVL_ROTATE_LEFT_RIGHT;
             }
         } else {
-            if (insertedValue > unbalancedNode.right.value) {
+            if (getBalance(node.right) <= 0) {
                 rotationType = "左旋转";
                 rotationCase = "RR";
+                rotationName = StepTemplate.AVL_ROTATE_LEFT;
             } else {
                 rotationType = "右左旋转";
                 rotationCase = "RL";
+                rotationName = StepTemplate.AVL_ROTATE_RIGHT_LEFT;
             }
         }
 
-        AVLStep determineStep = new AVLStep("before_rotate",
-                "确定为 " + rotationCase + " 情况，执行" + rotationType);
-        determineStep.treeState = copyTree(root);
-        determineStep.currentNode = unbalancedNode;
-        determineStep.rotationType = rotationType;
-        determineStep.rotationCase = rotationCase;
-        operationSteps.add(determineStep);
-
-        // 执行旋转
-        AVLNode newRoot = performActualRotation(unbalancedNode, rotationType, rotationCase);
-
-        // 更新根节点（如果旋转的是根节点）
-        if (unbalancedNode == root) {
-            root = newRoot;
+        if (steps != null) {
+            AVLStep beforeRotateStep = step("before_rotate", StepMessage.withRefs(StepTemplate.AVL_ROTATE_AT,
+                    node.value, balance, rotationCase, StepMessage.of(rotationName)), node);
+            beforeRotateStep.balanceFactor = balance;
+            beforeRotateStep.rotationType = rotationType;
+            beforeRotateStep.rotationCase = rotationCase;
+            beforeRotateStep.needsRotation = true;
+            steps.add(beforeRotateStep);
         }
 
-        currentRoot = root;
-
-        // 步骤3: 旋转后状态
-        AVLStep afterRotateStep = new AVLStep("after_rotate",
-                rotationType + "完成，新根节点: " + newRoot.value);
-        afterRotateStep.treeState = copyTree(root);
-        afterRotateStep.currentNode = newRoot;
-        operationSteps.add(afterRotateStep);
-    }
-
-    // 执行实际的旋转操作
-    private AVLNode performActualRotation(AVLNode node, String rotationType, String rotationCase) {
+        AVLNode newRoot;
         switch (rotationCase) {
             case "LL":
-                return rightRotate(node);
+                newRoot = rightRotate(node);
+                break;
             case "RR":
-                return leftRotate(node);
+                newRoot = leftRotate(node);
+                break;
             case "LR":
                 node.left = leftRotate(node.left);
-                return rightRotate(node);
-            case "RL":
-                node.right = rightRotate(node.right);
-                return leftRotate(node);
+                newRoot = rightRotate(node);
+                break;
             default:
-                return node;
+                node.right = rightRotate(node.right);
+                newRoot = leftRotate(node);
+                break;
+        }
+        replaceChild(parent, node, newRoot);
+        rotations += rotationCase.charAt(0) == rotationCase.charAt(1) ? 1 : 2; // 双旋记两次
+        currentRoot = root;
+        fireChange(ChangeEvent.rotated(node, parent, newRoot));
+
+        if (steps != null) {
+            AVLStep afterRotateStep = step("after_rotate",
+                    StepMessage.withRefs(StepTemplate.AVL_ROTATION_DONE, newRoot.value, 0, StepMessage.of(rotationName), null),
+                    newRoot);
+            afterRotateStep.rotationType = rotationType;
+            afterRotateStep.rotationCase = rotationCase;
+            steps.add(afterRotateStep);
+        }
+        return newRoot;
+    }
+
+    // 把 parent 指向 oldChild 的链接改为 newChild，parent 为 null 时替换根
+    private void replaceChild(AVLNode parent, AVLNode oldChild, AVLNode newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
         }
     }
 
@@ -291,8 +427,8 @@ public class AVLTree {
         y.left = T2;
 
         // 更新高度
-        y.height = Math.max(height(y.left), height(y.right)) + 1;
-        x.height = Math.max(height(x.left), height(x.right)) + 1;
+        updateHeight(y);
+        updateHeight(x);
 
         return x;
     }
@@ -307,12 +443,70 @@ public class AVLTree {
         x.right = T2;
 
         // 更新高度
-        x.height = Math.max(height(x.left), height(x.right)) + 1;
-        y.height = Math.max(height(y.left), height(y.right)) + 1;
+        updateHeight(x);
+        updateHeight(y);
 
         return y;
     }
 
+    private void updateHeight(AVLNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    // 记录一个步骤：整棵树的副本（只在演示时生成）和当前处理的节点
+    private AVLStep step(String type, StepMessage message, AVLNode current) {
+        AVLStep step = new AVLStep(type, message);
+        step.treeState = copyTree(root);
+        step.currentNode = current;
+        return step;
+    }
+
+    // ========== 批量操作 ==========
+
+    // 按顺序执行一批按值插入/删除，不记录演示步骤，
+    // 结束后只发出一个 RESET 事件。中序值与整批操作归并后直接重建为完全平衡的树，
+    // O(n + k log k)，结果仍满足 AVL 性质；删除也由这条路径支持
+    public int applyBatch(List<BatchOp> ops) {
+        BatchOp.requireInsertOrDelete(ops, "AVL树");
+        if (ops.isEmpty()) {
+            return 0;
+        }
+        int[] inOrder = TreeAggregates.inOrder(root, TreeAggregates.AVL_NODE);
+        int[] values = BatchOp.applyToSorted(inOrder, inOrder.length, ops);
+        root = buildBalanced(values, 0, values.length - 1);
+        currentRoot = root;
+        fireChange(ChangeEvent.reset());
+        return ops.size();
+    }
+
+    // 日志重放走与界面插入删除相同的路径（不记录步骤），保证旋转后的树形一致。
+    // 批量操作以 RESET 通知，由完整快照保存
+    @Override
+    public void replay(List<BatchOp> ops) {
+        for (BatchOp op : ops) {
+            if (op.kind == BatchOp.Kind.INSERT) {
+                insert(op.value);
+            } else if (op.kind == BatchOp.Kind.DELETE) {
+                delete(op.value);
+            } else {
+                throw new IllegalArgumentException("AVL树不支持的日志操作: " + op.kind);
+            }
+        }
+    }
+
+    private static AVLNode buildBalanced(int[] sorted, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        AVLNode node = new AVLNode(sorted[mid]);
+        node.left = buildBalanced(sorted, from, mid - 1);
+        node.right = buildBalanced(sorted, mid + 1, to);
+        node.height = 1 + Math.max(node.left == null ? 0 : node.left.height,
+                node.right == null ? 0 : node.right.height);
+        return node;
+    }
+
     // 复制整棵树（用于保存状态）
     private AVLNode copyTree(AVLNode node) {
         if (node == null) return null;
@@ -334,31 +528,27 @@ public class AVLTree {
 
     // 搜索方法
     public boolean search(int value) {
-        return searchRecursive(root, value);
-    }
-
-    private boolean searchRecursive(AVLNode node, int value) {
-        if (node == null) return false;
-        if (value == node.value) return true;
-        return value < node.value ?
-                searchRecursive(node.left, value) :
-                searchRecursive(node.right, value);
+        AVLNode current = root;
+        while (current != null && current.value != value) {
+            current = value < current.value ? current.left : current.right;
+        }
+        return current != null;
     }
 
     // 获取树信息
     public int size() {
-        return sizeRecursive(root);
-    }
-
-    private int sizeRecursive(AVLNode node) {
-        if (node == null) return 0;
-        return 1 + sizeRecursive(node.left) + sizeRecursive(node.right);
+        return TreeAggregates.compute(root, TreeAggregates.AVL_NODE).size;
     }
 
     public int height() {
         return height(root);
     }
 
+    // 插入删除累计的旋转次数，双旋记两次
+    public long getRotations() {
+        return rotations;
+    }
+
     public boolean isEmpty() {
         return root == null;
     }
@@ -367,6 +557,23 @@ public class AVLTree {
         return root;
     }
 
+    // ========== 变更通知 ==========
+
+    // 订阅节点插入和旋转事件
+    @Override
+    public ChangeSupport<AVLNode> changes() {
+        if (changes == null) {
+            changes = new ChangeSupport<AVLNode>();
+        }
+        return changes;
+    }
+
+    private void fireChange(ChangeEvent<AVLNode> event) {
+        if (changes != null) {
+            changes.fire(event);
+        }
+    }
+
     public List<AVLStep> getOperationSteps() {
         return new ArrayList<>(operationSteps);
     }
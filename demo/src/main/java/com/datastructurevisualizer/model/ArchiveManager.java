@@ -1,15 +1,19 @@
 // ArchiveManager.java
 package com.datastructurevisualizer.model;
 
-import java.io.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class ArchiveManager {
-    private static final String SAVE_DIRECTORY = "saves";
     private static final String LINEAR_STRUCTURE_EXTENSION = ".linear";
 
-    public static class ArchiveData implements Serializable {
+    // 快照写入、操作日志和加载时的重放由 JournaledArchive 完成
+    private static final JournaledArchive<ArchiveData> archive =
+            new JournaledArchive<>(LINEAR_STRUCTURE_EXTENSION, ArchiveData.class);
+
+    public static class ArchiveData implements JournaledArchive.Snapshot {
         private static final long serialVersionUID = 1L;
         public String structureType; // "array", "linkedlist", "stack"
         public Object data;          // 改回 Object，使用运行时类型检查
@@ -23,6 +27,21 @@ public class ArchiveManager {
             this.timestamp = System.currentTimeMillis();
         }
 
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
         @Override
         public String toString() {
             return String.format("%s - %s (%tF %tT)",
@@ -30,69 +49,37 @@ public class ArchiveManager {
         }
     }
 
-    // 创建保存目录
-    private static void ensureSaveDirectory() {
-        File directory = new File(SAVE_DIRECTORY);
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
-    }
-
-    // 保存线性结构
+    // 保存线性结构（完整快照，不记录之后的修改）
     public static boolean saveLinearStructure(ArchiveData archiveData, String filename) {
-        try {
-            ensureSaveDirectory();
-            File file = new File(SAVE_DIRECTORY, filename + LINEAR_STRUCTURE_EXTENSION);
+        return archive.save(archiveData, filename);
+    }
 
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-                oos.writeObject(archiveData);
-            }
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
+    // 增量保存：structure 就是上次保存或加载到这个存档的数据结构时，只需 fsync 日志中尚未落盘的记录，
+    // 否则调用 snapshot 生成完整快照写入，并从空日志重新开始记录
+    public static boolean saveLinearStructure(Journaled<Void> structure, String filename, String description,
+                                              Function<String, ArchiveData> snapshot) {
+        return archive.save(structure, filename, description, snapshot);
     }
 
     // 加载线性结构
     public static ArchiveData loadLinearStructure(String filename) {
-        try {
-            File file = new File(SAVE_DIRECTORY, filename + LINEAR_STRUCTURE_EXTENSION);
-            if (!file.exists()) {
-                return null;
-            }
+        return archive.load(filename);
+    }
 
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                return (ArchiveData) ois.readObject();
-            }
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return null;
-        }
+    // 由 restore 从 archiveData 恢复数据结构，并重放存档日志中快照之后的记录，之后的修改继续追加到日志。
+    // 日志损坏无法重放时返回只含快照内容的数据结构，replayed 为 -1，下次保存会重写完整快照
+    public static <S extends Journaled<Void>> JournaledArchive.Resumed<S> resumeJournal(
+            String filename, ArchiveData archiveData, Supplier<S> restore, BiFunction<S, String, ArchiveData> snapshot) {
+        return archive.resume(filename, archiveData, restore, snapshot);
     }
 
     // 获取所有保存文件列表
     public static List<String> getSavedFiles() {
-        List<String> files = new ArrayList<>();
-        ensureSaveDirectory();
-
-        File directory = new File(SAVE_DIRECTORY);
-        File[] savedFiles = directory.listFiles((dir, name) -> name.endsWith(LINEAR_STRUCTURE_EXTENSION));
-
-        if (savedFiles != null) {
-            for (File file : savedFiles) {
-                String filename = file.getName();
-                filename = filename.substring(0, filename.length() - LINEAR_STRUCTURE_EXTENSION.length());
-                files.add(filename);
-            }
-        }
-
-        return files;
+        return archive.list();
     }
 
     // 删除保存文件
     public static boolean deleteSaveFile(String filename) {
-        File file = new File(SAVE_DIRECTORY, filename + LINEAR_STRUCTURE_EXTENSION);
-        return file.exists() && file.delete();
+        return archive.delete(filename);
     }
 }
\ No newline at end of file
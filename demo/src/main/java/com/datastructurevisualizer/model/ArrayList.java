@@ -4,32 +4,53 @@ import java.io.Serializable;
 
 import java.util.List;
 
-public class ArrayList implements Serializable {
+public class ArrayList implements Serializable, Journaled<Void> {
     private static final long serialVersionUID = 1L;
 
     private int[] elements;
     private int size;
     private static final int DEFAULT_CAPACITY = 10;
     private transient List<OperationStep> operationSteps;
+    private transient ChangeSupport<Void> changes;
 
     public class OperationStep implements Serializable {
         private static final long serialVersionUID = 1L;
         public String type;
         public int value;
         public int position;
-        public String description;
+        public StepMessage message;
         public int[] arrayState;
         public int highlightedIndex = -1;
         public int[] movingIndexes;
+        // arrayState 中相邻两项在顺序表中相隔的位置数；大数组的排序步骤只保存取样后的状态，
+        // 此时 highlightedIndex 和 movingIndexes 也是 arrayState 中的下标
+        public int stateStride = 1;
 
-        public OperationStep(String type, int value, int position, String description) {
+        public OperationStep(String type, int value, int position, StepMessage message) {
             this.type = type;
             this.value = value;
             this.position = position;
-            this.description = description;
+            this.message = message;
             this.arrayState = toArray();
             this.movingIndexes = new int[0];
         }
+
+        // 直接使用给定的数组状态，不复制整个顺序表
+        public OperationStep(String type, int value, int position, StepMessage message,
+                             int[] arrayState, int stateStride) {
+            this.type = type;
+            this.value = value;
+            this.position = position;
+            this.message = message;
+            this.arrayState = arrayState;
+            this.stateStride = stateStride;
+            this.movingIndexes = new int[0];
+        }
+
+        // 描述在显示时才按当前语言生成
+        public String getDescription() {
+            return message.render();
+        }
     }
 
     // 可序列化的ArrayList版本
@@ -68,6 +89,14 @@ public class ArrayList implements Serializable {
         return list;
     }
 
+    // 用给定的值直接建表（复制一份），不逐个插入
+    public static ArrayList fromArray(int[] values) {
+        ArrayList list = new ArrayList();
+        list.elements = java.util.Arrays.copyOf(values, Math.max(values.length, DEFAULT_CAPACITY));
+        list.size = values.length;
+        return list;
+    }
+
     // 存档管理方法
     public ArchiveManager.ArchiveData saveToArchive(String description) {
         return new ArchiveManager.ArchiveData("array", this.toSerializable(), description);
@@ -83,103 +112,352 @@ public class ArrayList implements Serializable {
     // 原有的操作方法保持不变
     public java.util.ArrayList<OperationStep> insertWithSteps(int index, int element) {
         operationSteps.clear();
+        checkInsertIndex(index);
+        produceInsertSteps(index, element, operationSteps::add);
+        return new java.util.ArrayList<OperationStep>(operationSteps);
+    }
 
-        if (index < 0 || index > size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    private void produceInsertSteps(int index, int element, StepSink<OperationStep> steps) {
+        int shifted = size - index;
+        recordInsertSteps(index, element, steps);
+        // 步骤全部生成、数组处于最终状态后再通知
+        if (changes != null) {
+            changes.batch(() -> {
+                if (shifted > 0) {
+                    changes.fire(ChangeEvent.<Void>shifted(index, shifted, 1));
+                }
+                changes.fire(ChangeEvent.<Void>inserted(index, 1, element));
+            });
         }
+    }
 
+    private void recordInsertSteps(int index, int element, StepSink<OperationStep> steps) {
         // 步骤1: 检查容量
         OperationStep step1 = new OperationStep("check", element, index,
-                "检查数组容量，当前大小: " + size + ", 容量: " + elements.length);
-        operationSteps.add(step1);
+                StepMessage.of(StepTemplate.ARRAY_CHECK_CAPACITY, size, elements.length));
+        steps.add(step1);
 
         ensureCapacity();
 
         if (size == 0) {
             OperationStep insertStep = new OperationStep("insert", element, index,
-                    "插入第一个元素: " + element);
+                    StepMessage.of(StepTemplate.ARRAY_INSERT_FIRST, element));
             insertStep.highlightedIndex = index;
             elements[index] = element;
             size++;
             insertStep.arrayState = toArray();
-            operationSteps.add(insertStep);
+            steps.add(insertStep);
 
             OperationStep finalStep = new OperationStep("complete", element, index,
-                    "插入完成！新数组大小: " + size);
+                    StepMessage.of(StepTemplate.ARRAY_INSERT_COMPLETE, size));
             finalStep.arrayState = toArray();
-            operationSteps.add(finalStep);
+            steps.add(finalStep);
 
-            return new java.util.ArrayList<OperationStep>(operationSteps);
+            return;
         }
 
         if (index < size) {
             OperationStep step2 = new OperationStep("prepare", element, index,
-                    "从位置 " + index + " 开始，后续元素需要向后移动");
+                    StepMessage.of(StepTemplate.ARRAY_PREPARE_SHIFT, index));
             step2.highlightedIndex = index;
             step2.arrayState = toArray();
-            operationSteps.add(step2);
+            steps.add(step2);
 
             for (int i = size - 1; i >= index; i--) {
                 OperationStep moveStep = new OperationStep("move", elements[i], i + 1,
-                        "移动元素 " + elements[i] + " 从位置 " + i + " 到位置 " + (i + 1));
+                        StepMessage.of(StepTemplate.ARRAY_MOVE, elements[i], i, i + 1));
                 moveStep.highlightedIndex = i;
                 moveStep.movingIndexes = new int[]{i, i + 1};
                 elements[i + 1] = elements[i];
                 moveStep.arrayState = toArray();
-                operationSteps.add(moveStep);
+                steps.add(moveStep);
             }
         }
 
         OperationStep insertStep = new OperationStep("insert", element, index,
-                "在位置 " + index + " 插入新元素: " + element);
+                StepMessage.of(StepTemplate.ARRAY_INSERT_AT, index, element));
         insertStep.highlightedIndex = index;
         elements[index] = element;
         size++;
         insertStep.arrayState = toArray();
-        operationSteps.add(insertStep);
+        steps.add(insertStep);
 
         OperationStep finalStep = new OperationStep("complete", element, index,
-                "插入完成！新数组大小: " + size);
+                StepMessage.of(StepTemplate.ARRAY_INSERT_COMPLETE, size));
         finalStep.arrayState = toArray();
-        operationSteps.add(finalStep);
-
-        return new java.util.ArrayList<OperationStep>(operationSteps);
+        steps.add(finalStep);
     }
 
     public List<OperationStep> deleteWithSteps(int index) {
         operationSteps.clear();
+        checkElementIndex(index);
+        produceDeleteSteps(index, operationSteps::add);
+        return new java.util.ArrayList<OperationStep>(operationSteps);
+    }
 
-        if (index < 0 || index >= size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    private void produceDeleteSteps(int index, StepSink<OperationStep> steps) {
+        int deletedValue = elements[index];
+        int shifted = size - index - 1;
+        recordDeleteSteps(index, steps);
+        if (changes != null) {
+            changes.batch(() -> {
+                changes.fire(ChangeEvent.<Void>removed(index, 1, deletedValue));
+                if (shifted > 0) {
+                    changes.fire(ChangeEvent.<Void>shifted(index + 1, shifted, -1));
+                }
+            });
         }
+    }
 
+    private void recordDeleteSteps(int index, StepSink<OperationStep> steps) {
         int deletedValue = elements[index];
 
         OperationStep step1 = new OperationStep("mark", deletedValue, index,
-                "标记要删除位置 " + index + " 的元素: " + deletedValue);
+                StepMessage.of(StepTemplate.ARRAY_DELETE_MARK, index, deletedValue));
         step1.highlightedIndex = index;
-        operationSteps.add(step1);
+        steps.add(step1);
 
         for (int i = index; i < size - 1; i++) {
             OperationStep moveStep = new OperationStep("move", elements[i + 1], i,
-                    "移动元素 " + elements[i + 1] + " 从位置 " + (i + 1) + " 到位置 " + i);
+                    StepMessage.of(StepTemplate.ARRAY_MOVE, elements[i + 1], i + 1, i));
             moveStep.highlightedIndex = i + 1;
             moveStep.movingIndexes = new int[]{i + 1, i};
             elements[i] = elements[i + 1];
             moveStep.arrayState = toArray();
-            operationSteps.add(moveStep);
+            steps.add(moveStep);
         }
 
         size--;
 
         OperationStep finalStep = new OperationStep("complete", deletedValue, index,
-                "删除完成！删除元素: " + deletedValue + ", 新数组大小: " + size);
+                StepMessage.of(StepTemplate.ARRAY_DELETE_COMPLETE, deletedValue, size));
         finalStep.arrayState = toArray();
-        operationSteps.add(finalStep);
+        steps.add(finalStep);
+    }
+
+    // ========== 排序 ==========
 
+    // 排序并记录比较、交换、移动和写回的步骤。操作数远多于 maxSteps 时按固定间隔取样，
+    // 只为取到的操作生成步骤，每个步骤至多保存 MAX_SORT_STATE 个元素，
+    // 千万级元素的排序生成的步骤列表也只占很少的内存
+    public List<OperationStep> sortWithSteps(ArraySorter.Algorithm algorithm, int maxSteps) {
+        if (maxSteps <= 0) {
+            throw new IllegalArgumentException("步骤数必须为正数: " + maxSteps);
+        }
+        operationSteps.clear();
+        SortRecorder recorder = new SortRecorder(algorithm, maxSteps, operationSteps::add);
+        recorder.start();
+        ArraySorter.Result result = ArraySorter.sort(elements, size, algorithm, recorder);
+        recorder.complete(result);
+        if (size > 1 && changes != null) {
+            changes.fire(ChangeEvent.<Void>reset());
+        }
         return new java.util.ArrayList<OperationStep>(operationSteps);
     }
 
+    // 每个排序步骤至多保存的元素个数，更大的顺序表每隔 stateStride 个位置取一个
+    private static final int MAX_SORT_STATE = 256;
+
+    // 把排序中的操作转成演示步骤：每隔 interval 个操作取一个。按算法估计的操作数偏低时，
+    // 步骤每超出 maxSteps 个就把间隔加倍，步骤总数始终有界
+    private class SortRecorder implements ArraySorter.Trace {
+        private final ArraySorter.Algorithm algorithm;
+        private final int maxSteps;
+        private final StepSink<OperationStep> steps;
+        private final int stateStride;
+        private long interval;
+        private long countdown;
+        private int recorded;
+        private int budget;
+
+        SortRecorder(ArraySorter.Algorithm algorithm, int maxSteps, StepSink<OperationStep> steps) {
+            this.algorithm = algorithm;
+            this.maxSteps = maxSteps;
+            this.steps = steps;
+            this.stateStride = Math.max(1, (size + MAX_SORT_STATE - 1) / MAX_SORT_STATE);
+            this.interval = Math.max(1, (algorithm.estimateOperations(size) + maxSteps - 1) / maxSteps);
+            this.countdown = interval;
+            this.budget = maxSteps;
+        }
+
+        void start() {
+            add(new OperationStep("check", size, 0,
+                    StepMessage.withRefs(StepTemplate.SORT_START, size, 0, algorithm.getName(), null),
+                    sampleState(), stateStride));
+            if (interval > 1 || stateStride > 1) {
+                add(new OperationStep("prepare", size, 0,
+                        StepMessage.of(StepTemplate.SORT_SAMPLED, interval, stateStride),
+                        sampleState(), stateStride));
+            }
+        }
+
+        void complete(ArraySorter.Result result) {
+            add(new OperationStep("complete", size, 0,
+                    StepMessage.withRefs(StepTemplate.SORT_COMPLETE, result.compares, result.swaps, result.writes,
+                            algorithm.getName(), result.getElapsedMillis(), null),
+                    sampleState(), stateStride));
+        }
+
+        @Override
+        public void compare(int i, int j) {
+            if (sampled()) {
+                record("compare", elements[i], i, j,
+                        StepMessage.withRefs(StepTemplate.SORT_COMPARE, i, j, elements[i], null, elements[j], null));
+            }
+        }
+
+        @Override
+        public void swap(int i, int j) {
+            if (sampled()) {
+                record("swap", elements[i], i, j,
+                        StepMessage.withRefs(StepTemplate.SORT_SWAP, i, j, elements[i], null, elements[j], null));
+            }
+        }
+
+        @Override
+        public void move(int from, int to) {
+            if (sampled()) {
+                record("move", elements[to], from, to,
+                        StepMessage.of(StepTemplate.SORT_MOVE, from, to, elements[to]));
+            }
+        }
+
+        @Override
+        public void write(int index, int value) {
+            if (sampled()) {
+                record("write", value, index, -1, StepMessage.of(StepTemplate.SORT_WRITE, index, value));
+            }
+        }
+
+        private boolean sampled() {
+            if (--countdown > 0) {
+                return false;
+            }
+            countdown = interval;
+            return true;
+        }
+
+        // 高亮第一个位置，两个位置都标为移动中（与插入、删除时的移动步骤一致）
+        private void record(String type, int value, int position, int other, StepMessage message) {
+            OperationStep step = new OperationStep(type, value, position, message, sampleState(), stateStride);
+            step.highlightedIndex = position / stateStride;
+            if (other >= 0) {
+                step.movingIndexes = new int[]{position / stateStride, other / stateStride};
+            }
+            add(step);
+            if (recorded >= budget) {
+                interval *= 2;
+                budget += maxSteps;
+            }
+        }
+
+        private void add(OperationStep step) {
+            steps.add(step);
+            recorded++;
+        }
+
+        private int[] sampleState() {
+            if (stateStride == 1) {
+                return java.util.Arrays.copyOf(elements, size);
+            }
+            int[] state = new int[(size + stateStride - 1) / stateStride];
+            for (int k = 0; k < state.length; k++) {
+                state[k] = elements[k * stateStride];
+            }
+            return state;
+        }
+    }
+
+    // ========== 批量操作 ==========
+
+    // 按顺序执行一批插入/删除，不记录演示步骤，结束后只发出一个 RESET 事件。
+    // 连续位置上的插入（包括连续追加）合并成一块，只移动一次尾部元素；
+    // 同一位置上的连续删除合并成一次区间删除。整批先校验，任何一项越界都不会修改数组
+    public int applyBatch(List<BatchOp> ops) {
+        validateBatch(ops);
+        int[] block = new int[16];
+        int i = 0;
+        int n = ops.size();
+        while (i < n) {
+            BatchOp op = ops.get(i);
+            int position = op.kind == BatchOp.Kind.INSERT ? op.insertIndex(size) : op.index;
+            int count = 0;
+            if (op.kind == BatchOp.Kind.INSERT) {
+                do {
+                    if (count == block.length) {
+                        block = java.util.Arrays.copyOf(block, count * 2);
+                    }
+                    block[count++] = ops.get(i++).value;
+                } while (i < n && ops.get(i).kind == BatchOp.Kind.INSERT
+                        && ops.get(i).insertIndex(size + count) == position + count);
+                insertBlock(position, block, count);
+            } else {
+                do {
+                    count++;
+                    i++;
+                } while (i < n && ops.get(i).kind == BatchOp.Kind.DELETE && ops.get(i).index == position);
+                removeRange(position, count);
+            }
+        }
+        if (n > 0 && changes != null) {
+            changes.fire(ChangeEvent.<Void>reset());
+        }
+        return n;
+    }
+
+    // 只推算大小的变化来校验每一项的位置
+    private void validateBatch(List<BatchOp> ops) {
+        int expectedSize = size;
+        for (BatchOp op : ops) {
+            if (op.kind == BatchOp.Kind.INSERT) {
+                int index = op.insertIndex(expectedSize);
+                if (index < 0 || index > expectedSize) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + expectedSize);
+                }
+                expectedSize++;
+            } else if (op.kind == BatchOp.Kind.DELETE) {
+                if (op.index < 0 || op.index >= expectedSize) {
+                    throw new IndexOutOfBoundsException("Index: " + op.index + ", Size: " + expectedSize);
+                }
+                expectedSize--;
+            } else {
+                throw new IllegalArgumentException("顺序表不支持的批量操作: " + op.kind);
+            }
+        }
+    }
+
+    private void insertBlock(int index, int[] block, int count) {
+        ensureCapacity(size + count);
+        System.arraycopy(elements, index, elements, index + count, size - index);
+        System.arraycopy(block, 0, elements, index, count);
+        size += count;
+    }
+
+    private void removeRange(int index, int count) {
+        System.arraycopy(elements, index + count, elements, index, size - index - count);
+        size -= count;
+        // 清零空出的位置，toArray 按非零元素判断显示长度
+        java.util.Arrays.fill(elements, size, size + count, 0);
+    }
+
+    // 日志重放与批量操作语义相同，一次执行完
+    @Override
+    public void replay(List<BatchOp> ops) {
+        applyBatch(ops);
+    }
+
+    private void checkInsertIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
     public int get(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
@@ -211,6 +489,17 @@ public class ArrayList implements Serializable {
         return size == 0;
     }
 
+    // ========== 变更通知 ==========
+
+    // 订阅插入、删除、元素移动等变更
+    @Override
+    public ChangeSupport<Void> changes() {
+        if (changes == null) {
+            changes = new ChangeSupport<Void>();
+        }
+        return changes;
+    }
+
     public List<OperationStep> getOperationSteps() {
         return new java.util.ArrayList<OperationStep>(operationSteps);
     }
@@ -224,4 +513,10 @@ public class ArrayList implements Serializable {
             elements = newElements;
         }
     }
+
+    private void ensureCapacity(int required) {
+        if (required > elements.length) {
+            elements = java.util.Arrays.copyOf(elements, Math.max(required, elements.length * 2));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,372 @@
+package com.datastructurevisualizer.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// int 数组排序：插入、归并、快速、堆、基数（LSD，每趟一个字节）和 fork/join 并行归并排序。
+// 每次排序统计比较、交换和写入次数以及用时；传入 Trace 时按执行顺序报告每个操作，
+// 顺序表的排序演示由此生成步骤。不传 Trace 时每个操作只多一次空判断，可以直接用于大规模计时
+public final class ArraySorter {
+
+    // 并行归并排序中不再拆分的区间长度
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    private static final int SIGN_BIT = 0x80000000;
+
+    public enum Algorithm {
+        INSERTION(StepTemplate.SORT_INSERTION),
+        MERGE(StepTemplate.SORT_MERGE),
+        QUICK(StepTemplate.SORT_QUICK),
+        HEAP(StepTemplate.SORT_HEAP),
+        RADIX(StepTemplate.SORT_RADIX),
+        PARALLEL_MERGE(StepTemplate.SORT_PARALLEL_MERGE);
+
+        private final StepTemplate name;
+
+        Algorithm(StepTemplate name) {
+            this.name = name;
+        }
+
+        public StepMessage getName() {
+            return StepMessage.of(name);
+        }
+
+        public String getLabel() {
+            return getName().render();
+        }
+
+        // 比较次数随规模平方增长，大规模时不适合运行
+        public boolean isQuadratic() {
+            return this == INSERTION;
+        }
+
+        // 大致的操作次数（比较 + 交换 + 写入），只用来确定演示步骤的采样间隔
+        public long estimateOperations(int size) {
+            long n = size;
+            long log = 64 - Long.numberOfLeadingZeros(Math.max(1, n));
+            switch (this) {
+                case INSERTION: return n * n / 2;
+                case RADIX: return 8 * n;
+                case HEAP: return 3 * n * log;
+                default: return 2 * n * log;
+            }
+        }
+    }
+
+    // 排序中的操作，在操作作用到数组之后调用，下标都是数组中的位置
+    public interface Trace {
+        void compare(int i, int j);
+        void swap(int i, int j);
+        // a[to] = a[from]
+        void move(int from, int to);
+        // 从辅助数组把 value 写回 a[index]
+        void write(int index, int value);
+    }
+
+    public static final class Result {
+        public final Algorithm algorithm;
+        public final int size;
+        public final long compares;
+        public final long swaps;
+        // 不属于交换的赋值，包括写入辅助数组
+        public final long writes;
+        public final long elapsedNanos;
+
+        Result(Algorithm algorithm, int size, long compares, long swaps, long writes, long elapsedNanos) {
+            this.algorithm = algorithm;
+            this.size = size;
+            this.compares = compares;
+            this.swaps = swaps;
+            this.writes = writes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d 个元素, 比较 %d, 交换 %d, 写入 %d, %.2f ms",
+                    algorithm.getLabel(), size, compares, swaps, writes, getElapsedMillis());
+        }
+    }
+
+    private ArraySorter() {
+    }
+
+    public static Result sort(int[] a, Algorithm algorithm) {
+        return sort(a, a.length, algorithm, null);
+    }
+
+    // 对 a 的前 length 个元素排序，trace 可以为 null
+    public static Result sort(int[] a, int length, Algorithm algorithm, Trace trace) {
+        if (length < 0 || length > a.length) {
+            throw new IndexOutOfBoundsException("Length: " + length + ", Array length: " + a.length);
+        }
+        long start = System.nanoTime();
+        Run run;
+        if (algorithm == Algorithm.PARALLEL_MERGE && trace == null && length > PARALLEL_THRESHOLD) {
+            run = ForkJoinPool.commonPool().invoke(new MergeTask(a, new int[length], 0, length));
+        } else {
+            run = new Run(a, trace);
+            switch (algorithm) {
+                case INSERTION: run.insertionSort(0, length); break;
+                // 记录步骤时并行归并排序按顺序执行，步骤与归并排序相同
+                case MERGE:
+                case PARALLEL_MERGE:
+                    run.aux = new int[length];
+                    run.mergeSort(0, length);
+                    break;
+                case QUICK: run.quickSort(0, length); break;
+                case HEAP: run.heapSort(0, length); break;
+                case RADIX: run.radixSort(length); break;
+                default: throw new IllegalArgumentException("未知的排序算法: " + algorithm);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(algorithm, length, run.compares, run.swaps, run.writes, elapsed);
+    }
+
+    public static boolean isSorted(int[] a, int length) {
+        for (int i = 1; i < length; i++) {
+            if (a[i - 1] > a[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========== 一次排序的状态和各算法 ==========
+
+    private static final class Run {
+        final int[] a;
+        final Trace trace;
+        int[] aux;
+        long compares;
+        long swaps;
+        long writes;
+
+        Run(int[] a, Trace trace) {
+            this.a = a;
+            this.trace = trace;
+        }
+
+        private boolean less(int i, int j) {
+            compares++;
+            if (trace != null) trace.compare(i, j);
+            return a[i] < a[j];
+        }
+
+        private void swap(int i, int j) {
+            if (i == j) {
+                return;
+            }
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+            swaps++;
+            if (trace != null) trace.swap(i, j);
+        }
+
+        void add(Run other) {
+            compares += other.compares;
+            swaps += other.swaps;
+            writes += other.writes;
+        }
+
+        // 相邻交换的插入排序，每一步都只涉及两个相邻位置
+        void insertionSort(int lo, int hi) {
+            for (int i = lo + 1; i < hi; i++) {
+                for (int j = i; j > lo && less(j, j - 1); j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        void mergeSort(int lo, int hi) {
+            if (hi - lo < 2) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            mergeSort(lo, mid);
+            mergeSort(mid, hi);
+            merge(lo, mid, hi);
+        }
+
+        // 只把左半复制到辅助数组，右半的元素要么原地不动，要么向左移动（k 永远不超过 j）。
+        // 左半在辅助数组中，合并时的比较不单独报告，写回和移动的步骤已经体现了比较结果
+        void merge(int lo, int mid, int hi) {
+            // 两半已经首尾有序时不需要合并
+            if (!less(mid, mid - 1)) {
+                return;
+            }
+            System.arraycopy(a, lo, aux, lo, mid - lo);
+            writes += mid - lo;
+            int i = lo;
+            int j = mid;
+            int k = lo;
+            while (i < mid && j < hi) {
+                compares++;
+                // 相等时取左半，保持稳定
+                if (a[j] < aux[i]) {
+                    a[k] = a[j];
+                    if (trace != null) trace.move(j, k);
+                    j++;
+                } else {
+                    a[k] = aux[i++];
+                    if (trace != null) trace.write(k, a[k]);
+                }
+                k++;
+                writes++;
+            }
+            while (i < mid) {
+                a[k] = aux[i++];
+                if (trace != null) trace.write(k, a[k]);
+                k++;
+                writes++;
+            }
+        }
+
+        // 先递归较短的一侧，较长的一侧在循环里继续，栈深度不超过 log n
+        void quickSort(int lo, int hi) {
+            while (hi - lo > 1) {
+                int p = partition(lo, hi);
+                if (p - lo < hi - p - 1) {
+                    quickSort(lo, p);
+                    lo = p + 1;
+                } else {
+                    quickSort(p + 1, hi);
+                    hi = p;
+                }
+            }
+        }
+
+        // 三数取中作为枢轴并换到 lo，两个指针遇到与枢轴相等的元素也停下，大量重复值时仍能均分
+        private int partition(int lo, int hi) {
+            int mid = (lo + hi - 1) >>> 1;
+            int last = hi - 1;
+            if (less(mid, lo)) swap(mid, lo);
+            if (less(last, lo)) swap(last, lo);
+            if (less(last, mid)) swap(last, mid);
+            swap(lo, mid);
+
+            int i = lo;
+            int j = hi;
+            while (true) {
+                do {
+                    i++;
+                } while (i < last && less(i, lo));
+                do {
+                    j--;
+                } while (j > lo && less(lo, j));
+                if (i >= j) break;
+                swap(i, j);
+            }
+            swap(lo, j);
+            return j;
+        }
+
+        void heapSort(int lo, int hi) {
+            int n = hi - lo;
+            for (int k = n / 2 - 1; k >= 0; k--) {
+                siftDown(lo, k, n);
+            }
+            for (int end = n - 1; end > 0; end--) {
+                swap(lo, lo + end);
+                siftDown(lo, 0, end);
+            }
+        }
+
+        // 大顶堆，位置 k 的子节点是 2k+1 和 2k+2（相对 base）
+        private void siftDown(int base, int k, int n) {
+            while (true) {
+                int child = 2 * k + 1;
+                if (child >= n) {
+                    return;
+                }
+                if (child + 1 < n && less(base + child, base + child + 1)) {
+                    child++;
+                }
+                if (!less(base + k, base + child)) {
+                    return;
+                }
+                swap(base + k, base + child);
+                k = child;
+            }
+        }
+
+        // 每趟按一个字节稳定地分配到辅助数组再写回，符号位取反使负数排在前面；
+        // 所有元素落在同一个桶里的一趟不改变顺序，直接跳过
+        void radixSort(int n) {
+            int[] buffer = new int[n];
+            int[] count = new int[257];
+            for (int shift = 0; shift < 32; shift += 8) {
+                Arrays.fill(count, 0);
+                for (int i = 0; i < n; i++) {
+                    count[(((a[i] ^ SIGN_BIT) >>> shift) & 0xFF) + 1]++;
+                }
+                boolean trivial = false;
+                for (int b = 1; b <= 256; b++) {
+                    if (count[b] == n) {
+                        trivial = true;
+                        break;
+                    }
+                }
+                if (trivial) {
+                    continue;
+                }
+                for (int b = 0; b < 256; b++) {
+                    count[b + 1] += count[b];
+                }
+                for (int i = 0; i < n; i++) {
+                    buffer[count[((a[i] ^ SIGN_BIT) >>> shift) & 0xFF]++] = a[i];
+                }
+                if (trace == null) {
+                    System.arraycopy(buffer, 0, a, 0, n);
+                } else {
+                    for (int i = 0; i < n; i++) {
+                        a[i] = buffer[i];
+                        trace.write(i, a[i]);
+                    }
+                }
+                writes += 2L * n;
+            }
+        }
+    }
+
+    // 两半分别排序（左半交给新任务），再在当前线程合并；短区间直接顺序归并排序。
+    // 每个任务有自己的计数，合并时累加，不共享可变状态
+    @SuppressWarnings("serial")
+    private static final class MergeTask extends RecursiveTask<Run> {
+        private final int[] a;
+        private final int[] aux;
+        private final int lo;
+        private final int hi;
+
+        MergeTask(int[] a, int[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Run compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                Run run = new Run(a, null);
+                run.aux = aux;
+                run.mergeSort(lo, hi);
+                return run;
+            }
+            int mid = (lo + hi) >>> 1;
+            MergeTask left = new MergeTask(a, aux, lo, mid);
+            left.fork();
+            Run run = new MergeTask(a, aux, mid, hi).compute();
+            run.add(left.join());
+            run.merge(lo, mid, hi);
+            return run;
+        }
+    }
+}
@@ -5,9 +5,12 @@ import java.util.List;
 
 import java.io.Serializable;
 
-public class BST {
+public class BST implements Journaled<TreeNode> {
     private TreeNode root;
     private List<SearchStep> searchSteps;
+    private ChangeSupport<TreeNode> changes;
+    // 每次改动树结构时加一，用来发现已经过期的 PendingDelete
+    private int modCount;
 
     // 可序列化的BST数据
     public static class BSTData implements Serializable {
@@ -56,46 +59,62 @@ public class BST {
     public class SearchStep {
         public TreeNode currentNode;
         public int targetValue;
-        public String description;
+        public StepMessage message;
         public boolean found;
 
-        public SearchStep(TreeNode currentNode, int targetValue, String description, boolean found) {
+        public SearchStep(TreeNode currentNode, int targetValue, StepMessage message, boolean found) {
             this.currentNode = currentNode;
             this.targetValue = targetValue;
-            this.description = description;
+            this.message = message;
             this.found = found;
         }
+
+        public String getDescription() {
+            return message.render();
+        }
     }
     // 添加删除步骤类
     public class DeleteStep {
         public TreeNode currentNode;
         public TreeNode nodeToDelete;
         public TreeNode replacementNode;
-        public String description;
+        public StepMessage message;
         public String stepType; // "find", "mark", "find_replacement", "replace", "delete", "complete"
 
-        public DeleteStep(TreeNode currentNode, TreeNode nodeToDelete, String description, String stepType) {
+        public DeleteStep(TreeNode currentNode, TreeNode nodeToDelete, StepMessage message, String stepType) {
             this.currentNode = currentNode;
             this.nodeToDelete = nodeToDelete;
-            this.description = description;
+            this.message = message;
             this.stepType = stepType;
         }
+
+        public String getDescription() {
+            return message.render();
+        }
     }
 
 
     public void insert(int value) {
-        root = insertRecursive(root, value);
+        beginChanges();
+        try {
+            root = insertRecursive(root, null, value);
+        } finally {
+            endChanges();
+        }
     }
 
-    private TreeNode insertRecursive(TreeNode current, int value) {
+    private TreeNode insertRecursive(TreeNode current, TreeNode parent, int value) {
         if (current == null) {
-            return new TreeNode(value);
+            TreeNode node = new TreeNode(value);
+            modCount++;
+            fireChange(ChangeEvent.nodeInserted(node, parent, value));
+            return node;
         }
 
         if (value < current.getValue()) {
-            current.setLeft(insertRecursive(current.getLeft(), value));
+            current.setLeft(insertRecursive(current.getLeft(), current, value));
         } else if (value > current.getValue()) {
-            current.setRight(insertRecursive(current.getRight(), value));
+            current.setRight(insertRecursive(current.getRight(), current, value));
         }
 
         return current;
@@ -104,33 +123,36 @@ public class BST {
     // 增强的搜索方法，记录每一步
     public List<SearchStep> searchWithSteps(int value) {
         searchSteps.clear();
-        boolean found = searchRecursiveWithSteps(root, value);
+        produceSearchSteps(value, searchSteps::add);
+        return new ArrayList<>(searchSteps);
+    }
+
+    private void produceSearchSteps(int value, StepSink<SearchStep> steps) {
+        boolean found = searchRecursiveWithSteps(root, value, steps);
 
         if (!found) {
-            searchSteps.add(new SearchStep(null, value, "未找到值为 " + value + " 的节点", false));
+            steps.add(new SearchStep(null, value, StepMessage.of(StepTemplate.BST_NOT_FOUND, value), false));
         }
-
-        return new ArrayList<>(searchSteps);
     }
 
-    private boolean searchRecursiveWithSteps(TreeNode current, int value) {
+    private boolean searchRecursiveWithSteps(TreeNode current, int value, StepSink<SearchStep> steps) {
         if (current == null) {
             return false;
         }
 
         // 记录当前步骤
         if (value == current.getValue()) {
-            searchSteps.add(new SearchStep(current, value,
-                    "找到目标节点: " + value, true));
+            steps.add(new SearchStep(current, value,
+                    StepMessage.of(StepTemplate.BST_SEARCH_FOUND, value), true));
             return true;
         } else if (value < current.getValue()) {
-            searchSteps.add(new SearchStep(current, value,
-                    value + " < " + current.getValue() + "，转向左子树", false));
-            return searchRecursiveWithSteps(current.getLeft(), value);
+            steps.add(new SearchStep(current, value,
+                    StepMessage.of(StepTemplate.BST_SEARCH_GO_LEFT, value, current.getValue()), false));
+            return searchRecursiveWithSteps(current.getLeft(), value, steps);
         } else {
-            searchSteps.add(new SearchStep(current, value,
-                    value + " > " + current.getValue() + "，转向右子树", false));
-            return searchRecursiveWithSteps(current.getRight(), value);
+            steps.add(new SearchStep(current, value,
+                    StepMessage.of(StepTemplate.BST_SEARCH_GO_RIGHT, value, current.getValue()), false));
+            return searchRecursiveWithSteps(current.getRight(), value, steps);
         }
     }
 
@@ -147,228 +169,309 @@ public class BST {
                 searchRecursive(current.getRight(), value);
     }
 
-    public void delete(int value) {
-        root = deleteNodeRecursive(root, value);
+    public boolean delete(int value) {
+        beginChanges();
+        try {
+            return locate(value, null).apply();
+        } finally {
+            endChanges();
+        }
     }
 
-    public List<DeleteStep> deleteWithSteps(int value) {
+    // 删除演示：一次自顶向下查找，边走边记录步骤，同时记下摘除节点要改的指针。
+    // 树此时还没有改动，画布照常显示删除前的树；界面看完步骤后调用 commit() 执行删除，
+    // 或调用 rollback() 放弃
+    public PendingDelete deleteWithSteps(int value) {
         List<DeleteStep> deleteSteps = new ArrayList<>();
+        PendingDelete pending = locate(value, deleteSteps::add);
+        pending.steps = deleteSteps;
+        return pending;
+    }
 
-        // 步骤1: 开始删除
-        deleteSteps.add(new DeleteStep(null, null, "开始删除值为 " + value + " 的节点", "start"));
-
-        // 阶段1: 查找目标节点（只读查找）
-        TreeNode nodeToDelete = findNodeReadOnly(root, value, deleteSteps);
+    // 一次删除的定位结果：目标节点及其父节点，两个子节点时还有后继及后继的父节点。
+    // commit() 直接按这些指针摘除节点，不再重新查找；期间树被其他操作改过则拒绝提交
+    public class PendingDelete {
+        private final int value;
+        private final TreeNode target;
+        private final TreeNode parent;
+        private final TreeNode successor;
+        private final TreeNode successorParent;
+        private final int expectedModCount;
+        private List<DeleteStep> steps = new ArrayList<>();
+        private boolean finished;
+
+        private PendingDelete(int value, TreeNode target, TreeNode parent,
+                              TreeNode successor, TreeNode successorParent) {
+            this.value = value;
+            this.target = target;
+            this.parent = parent;
+            this.successor = successor;
+            this.successorParent = successorParent;
+            this.expectedModCount = modCount;
+        }
 
-        if (nodeToDelete == null) {
-            deleteSteps.add(new DeleteStep(null, null, "未找到值为 " + value + " 的节点", "not_found"));
-            return deleteSteps;
+        public List<DeleteStep> getSteps() {
+            return steps;
         }
 
-        // 阶段2: 分析节点类型（只读分析）
-        analyzeNodeTypeReadOnly(nodeToDelete, deleteSteps);
+        public int getValue() {
+            return value;
+        }
 
-        // 阶段3: 制定删除策略（只读策略）
-        planDeletionStrategyReadOnly(nodeToDelete, deleteSteps);
+        public boolean isFound() {
+            return target != null;
+        }
 
-        deleteSteps.add(new DeleteStep(null, null, "删除策略演示完成", "demo_complete"));
-        return deleteSteps;
-    }
+        public boolean isPending() {
+            return !finished;
+        }
 
-    // 只读查找节点（不修改树结构）
-    private TreeNode findNodeReadOnly(TreeNode current, int value, List<DeleteStep> steps) {
-        if (current == null) {
-            return null;
+        // 执行删除，返回是否删除了节点
+        public boolean commit() {
+            if (finished) {
+                throw new IllegalStateException("该删除已经提交或放弃");
+            }
+            if (expectedModCount != modCount) {
+                throw new IllegalStateException("树在删除演示之后被修改过，请重新执行删除");
+            }
+            beginChanges();
+            try {
+                return apply();
+            } finally {
+                endChanges();
+            }
         }
 
-        // 记录比较步骤
-        steps.add(new DeleteStep(current, null,
-                "比较: " + value + " 与 " + current.getValue(), "compare"));
+        // 放弃删除；树没有被改动过，只需让这次结果失效
+        public void rollback() {
+            finished = true;
+        }
 
-        if (value == current.getValue()) {
-            steps.add(new DeleteStep(current, current,
-                    "🎯 找到要删除的节点: " + value, "found"));
-            return current;
-        } else if (value < current.getValue()) {
-            steps.add(new DeleteStep(current, null,
-                    value + " < " + current.getValue() + "，向左子树查找", "traverse_left"));
-            return findNodeReadOnly(current.getLeft(), value, steps);
-        } else {
-            steps.add(new DeleteStep(current, null,
-                    value + " > " + current.getValue() + "，向右子树查找", "traverse_right"));
-            return findNodeReadOnly(current.getRight(), value, steps);
+        private boolean apply() {
+            finished = true;
+            if (target == null) {
+                return false;
+            }
+            if (successor == null) {
+                TreeNode child = target.getLeft() != null ? target.getLeft() : target.getRight();
+                fireChange(ChangeEvent.nodeRemoved(target, parent, child, value));
+                replaceChild(parent, target, child);
+            } else {
+                // 两个子节点：后继的值复制到目标节点，再摘除后继（后继没有左子节点）
+                int successorValue = successor.getValue();
+                fireChange(ChangeEvent.nodeValueChanged(target, value, successorValue));
+                target.setValue(successorValue);
+                fireChange(ChangeEvent.nodeRemoved(successor, successorParent, successor.getRight(), successorValue));
+                replaceChild(successorParent, successor, successor.getRight());
+            }
+            modCount++;
+            return true;
         }
     }
 
-    // 只读分析节点类型
-    private void analyzeNodeTypeReadOnly(TreeNode node, List<DeleteStep> steps) {
-        steps.add(new DeleteStep(node, node, "正在分析节点类型...", "analyze"));
-
-        if (node.getLeft() == null && node.getRight() == null) {
-            steps.add(new DeleteStep(node, node, "该节点是叶子节点（没有子节点）", "leaf_identified"));
-            steps.add(new DeleteStep(node, node, "删除策略: 直接移除该节点", "leaf_strategy"));
-        } else if (node.getLeft() == null) {
-            steps.add(new DeleteStep(node, node, "该节点只有右子节点: " + node.getRight().getValue(), "one_child_identified"));
-            steps.add(new DeleteStep(node.getRight(), node, "删除策略: 用右子节点替换当前节点", "one_child_strategy"));
-        } else if (node.getRight() == null) {
-            steps.add(new DeleteStep(node, node, "该节点只有左子节点: " + node.getLeft().getValue(), "one_child_identified"));
-            steps.add(new DeleteStep(node.getLeft(), node, "删除策略: 用左子节点替换当前节点", "one_child_strategy"));
-        } else {
-            steps.add(new DeleteStep(node, node, "该节点有两个子节点", "two_children_identified"));
+    // 自顶向下查找值为 value 的节点，目标有两个子节点时继续向右子树最左端找后继。
+    // steps 为 null 时不生成步骤（普通删除和日志重放）
+    private PendingDelete locate(int value, StepSink<DeleteStep> steps) {
+        if (steps != null) {
+            steps.add(new DeleteStep(null, null, StepMessage.of(StepTemplate.BST_DELETE_START, value), "start"));
+        }
 
-            // 查找后继节点（只读）
-            TreeNode successor = findMinReadOnly(node.getRight(), steps, node);
-            steps.add(new DeleteStep(successor, node, "找到后继节点: " + successor.getValue(), "successor_found"));
+        TreeNode parent = null;
+        TreeNode current = root;
+        while (current != null && current.getValue() != value) {
+            boolean goLeft = value < current.getValue();
+            if (steps != null) {
+                steps.add(new DeleteStep(current, null,
+                        StepMessage.of(StepTemplate.BST_DELETE_COMPARE, value, current.getValue()), "compare"));
+                steps.add(goLeft
+                        ? new DeleteStep(current, null,
+                                StepMessage.of(StepTemplate.BST_DELETE_GO_LEFT, value, current.getValue()), "traverse_left")
+                        : new DeleteStep(current, null,
+                                StepMessage.of(StepTemplate.BST_DELETE_GO_RIGHT, value, current.getValue()), "traverse_right"));
+            }
+            parent = current;
+            current = goLeft ? current.getLeft() : current.getRight();
+        }
 
-            steps.add(new DeleteStep(node, node,
-                    "删除策略: 将节点值替换为 " + successor.getValue() + "，然后删除原后继节点", "two_children_strategy"));
+        if (current == null) {
+            if (steps != null) {
+                steps.add(new DeleteStep(null, null, StepMessage.of(StepTemplate.BST_NOT_FOUND, value), "not_found"));
+            }
+            return new PendingDelete(value, null, null, null, null);
         }
-    }
 
-    // 只读查找最小值
-    private TreeNode findMinReadOnly(TreeNode node, List<DeleteStep> steps, TreeNode nodeToDelete) {
-        if (node.getLeft() == null) {
-            steps.add(new DeleteStep(node, nodeToDelete, "找到最小值节点: " + node.getValue(), "min_found"));
-            return node;
+        if (steps != null) {
+            steps.add(new DeleteStep(current, null,
+                    StepMessage.of(StepTemplate.BST_DELETE_COMPARE, value, current.getValue()), "compare"));
+            steps.add(new DeleteStep(current, current, StepMessage.of(StepTemplate.BST_DELETE_FOUND, value), "found"));
+            steps.add(new DeleteStep(current, current, StepMessage.of(StepTemplate.BST_ANALYZE), "analyze"));
         }
-        steps.add(new DeleteStep(node, nodeToDelete, "继续在左子树中查找最小值", "traverse_min"));
-        return findMinReadOnly(node.getLeft(), steps, nodeToDelete);
-    }
 
-    // 制定删除策略（只读）
-    private void planDeletionStrategyReadOnly(TreeNode nodeToDelete, List<DeleteStep> steps) {
-        steps.add(new DeleteStep(nodeToDelete, nodeToDelete, "总结删除执行步骤...", "execution_plan"));
-
-        if (nodeToDelete.getLeft() == null && nodeToDelete.getRight() == null) {
-            steps.add(new DeleteStep(null, nodeToDelete,
-                    "执行步骤: 找到父节点，将其对应指针设为null", "leaf_execution"));
-        } else if (nodeToDelete.getLeft() == null || nodeToDelete.getRight() == null) {
-            TreeNode child = (nodeToDelete.getLeft() != null) ? nodeToDelete.getLeft() : nodeToDelete.getRight();
-            steps.add(new DeleteStep(child, nodeToDelete,
-                    "执行步骤: 将父节点的指针指向子节点 " + child.getValue(), "one_child_execution"));
-        } else {
-            TreeNode successor = findMinReadOnly(nodeToDelete.getRight(), new ArrayList<>(), nodeToDelete);
-            steps.add(new DeleteStep(nodeToDelete, nodeToDelete,
-                    "执行步骤1: 将节点值改为 " + successor.getValue(), "copy_value_step"));
-            steps.add(new DeleteStep(nodeToDelete.getRight(), successor,
-                    "执行步骤2: 删除原来的后继节点 " + successor.getValue(), "delete_successor_step"));
+        if (current.getLeft() == null || current.getRight() == null) {
+            if (steps != null) {
+                addSimpleDeleteSteps(current, steps);
+            }
+            return new PendingDelete(value, current, parent, null, null);
         }
-    }
 
+        if (steps != null) {
+            steps.add(new DeleteStep(current, current, StepMessage.of(StepTemplate.BST_TWO_CHILDREN), "two_children_identified"));
+        }
+        TreeNode successorParent = current;
+        TreeNode successor = current.getRight();
+        while (successor.getLeft() != null) {
+            if (steps != null) {
+                steps.add(new DeleteStep(successor, current,
+                        StepMessage.of(StepTemplate.BST_CONTINUE_MIN_AT, successor.getValue()), "traverse_min"));
+            }
+            successorParent = successor;
+            successor = successor.getLeft();
+        }
 
-    // 实际执行删除的方法（在演示完成后调用）
-    public void performActualDeletion(int value) {
-        root = deleteRecursive(root, value);
+        if (steps != null) {
+            int successorValue = successor.getValue();
+            steps.add(new DeleteStep(successor, current, StepMessage.of(StepTemplate.BST_MIN_FOUND, successorValue), "min_found"));
+            steps.add(new DeleteStep(successor, current, StepMessage.of(StepTemplate.BST_SUCCESSOR_FOUND, successorValue), "successor_found"));
+            steps.add(new DeleteStep(current, current,
+                    StepMessage.of(StepTemplate.BST_TWO_CHILDREN_STRATEGY, successorValue), "two_children_strategy"));
+            steps.add(new DeleteStep(current, current, StepMessage.of(StepTemplate.BST_EXECUTION_PLAN), "execution_plan"));
+            steps.add(new DeleteStep(current, current,
+                    StepMessage.of(StepTemplate.BST_COPY_VALUE_EXECUTION, successorValue), "copy_value_step"));
+            steps.add(new DeleteStep(current.getRight(), successor,
+                    StepMessage.of(StepTemplate.BST_DELETE_SUCCESSOR_EXECUTION, successorValue), "delete_successor_step"));
+            steps.add(new DeleteStep(null, null, StepMessage.of(StepTemplate.BST_DELETE_DEMO_COMPLETE), "demo_complete"));
+        }
+        return new PendingDelete(value, current, parent, successor, successorParent);
     }
 
-    // 原有的删除方法
-    private TreeNode deleteRecursive(TreeNode current, int value) {
-        if (current == null) return null;
-
-        if (value == current.getValue()) {
-            if (current.getLeft() == null) return current.getRight();
-            if (current.getRight() == null) return current.getLeft();
-
-            int smallestValue = findSmallestValue(current.getRight());
-            current.setValue(smallestValue);
-            current.setRight(deleteRecursive(current.getRight(), smallestValue));
-            return current;
+    // 叶子或只有一个子节点：用唯一的子节点（或 null）顶替目标节点
+    private void addSimpleDeleteSteps(TreeNode node, StepSink<DeleteStep> steps) {
+        if (node.getLeft() == null && node.getRight() == null) {
+            steps.add(new DeleteStep(node, node, StepMessage.of(StepTemplate.BST_LEAF_IDENTIFIED), "leaf_identified"));
+            steps.add(new DeleteStep(node, node, StepMessage.of(StepTemplate.BST_LEAF_STRATEGY), "leaf_strategy"));
+            steps.add(new DeleteStep(node, node, StepMessage.of(StepTemplate.BST_EXECUTION_PLAN), "execution_plan"));
+            steps.add(new DeleteStep(null, node, StepMessage.of(StepTemplate.BST_LEAF_EXECUTION), "leaf_execution"));
+        } else {
+            TreeNode child = node.getLeft() != null ? node.getLeft() : node.getRight();
+            if (node.getLeft() == null) {
+                steps.add(new DeleteStep(node, node,
+                        StepMessage.of(StepTemplate.BST_ONLY_RIGHT_CHILD, child.getValue()), "one_child_identified"));
+                steps.add(new DeleteStep(child, node, StepMessage.of(StepTemplate.BST_REPLACE_WITH_RIGHT), "one_child_strategy"));
+            } else {
+                steps.add(new DeleteStep(node, node,
+                        StepMessage.of(StepTemplate.BST_ONLY_LEFT_CHILD, child.getValue()), "one_child_identified"));
+                steps.add(new DeleteStep(child, node, StepMessage.of(StepTemplate.BST_REPLACE_WITH_LEFT), "one_child_strategy"));
+            }
+            steps.add(new DeleteStep(node, node, StepMessage.of(StepTemplate.BST_EXECUTION_PLAN), "execution_plan"));
+            steps.add(new DeleteStep(child, node,
+                    StepMessage.of(StepTemplate.BST_ONE_CHILD_EXECUTION, child.getValue()), "one_child_execution"));
         }
+        steps.add(new DeleteStep(null, null, StepMessage.of(StepTemplate.BST_DELETE_DEMO_COMPLETE), "demo_complete"));
+    }
 
-        if (value < current.getValue()) {
-            current.setLeft(deleteRecursive(current.getLeft(), value));
+    private void replaceChild(TreeNode parent, TreeNode child, TreeNode replacement) {
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.getLeft() == child) {
+            parent.setLeft(replacement);
         } else {
-            current.setRight(deleteRecursive(current.getRight(), value));
+            parent.setRight(replacement);
         }
-
-        return current;
     }
 
+    // ========== 批量操作 ==========
 
-
-
-    // 后继节点查找结果
-    private class SuccessorSearchResult {
-        TreeNode node;
-        TreeNode parent;
-
-        SuccessorSearchResult(TreeNode node, TreeNode parent) {
-            this.node = node;
-            this.parent = parent;
-        }
+    // 按顺序执行一批按值插入/删除，不记录演示步骤，视图只收到一次通知。
+    // 树形与逐个插入/删除完全相同；插入走迭代版本，有序输入退化成链表也不会栈溢出
+    public int applyBatch(List<BatchOp> ops) {
+        BatchOp.requireInsertOrDelete(ops, "BST");
+        applySequentially(ops);
+        return ops.size();
     }
 
-    // 查找后继节点
-    private SuccessorSearchResult findSuccessorWithSteps(TreeNode node, List<DeleteStep> steps, TreeNode nodeToDelete) {
-        return findSuccessorHelper(node, null, steps, nodeToDelete);
+    // 日志重放必须还原原来的树形，不论多少项都逐项执行
+    @Override
+    public void replay(List<BatchOp> ops) {
+        BatchOp.requireInsertOrDelete(ops, "BST");
+        applySequentially(ops);
     }
 
-    private SuccessorSearchResult findSuccessorHelper(TreeNode node, TreeNode parent, List<DeleteStep> steps, TreeNode nodeToDelete) {
-        if (node.getLeft() == null) {
-            steps.add(new DeleteStep(node, nodeToDelete,
-                    "找到最小值节点: " + node.getValue(), "min_found"));
-            return new SuccessorSearchResult(node, parent);
+    private void applySequentially(List<BatchOp> ops) {
+        beginChanges();
+        try {
+            for (BatchOp op : ops) {
+                if (op.kind == BatchOp.Kind.INSERT) {
+                    insertIterative(op.value);
+                } else {
+                    locate(op.value, null).apply();
+                }
+            }
+        } finally {
+            endChanges();
         }
-        steps.add(new DeleteStep(node, nodeToDelete,
-                "继续在左子树中查找最小值，当前节点: " + node.getValue(), "traverse_min"));
-        return findSuccessorHelper(node.getLeft(), node, steps, nodeToDelete);
     }
 
-
-
-
-    private TreeNode deleteNodeRecursive(TreeNode current, int value) {
-        if (current == null) return null;
-
-        if (value == current.getValue()) {
-            if (current.getLeft() == null) return current.getRight();
-            if (current.getRight() == null) return current.getLeft();
-
-            int smallestValue = findSmallestValue(current.getRight());
-            current.setValue(smallestValue);
-            current.setRight(deleteNodeRecursive(current.getRight(), smallestValue));
-            return current;
+    private void insertIterative(int value) {
+        TreeNode parent = null;
+        TreeNode current = root;
+        while (current != null) {
+            if (value == current.getValue()) {
+                return;
+            }
+            parent = current;
+            current = value < current.getValue() ? current.getLeft() : current.getRight();
         }
-
-        if (value < current.getValue()) {
-            current.setLeft(deleteNodeRecursive(current.getLeft(), value));
+        TreeNode node = new TreeNode(value);
+        if (parent == null) {
+            root = node;
+        } else if (value < parent.getValue()) {
+            parent.setLeft(node);
         } else {
-            current.setRight(deleteNodeRecursive(current.getRight(), value));
+            parent.setRight(node);
         }
-
-        return current;
+        modCount++;
+        fireChange(ChangeEvent.nodeInserted(node, parent, value));
     }
 
-    private int findSmallestValue(TreeNode root) {
-        return root.getLeft() == null ? root.getValue() : findSmallestValue(root.getLeft());
+    // 获取树的大小（大树并行统计，退化成链表也不会栈溢出）
+    public int size() {
+        return TreeAggregates.compute(root, TreeAggregates.TREE_NODE).size;
     }
 
+    // 获取树的高度
+    public int height() {
+        return TreeAggregates.compute(root, TreeAggregates.TREE_NODE).height;
+    }
 
+    public TreeNode getRoot() { return root; }
+    public boolean isEmpty() { return root == null; }
 
+    // ========== 变更通知 ==========
 
-
-
-
-    // 获取树的大小
-    public int size() {
-        return sizeRecursive(root);
+    // 订阅节点插入、删除和值替换。一次插入/删除的事件在指针全部改好后一起送达
+    @Override
+    public ChangeSupport<TreeNode> changes() {
+        if (changes == null) {
+            changes = new ChangeSupport<TreeNode>();
+        }
+        return changes;
     }
 
-    private int sizeRecursive(TreeNode node) {
-        if (node == null) return 0;
-        return 1 + sizeRecursive(node.getLeft()) + sizeRecursive(node.getRight());
+    private void fireChange(ChangeEvent<TreeNode> event) {
+        if (changes != null) {
+            changes.fire(event);
+        }
     }
 
-    // 获取树的高度
-    public int height() {
-        return heightRecursive(root);
+    private void beginChanges() {
+        if (changes != null) {
+            changes.beginBatch();
+        }
     }
 
-    private int heightRecursive(TreeNode node) {
-        if (node == null) return 0;
-        return 1 + Math.max(heightRecursive(node.getLeft()), heightRecursive(node.getRight()));
+    private void endChanges() {
+        if (changes != null) {
+            changes.endBatch();
+        }
     }
-
-    public TreeNode getRoot() { return root; }
-    public boolean isEmpty() { return root == null; }
 }
\ No newline at end of file
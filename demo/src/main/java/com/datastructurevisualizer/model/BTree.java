@@ -0,0 +1,518 @@
+package com.datastructurevisualizer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// B+ 树（集合语义）：所有键存放在叶子中，叶子按顺序链接；内部节点只存分隔键。
+// 节点是 int[] 中定长的块，块内依次为 [键数, 是否叶子, 下一叶子 | 键… | 子节点…]，
+// 查找时一个节点的键在内存中连续，阶数较大时树很矮，每层只需访问一块连续内存
+public class BTree {
+    public static final int MIN_ORDER = 3;
+    public static final int DEFAULT_ORDER = 4;
+    // 空句柄，相当于 null
+    public static final int NIL = -1;
+
+    // 块头字段的偏移
+    private static final int COUNT = 0;
+    private static final int LEAF = 1;   // 1 叶子，0 内部节点，-1 已释放
+    private static final int NEXT = 2;   // 叶子：右侧叶子；已释放：空闲链表的下一块
+    private static final int KEYS = 3;
+
+    private final int order;     // 每个节点最多的子节点数
+    private final int maxKeys;
+    private final int minKeys;
+    private final int childOffset;
+    private final int stride;
+
+    private int[] pool;
+    private int highWaterMark;   // 从未分配过的第一个块
+    private int freeHead = NIL;
+    private int nodeCount;
+
+    private int root;
+    private int height;
+    private int size;
+    private long splits;
+    private long merges;
+
+    // 插入删除时记录从根到叶子的路径：节点句柄和进入子节点的下标
+    private int[] pathNodes = new int[8];
+    private int[] pathSlots = new int[8];
+
+    // 可序列化的 B+ 树数据：阶数和按顺序排列的全部键，加载时重新插入
+    public static class BTreeData implements Serializable {
+        private static final long serialVersionUID = 1L;
+        public int order;
+        public int[] keys;
+
+        public BTreeData(BTree tree) {
+            this.order = tree.order;
+            this.keys = tree.keys();
+        }
+    }
+
+    public BTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    public BTree(int order) {
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("B+ 树的阶数至少为 " + MIN_ORDER + ": " + order);
+        }
+        this.order = order;
+        this.maxKeys = order - 1;
+        this.minKeys = (order + 1) / 2 - 1;
+        // 多留一个键位和一个子节点位，分裂前允许节点暂时溢出
+        this.childOffset = KEYS + maxKeys + 1;
+        this.stride = childOffset + maxKeys + 2;
+        this.pool = new int[stride * 16];
+        reset();
+    }
+
+    // ========== 存档 ==========
+
+    public BTreeData getSerializableData() {
+        return new BTreeData(this);
+    }
+
+    public static BTree fromSerializableData(BTreeData data) {
+        if (data == null) {
+            return new BTree();
+        }
+        BTree tree = new BTree(Math.max(MIN_ORDER, data.order));
+        if (data.keys != null) {
+            for (int key : data.keys) {
+                tree.insert(key);
+            }
+        }
+        return tree;
+    }
+
+    public TreeArchiveManager.TreeArchiveData saveToArchive(String description) {
+        return new TreeArchiveManager.TreeArchiveData("btree", this.getSerializableData(), description);
+    }
+
+    public static BTree loadFromArchive(TreeArchiveManager.TreeArchiveData archiveData) {
+        if (archiveData != null && archiveData.data instanceof BTreeData) {
+            return fromSerializableData((BTreeData) archiveData.data);
+        }
+        return new BTree();
+    }
+
+    // ========== 查找 ==========
+
+    public boolean contains(int key) {
+        int node = root;
+        while (pool[node + LEAF] == 0) {
+            node = child(node, childSlot(node, key));
+        }
+        return Arrays.binarySearch(pool, node + KEYS, node + KEYS + pool[node + COUNT], key) >= 0;
+    }
+
+    // 内部节点中 key 所在的子节点下标：分隔键 ≤ key 的个数
+    private int childSlot(int node, int key) {
+        int low = node + KEYS;
+        int high = low + pool[node + COUNT];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pool[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - node - KEYS;
+    }
+
+    // ========== 插入 ==========
+
+    // 返回 false 表示键已存在
+    public boolean insert(int key) {
+        int depth = descend(key);
+        int leaf = pathNodes[depth];
+        int count = pool[leaf + COUNT];
+        int found = Arrays.binarySearch(pool, leaf + KEYS, leaf + KEYS + count, key);
+        if (found >= 0) {
+            return false;
+        }
+        int pos = -found - 1 - leaf - KEYS;
+        insertKey(leaf, pos, key);
+        size++;
+
+        // 自底向上分裂溢出的节点，把分隔键和新节点插入父节点
+        int node = leaf;
+        for (int level = depth; pool[node + COUNT] > maxKeys; level--) {
+            int separator;
+            int right;
+            if (pool[node + LEAF] == 1) {
+                right = splitLeaf(node);
+                separator = pool[right + KEYS];
+            } else {
+                right = allocate(false);
+                separator = splitInternal(node, right);
+            }
+            splits++;
+            if (level == 0) {
+                int newRoot = allocate(false);
+                pool[newRoot + COUNT] = 1;
+                pool[newRoot + KEYS] = separator;
+                pool[newRoot + childOffset] = node;
+                pool[newRoot + childOffset + 1] = right;
+                root = newRoot;
+                height++;
+                break;
+            }
+            int parent = pathNodes[level - 1];
+            int slot = pathSlots[level - 1];
+            insertKey(parent, slot, separator);
+            insertChild(parent, slot + 1, right);
+            node = parent;
+        }
+        return true;
+    }
+
+    // 溢出的叶子把后一半键移到新叶子，新叶子接入叶子链表
+    private int splitLeaf(int leaf) {
+        int right = allocate(true);
+        int count = pool[leaf + COUNT];
+        int keep = (count + 1) / 2;
+        System.arraycopy(pool, leaf + KEYS + keep, pool, right + KEYS, count - keep);
+        pool[right + COUNT] = count - keep;
+        pool[leaf + COUNT] = keep;
+        pool[right + NEXT] = pool[leaf + NEXT];
+        pool[leaf + NEXT] = right;
+        return right;
+    }
+
+    // 溢出的内部节点以中间键为界分成两半，中间键上移，返回中间键
+    private int splitInternal(int node, int right) {
+        int count = pool[node + COUNT];
+        int mid = count / 2;
+        int separator = pool[node + KEYS + mid];
+        int rightKeys = count - mid - 1;
+        System.arraycopy(pool, node + KEYS + mid + 1, pool, right + KEYS, rightKeys);
+        System.arraycopy(pool, node + childOffset + mid + 1, pool, right + childOffset, rightKeys + 1);
+        pool[right + COUNT] = rightKeys;
+        pool[node + COUNT] = mid;
+        return separator;
+    }
+
+    // ========== 删除 ==========
+
+    // 返回 false 表示键不存在
+    public boolean delete(int key) {
+        int depth = descend(key);
+        int leaf = pathNodes[depth];
+        int count = pool[leaf + COUNT];
+        int found = Arrays.binarySearch(pool, leaf + KEYS, leaf + KEYS + count, key);
+        if (found < 0) {
+            return false;
+        }
+        removeKey(leaf, found - leaf - KEYS);
+        size--;
+
+        // 内部节点里残留的旧分隔键仍然是合法的边界，不需要更新；只处理键数不足的节点
+        int node = leaf;
+        for (int level = depth; level > 0 && pool[node + COUNT] < minKeys; level--) {
+            int parent = pathNodes[level - 1];
+            int slot = pathSlots[level - 1];
+            rebalance(parent, slot, node);
+            node = parent;
+        }
+        if (pool[root + LEAF] == 0 && pool[root + COUNT] == 0) {
+            // 根只剩一个子节点，树变矮一层
+            int oldRoot = root;
+            root = child(oldRoot, 0);
+            free(oldRoot);
+            height--;
+        }
+        return true;
+    }
+
+    // node 是 parent 的第 slot 个子节点，键数不足：先向左右兄弟借键，借不到再合并
+    private void rebalance(int parent, int slot, int node) {
+        int parentCount = pool[parent + COUNT];
+        boolean leaf = pool[node + LEAF] == 1;
+        int left = slot > 0 ? child(parent, slot - 1) : NIL;
+        int right = slot < parentCount ? child(parent, slot + 1) : NIL;
+
+        if (left != NIL && pool[left + COUNT] > minKeys) {
+            int leftCount = pool[left + COUNT];
+            if (leaf) {
+                insertKey(node, 0, pool[left + KEYS + leftCount - 1]);
+                pool[parent + KEYS + slot - 1] = pool[node + KEYS];
+            } else {
+                insertKey(node, 0, pool[parent + KEYS + slot - 1]);
+                insertChild(node, 0, child(left, leftCount));
+                pool[parent + KEYS + slot - 1] = pool[left + KEYS + leftCount - 1];
+            }
+            pool[left + COUNT] = leftCount - 1;
+        } else if (right != NIL && pool[right + COUNT] > minKeys) {
+            int count = pool[node + COUNT];
+            if (leaf) {
+                pool[node + KEYS + count] = pool[right + KEYS];
+                pool[node + COUNT] = count + 1;
+                removeKey(right, 0);
+                pool[parent + KEYS + slot] = pool[right + KEYS];
+            } else {
+                pool[node + KEYS + count] = pool[parent + KEYS + slot];
+                pool[node + childOffset + count + 1] = child(right, 0);
+                pool[node + COUNT] = count + 1;
+                pool[parent + KEYS + slot] = pool[right + KEYS];
+                removeKey(right, 0);
+                removeChild(right, 0);
+            }
+        } else if (left != NIL) {
+            merge(parent, slot - 1, left, node);
+        } else {
+            merge(parent, slot, node, right);
+        }
+    }
+
+    // 把 right 并入 left，删除父节点中两者之间的分隔键
+    private void merge(int parent, int separatorSlot, int left, int right) {
+        int leftCount = pool[left + COUNT];
+        int rightCount = pool[right + COUNT];
+        if (pool[left + LEAF] == 1) {
+            System.arraycopy(pool, right + KEYS, pool, left + KEYS + leftCount, rightCount);
+            pool[left + COUNT] = leftCount + rightCount;
+            pool[left + NEXT] = pool[right + NEXT];
+        } else {
+            // 内部节点合并时分隔键下移到两组键之间
+            pool[left + KEYS + leftCount] = pool[parent + KEYS + separatorSlot];
+            System.arraycopy(pool, right + KEYS, pool, left + KEYS + leftCount + 1, rightCount);
+            System.arraycopy(pool, right + childOffset, pool, left + childOffset + leftCount + 1, rightCount + 1);
+            pool[left + COUNT] = leftCount + rightCount + 1;
+        }
+        removeKey(parent, separatorSlot);
+        removeChild(parent, separatorSlot + 1);
+        free(right);
+        merges++;
+    }
+
+    // ========== 节点内操作 ==========
+
+    // 从根下降到 key 所在的叶子，返回叶子在路径中的深度
+    private int descend(int key) {
+        if (pathNodes.length <= height) {
+            pathNodes = Arrays.copyOf(pathNodes, height * 2 + 1);
+            pathSlots = Arrays.copyOf(pathSlots, height * 2 + 1);
+        }
+        int node = root;
+        int depth = 0;
+        while (pool[node + LEAF] == 0) {
+            int slot = childSlot(node, key);
+            pathNodes[depth] = node;
+            pathSlots[depth] = slot;
+            depth++;
+            node = child(node, slot);
+        }
+        pathNodes[depth] = node;
+        return depth;
+    }
+
+    private int child(int node, int slot) {
+        return pool[node + childOffset + slot];
+    }
+
+    private void insertKey(int node, int pos, int key) {
+        int count = pool[node + COUNT];
+        int at = node + KEYS + pos;
+        System.arraycopy(pool, at, pool, at + 1, count - pos);
+        pool[at] = key;
+        pool[node + COUNT] = count + 1;
+    }
+
+    private void removeKey(int node, int pos) {
+        int count = pool[node + COUNT];
+        int at = node + KEYS + pos;
+        System.arraycopy(pool, at + 1, pool, at, count - pos - 1);
+        pool[node + COUNT] = count - 1;
+    }
+
+    // 子节点的增删在键数更新之后调用，子节点个数 = 键数 + 1
+    private void insertChild(int node, int pos, int handle) {
+        int children = pool[node + COUNT] + 1;
+        int at = node + childOffset + pos;
+        System.arraycopy(pool, at, pool, at + 1, children - 1 - pos);
+        pool[at] = handle;
+    }
+
+    private void removeChild(int node, int pos) {
+        int children = pool[node + COUNT] + 1;
+        int at = node + childOffset + pos;
+        System.arraycopy(pool, at + 1, pool, at, children - pos);
+    }
+
+    // ========== 节点池 ==========
+
+    // 句柄是块在 pool 中的起始下标，优先复用空闲块
+    private int allocate(boolean leaf) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = pool[node + NEXT];
+        } else {
+            if (highWaterMark + stride > pool.length) {
+                pool = Arrays.copyOf(pool, pool.length + (pool.length >> 1) + stride);
+            }
+            node = highWaterMark;
+            highWaterMark += stride;
+        }
+        pool[node + COUNT] = 0;
+        pool[node + LEAF] = leaf ? 1 : 0;
+        pool[node + NEXT] = NIL;
+        nodeCount++;
+        return node;
+    }
+
+    private void free(int node) {
+        pool[node + LEAF] = -1;
+        pool[node + NEXT] = freeHead;
+        freeHead = node;
+        nodeCount--;
+    }
+
+    public void clear() {
+        reset();
+    }
+
+    // 构造方法也要用到，不能调用可被子类覆盖的 clear()
+    private void reset() {
+        highWaterMark = 0;
+        freeHead = NIL;
+        nodeCount = 0;
+        root = allocate(true);
+        height = 1;
+        size = 0;
+    }
+
+    // ========== 统计与快照 ==========
+
+    // 按顺序排列的全部键，沿叶子链表读取
+    public int[] keys() {
+        int[] result = new int[size];
+        int node = root;
+        while (pool[node + LEAF] == 0) {
+            node = child(node, 0);
+        }
+        int index = 0;
+        for (; node != NIL; node = pool[node + NEXT]) {
+            int count = pool[node + COUNT];
+            System.arraycopy(pool, node + KEYS, result, index, count);
+            index += count;
+        }
+        return result;
+    }
+
+    // 逐层列出每个节点的键，供可视化使用；levels().get(0) 只有根节点
+    public List<List<int[]>> levels() {
+        List<List<int[]>> levels = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        current.add(root);
+        while (!current.isEmpty()) {
+            List<int[]> level = new ArrayList<>();
+            List<Integer> next = new ArrayList<>();
+            for (int node : current) {
+                int count = pool[node + COUNT];
+                level.add(Arrays.copyOfRange(pool, node + KEYS, node + KEYS + count));
+                if (pool[node + LEAF] == 0) {
+                    for (int i = 0; i <= count; i++) {
+                        next.add(child(node, i));
+                    }
+                }
+            }
+            levels.add(level);
+            current = next;
+        }
+        return levels;
+    }
+
+    // 检查键的顺序、节点键数范围、叶子深度一致和叶子链表，返回 null 表示正确
+    public String validate() {
+        String[] error = new String[1];
+        int leaves = validate(root, Long.MIN_VALUE, Long.MAX_VALUE, 1, error);
+        if (error[0] == null && leaves != size) {
+            error[0] = "叶子中的键数 " + leaves + " 与大小 " + size + " 不一致";
+        }
+        if (error[0] == null && !isStrictlyIncreasing(keys())) {
+            error[0] = "叶子链表无序";
+        }
+        return error[0];
+    }
+
+    // 返回子树中的键数；键的范围为 [min, max)
+    private int validate(int node, long min, long max, int depth, String[] error) {
+        int count = pool[node + COUNT];
+        if (node != root && (count < minKeys || count > maxKeys)) {
+            error[0] = "节点键数 " + count + " 超出范围 [" + minKeys + ", " + maxKeys + "]";
+            return 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int key = pool[node + KEYS + i];
+            if (key < min || key >= max || (i > 0 && key <= pool[node + KEYS + i - 1])) {
+                error[0] = "键 " + key + " 违反顺序";
+                return 0;
+            }
+        }
+        if (pool[node + LEAF] == 1) {
+            if (depth != height) {
+                error[0] = "叶子深度 " + depth + " 与高度 " + height + " 不一致";
+            }
+            return count;
+        }
+        int total = 0;
+        for (int i = 0; i <= count && error[0] == null; i++) {
+            long low = i == 0 ? min : pool[node + KEYS + i - 1];
+            long high = i == count ? max : pool[node + KEYS + i];
+            total += validate(child(node, i), low, high, depth + 1, error);
+        }
+        return total;
+    }
+
+    private static boolean isStrictlyIncreasing(int[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] <= keys[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 根到叶子的层数，空树为 1（只有一个空叶子）
+    public int height() {
+        return height;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    // 累计的节点分裂和合并次数
+    public long getSplits() {
+        return splits;
+    }
+
+    public long getMerges() {
+        return merges;
+    }
+
+    // 节点池占用的字节数
+    public long memoryBytes() {
+        return (long) pool.length * Integer.BYTES;
+    }
+}
@@ -0,0 +1,178 @@
+package com.datastructurevisualizer.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// 批量操作中的一项，由各数据结构的 applyBatch 按顺序执行。
+// 顺序表、链表按位置插入/删除；BST、AVL树、二叉树按值插入/删除；栈只接受入栈和出栈。
+public final class BatchOp {
+    public enum Kind { INSERT, DELETE, PUSH, POP }
+
+    // 插入位置：追加到末尾
+    public static final int APPEND = -1;
+    // 一次解析出的值的上限，防止误输入巨大的区间
+    public static final int MAX_VALUES = 1_000_000;
+
+    public final Kind kind;
+    public final int value;
+    public final int index;
+
+    private BatchOp(Kind kind, int value, int index) {
+        this.kind = kind;
+        this.value = value;
+        this.index = index;
+    }
+
+    // 顺序表、链表追加到末尾；树按值插入
+    public static BatchOp insert(int value) {
+        return new BatchOp(Kind.INSERT, value, APPEND);
+    }
+
+    public static BatchOp insertAt(int index, int value) {
+        return new BatchOp(Kind.INSERT, value, index);
+    }
+
+    // 树按值删除
+    public static BatchOp delete(int value) {
+        return new BatchOp(Kind.DELETE, value, 0);
+    }
+
+    // 顺序表、链表按位置删除
+    public static BatchOp deleteAt(int index) {
+        return new BatchOp(Kind.DELETE, 0, index);
+    }
+
+    public static BatchOp push(int value) {
+        return new BatchOp(Kind.PUSH, value, 0);
+    }
+
+    public static BatchOp pop() {
+        return new BatchOp(Kind.POP, 0, 0);
+    }
+
+    // 操作日志解码用，字段与写入时一致
+    static BatchOp of(Kind kind, int value, int index) {
+        return new BatchOp(kind, value, index);
+    }
+
+    // 顺序表、链表的插入位置：APPEND 换算成执行到这一项时的大小
+    int insertIndex(int size) {
+        return index == APPEND ? size : index;
+    }
+
+    // ========== 批量构造 ==========
+
+    public static List<BatchOp> inserts(int[] values) {
+        return map(values, Kind.INSERT);
+    }
+
+    public static List<BatchOp> deletes(int[] values) {
+        return map(values, Kind.DELETE);
+    }
+
+    public static List<BatchOp> pushes(int[] values) {
+        return map(values, Kind.PUSH);
+    }
+
+    // 按需创建操作对象，十万个值也只占一个 int 数组
+    private static List<BatchOp> map(int[] values, Kind kind) {
+        return new AbstractList<BatchOp>() {
+            @Override
+            public BatchOp get(int i) {
+                int value = values[i];
+                return kind == Kind.INSERT ? insert(value) : new BatchOp(kind, value, 0);
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    // 树的批量插入/删除：把现有的有序值（前 count 个）与整批操作归并，得到执行完整批后的有序值。
+    // 同一个值以批内最后一次操作为准（先删后插则保留，先插后删则删除），与逐项执行的结果集合一致
+    static int[] applyToSorted(int[] sorted, int count, List<BatchOp> ops) {
+        int n = ops.size();
+        // 高 32 位为值、低 32 位为批内序号，排序后同值的操作相邻且按原顺序排列
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) ops.get(i).value << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] result = new int[count + n];
+        int size = 0;
+        int j = 0;
+        int k = 0;
+        while (k < n) {
+            int value = (int) (keys[k] >> 32);
+            int last = k;
+            while (last + 1 < n && (int) (keys[last + 1] >> 32) == value) {
+                last++;
+            }
+            boolean present = ops.get((int) keys[last]).kind == Kind.INSERT;
+            k = last + 1;
+
+            while (j < count && sorted[j] < value) {
+                result[size++] = sorted[j++];
+            }
+            if (j < count && sorted[j] == value) {
+                j++;
+            }
+            if (present) {
+                result[size++] = value;
+            }
+        }
+        while (j < count) {
+            result[size++] = sorted[j++];
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // 只接受 INSERT/DELETE 的结构在修改前统一检查
+    static void requireInsertOrDelete(List<BatchOp> ops, String structure) {
+        for (BatchOp op : ops) {
+            if (op.kind != Kind.INSERT && op.kind != Kind.DELETE) {
+                throw new IllegalArgumentException(structure + "不支持的批量操作: " + op.kind);
+            }
+        }
+    }
+
+    // 解析批量输入，例如 "1,5,9..100000"：逗号、中文逗号或空白分隔，a..b 表示闭区间（可以递减）
+    public static int[] parseValues(String text) {
+        int[] values = new int[16];
+        int count = 0;
+        for (String token : text.trim().split("[,，\\s]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            // 从下标 1 开始找，区间起点可以是负数
+            int dots = token.indexOf("..", 1);
+            long from;
+            long to;
+            if (dots < 0) {
+                from = to = Integer.parseInt(token);
+            } else {
+                from = Integer.parseInt(token.substring(0, dots));
+                to = Integer.parseInt(token.substring(dots + 2));
+            }
+            long length = Math.abs(to - from) + 1;
+            if (count + length > MAX_VALUES) {
+                throw new IllegalArgumentException("批量输入最多 " + MAX_VALUES + " 个值");
+            }
+            if (count + length > values.length) {
+                values = Arrays.copyOf(values, (int) Math.max(count + length, values.length * 2L));
+            }
+            int step = from <= to ? 1 : -1;
+            for (long v = from; v != to + step; v += step) {
+                values[count++] = (int) v;
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("批量输入为空");
+        }
+        return Arrays.copyOf(values, count);
+    }
+}
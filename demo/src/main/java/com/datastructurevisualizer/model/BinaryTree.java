@@ -1,14 +1,17 @@
 package com.datastructurevisualizer.model;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class BinaryTree {
     private TreeNode root;
     private List<TraversalStep> traversalSteps;
+    private ChangeSupport<TreeNode> changes;
 
     // 可序列化的二叉树数据 - 只保存树结构，不保存步骤数据
     public static class BinaryTreeData implements Serializable {
@@ -58,222 +61,229 @@ public class BinaryTree {
     public class TraversalStep {
         public String traversalType;
         public TreeNode currentNode;
-        public String description;
+        public StepMessage message;
         public List<Integer> visitedNodes;
         public List<Integer> currentPath;
 
-        public TraversalStep(String traversalType, TreeNode currentNode, String description) {
+        public TraversalStep(String traversalType, TreeNode currentNode, StepMessage message) {
             this.traversalType = traversalType;
             this.currentNode = currentNode;
-            this.description = description;
-            this.visitedNodes = new ArrayList<Integer>();
-            this.currentPath = new ArrayList<Integer>();
+            this.message = message;
+            this.visitedNodes = Collections.emptyList();
+            this.currentPath = Collections.emptyList();
         }
-    }
-
 
-    // 重置所有节点的访问状态
-    private void resetVisited(TreeNode node) {
-        if (node != null) {
-            node.resetVisited();
-            resetVisited(node.getLeft());
-            resetVisited(node.getRight());
+        public String getDescription() {
+            return message.render();
         }
     }
-    // 收集已访问节点
-    private void collectVisitedNodes(TreeNode node, List<Integer> visitedNodes) {
-        if (node != null) {
-            if (node.isVisited()) {
-                visitedNodes.add(node.getValue());
+
+
+    // 已访问节点的追加日志：每个步骤只持有当前长度的前缀视图，不必每步重新收集整棵树。
+    // 日志只在尾部追加，扩容时旧数组不再被写入，因此已发布的前缀在其他线程上读取也是稳定的。
+    private static class VisitLog {
+        private int[] values = new int[16];
+        private int count;
+
+        void add(int value) {
+            if (count == values.length) {
+                values = java.util.Arrays.copyOf(values, count * 2);
             }
-            collectVisitedNodes(node.getLeft(), visitedNodes);
-            collectVisitedNodes(node.getRight(), visitedNodes);
+            values[count++] = value;
         }
+
+        List<Integer> snapshot() {
+            final int[] data = values;
+            final int length = count;
+            return new AbstractList<Integer>() {
+                @Override
+                public Integer get(int index) {
+                    if (index < 0 || index >= length) {
+                        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+                    }
+                    return data[index];
+                }
+
+                @Override
+                public int size() {
+                    return length;
+                }
+            };
+        }
+    }
+
+    // 遍历名称在所有步骤间共享，开始/完成步骤的描述引用它们
+    private static final StepMessage PRE_ORDER_NAME = StepMessage.of(StepTemplate.PRE_ORDER);
+    private static final StepMessage IN_ORDER_NAME = StepMessage.of(StepTemplate.IN_ORDER);
+    private static final StepMessage POST_ORDER_NAME = StepMessage.of(StepTemplate.POST_ORDER);
+    private static final StepMessage LEVEL_ORDER_NAME = StepMessage.of(StepTemplate.LEVEL_ORDER);
+
+    private static StepMessage traversalMessage(StepTemplate template, StepMessage traversalName) {
+        return StepMessage.withRefs(template, 0, 0, traversalName, null);
     }
+
     // 带步骤的前序遍历
     public List<TraversalStep> preOrderTraversalWithSteps() {
-        traversalSteps.clear();
-        resetVisited(root);  // 重置访问状态
+        return collectSteps(this::producePreOrderSteps);
+    }
 
-        TraversalStep startStep = new TraversalStep("前序遍历", null, "开始前序遍历");
-        traversalSteps.add(startStep);
+    public StepStream<TraversalStep> preOrderTraversalStepStream() {
+        return StepStream.generate(this::producePreOrderSteps);
+    }
+
+    // 带步骤的中序遍历
+    public List<TraversalStep> inOrderTraversalWithSteps() {
+        return collectSteps(this::produceInOrderSteps);
+    }
 
-        // 确保传递根节点信息
-        preOrderRecursiveWithSteps(root, new ArrayList<Integer>());
+    public StepStream<TraversalStep> inOrderTraversalStepStream() {
+        return StepStream.generate(this::produceInOrderSteps);
+    }
 
-        TraversalStep completeStep = new TraversalStep("前序遍历", null, "前序遍历完成");
-        List<Integer> allVisited = new ArrayList<Integer>();
-        collectVisitedNodes(root, allVisited);
-        completeStep.visitedNodes = new ArrayList<Integer>(allVisited);
-        traversalSteps.add(completeStep);
+    // 带步骤的后序遍历
+    public List<TraversalStep> postOrderTraversalWithSteps() {
+        return collectSteps(this::producePostOrderSteps);
+    }
 
+    public StepStream<TraversalStep> postOrderTraversalStepStream() {
+        return StepStream.generate(this::producePostOrderSteps);
+    }
+
+    // 带步骤的层次遍历
+    public List<TraversalStep> levelOrderTraversalWithSteps() {
+        return collectSteps(this::produceLevelOrderSteps);
+    }
+
+    public StepStream<TraversalStep> levelOrderTraversalStepStream() {
+        return StepStream.generate(this::produceLevelOrderSteps);
+    }
+
+    private List<TraversalStep> collectSteps(java.util.function.Consumer<StepSink<TraversalStep>> producer) {
+        traversalSteps.clear();
+        producer.accept(traversalSteps::add);
         return new ArrayList<TraversalStep>(traversalSteps);
     }
 
+    // 遍历步骤只读取树结构，不修改节点的访问标记，因此可以在后台线程上生成
+    private void producePreOrderSteps(StepSink<TraversalStep> steps) {
+        steps.add(new TraversalStep("前序遍历", null, traversalMessage(StepTemplate.TRAVERSAL_START, PRE_ORDER_NAME)));
+
+        VisitLog visited = new VisitLog();
+        preOrderRecursiveWithSteps(root, new ArrayList<Integer>(), visited, steps);
+
+        TraversalStep completeStep = new TraversalStep("前序遍历", null, traversalMessage(StepTemplate.TRAVERSAL_COMPLETE, PRE_ORDER_NAME));
+        completeStep.visitedNodes = visited.snapshot();
+        steps.add(completeStep);
+    }
 
-    private void preOrderRecursiveWithSteps(TreeNode node, List<Integer> currentPath) {
+    private void preOrderRecursiveWithSteps(TreeNode node, List<Integer> currentPath,
+                                            VisitLog visited, StepSink<TraversalStep> steps) {
         if (node == null) return;
 
         // 访问当前节点
-        node.setVisited(true);
+        visited.add(node.getValue());
         currentPath.add(node.getValue());
-
-        TraversalStep step = new TraversalStep("前序遍历", node,
-                "访问节点: " + node.getValue());
-
-        // 确保收集正确的已访问节点
-        collectVisitedNodes(root, step.visitedNodes);
-        step.currentPath = new ArrayList<Integer>(currentPath);
-        traversalSteps.add(step);
+        steps.add(traversalStep("前序遍历", node, StepMessage.of(StepTemplate.TRAVERSAL_VISIT, node.getValue()), visited, currentPath));
 
         // 递归左子树
         if (node.getLeft() != null) {
-            TraversalStep leftStep = new TraversalStep("前序遍历", node,
-                    "转向左子树: " + node.getLeft().getValue());
-            collectVisitedNodes(root, leftStep.visitedNodes);
-            leftStep.currentPath = new ArrayList<Integer>(currentPath);
-            traversalSteps.add(leftStep);
+            steps.add(traversalStep("前序遍历", node,
+                    StepMessage.of(StepTemplate.TRAVERSAL_GO_LEFT, node.getLeft().getValue()), visited, currentPath));
         }
-        preOrderRecursiveWithSteps(node.getLeft(), currentPath);
+        preOrderRecursiveWithSteps(node.getLeft(), currentPath, visited, steps);
 
         // 递归右子树
         if (node.getRight() != null) {
-            TraversalStep rightStep = new TraversalStep("前序遍历", node,
-                    "转向右子树: " + node.getRight().getValue());
-            collectVisitedNodes(root, rightStep.visitedNodes);
-            rightStep.currentPath = new ArrayList<Integer>(currentPath);
-            traversalSteps.add(rightStep);
+            steps.add(traversalStep("前序遍历", node,
+                    StepMessage.of(StepTemplate.TRAVERSAL_GO_RIGHT, node.getRight().getValue()), visited, currentPath));
         }
-        preOrderRecursiveWithSteps(node.getRight(), currentPath);
+        preOrderRecursiveWithSteps(node.getRight(), currentPath, visited, steps);
 
         currentPath.remove(currentPath.size() - 1);
     }
 
-    // 带步骤的中序遍历
-    public List<TraversalStep> inOrderTraversalWithSteps() {
-        traversalSteps.clear();
-        resetVisited(root);
-
-        TraversalStep startStep = new TraversalStep("中序遍历", null, "开始中序遍历");
-        traversalSteps.add(startStep);
+    private void produceInOrderSteps(StepSink<TraversalStep> steps) {
+        steps.add(new TraversalStep("中序遍历", null, traversalMessage(StepTemplate.TRAVERSAL_START, IN_ORDER_NAME)));
 
-        inOrderRecursiveWithSteps(root, new ArrayList<Integer>());
+        VisitLog visited = new VisitLog();
+        inOrderRecursiveWithSteps(root, new ArrayList<Integer>(), visited, steps);
 
-        TraversalStep completeStep = new TraversalStep("中序遍历", null, "中序遍历完成");
-        List<Integer> allVisited = new ArrayList<Integer>();
-        collectVisitedNodes(root, allVisited);
-        completeStep.visitedNodes = new ArrayList<Integer>(allVisited);
-        traversalSteps.add(completeStep);
-
-        resetVisited(root);
-        return new ArrayList<TraversalStep>(traversalSteps);
+        TraversalStep completeStep = new TraversalStep("中序遍历", null, traversalMessage(StepTemplate.TRAVERSAL_COMPLETE, IN_ORDER_NAME));
+        completeStep.visitedNodes = visited.snapshot();
+        steps.add(completeStep);
     }
 
-    private void inOrderRecursiveWithSteps(TreeNode node, List<Integer> currentPath) {
+    private void inOrderRecursiveWithSteps(TreeNode node, List<Integer> currentPath,
+                                           VisitLog visited, StepSink<TraversalStep> steps) {
         if (node == null) return;
 
         // 递归左子树
         if (node.getLeft() != null) {
-            TraversalStep leftStep = new TraversalStep("中序遍历", node,
-                    "转向左子树: " + node.getLeft().getValue());
-            collectVisitedNodes(root, leftStep.visitedNodes);
-            leftStep.currentPath = new ArrayList<>(currentPath);
-            traversalSteps.add(leftStep);
+            steps.add(traversalStep("中序遍历", node,
+                    StepMessage.of(StepTemplate.TRAVERSAL_GO_LEFT, node.getLeft().getValue()), visited, currentPath));
         }
-        inOrderRecursiveWithSteps(node.getLeft(), currentPath);
+        inOrderRecursiveWithSteps(node.getLeft(), currentPath, visited, steps);
 
         // 访问当前节点
-        node.setVisited(true);
+        visited.add(node.getValue());
         currentPath.add(node.getValue());
-
-        TraversalStep step = new TraversalStep("中序遍历", node,
-                "访问节点: " + node.getValue());
-        collectVisitedNodes(root, step.visitedNodes);
-        step.currentPath = new ArrayList<>(currentPath);
-        traversalSteps.add(step);
+        steps.add(traversalStep("中序遍历", node, StepMessage.of(StepTemplate.TRAVERSAL_VISIT, node.getValue()), visited, currentPath));
 
         // 递归右子树
         if (node.getRight() != null) {
-            TraversalStep rightStep = new TraversalStep("中序遍历", node,
-                    "转向右子树: " + node.getRight().getValue());
-            collectVisitedNodes(root, rightStep.visitedNodes);
-            rightStep.currentPath = new ArrayList<>(currentPath);
-            traversalSteps.add(rightStep);
+            steps.add(traversalStep("中序遍历", node,
+                    StepMessage.of(StepTemplate.TRAVERSAL_GO_RIGHT, node.getRight().getValue()), visited, currentPath));
         }
-        inOrderRecursiveWithSteps(node.getRight(), currentPath);
+        inOrderRecursiveWithSteps(node.getRight(), currentPath, visited, steps);
 
         currentPath.remove(currentPath.size() - 1);
     }
 
-    // 带步骤的后序遍历
-    public List<TraversalStep> postOrderTraversalWithSteps() {
-        traversalSteps.clear();
-        resetVisited(root);
+    private void producePostOrderSteps(StepSink<TraversalStep> steps) {
+        steps.add(new TraversalStep("后序遍历", null, traversalMessage(StepTemplate.TRAVERSAL_START, POST_ORDER_NAME)));
 
-        TraversalStep startStep = new TraversalStep("后序遍历", null, "开始后序遍历");
-        traversalSteps.add(startStep);
+        VisitLog visited = new VisitLog();
+        postOrderRecursiveWithSteps(root, new ArrayList<Integer>(), visited, steps);
 
-        postOrderRecursiveWithSteps(root, new ArrayList<Integer>());
-
-        TraversalStep completeStep = new TraversalStep("后序遍历", null, "后序遍历完成");
-        List<Integer> allVisited = new ArrayList<Integer>();
-        collectVisitedNodes(root, allVisited);
-        completeStep.visitedNodes = new ArrayList<Integer>(allVisited);
-        traversalSteps.add(completeStep);
-
-        resetVisited(root);
-        return new ArrayList<TraversalStep>(traversalSteps);
+        TraversalStep completeStep = new TraversalStep("后序遍历", null, traversalMessage(StepTemplate.TRAVERSAL_COMPLETE, POST_ORDER_NAME));
+        completeStep.visitedNodes = visited.snapshot();
+        steps.add(completeStep);
     }
 
-
-    private void postOrderRecursiveWithSteps(TreeNode node, List<Integer> currentPath) {
+    private void postOrderRecursiveWithSteps(TreeNode node, List<Integer> currentPath,
+                                             VisitLog visited, StepSink<TraversalStep> steps) {
         if (node == null) return;
 
         // 递归左子树
         if (node.getLeft() != null) {
-            TraversalStep leftStep = new TraversalStep("后序遍历", node,
-                    "转向左子树: " + node.getLeft().getValue());
-            collectVisitedNodes(root, leftStep.visitedNodes);
-            leftStep.currentPath = new ArrayList<>(currentPath);
-            traversalSteps.add(leftStep);
+            steps.add(traversalStep("后序遍历", node,
+                    StepMessage.of(StepTemplate.TRAVERSAL_GO_LEFT, node.getLeft().getValue()), visited, currentPath));
         }
-        postOrderRecursiveWithSteps(node.getLeft(), currentPath);
+        postOrderRecursiveWithSteps(node.getLeft(), currentPath, visited, steps);
 
         // 递归右子树
         if (node.getRight() != null) {
-            TraversalStep rightStep = new TraversalStep("后序遍历", node,
-                    "转向右子树: " + node.getRight().getValue());
-            collectVisitedNodes(root, rightStep.visitedNodes);
-            rightStep.currentPath = new ArrayList<>(currentPath);
-            traversalSteps.add(rightStep);
+            steps.add(traversalStep("后序遍历", node,
+                    StepMessage.of(StepTemplate.TRAVERSAL_GO_RIGHT, node.getRight().getValue()), visited, currentPath));
         }
-        postOrderRecursiveWithSteps(node.getRight(), currentPath);
+        postOrderRecursiveWithSteps(node.getRight(), currentPath, visited, steps);
 
         // 访问当前节点
-        node.setVisited(true);
+        visited.add(node.getValue());
         currentPath.add(node.getValue());
-
-        TraversalStep step = new TraversalStep("后序遍历", node,
-                "访问节点: " + node.getValue());
-        collectVisitedNodes(root, step.visitedNodes);
-        step.currentPath = new ArrayList<>(currentPath);
-        traversalSteps.add(step);
+        steps.add(traversalStep("后序遍历", node, StepMessage.of(StepTemplate.TRAVERSAL_VISIT, node.getValue()), visited, currentPath));
 
         currentPath.remove(currentPath.size() - 1);
     }
 
-    // 带步骤的层次遍历
-    public List<TraversalStep> levelOrderTraversalWithSteps() {
-        traversalSteps.clear();
-        resetVisited(root);
-
-        TraversalStep startStep = new TraversalStep("层次遍历", null, "开始层次遍历");
-        traversalSteps.add(startStep);
+    private void produceLevelOrderSteps(StepSink<TraversalStep> steps) {
+        steps.add(new TraversalStep("层次遍历", null, traversalMessage(StepTemplate.TRAVERSAL_START, LEVEL_ORDER_NAME)));
 
         if (root == null) {
-            return new ArrayList<TraversalStep>(traversalSteps);
+            return;
         }
 
+        VisitLog visited = new VisitLog();
         Queue<TreeNode> queue = new LinkedList<TreeNode>();
         queue.offer(root);
         int level = 0;
@@ -281,18 +291,18 @@ public class BinaryTree {
         while (!queue.isEmpty()) {
             int levelSize = queue.size();
             TraversalStep levelStep = new TraversalStep("层次遍历", null,
-                    "遍历第 " + level + " 层，节点数: " + levelSize);
-            collectVisitedNodes(root, levelStep.visitedNodes);
-            traversalSteps.add(levelStep);
+                    StepMessage.of(StepTemplate.TRAVERSAL_LEVEL, level, levelSize));
+            levelStep.visitedNodes = visited.snapshot();
+            steps.add(levelStep);
 
             for (int i = 0; i < levelSize; i++) {
                 TreeNode current = queue.poll();
-                current.setVisited(true);
+                visited.add(current.getValue());
 
                 TraversalStep visitStep = new TraversalStep("层次遍历", current,
-                        "访问节点: " + current.getValue() + " (第 " + level + " 层)");
-                collectVisitedNodes(root, visitStep.visitedNodes);
-                traversalSteps.add(visitStep);
+                        StepMessage.of(StepTemplate.TRAVERSAL_VISIT_AT_LEVEL, current.getValue(), level));
+                visitStep.visitedNodes = visited.snapshot();
+                steps.add(visitStep);
 
                 if (current.getLeft() != null) {
                     queue.offer(current.getLeft());
@@ -304,24 +314,32 @@ public class BinaryTree {
             level++;
         }
 
-        TraversalStep completeStep = new TraversalStep("层次遍历", null, "层次遍历完成");
-        List<Integer> allVisited = new ArrayList<Integer>();
-        collectVisitedNodes(root, allVisited);
-        completeStep.visitedNodes = new ArrayList<Integer>(allVisited);
-        traversalSteps.add(completeStep);
+        TraversalStep completeStep = new TraversalStep("层次遍历", null, traversalMessage(StepTemplate.TRAVERSAL_COMPLETE, LEVEL_ORDER_NAME));
+        completeStep.visitedNodes = visited.snapshot();
+        steps.add(completeStep);
+    }
 
-        resetVisited(root);
-        return new ArrayList<TraversalStep>(traversalSteps);
+    private TraversalStep traversalStep(String traversalType, TreeNode node, StepMessage message,
+                                        VisitLog visited, List<Integer> currentPath) {
+        TraversalStep step = new TraversalStep(traversalType, node, message);
+        step.visitedNodes = visited.snapshot();
+        step.currentPath = new ArrayList<Integer>(currentPath);
+        return step;
     }
 
     // 方法1: 使用层次遍历插入（推荐）
     public void insert(int value) {
-        root = insertLevelOrder(root, value);
+        beginChanges();
+        try {
+            root = insertLevelOrder(root, value);
+        } finally {
+            endChanges();
+        }
     }
 
     private TreeNode insertLevelOrder(TreeNode root, int value) {
         if (root == null) {
-            return new TreeNode(value);
+            return newNode(null, value);
         }
 
         Queue<TreeNode> queue = new LinkedList<>();
@@ -332,7 +350,7 @@ public class BinaryTree {
 
             // 如果左子树为空，插入到左子树
             if (current.getLeft() == null) {
-                current.setLeft(new TreeNode(value));
+                current.setLeft(newNode(current, value));
                 break;
             } else {
                 queue.offer(current.getLeft());
@@ -340,7 +358,7 @@ public class BinaryTree {
 
             // 如果右子树为空，插入到右子树
             if (current.getRight() == null) {
-                current.setRight(new TreeNode(value));
+                current.setRight(newNode(current, value));
                 break;
             } else {
                 queue.offer(current.getRight());
@@ -350,14 +368,57 @@ public class BinaryTree {
         return root;
     }
 
+    // 批量层次插入：不记录演示步骤，结束后只发出一个 RESET 事件。
+    // 逐个 insert 每次都从根开始层次遍历，O(n·k)；这里只遍历一次，
+    // 队首节点两个孩子都填满后才出队，新节点依次入队，结果与逐个插入相同，O(n + k)。
+    // 二叉树没有按值删除，批内出现其他操作时抛出异常且树不变
+    public int applyBatch(List<BatchOp> ops) {
+        for (BatchOp op : ops) {
+            if (op.kind != BatchOp.Kind.INSERT) {
+                throw new IllegalArgumentException("二叉树不支持的批量操作: " + op.kind);
+            }
+        }
+        if (ops.isEmpty()) {
+            return 0;
+        }
+
+        int i = 0;
+        if (root == null) {
+            root = new TreeNode(ops.get(i++).value);
+        }
+        Queue<TreeNode> queue = new LinkedList<>();
+        queue.offer(root);
+        while (i < ops.size()) {
+            TreeNode current = queue.peek();
+            if (current.getLeft() == null) {
+                current.setLeft(new TreeNode(ops.get(i++).value));
+            } else if (current.getRight() == null) {
+                current.setRight(new TreeNode(ops.get(i++).value));
+            } else {
+                queue.poll();
+                queue.offer(current.getLeft());
+                queue.offer(current.getRight());
+            }
+        }
+        if (changes != null) {
+            changes.fire(ChangeEvent.reset());
+        }
+        return ops.size();
+    }
+
     // 方法2: 使用递归插入（保持树的大致平衡）
     public void insertBalanced(int value) {
-        root = insertBalancedRecursive(root, value);
+        beginChanges();
+        try {
+            root = insertBalancedRecursive(root, null, value);
+        } finally {
+            endChanges();
+        }
     }
 
-    private TreeNode insertBalancedRecursive(TreeNode current, int value) {
+    private TreeNode insertBalancedRecursive(TreeNode current, TreeNode parent, int value) {
         if (current == null) {
-            return new TreeNode(value);
+            return newNode(parent, value);
         }
 
         // 比较左右子树的高度，选择较矮的一边插入
@@ -365,9 +426,9 @@ public class BinaryTree {
         int rightHeight = getHeight(current.getRight());
 
         if (leftHeight <= rightHeight) {
-            current.setLeft(insertBalancedRecursive(current.getLeft(), value));
+            current.setLeft(insertBalancedRecursive(current.getLeft(), current, value));
         } else {
-            current.setRight(insertBalancedRecursive(current.getRight(), value));
+            current.setRight(insertBalancedRecursive(current.getRight(), current, value));
         }
 
         return current;
@@ -375,24 +436,38 @@ public class BinaryTree {
 
     // 方法3: 随机选择左右子树插入
     public void insertRandom(int value) {
-        root = insertRandomRecursive(root, value);
+        beginChanges();
+        try {
+            root = insertRandomRecursive(root, null, value);
+        } finally {
+            endChanges();
+        }
     }
 
-    private TreeNode insertRandomRecursive(TreeNode current, int value) {
+    private TreeNode insertRandomRecursive(TreeNode current, TreeNode parent, int value) {
         if (current == null) {
-            return new TreeNode(value);
+            return newNode(parent, value);
         }
 
         // 随机选择左子树或右子树
         if (Math.random() < 0.5) {
-            current.setLeft(insertRandomRecursive(current.getLeft(), value));
+            current.setLeft(insertRandomRecursive(current.getLeft(), current, value));
         } else {
-            current.setRight(insertRandomRecursive(current.getRight(), value));
+            current.setRight(insertRandomRecursive(current.getRight(), current, value));
         }
 
         return current;
     }
 
+    // 创建新叶子并记录插入事件，事件在插入方法结束、节点挂好之后才送达
+    private TreeNode newNode(TreeNode parent, int value) {
+        TreeNode node = new TreeNode(value);
+        if (changes != null) {
+            changes.fire(ChangeEvent.nodeInserted(node, parent, value));
+        }
+        return node;
+    }
+
     // 计算树的高度
     private int getHeight(TreeNode node) {
         if (node == null) {
@@ -401,39 +476,19 @@ public class BinaryTree {
         return 1 + Math.max(getHeight(node.getLeft()), getHeight(node.getRight()));
     }
 
-    // 计算树的节点数
+    // 计算树的节点数（大树并行统计）
     public int getSize() {
-        return getSizeRecursive(root);
-    }
-
-    private int getSizeRecursive(TreeNode node) {
-        if (node == null) {
-            return 0;
-        }
-        return 1 + getSizeRecursive(node.getLeft()) + getSizeRecursive(node.getRight());
+        return TreeAggregates.compute(root, TreeAggregates.TREE_NODE).size;
     }
 
     // 获取树的高度
     public int getHeight() {
-        return getHeight(root);
+        return TreeAggregates.compute(root, TreeAggregates.TREE_NODE).height;
     }
 
-    // 判断树是否平衡
+    // 判断树是否平衡，一次后序遍历同时得到每个子树的高度，遇到不平衡的节点就停止
     public boolean isBalanced() {
-        return isBalancedRecursive(root);
-    }
-
-    private boolean isBalancedRecursive(TreeNode node) {
-        if (node == null) {
-            return true;
-        }
-
-        int leftHeight = getHeight(node.getLeft());
-        int rightHeight = getHeight(node.getRight());
-
-        return Math.abs(leftHeight - rightHeight) <= 1
-                && isBalancedRecursive(node.getLeft())
-                && isBalancedRecursive(node.getRight());
+        return TreeAggregates.isBalanced(root, TreeAggregates.TREE_NODE);
     }
 
     // 遍历方法
@@ -505,4 +560,26 @@ public class BinaryTree {
 
     public TreeNode getRoot() { return root; }
     public boolean isEmpty() { return root == null; }
+
+    // ========== 变更通知 ==========
+
+    // 订阅节点插入事件
+    public ChangeSupport<TreeNode> changes() {
+        if (changes == null) {
+            changes = new ChangeSupport<TreeNode>();
+        }
+        return changes;
+    }
+
+    private void beginChanges() {
+        if (changes != null) {
+            changes.beginBatch();
+        }
+    }
+
+    private void endChanges() {
+        if (changes != null) {
+            changes.endBatch();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.datastructurevisualizer.model;
+
+// 数据结构的变更事件：线性结构用位置描述（index/count/offset），树结构用节点引用描述（node/parent/replacement），
+// 视图据此只重绘受影响的部分
+public final class ChangeEvent<N> {
+    public enum Kind {
+        INSERTED,       // 线性：在 index 处插入 count 个元素；树：node 作为 parent 的子节点插入
+        REMOVED,        // 线性：删除原 index 处的 count 个元素；树：删除 node，replacement 子树接替它的位置
+        SHIFTED,        // 线性：原位于 [index, index + count) 的元素整体移动 offset 个位置
+        ROTATED,        // 树：原以 node 为根的子树旋转后以 replacement 为根，仍挂在 parent 下
+        VALUE_CHANGED,  // 线性：index 处的值改变；树：node 的值改变
+        RESET           // 整体替换（清空、重建等），需要完整重绘
+    }
+
+    public final Kind kind;
+    public final int index;
+    public final int count;
+    public final int offset;
+    public final int value;     // 插入/删除的值或新值，多个元素时为第一个
+    public final int oldValue;
+    public final N node;
+    public final N parent;      // 为 null 表示 node 是根节点
+    public final N replacement;
+
+    private ChangeEvent(Kind kind, int index, int count, int offset, int value, int oldValue,
+                        N node, N parent, N replacement) {
+        this.kind = kind;
+        this.index = index;
+        this.count = count;
+        this.offset = offset;
+        this.value = value;
+        this.oldValue = oldValue;
+        this.node = node;
+        this.parent = parent;
+        this.replacement = replacement;
+    }
+
+    // ========== 线性结构 ==========
+
+    public static <N> ChangeEvent<N> inserted(int index, int count, int value) {
+        return new ChangeEvent<N>(Kind.INSERTED, index, count, 0, value, 0, null, null, null);
+    }
+
+    public static <N> ChangeEvent<N> removed(int index, int count, int value) {
+        return new ChangeEvent<N>(Kind.REMOVED, index, count, 0, value, 0, null, null, null);
+    }
+
+    public static <N> ChangeEvent<N> shifted(int from, int count, int offset) {
+        return new ChangeEvent<N>(Kind.SHIFTED, from, count, offset, 0, 0, null, null, null);
+    }
+
+    public static <N> ChangeEvent<N> valueChanged(int index, int oldValue, int newValue) {
+        return new ChangeEvent<N>(Kind.VALUE_CHANGED, index, 1, 0, newValue, oldValue, null, null, null);
+    }
+
+    // ========== 树结构 ==========
+
+    public static <N> ChangeEvent<N> nodeInserted(N node, N parent, int value) {
+        return new ChangeEvent<N>(Kind.INSERTED, -1, 1, 0, value, 0, node, parent, null);
+    }
+
+    public static <N> ChangeEvent<N> nodeRemoved(N node, N parent, N replacement, int value) {
+        return new ChangeEvent<N>(Kind.REMOVED, -1, 1, 0, value, 0, node, parent, replacement);
+    }
+
+    public static <N> ChangeEvent<N> rotated(N node, N parent, N replacement) {
+        return new ChangeEvent<N>(Kind.ROTATED, -1, 0, 0, 0, 0, node, parent, replacement);
+    }
+
+    public static <N> ChangeEvent<N> nodeValueChanged(N node, int oldValue, int newValue) {
+        return new ChangeEvent<N>(Kind.VALUE_CHANGED, -1, 1, 0, newValue, oldValue, node, null, null);
+    }
+
+    public static <N> ChangeEvent<N> reset() {
+        return new ChangeEvent<N>(Kind.RESET, -1, 0, 0, 0, 0, null, null, null);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case RESET:
+            case ROTATED:
+                return kind.toString();
+            case SHIFTED:
+                return kind + "[index=" + index + ", count=" + count + ", offset=" + offset + "]";
+            default:
+                return node != null ? kind + "[value=" + value + "]"
+                        : kind + "[index=" + index + ", count=" + count + ", value=" + value + "]";
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.datastructurevisualizer.model;
+
+import java.util.List;
+
+// 变更监听器：每次收到一批事件，批处理之外的单个修改也以只含一个事件的列表送达
+@FunctionalInterface
+public interface ChangeListener<N> {
+    void onChanges(List<ChangeEvent<N>> events);
+}
@@ -0,0 +1,88 @@
+package com.datastructurevisualizer.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 各数据结构共用的事件分发：beginBatch/endBatch 之间的事件攒成一批，在最外层 endBatch 时一次送达。
+// 一批事件过多时合并为一个 RESET，监听方直接完整重绘，不必逐个处理。
+// 事件在修改数据结构的线程上送达，监听方需要自行切换到界面线程
+public class ChangeSupport<N> {
+    public static final int MAX_BATCH_EVENTS = 1024;
+
+    private final List<ChangeListener<N>> listeners = new CopyOnWriteArrayList<ChangeListener<N>>();
+    private List<ChangeEvent<N>> pending = new java.util.ArrayList<ChangeEvent<N>>();
+    private int batchDepth;
+    private boolean overflowed;
+
+    public void addListener(ChangeListener<N> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener<N> listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    public void fire(ChangeEvent<N> event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (batchDepth == 0) {
+            deliver(Collections.singletonList(event));
+            return;
+        }
+        if (overflowed) {
+            return;
+        }
+        if (pending.size() >= MAX_BATCH_EVENTS) {
+            pending.clear();
+            pending.add(ChangeEvent.<N>reset());
+            overflowed = true;
+            return;
+        }
+        pending.add(event);
+    }
+
+    // ========== 批处理 ==========
+
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    // 可以嵌套，只有最外层的 endBatch 才送达事件
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("endBatch 没有对应的 beginBatch");
+        }
+        if (--batchDepth > 0 || pending.isEmpty()) {
+            return;
+        }
+        List<ChangeEvent<N>> batch = pending;
+        pending = new java.util.ArrayList<ChangeEvent<N>>();
+        overflowed = false;
+        deliver(Collections.unmodifiableList(batch));
+    }
+
+    public void batch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    public boolean isBatching() {
+        return batchDepth > 0;
+    }
+
+    private void deliver(List<ChangeEvent<N>> events) {
+        for (ChangeListener<N> listener : listeners) {
+            listener.onChanges(events);
+        }
+    }
+}
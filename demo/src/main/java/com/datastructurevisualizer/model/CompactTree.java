@@ -0,0 +1,239 @@
+package com.datastructurevisualizer.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+// 基于 IntNodePool 的紧凑二叉搜索树，balanced 为 true 时按 AVL 规则平衡。
+// 插入/删除都是迭代实现：下行时把路径压入 int 栈，再自底向上更新高度和旋转。
+public class CompactTree {
+    private final IntNodePool pool;
+    private final boolean balanced;
+    private int root = IntNodePool.NIL;
+    private int[] path = new int[64];
+
+    public CompactTree(boolean balanced) {
+        this(balanced, 16);
+    }
+
+    public CompactTree(boolean balanced, int initialCapacity) {
+        this.pool = new IntNodePool(initialCapacity);
+        this.balanced = balanced;
+    }
+
+    // ========== 基本操作 ==========
+
+    public boolean insert(int value) {
+        int depth = 0;
+        int current = root;
+        while (current != IntNodePool.NIL) {
+            int nodeValue = pool.value(current);
+            if (value == nodeValue) {
+                return false; // 不允许重复值
+            }
+            push(depth++, current);
+            current = value < nodeValue ? pool.left(current) : pool.right(current);
+        }
+
+        int node = pool.allocate(value);
+        if (depth == 0) {
+            root = node;
+            return true;
+        }
+        int parent = path[depth - 1];
+        if (value < pool.value(parent)) {
+            pool.setLeft(parent, node);
+        } else {
+            pool.setRight(parent, node);
+        }
+        retrace(depth);
+        return true;
+    }
+
+    public boolean delete(int value) {
+        int depth = 0;
+        int current = root;
+        while (current != IntNodePool.NIL && pool.value(current) != value) {
+            push(depth++, current);
+            current = value < pool.value(current) ? pool.left(current) : pool.right(current);
+        }
+        if (current == IntNodePool.NIL) {
+            return false;
+        }
+
+        // 两个子节点：用右子树最小值覆盖当前节点，转为删除后继节点
+        if (pool.left(current) != IntNodePool.NIL && pool.right(current) != IntNodePool.NIL) {
+            int target = current;
+            push(depth++, current);
+            current = pool.right(current);
+            while (pool.left(current) != IntNodePool.NIL) {
+                push(depth++, current);
+                current = pool.left(current);
+            }
+            pool.setValue(target, pool.value(current));
+        }
+
+        int child = pool.left(current) != IntNodePool.NIL ? pool.left(current) : pool.right(current);
+        replaceChild(depth - 1, current, child);
+        pool.free(current);
+        retrace(depth);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int current = root;
+        while (current != IntNodePool.NIL) {
+            int nodeValue = pool.value(current);
+            if (value == nodeValue) return true;
+            current = value < nodeValue ? pool.left(current) : pool.right(current);
+        }
+        return false;
+    }
+
+    public void clear() {
+        pool.clear();
+        root = IntNodePool.NIL;
+    }
+
+    // ========== 高度维护与旋转 ==========
+
+    // 自底向上处理路径上的节点；子树高度不变时上方节点不受影响，提前结束
+    private void retrace(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int node = path[i];
+            int oldHeight = pool.height(node);
+            updateHeight(node);
+            int subtreeRoot = balanced ? rebalance(node) : node;
+            if (subtreeRoot != node) {
+                replaceChild(i - 1, node, subtreeRoot);
+            }
+            if (pool.height(subtreeRoot) == oldHeight) {
+                break;
+            }
+        }
+    }
+
+    private int rebalance(int node) {
+        int balance = getBalance(node);
+        if (balance > 1) {
+            if (getBalance(pool.left(node)) < 0) {
+                pool.setLeft(node, rotateLeft(pool.left(node)));   // LR
+            }
+            return rotateRight(node);                               // LL
+        }
+        if (balance < -1) {
+            if (getBalance(pool.right(node)) > 0) {
+                pool.setRight(node, rotateRight(pool.right(node))); // RL
+            }
+            return rotateLeft(node);                                // RR
+        }
+        return node;
+    }
+
+    private int rotateRight(int y) {
+        int x = pool.left(y);
+        pool.setLeft(y, pool.right(x));
+        pool.setRight(x, y);
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    private int rotateLeft(int x) {
+        int y = pool.right(x);
+        pool.setRight(x, pool.left(y));
+        pool.setLeft(y, x);
+        updateHeight(x);
+        updateHeight(y);
+        return y;
+    }
+
+    private void updateHeight(int node) {
+        pool.setHeight(node, 1 + Math.max(pool.height(pool.left(node)), pool.height(pool.right(node))));
+    }
+
+    private int getBalance(int node) {
+        return node == IntNodePool.NIL ? 0 : pool.height(pool.left(node)) - pool.height(pool.right(node));
+    }
+
+    // 把 path[parentIndex] 中指向 oldChild 的指针改为 newChild（parentIndex < 0 表示根）
+    private void replaceChild(int parentIndex, int oldChild, int newChild) {
+        if (parentIndex < 0) {
+            root = newChild;
+            return;
+        }
+        int parent = path[parentIndex];
+        if (pool.left(parent) == oldChild) {
+            pool.setLeft(parent, newChild);
+        } else {
+            pool.setRight(parent, newChild);
+        }
+    }
+
+    private void push(int depth, int node) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, path.length * 2);
+        }
+        path[depth] = node;
+    }
+
+    // ========== 查询与遍历 ==========
+
+    // 中序遍历导出所有值（迭代，不受树高限制）
+    public int[] toSortedArray() {
+        int[] result = new int[size()];
+        int[] stack = new int[Math.max(1, height())];
+        int top = 0;
+        int k = 0;
+        int current = root;
+        while (current != IntNodePool.NIL || top > 0) {
+            while (current != IntNodePool.NIL) {
+                stack[top++] = current;
+                current = pool.left(current);
+            }
+            current = stack[--top];
+            result[k++] = pool.value(current);
+            current = pool.right(current);
+        }
+        return result;
+    }
+
+    // 转换为 TreeNode 结构，供现有的存档和绘制逻辑使用
+    public TreeNode toTreeNode() {
+        return toTreeNode(root);
+    }
+
+    private TreeNode toTreeNode(int handle) {
+        if (handle == IntNodePool.NIL) return null;
+        TreeNode node = new TreeNode(pool.value(handle));
+        node.setLeft(toTreeNode(pool.left(handle)));
+        node.setRight(toTreeNode(pool.right(handle)));
+        return node;
+    }
+
+    // 按先序插入已有 TreeNode 树的所有值（非平衡模式下保持原树形状）
+    public static CompactTree fromTreeNode(TreeNode rootNode, boolean balanced) {
+        CompactTree tree = new CompactTree(balanced);
+        tree.insertPreOrder(rootNode);
+        return tree;
+    }
+
+    // 显式栈，退化成链表的大树也不会栈溢出
+    private void insertPreOrder(TreeNode rootNode) {
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        if (rootNode != null) stack.push(rootNode);
+        while (!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            insert(node.getValue());
+            if (node.getRight() != null) stack.push(node.getRight());
+            if (node.getLeft() != null) stack.push(node.getLeft());
+        }
+    }
+
+    public int getRoot() { return root; }
+    public IntNodePool getPool() { return pool; }
+    public boolean isBalanced() { return balanced; }
+    public int size() { return pool.size(); }
+    public int height() { return pool.height(root); }
+    public boolean isEmpty() { return root == IntNodePool.NIL; }
+}
@@ -0,0 +1,286 @@
+package com.datastructurevisualizer.model;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 可多线程共享的二叉搜索树（整数有序集合），乐观的细粒度锁。
+// 查找不加锁，沿 volatile 指针下行；插入和删除先不加锁地找到位置，再只锁要改的节点
+// （删除时先锁父节点再锁子节点，总是自上而下，不会死锁），加锁后验证节点仍在树上、
+// 指针没有变化，验证失败就从根重新查找。
+// 删除先把节点标记为不在集合中（逻辑删除）；至多一个子节点时再把它从父节点上摘掉，
+// 有两个子节点的留作路由节点，以后插入同一个值时直接恢复；路由节点的子节点被摘掉、只剩至多一个时，
+// 摘除子节点的删除随后把它也摘掉，删除频繁时树不会只增不减。节点的值从不移动，
+// 无锁的查找不会因为并发删除走错子树。
+// 每个节点记录加锁时的竞争次数和最近一次竞争的时间，供视图标出热点
+public class ConcurrentBST {
+
+    public static final class Node {
+        private final int value;
+        private volatile Node left;
+        private volatile Node right;
+        // 值是否在集合中；false 的节点是逻辑删除后留下的路由节点
+        private volatile boolean present;
+        // 已从树上摘除，之后不会再改变
+        private volatile boolean unlinked;
+        private final ReentrantLock lock = new ReentrantLock();
+        // 只在持有锁时写
+        private volatile int contentions;
+        private volatile long lastContended;
+
+        private Node(int value, boolean present) {
+            this.value = value;
+            this.present = present;
+        }
+
+        public int getValue() { return value; }
+        public Node getLeft() { return left; }
+        public Node getRight() { return right; }
+        public boolean isPresent() { return present; }
+        public int getContentions() { return contentions; }
+        // System.nanoTime()，从未发生竞争时为 0
+        public long getLastContended() { return lastContended; }
+    }
+
+    // 哨兵：真正的根挂在它的右边，它自己永远不会被摘除，删除根节点时锁它
+    private final Node head = new Node(0, false);
+    private final LongAdder contentions = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    // 插入成功返回 true，值已存在返回 false
+    public boolean insert(int value) {
+        while (true) {
+            Node parent = head;
+            Node node = head.right;
+            while (node != null && node.value != value) {
+                parent = node;
+                node = value < node.value ? node.left : node.right;
+            }
+
+            if (node != null) {
+                // 值的节点还在树上（可能是路由节点），恢复它即可
+                lock(node);
+                try {
+                    if (!node.unlinked) {
+                        if (node.present) {
+                            return false;
+                        }
+                        node.present = true;
+                        return true;
+                    }
+                } finally {
+                    node.lock.unlock();
+                }
+            } else {
+                lock(parent);
+                try {
+                    if (!parent.unlinked && childToward(parent, value) == null) {
+                        Node created = new Node(value, true);
+                        if (parent == head || value > parent.value) {
+                            parent.right = created;
+                        } else {
+                            parent.left = created;
+                        }
+                        return true;
+                    }
+                } finally {
+                    parent.lock.unlock();
+                }
+            }
+            retries.increment();
+        }
+    }
+
+    // 不加锁。先读 present 再读 unlinked：present 为 true 时值当时一定在集合中；
+    // 为 false 而节点仍在树上时值当时一定不在；节点已被摘掉则值可能已挂到新节点上，重新查找
+    public boolean search(int value) {
+        while (true) {
+            Node node = head.right;
+            while (node != null && node.value != value) {
+                node = value < node.value ? node.left : node.right;
+            }
+            if (node == null) {
+                return false;
+            }
+            boolean present = node.present;
+            if (present || !node.unlinked) {
+                return present;
+            }
+            retries.increment();
+        }
+    }
+
+    // 删除成功返回 true，值不存在返回 false
+    public boolean delete(int value) {
+        while (true) {
+            Node parent = head;
+            Node node = head.right;
+            while (node != null && node.value != value) {
+                parent = node;
+                node = value < node.value ? node.left : node.right;
+            }
+            if (node == null) {
+                return false;
+            }
+            // 值不在集合中、节点还有两个子节点时不必加锁；至多一个子节点的路由节点在下面顺便摘掉
+            if (!node.present && !node.unlinked && node.left != null && node.right != null) {
+                return false;
+            }
+
+            boolean valid;
+            boolean removed = false;
+            lock(parent);
+            try {
+                lock(node);
+                try {
+                    valid = !parent.unlinked && !node.unlinked && childToward(parent, value) == node;
+                    if (valid) {
+                        removed = node.present;
+                        node.present = false;
+                        // 至多一个子节点：用子节点顶替它。持有它的锁，插入不会在摘除期间给它挂上子节点
+                        if (node.left == null || node.right == null) {
+                            unlink(parent, node);
+                        }
+                    }
+                } finally {
+                    node.lock.unlock();
+                }
+            } finally {
+                parent.lock.unlock();
+            }
+            if (!valid) {
+                retries.increment();
+                continue;
+            }
+            // 摘掉的是叶子时父节点少了一个子节点，父节点是路由节点的话可能也可以摘掉了
+            if (node.unlinked && node.left == null && node.right == null && parent != head && !parent.present) {
+                spliceRouting(parent.value);
+            }
+            return removed;
+        }
+    }
+
+    // 值为 value 的路由节点刚失去一个子节点：至多剩一个子节点时把它摘掉。
+    // 摘掉的是叶子时它的父节点也少了一个子节点，父节点是路由节点就继续向上。
+    // 在调用方放开锁之后重新查找并自上而下加锁；验证失败就放弃，留给以后经过这里的删除
+    private void spliceRouting(int value) {
+        while (true) {
+            Node parent = head;
+            Node node = head.right;
+            while (node != null && node.value != value) {
+                parent = node;
+                node = value < node.value ? node.left : node.right;
+            }
+            if (node == null || node.present || (node.left != null && node.right != null)) {
+                return;
+            }
+            boolean leaf;
+            lock(parent);
+            try {
+                lock(node);
+                try {
+                    if (parent.unlinked || node.unlinked || childToward(parent, value) != node || node.present
+                            || (node.left != null && node.right != null)) {
+                        return;
+                    }
+                    leaf = node.left == null && node.right == null;
+                    unlink(parent, node);
+                } finally {
+                    node.lock.unlock();
+                }
+            } finally {
+                parent.lock.unlock();
+            }
+            if (!leaf || parent == head || parent.present) {
+                return;
+            }
+            value = parent.value;
+        }
+    }
+
+    // 调用方持有 parent 和 node 的锁，node 至多一个子节点
+    private void unlink(Node parent, Node node) {
+        Node replacement = node.left != null ? node.left : node.right;
+        if (parent == head || node.value > parent.value) {
+            parent.right = replacement;
+        } else {
+            parent.left = replacement;
+        }
+        node.unlinked = true;
+    }
+
+    private Node childToward(Node parent, int value) {
+        if (parent == head || value > parent.value) {
+            return parent.right;
+        }
+        return parent.left;
+    }
+
+    // 先尝试直接拿锁，拿不到才计为一次竞争，拿到锁之后再更新节点上的计数
+    private void lock(Node node) {
+        if (node.lock.tryLock()) {
+            return;
+        }
+        node.lock.lock();
+        node.contentions++;
+        node.lastContended = System.nanoTime();
+        contentions.increment();
+    }
+
+    // ========== 统计（并发修改时只是近似值） ==========
+
+    public Node getRoot() {
+        return head.right;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // 集合中的值个数，不含路由节点
+    public int size() {
+        int size = 0;
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        if (head.right != null) pending.push(head.right);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (node.present) size++;
+            if (node.left != null) pending.push(node.left);
+            if (node.right != null) pending.push(node.right);
+        }
+        return size;
+    }
+
+    // 树上的节点个数，含路由节点
+    public int getNodeCount() {
+        int count = 0;
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        if (head.right != null) pending.push(head.right);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            count++;
+            if (node.left != null) pending.push(node.left);
+            if (node.right != null) pending.push(node.right);
+        }
+        return count;
+    }
+
+    public int height() {
+        return heightOf(head.right);
+    }
+
+    private int heightOf(Node node) {
+        if (node == null) return 0;
+        return 1 + Math.max(heightOf(node.left), heightOf(node.right));
+    }
+
+    // 加锁时锁已被其他线程持有的次数
+    public long getContentions() {
+        return contentions.sum();
+    }
+
+    // 加锁后验证失败、从根重新查找的次数
+    public long getRetries() {
+        return retries.sum();
+    }
+}
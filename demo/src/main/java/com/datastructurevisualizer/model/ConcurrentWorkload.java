@@ -0,0 +1,213 @@
+package com.datastructurevisualizer.model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 多线程负载：每个工作线程是一个虚拟线程，在 [0, keyRange) 内随机选值，
+// 按查找比例做查找，其余一半插入一半删除，集合大小稳定在键范围的一半左右。
+// 所有线程就绪后同时开始，计时到最后一个线程结束
+public class ConcurrentWorkload {
+
+    // 负载驱动的目标：ConcurrentBST，或用一把锁保护的单线程 BST 作为对照
+    public interface Target {
+        boolean insert(int value);
+        boolean search(int value);
+        boolean delete(int value);
+        // 加锁时锁已被占用的次数
+        long getContentions();
+    }
+
+    public static class Result {
+        public final int threads;
+        public final long operations;
+        public final long elapsedNanos;
+        public final long contentions;
+        // 成功的插入/删除和命中的查找次数，也防止负载被优化掉
+        public final long hits;
+
+        Result(int threads, long operations, long elapsedNanos, long contentions, long hits) {
+            this.threads = threads;
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+            this.contentions = contentions;
+            this.hits = hits;
+        }
+
+        // 每秒百万次操作
+        public double getThroughput() {
+            return operations / (elapsedNanos / 1_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%3d 线程: %8.2f ms, %6.2f 百万次/秒, 锁竞争 %d",
+                    threads, elapsedNanos / 1_000_000.0, getThroughput(), contentions);
+        }
+    }
+
+    private final int operationsPerThread;
+    private final int keyRange;
+    private final int searchPercent;
+
+    public ConcurrentWorkload(int operationsPerThread, int keyRange, int searchPercent) {
+        if (operationsPerThread <= 0 || keyRange <= 0) {
+            throw new IllegalArgumentException("操作数和键范围必须为正数");
+        }
+        if (searchPercent < 0 || searchPercent > 100) {
+            throw new IllegalArgumentException("查找比例必须在 0 到 100 之间");
+        }
+        this.operationsPerThread = operationsPerThread;
+        this.keyRange = keyRange;
+        this.searchPercent = searchPercent;
+    }
+
+    public static Target target(ConcurrentBST tree) {
+        return new Target() {
+            @Override public boolean insert(int value) { return tree.insert(value); }
+            @Override public boolean search(int value) { return tree.search(value); }
+            @Override public boolean delete(int value) { return tree.delete(value); }
+            @Override public long getContentions() { return tree.getContentions(); }
+        };
+    }
+
+    // 整棵树一把锁，所有操作串行
+    public static Target lockedTarget(BST bst) {
+        ReentrantLock lock = new ReentrantLock();
+        LongAdder contentions = new LongAdder();
+        return new Target() {
+            @Override
+            public boolean insert(int value) {
+                lockCounting();
+                try {
+                    if (bst.search(value)) {
+                        return false;
+                    }
+                    bst.insert(value);
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public boolean search(int value) {
+                lockCounting();
+                try {
+                    return bst.search(value);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public boolean delete(int value) {
+                lockCounting();
+                try {
+                    return bst.delete(value);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public long getContentions() {
+                return contentions.sum();
+            }
+
+            private void lockCounting() {
+                if (!lock.tryLock()) {
+                    contentions.increment();
+                    lock.lock();
+                }
+            }
+        };
+    }
+
+    // 1, 2, 4, ... 直到 maxThreads（最后一项总是 maxThreads）
+    public static int[] threadCounts(int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("线程数必须为正数");
+        }
+        int doublings = 0;
+        while ((1 << doublings) < maxThreads) doublings++;
+        int[] counts = new int[doublings + 1];
+        for (int i = 0; i < doublings; i++) {
+            counts[i] = 1 << i;
+        }
+        counts[doublings] = maxThreads;
+        return counts;
+    }
+
+    // 用随机打乱的一半键预先填充，避免有序插入把树退化成链表
+    public void prefill(Target target, long seed) {
+        int[] keys = new int[keyRange];
+        for (int i = 0; i < keyRange; i++) {
+            keys[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = keyRange - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        for (int i = 0; i < keyRange / 2; i++) {
+            target.insert(keys[i]);
+        }
+    }
+
+    public Result run(Target target, int threads, long seed) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder hits = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(seed * 31 + t);
+            workers[t] = Thread.ofVirtual().name("workload-" + t).start(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                hits.add(work(target, random));
+            });
+        }
+
+        long contentionsBefore = target.getContentions();
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return new Result(threads, (long) threads * operationsPerThread, elapsed,
+                target.getContentions() - contentionsBefore, hits.sum());
+    }
+
+    private long work(Target target, SplittableRandom random) {
+        long hits = 0;
+        for (int i = 0; i < operationsPerThread; i++) {
+            int value = random.nextInt(keyRange);
+            int dice = random.nextInt(100);
+            boolean hit;
+            if (dice < searchPercent) {
+                hit = target.search(value);
+            } else if (((dice - searchPercent) & 1) == 0) {
+                hit = target.insert(value);
+            } else {
+                hit = target.delete(value);
+            }
+            if (hit) hits++;
+        }
+        return hits;
+    }
+
+    public int getOperationsPerThread() { return operationsPerThread; }
+    public int getKeyRange() { return keyRange; }
+    public int getSearchPercent() { return searchPercent; }
+}
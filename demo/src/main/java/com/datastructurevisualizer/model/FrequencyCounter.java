@@ -0,0 +1,290 @@
+package com.datastructurevisualizer.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// 字符频率统计：基本类型分页计数表，大输入按 fork/join 分段并行统计后合并
+public class FrequencyCounter {
+    // 小于该长度的输入直接在当前线程统计
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_COUNT = (Character.MAX_CODE_POINT + 1) >> PAGE_BITS;
+    private static final int FILE_BUFFER_SIZE = 1 << 16;
+    private static final int FILE_CHUNK_SIZE = 1 << 20;
+
+    // 按256个符号一页延迟分配的计数表，覆盖全部 Unicode 码点
+    public static class FrequencyTable {
+        private final long[][] pages = new long[PAGE_COUNT][];
+        private long total;
+
+        public void add(int symbol) {
+            long[] page = pages[symbol >>> PAGE_BITS];
+            if (page == null) {
+                page = new long[PAGE_SIZE];
+                pages[symbol >>> PAGE_BITS] = page;
+            }
+            page[symbol & (PAGE_SIZE - 1)]++;
+            total++;
+        }
+
+        public long get(int symbol) {
+            long[] page = pages[symbol >>> PAGE_BITS];
+            return page == null ? 0 : page[symbol & (PAGE_SIZE - 1)];
+        }
+
+        public void merge(FrequencyTable other) {
+            for (int p = 0; p < PAGE_COUNT; p++) {
+                long[] source = other.pages[p];
+                if (source == null) continue;
+                long[] target = pages[p];
+                if (target == null) {
+                    pages[p] = source.clone();
+                    continue;
+                }
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    target[i] += source[i];
+                }
+            }
+            total += other.total;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public int getDistinctCount() {
+            int count = 0;
+            for (long[] page : pages) {
+                if (page == null) continue;
+                for (long f : page) {
+                    if (f > 0) count++;
+                }
+            }
+            return count;
+        }
+
+        // 按升序返回出现过的符号
+        public int[] getSymbols() {
+            int[] symbols = new int[getDistinctCount()];
+            int k = 0;
+            for (int p = 0; p < PAGE_COUNT; p++) {
+                long[] page = pages[p];
+                if (page == null) continue;
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    if (page[i] > 0) symbols[k++] = (p << PAGE_BITS) | i;
+                }
+            }
+            return symbols;
+        }
+
+        // 展开为下标即符号的稠密数组（用于计算码长）
+        public long[] toDenseArray(int size) {
+            long[] dense = new long[size];
+            for (int p = 0; p < PAGE_COUNT && (p << PAGE_BITS) < size; p++) {
+                long[] page = pages[p];
+                if (page == null) continue;
+                System.arraycopy(page, 0, dense, p << PAGE_BITS, Math.min(PAGE_SIZE, size - (p << PAGE_BITS)));
+            }
+            return dense;
+        }
+
+        // 转换为哈夫曼树使用的字符频率表，只对不同字符装箱
+        public Map<Character, Integer> toCharacterMap() {
+            Map<Character, Integer> map = new HashMap<>();
+            for (int symbol : getSymbols()) {
+                if (symbol > Character.MAX_VALUE) {
+                    throw new IllegalStateException("码点超出 char 范围: " + symbol);
+                }
+                map.put((char) symbol, (int) Math.min(Integer.MAX_VALUE, get(symbol)));
+            }
+            return map;
+        }
+    }
+
+    // ========== 文本统计 ==========
+
+    // 按UTF-16字符统计（与哈夫曼树的字符编码一致）
+    public static FrequencyTable countChars(CharSequence text) {
+        if (text.length() < PARALLEL_THRESHOLD) {
+            return countCharRange(text, 0, text.length());
+        }
+        return ForkJoinPool.commonPool().invoke(new CharCountTask(text, 0, text.length(), false));
+    }
+
+    // 按Unicode码点统计，代理对合并为一个符号
+    public static FrequencyTable countCodePoints(CharSequence text) {
+        if (text.length() < PARALLEL_THRESHOLD) {
+            return countCodePointRange(text, 0, text.length());
+        }
+        return ForkJoinPool.commonPool().invoke(new CharCountTask(text, 0, text.length(), true));
+    }
+
+    private static FrequencyTable countCharRange(CharSequence text, int start, int end) {
+        FrequencyTable table = new FrequencyTable();
+        for (int i = start; i < end; i++) {
+            table.add(text.charAt(i));
+        }
+        return table;
+    }
+
+    private static FrequencyTable countCodePointRange(CharSequence text, int start, int end) {
+        FrequencyTable table = new FrequencyTable();
+        int i = start;
+        while (i < end) {
+            char high = text.charAt(i);
+            if (Character.isHighSurrogate(high) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                table.add(Character.toCodePoint(high, text.charAt(i + 1)));
+                i += 2;
+            } else {
+                table.add(high);
+                i++;
+            }
+        }
+        return table;
+    }
+
+    @SuppressWarnings("serial")
+    private static class CharCountTask extends RecursiveTask<FrequencyTable> {
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+        private final boolean codePoints;
+
+        CharCountTask(CharSequence text, int start, int end, boolean codePoints) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.codePoints = codePoints;
+        }
+
+        @Override
+        protected FrequencyTable compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                return codePoints ? countCodePointRange(text, start, end) : countCharRange(text, start, end);
+            }
+
+            int mid = (start + end) >>> 1;
+            // 按码点统计时不能把代理对拆到两段
+            if (codePoints && Character.isLowSurrogate(text.charAt(mid))
+                    && Character.isHighSurrogate(text.charAt(mid - 1))) {
+                mid++;
+            }
+
+            CharCountTask left = new CharCountTask(text, start, mid, codePoints);
+            CharCountTask right = new CharCountTask(text, mid, end, codePoints);
+            left.fork();
+            FrequencyTable result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    // ========== 文件统计（NIO，不把文件读成字符串） ==========
+
+    // 逐块解码文件并统计字符，每块足够大时再并行统计
+    public static FrequencyTable countChars(Path file, Charset charset) throws IOException {
+        FrequencyTable table = new FrequencyTable();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Reader reader = Channels.newReader(channel, charset.newDecoder(), -1)) {
+            CharBuffer buffer = CharBuffer.allocate(FILE_CHUNK_SIZE);
+            while (reader.read(buffer) != -1) {
+                if (buffer.position() < buffer.capacity()) continue;
+                buffer.flip();
+                table.merge(countChars(buffer));
+                buffer.clear();
+            }
+            buffer.flip();
+            table.merge(countChars(buffer));
+        }
+        return table;
+    }
+
+    // 统计文件字节频率：大文件按区间并行，用定位读取共享同一个通道
+    public static long[] countBytes(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FILE_CHUNK_SIZE) {
+                return countByteRange(channel, 0, size);
+            }
+            try {
+                return ForkJoinPool.commonPool().invoke(new ByteCountTask(channel, 0, size));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public static long[] countBytes(byte[] data, int offset, int length) {
+        long[] frequencies = new long[256];
+        for (int i = offset; i < offset + length; i++) {
+            frequencies[data[i] & 0xFF]++;
+        }
+        return frequencies;
+    }
+
+    private static long[] countByteRange(FileChannel channel, long start, long end) throws IOException {
+        long[] frequencies = new long[256];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        long position = start;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(FILE_BUFFER_SIZE, end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) break;
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                frequencies[buffer.get() & 0xFF]++;
+            }
+            position += read;
+        }
+        return frequencies;
+    }
+
+    @SuppressWarnings("serial")
+    private static class ByteCountTask extends RecursiveTask<long[]> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ByteCountTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= FILE_CHUNK_SIZE) {
+                try {
+                    return countByteRange(channel, start, end);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            long mid = (start + end) >>> 1;
+            ByteCountTask left = new ByteCountTask(channel, start, mid);
+            ByteCountTask right = new ByteCountTask(channel, mid, end);
+            left.fork();
+            long[] result = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < 256; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.datastructurevisualizer.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// 规范哈夫曼编解码器：按码长分配规范编码，位打包输出，查表解码
+public class HuffmanCodec {
+    public static final int MAX_CODE_LENGTH = 20;
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    private static final int TABLE_BITS = 10;
+    private static final int STREAM_MAGIC = 0x48554631; // "HUF1"
+
+    private final int[] sortedSymbols;   // 规范顺序：先按码长，再按符号
+    private final int[] sortedLengths;
+    private final int[] codeBySymbol;
+    private final byte[] lengthBySymbol;
+    private final int maxLength;
+    private final int tableBits;
+
+    // 规范解码所需的每个码长的首编码、首下标和数量
+    private final int[] firstCode = new int[MAX_CODE_LENGTH + 1];
+    private final int[] firstIndex = new int[MAX_CODE_LENGTH + 1];
+    private final int[] countByLength = new int[MAX_CODE_LENGTH + 1];
+
+    // 一级查表：下标为接下来的 tableBits 位，值为 (规范下标 << 5) | 码长，0 表示需要慢速路径
+    private final int[] lookupTable;
+
+    // 编解码统计（用于显示吞吐量）
+    public static class CodecStats {
+        public long inputBytes;
+        public long outputBytes;
+        public long elapsedNanos;
+        public int blocks;
+
+        public double getThroughputMBps() {
+            if (elapsedNanos <= 0) return 0;
+            return (inputBytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        public double getCompressionRatio() {
+            if (inputBytes == 0) return 0;
+            return (1 - (double) outputBytes / inputBytes) * 100;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("输入 %d 字节, 输出 %d 字节, 块数 %d, 压缩率 %.2f%%, 耗时 %.2f ms, 吞吐量 %.1f MB/s",
+                    inputBytes, outputBytes, blocks, getCompressionRatio(),
+                    elapsedNanos / 1_000_000.0, getThroughputMBps());
+        }
+    }
+
+    // 单个独立编码块：自带码表，可单独解码
+    public static class EncodedBlock {
+        public final int rawLength;
+        public final int[] symbols;
+        public final int[] lengths;
+        public final byte[] payload;
+        public final long bitLength;
+
+        public EncodedBlock(int rawLength, int[] symbols, int[] lengths, byte[] payload, long bitLength) {
+            this.rawLength = rawLength;
+            this.symbols = symbols;
+            this.lengths = lengths;
+            this.payload = payload;
+            this.bitLength = bitLength;
+        }
+
+        // 块头 + 码表 + 数据的总字节数
+        public int getEncodedSize() {
+            return 4 + 2 + symbols.length * 2 + 4 + payload.length;
+        }
+
+        public void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(rawLength);
+            out.writeShort(symbols.length);
+            for (int i = 0; i < symbols.length; i++) {
+                out.writeByte(symbols[i]);
+                out.writeByte(lengths[i]);
+            }
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+
+        // 读取一个块；遇到结束标记（rawLength == 0）返回 null
+        public static EncodedBlock readFrom(DataInputStream in) throws IOException {
+            int rawLength = in.readInt();
+            if (rawLength == 0) return null;
+            if (rawLength < 0) {
+                throw new IOException("损坏的哈夫曼数据流: 块长度 " + rawLength);
+            }
+            int symbolCount = in.readUnsignedShort();
+            int[] symbols = new int[symbolCount];
+            int[] lengths = new int[symbolCount];
+            for (int i = 0; i < symbolCount; i++) {
+                symbols[i] = in.readUnsignedByte();
+                lengths[i] = in.readUnsignedByte();
+            }
+            int payloadLength = in.readInt();
+            byte[] payload = new byte[payloadLength];
+            in.readFully(payload);
+            return new EncodedBlock(rawLength, symbols, lengths, payload, (long) payloadLength * 8);
+        }
+
+        public byte[] decode() {
+            byte[] out = new byte[rawLength];
+            new HuffmanCodec(symbols, lengths).decodeBytes(payload, out, 0, rawLength);
+            return out;
+        }
+    }
+
+    public HuffmanCodec(int[] symbols, int[] lengths) {
+        if (symbols.length != lengths.length || symbols.length == 0) {
+            throw new IllegalArgumentException("符号与码长数量不匹配或为空");
+        }
+
+        int n = symbols.length;
+        int maxSymbol = 0;
+        int maxLen = 0;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            if (symbols[i] < 0 || lengths[i] < 1 || lengths[i] > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("非法的符号或码长: " + symbols[i] + "/" + lengths[i]);
+            }
+            maxSymbol = Math.max(maxSymbol, symbols[i]);
+            maxLen = Math.max(maxLen, lengths[i]);
+            keys[i] = ((long) lengths[i] << 32) | symbols[i];
+        }
+        Arrays.sort(keys);
+
+        this.maxLength = maxLen;
+        this.tableBits = Math.min(TABLE_BITS, maxLen);
+        this.sortedSymbols = new int[n];
+        this.sortedLengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedSymbols[i] = (int) keys[i];
+            sortedLengths[i] = (int) (keys[i] >>> 32);
+            countByLength[sortedLengths[i]]++;
+        }
+
+        // 分配规范编码
+        int code = 0;
+        int index = 0;
+        for (int len = 1; len <= maxLength; len++) {
+            code <<= 1;
+            firstCode[len] = code;
+            firstIndex[len] = index;
+            code += countByLength[len];
+            index += countByLength[len];
+            if (code > (1 << len)) {
+                throw new IllegalArgumentException("码长不满足Kraft不等式");
+            }
+        }
+
+        this.codeBySymbol = new int[maxSymbol + 1];
+        this.lengthBySymbol = new byte[maxSymbol + 1];
+        for (int i = 0; i < n; i++) {
+            int len = sortedLengths[i];
+            int symbol = sortedSymbols[i];
+            if (lengthBySymbol[symbol] != 0) {
+                throw new IllegalArgumentException("重复的符号: " + symbol);
+            }
+            codeBySymbol[symbol] = firstCode[len] + (i - firstIndex[len]);
+            lengthBySymbol[symbol] = (byte) len;
+        }
+
+        // 构建查表
+        this.lookupTable = new int[1 << tableBits];
+        for (int i = 0; i < n; i++) {
+            int len = sortedLengths[i];
+            if (len > tableBits) break;
+            int shift = tableBits - len;
+            int start = codeBySymbol[sortedSymbols[i]] << shift;
+            int end = start + (1 << shift);
+            int entry = (i << 5) | len;
+            for (int j = start; j < end; j++) {
+                lookupTable[j] = entry;
+            }
+        }
+    }
+
+    // ========== 码长计算 ==========
+
+    /**
+     * 由哈夫曼树的叶子深度创建编解码器，depths 和 frequencies 与 symbols 一一对应。
+     * 只有一个符号时码长取1；最大深度超过 MAX_CODE_LENGTH 时改用 computeCodeLengths 的限长码长。
+     * 两个模块的哈夫曼树都经由这里分配码长，同样的文本得到同样的编码
+     */
+    public static HuffmanCodec fromTreeDepths(int[] symbols, int[] depths, long[] frequencies) {
+        int[] lengths = depths.clone();
+        int maxDepth = 0;
+        int maxSymbol = 0;
+        for (int i = 0; i < symbols.length; i++) {
+            maxDepth = Math.max(maxDepth, depths[i]);
+            maxSymbol = Math.max(maxSymbol, symbols[i]);
+        }
+        if (symbols.length == 1) {
+            lengths[0] = 1;
+        } else if (maxDepth > MAX_CODE_LENGTH) {
+            long[] bySymbol = new long[maxSymbol + 1];
+            for (int i = 0; i < symbols.length; i++) {
+                bySymbol[symbols[i]] = Math.max(1, frequencies[i]);
+            }
+            int[] limited = computeCodeLengths(bySymbol);
+            for (int i = 0; i < symbols.length; i++) {
+                lengths[i] = limited[symbols[i]];
+            }
+        }
+        return new HuffmanCodec(symbols, lengths);
+    }
+
+    /**
+     * 根据频率计算哈夫曼码长（下标即符号），频率为0的符号码长为0。
+     * 超过 MAX_CODE_LENGTH 时按 bzip2 的方式折半频率后重建，保证查表解码可用。
+     */
+    public static int[] computeCodeLengths(long[] frequencies) {
+        int[] lengths = new int[frequencies.length];
+        int n = 0;
+        long maxFrequency = 0;
+        for (long f : frequencies) {
+            if (f > 0) {
+                n++;
+                maxFrequency = Math.max(maxFrequency, f);
+            }
+        }
+        if (n == 0) return lengths;
+        if (n == 1) {
+            for (int i = 0; i < frequencies.length; i++) {
+                if (frequencies[i] > 0) lengths[i] = 1;
+            }
+            return lengths;
+        }
+        if (n > (1 << MAX_CODE_LENGTH)) {
+            throw new IllegalArgumentException("符号数超过最大码长所能表示的范围: " + n);
+        }
+
+        // 频率压缩到 42 位，以便与 21 位符号下标打包成一个 long 排序
+        int scale = 0;
+        while ((maxFrequency >>> scale) >= (1L << 42)) scale++;
+
+        int[] leafSymbols = new int[n];
+        long[] weights = new long[n];
+        int k = 0;
+        for (int i = 0; i < frequencies.length; i++) {
+            if (frequencies[i] > 0) {
+                leafSymbols[k] = i;
+                weights[k] = Math.max(1, frequencies[i] >>> scale);
+                k++;
+            }
+        }
+
+        int[] depth = new int[n];
+        while (true) {
+            int maxDepth = computeDepths(weights, depth);
+            if (maxDepth <= MAX_CODE_LENGTH) break;
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + (weights[i] >>> 1);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            lengths[leafSymbols[i]] = depth[i];
+        }
+        return lengths;
+    }
+
+    // 双队列法构建哈夫曼树（叶子按权重排序后线性合并），返回最大深度
+    private static int computeDepths(long[] weights, int[] depthOut) {
+        int n = weights.length;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (weights[i] << 21) | i;
+        }
+        Arrays.sort(keys);
+
+        int total = 2 * n - 1;
+        long[] nodeWeight = new long[total];
+        int[] parent = new int[total];
+        int[] leafOf = new int[n]; // 排序后位置 -> 原始下标
+        for (int i = 0; i < n; i++) {
+            leafOf[i] = (int) (keys[i] & ((1 << 21) - 1));
+            nodeWeight[i] = keys[i] >>> 21;
+        }
+
+        int leafHead = 0;
+        int internalHead = n;
+        int next = n;
+        while (next < total) {
+            int a;
+            if (internalHead >= next || (leafHead < n && nodeWeight[leafHead] <= nodeWeight[internalHead])) {
+                a = leafHead++;
+            } else {
+                a = internalHead++;
+            }
+            int b;
+            if (internalHead >= next || (leafHead < n && nodeWeight[leafHead] <= nodeWeight[internalHead])) {
+                b = leafHead++;
+            } else {
+                b = internalHead++;
+            }
+            nodeWeight[next] = nodeWeight[a] + nodeWeight[b];
+            parent[a] = next;
+            parent[b] = next;
+            next++;
+        }
+
+        // 父节点编号总是大于子节点，逆序一遍即可得到深度
+        int[] depth = new int[total];
+        int maxDepth = 0;
+        for (int id = total - 2; id >= 0; id--) {
+            depth[id] = depth[parent[id]] + 1;
+            if (id < n) {
+                depthOut[leafOf[id]] = depth[id];
+                maxDepth = Math.max(maxDepth, depth[id]);
+            }
+        }
+        return maxDepth;
+    }
+
+    // ========== 编码 ==========
+
+    public int getCode(int symbol) {
+        return codeBySymbol[symbol];
+    }
+
+    public int getCodeLength(int symbol) {
+        return symbol < lengthBySymbol.length ? lengthBySymbol[symbol] : 0;
+    }
+
+    public int getMaxCodeLength() {
+        return maxLength;
+    }
+
+    // 以字符串形式返回某个符号的编码（仅用于展示）
+    public String getCodeString(int symbol) {
+        int len = getCodeLength(symbol);
+        char[] bits = new char[len];
+        int code = codeBySymbol[symbol];
+        for (int i = len - 1; i >= 0; i--) {
+            bits[i] = (char) ('0' + (code & 1));
+            code >>>= 1;
+        }
+        return new String(bits);
+    }
+
+    public int[] getCanonicalSymbols() {
+        return sortedSymbols.clone();
+    }
+
+    public int[] getCanonicalLengths() {
+        return sortedLengths.clone();
+    }
+
+    public void encodeSymbol(BitWriter writer, int symbol) {
+        int len = symbol < lengthBySymbol.length ? lengthBySymbol[symbol] : 0;
+        if (len == 0) {
+            throw new IllegalArgumentException("码表中不存在符号: " + symbol);
+        }
+        writer.write(codeBySymbol[symbol], len);
+    }
+
+    public BitWriter encodeChars(CharSequence text) {
+        BitWriter writer = new BitWriter(Math.max(16, text.length() / 2));
+        for (int i = 0; i < text.length(); i++) {
+            encodeSymbol(writer, text.charAt(i));
+        }
+        return writer;
+    }
+
+    public BitWriter encodeBytes(byte[] data, int offset, int length) {
+        BitWriter writer = new BitWriter(Math.max(16, length / 2));
+        for (int i = offset; i < offset + length; i++) {
+            encodeSymbol(writer, data[i] & 0xFF);
+        }
+        return writer;
+    }
+
+    // ========== 解码 ==========
+
+    private int nextSymbol(BitReader reader) {
+        int entry = lookupTable[reader.peek(tableBits)];
+        if (entry != 0) {
+            reader.skip(entry & 31);
+            return sortedSymbols[entry >>> 5];
+        }
+        // 慢速路径：码长超过查表位数时按规范编码逐长度比较
+        for (int len = tableBits + 1; len <= maxLength; len++) {
+            int offset = reader.peek(len) - firstCode[len];
+            if (offset >= 0 && offset < countByLength[len]) {
+                reader.skip(len);
+                return sortedSymbols[firstIndex[len] + offset];
+            }
+        }
+        throw new IllegalArgumentException("损坏的哈夫曼数据: 无法匹配的编码");
+    }
+
+    public int[] decodeSymbols(byte[] data, int count) {
+        BitReader reader = new BitReader(data, data.length);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = nextSymbol(reader);
+        }
+        return result;
+    }
+
+    public String decodeChars(byte[] data, int count) {
+        BitReader reader = new BitReader(data, data.length);
+        char[] result = new char[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = (char) nextSymbol(reader);
+        }
+        return new String(result);
+    }
+
+    public void decodeBytes(byte[] data, byte[] out, int offset, int count) {
+        BitReader reader = new BitReader(data, data.length);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = (byte) nextSymbol(reader);
+        }
+    }
+
+    // ========== 块与流式接口 ==========
+
+    // 编码一个独立块（字节符号表 0-255）
+    public static EncodedBlock encodeBlock(byte[] data, int offset, int length) {
+        long[] frequencies = new long[256];
+        for (int i = offset; i < offset + length; i++) {
+            frequencies[data[i] & 0xFF]++;
+        }
+        return encodeBlock(data, offset, length, frequencies);
+    }
+
+    public static EncodedBlock encodeBlock(byte[] data, int offset, int length, long[] frequencies) {
+        int[] allLengths = computeCodeLengths(frequencies);
+        int count = 0;
+        for (int len : allLengths) {
+            if (len > 0) count++;
+        }
+        int[] symbols = new int[count];
+        int[] lengths = new int[count];
+        int k = 0;
+        for (int s = 0; s < allLengths.length; s++) {
+            if (allLengths[s] > 0) {
+                symbols[k] = s;
+                lengths[k] = allLengths[s];
+                k++;
+            }
+        }
+        if (count == 0) {
+            return new EncodedBlock(0, symbols, lengths, new byte[0], 0);
+        }
+
+        HuffmanCodec codec = new HuffmanCodec(symbols, lengths);
+        BitWriter writer = codec.encodeBytes(data, offset, length);
+        return new EncodedBlock(length, symbols, lengths, writer.toByteArray(), writer.getBitLength());
+    }
+
+    public static CodecStats encode(InputStream in, OutputStream out) throws IOException {
+        return encode(in, out, DEFAULT_BLOCK_SIZE);
+    }
+
+    // 流式编码：按块读取输入，每块自带码表，内存占用与块大小成正比
+    public static CodecStats encode(InputStream in, OutputStream out, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("块大小必须大于0: " + blockSize);
+        }
+
+        CodecStats stats = new CodecStats();
+        long start = System.nanoTime();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(STREAM_MAGIC);
+        stats.outputBytes += 4;
+
+        byte[] buffer = new byte[blockSize];
+        int read;
+        while ((read = in.readNBytes(buffer, 0, blockSize)) > 0) {
+            EncodedBlock block = encodeBlock(buffer, 0, read);
+            block.writeTo(dataOut);
+            stats.inputBytes += read;
+            stats.outputBytes += block.getEncodedSize();
+            stats.blocks++;
+        }
+
+        dataOut.writeInt(0);
+        stats.outputBytes += 4;
+        dataOut.flush();
+        stats.elapsedNanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    public static CodecStats decode(InputStream in, OutputStream out) throws IOException {
+        CodecStats stats = new CodecStats();
+        long start = System.nanoTime();
+        DataInputStream dataIn = new DataInputStream(in);
+
+        int magic;
+        try {
+            magic = dataIn.readInt();
+        } catch (EOFException e) {
+            throw new IOException("不是哈夫曼数据流: 内容为空");
+        }
+        if (magic != STREAM_MAGIC) {
+            throw new IOException("不是哈夫曼数据流: 魔数不匹配");
+        }
+        stats.inputBytes += 4;
+
+        EncodedBlock block;
+        while ((block = EncodedBlock.readFrom(dataIn)) != null) {
+            byte[] decoded = block.decode();
+            out.write(decoded);
+            stats.inputBytes += block.getEncodedSize();
+            stats.outputBytes += decoded.length;
+            stats.blocks++;
+        }
+        stats.inputBytes += 4;
+
+        out.flush();
+        stats.elapsedNanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    // ========== 位流 ==========
+
+    // 高位优先的位写入器，写入可增长的字节数组
+    public static class BitWriter {
+        private byte[] bytes;
+        private int position;
+        private long buffer;
+        private int bitCount;
+        private long bitLength;
+
+        public BitWriter(int initialCapacity) {
+            this.bytes = new byte[Math.max(1, initialCapacity)];
+        }
+
+        public void write(int code, int length) {
+            buffer = (buffer << length) | code;
+            bitCount += length;
+            bitLength += length;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                if (position == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                bytes[position++] = (byte) (buffer >>> bitCount);
+            }
+        }
+
+        public long getBitLength() {
+            return bitLength;
+        }
+
+        // 返回打包后的字节，末尾不足一个字节的部分以0补齐
+        public byte[] toByteArray() {
+            int total = position + (bitCount > 0 ? 1 : 0);
+            byte[] result = Arrays.copyOf(bytes, total);
+            if (bitCount > 0) {
+                result[position] = (byte) (buffer << (8 - bitCount));
+            }
+            return result;
+        }
+
+        // 以0/1字符串返回前 maxBits 位（仅用于展示）
+        public String toBitString(int maxBits) {
+            byte[] packed = toByteArray();
+            int limit = (int) Math.min(bitLength, maxBits);
+            StringBuilder sb = new StringBuilder(limit);
+            for (int i = 0; i < limit; i++) {
+                sb.append((packed[i >>> 3] >>> (7 - (i & 7)) & 1) == 0 ? '0' : '1');
+            }
+            return sb.toString();
+        }
+    }
+
+    // 高位优先的位读取器，结尾之后按0填充
+    private static class BitReader {
+        private final byte[] data;
+        private final int limit;
+        private int position;
+        private long buffer;
+        private int bitCount;
+
+        BitReader(byte[] data, int limit) {
+            this.data = data;
+            this.limit = limit;
+        }
+
+        int peek(int n) {
+            while (bitCount < n) {
+                int b = position < limit ? data[position] & 0xFF : 0;
+                position++;
+                buffer = (buffer << 8) | b;
+                bitCount += 8;
+            }
+            return (int) (buffer >>> (bitCount - n)) & ((1 << n) - 1);
+        }
+
+        void skip(int n) {
+            bitCount -= n;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.datastructurevisualizer.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 哈夫曼文件压缩：按块并行压缩任意大小的文件，每块自带规范码表。
+ * 容器格式：文件头 | 块数据 ... | 块索引 | 索引偏移 + 尾部魔数，可按块随机解压。
+ */
+public class HuffmanFileCompressor {
+    public static final String FILE_EXTENSION = ".hufc";
+    private static final int HEADER_MAGIC = 0x48554643;  // "HUFC"
+    private static final int FOOTER_MAGIC = 0x43465548;  // "CFUH"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int TRAILER_SIZE = 12;
+
+    private final int blockSize;
+    private final int threads;
+
+    // 单个块的统计信息（同时作为索引项）
+    public static class BlockStats {
+        public int index;
+        public long rawOffset;
+        public int rawLength;
+        public long fileOffset;
+        public int encodedSize;
+        public int distinctSymbols;
+        public int maxCodeLength;
+        public long elapsedNanos;
+
+        public double getCompressionRatio() {
+            if (rawLength == 0) return 0;
+            return (1 - (double) encodedSize / rawLength) * 100;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("块 %d: %d → %d 字节, 压缩率 %.2f%%, 符号 %d, 最长码 %d, %.2f ms",
+                    index, rawLength, encodedSize, getCompressionRatio(),
+                    distinctSymbols, maxCodeLength, elapsedNanos / 1_000_000.0);
+        }
+    }
+
+    // 整体压缩/解压报告
+    public static class CompressionReport {
+        public final List<BlockStats> blocks = new ArrayList<>();
+        public long inputBytes;
+        public long outputBytes;
+        public long elapsedNanos;
+        public int threads;
+
+        public double getThroughputMBps() {
+            if (elapsedNanos <= 0) return 0;
+            long rawBytes = Math.max(inputBytes, outputBytes);
+            return (rawBytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        public double getCompressionRatio() {
+            if (inputBytes == 0) return 0;
+            return (1 - (double) outputBytes / inputBytes) * 100;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("输入 %d 字节, 输出 %d 字节, 块数 %d, 线程 %d, 压缩率 %.2f%%, 耗时 %.2f ms, 吞吐量 %.1f MB/s",
+                    inputBytes, outputBytes, blocks.size(), threads, getCompressionRatio(),
+                    elapsedNanos / 1_000_000.0, getThroughputMBps());
+        }
+    }
+
+    public HuffmanFileCompressor() {
+        this(HuffmanCodec.DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public HuffmanFileCompressor(int blockSize, int threads) {
+        if (blockSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("块大小和线程数必须大于0");
+        }
+        this.blockSize = blockSize;
+        this.threads = threads;
+    }
+
+    // ========== 压缩 ==========
+
+    private static class EncodedResult {
+        BlockStats stats;
+        byte[] bytes;
+    }
+
+    public CompressionReport compress(Path input, Path output) throws IOException {
+        CompressionReport report = new CompressionReport();
+        report.threads = threads;
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            int blockCount = (int) ((size + blockSize - 1) / blockSize);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(HEADER_MAGIC).putInt(VERSION).putInt(blockSize).flip();
+            writeFully(out, header);
+            long filePosition = HEADER_SIZE;
+
+            // 同时在途的块数有上限，保证内存占用与文件大小无关
+            int window = threads * 2;
+            ArrayDeque<Future<EncodedResult>> pending = new ArrayDeque<>();
+            int nextBlock = 0;
+            while (nextBlock < blockCount || !pending.isEmpty()) {
+                while (nextBlock < blockCount && pending.size() < window) {
+                    final int blockIndex = nextBlock++;
+                    pending.add(pool.submit(() -> encodeBlock(in, blockIndex, size)));
+                }
+
+                EncodedResult result = await(pending.poll());
+                result.stats.fileOffset = filePosition;
+                writeFully(out, ByteBuffer.wrap(result.bytes));
+                filePosition += result.bytes.length;
+                report.blocks.add(result.stats);
+            }
+
+            // 写入块索引和尾部
+            long indexOffset = filePosition;
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(4 + blockCount * 24);
+            DataOutputStream indexOut = new DataOutputStream(indexBytes);
+            indexOut.writeInt(report.blocks.size());
+            for (BlockStats stats : report.blocks) {
+                indexOut.writeLong(stats.fileOffset);
+                indexOut.writeLong(stats.rawOffset);
+                indexOut.writeInt(stats.rawLength);
+                indexOut.writeInt(stats.encodedSize);
+            }
+            indexOut.writeLong(indexOffset);
+            indexOut.writeInt(FOOTER_MAGIC);
+            indexOut.flush();
+            writeFully(out, ByteBuffer.wrap(indexBytes.toByteArray()));
+
+            report.inputBytes = size;
+            report.outputBytes = out.position();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private EncodedResult encodeBlock(FileChannel in, int blockIndex, long fileSize) throws IOException {
+        long blockStart = System.nanoTime();
+        long rawOffset = (long) blockIndex * blockSize;
+        int rawLength = (int) Math.min(blockSize, fileSize - rawOffset);
+
+        byte[] data = new byte[rawLength];
+        readFully(in, ByteBuffer.wrap(data), rawOffset);
+
+        HuffmanCodec.EncodedBlock block = HuffmanCodec.encodeBlock(data, 0, rawLength);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.getEncodedSize());
+        DataOutputStream dataOut = new DataOutputStream(bytes);
+        block.writeTo(dataOut);
+        dataOut.flush();
+
+        EncodedResult result = new EncodedResult();
+        result.bytes = bytes.toByteArray();
+        result.stats = new BlockStats();
+        result.stats.index = blockIndex;
+        result.stats.rawOffset = rawOffset;
+        result.stats.rawLength = rawLength;
+        result.stats.encodedSize = result.bytes.length;
+        result.stats.distinctSymbols = block.symbols.length;
+        for (int length : block.lengths) {
+            result.stats.maxCodeLength = Math.max(result.stats.maxCodeLength, length);
+        }
+        result.stats.elapsedNanos = System.nanoTime() - blockStart;
+        return result;
+    }
+
+    // ========== 解压 ==========
+
+    // 读取容器尾部的块索引
+    public static List<BlockStats> readIndex(Path compressed) throws IOException {
+        try (FileChannel in = FileChannel.open(compressed, StandardOpenOption.READ)) {
+            return readIndex(in);
+        }
+    }
+
+    private static List<BlockStats> readIndex(FileChannel in) throws IOException {
+        long size = in.size();
+        if (size < HEADER_SIZE + TRAILER_SIZE) {
+            throw new IOException("不是哈夫曼压缩文件: 文件过短");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(in, header, 0);
+        header.flip();
+        if (header.getInt() != HEADER_MAGIC || header.getInt() != VERSION) {
+            throw new IOException("不是哈夫曼压缩文件: 文件头不匹配");
+        }
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        readFully(in, trailer, size - TRAILER_SIZE);
+        trailer.flip();
+        long indexOffset = trailer.getLong();
+        if (trailer.getInt() != FOOTER_MAGIC || indexOffset < HEADER_SIZE || indexOffset > size - TRAILER_SIZE) {
+            throw new IOException("损坏的哈夫曼压缩文件: 索引不可用");
+        }
+
+        ByteBuffer index = ByteBuffer.allocate((int) (size - TRAILER_SIZE - indexOffset));
+        readFully(in, index, indexOffset);
+        index.flip();
+        int blockCount = index.getInt();
+        List<BlockStats> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            BlockStats stats = new BlockStats();
+            stats.index = i;
+            stats.fileOffset = index.getLong();
+            stats.rawOffset = index.getLong();
+            stats.rawLength = index.getInt();
+            stats.encodedSize = index.getInt();
+            blocks.add(stats);
+        }
+        return Collections.unmodifiableList(blocks);
+    }
+
+    // 随机访问：只解压指定块
+    public static byte[] decompressBlock(Path compressed, int blockIndex) throws IOException {
+        try (FileChannel in = FileChannel.open(compressed, StandardOpenOption.READ)) {
+            List<BlockStats> index = readIndex(in);
+            if (blockIndex < 0 || blockIndex >= index.size()) {
+                throw new IndexOutOfBoundsException("Block: " + blockIndex + ", Count: " + index.size());
+            }
+            return decodeBlock(in, index.get(blockIndex));
+        }
+    }
+
+    public CompressionReport decompress(Path compressed, Path output) throws IOException {
+        CompressionReport report = new CompressionReport();
+        report.threads = threads;
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel in = FileChannel.open(compressed, StandardOpenOption.READ);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            List<BlockStats> index = readIndex(in);
+            int window = threads * 2;
+            ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+            int nextBlock = 0;
+            while (nextBlock < index.size() || !pending.isEmpty()) {
+                while (nextBlock < index.size() && pending.size() < window) {
+                    final BlockStats stats = index.get(nextBlock++);
+                    pending.add(pool.submit(() -> decodeBlock(in, stats)));
+                }
+                byte[] decoded = await(pending.poll());
+                out.write(decoded);
+                report.outputBytes += decoded.length;
+            }
+
+            report.blocks.addAll(index);
+            report.inputBytes = in.size();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private static byte[] decodeBlock(FileChannel in, BlockStats stats) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(stats.encodedSize);
+        readFully(in, buffer, stats.fileOffset);
+        DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+        HuffmanCodec.EncodedBlock block = HuffmanCodec.EncodedBlock.readFrom(dataIn);
+        if (block == null || block.rawLength != stats.rawLength) {
+            throw new IOException("损坏的哈夫曼压缩文件: 块 " + stats.index + " 长度不匹配");
+        }
+        return block.decode();
+    }
+
+    // ========== 工具方法 ==========
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("压缩被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("文件意外结束");
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -2,31 +2,50 @@ package com.datastructurevisualizer.model;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Supplier;
 
 public class HuffmanTree {
     private HuffmanNode root;
     private List<HuffmanStep> operationSteps;
     private List<HuffmanNode> allNodes;
+    private HuffmanCodec codec;
+    private Map<Character, Integer> frequencyMap;
+    private byte[] encodedBytes;
+    private long encodedBitLength;
 
-    // 简化的可序列化哈夫曼树数据
+    // 结果步骤中展示的比特流最大位数
+    private static final int MAX_DISPLAY_BITS = 256;
+
+    // 合并阶段使用的优先队列，可切换以对比 java.util.PriorityQueue 与基本类型的 IntHeap
+    public enum QueueKind { PRIORITY_QUEUE, INT_HEAP }
+
+    private QueueKind queueKind = QueueKind.PRIORITY_QUEUE;
+
+    // 可序列化哈夫曼树数据：保存规范码长，加载时按码长直接重建树
     public static class HuffmanTreeData implements Serializable {
         private static final long serialVersionUID = 1L;
         public Map<Character, Integer> frequencyMap;
         public Map<Character, String> huffmanCodes;
+        // 规范顺序的符号及其码长（旧存档中为 null）
+        public char[] canonicalSymbols;
+        public byte[] codeLengths;
 
         public HuffmanTreeData(HuffmanTree tree) {
             this.frequencyMap = new HashMap<>();
             this.huffmanCodes = new HashMap<>();
 
-            // 从操作步骤中提取频率和编码信息
-            if (tree.operationSteps != null) {
-                for (HuffmanStep step : tree.operationSteps) {
-                    if (step.frequencyMap != null) {
-                        this.frequencyMap.putAll(step.frequencyMap);
-                    }
-                    if (step.huffmanCodes != null) {
-                        this.huffmanCodes.putAll(step.huffmanCodes);
-                    }
+            if (tree.frequencyMap != null) {
+                this.frequencyMap.putAll(tree.frequencyMap);
+            }
+            if (tree.codec != null) {
+                int[] symbols = tree.codec.getCanonicalSymbols();
+                int[] lengths = tree.codec.getCanonicalLengths();
+                this.canonicalSymbols = new char[symbols.length];
+                this.codeLengths = new byte[symbols.length];
+                for (int i = 0; i < symbols.length; i++) {
+                    this.canonicalSymbols[i] = (char) symbols[i];
+                    this.codeLengths[i] = (byte) lengths[i];
+                    this.huffmanCodes.put((char) symbols[i], tree.codec.getCodeString(symbols[i]));
                 }
             }
         }
@@ -43,26 +62,64 @@ public class HuffmanTree {
         return new HuffmanTreeData(this);
     }
 
-    // 反序列化方法 - 从数据重建哈夫曼树
+    // 反序列化方法 - 按码长重建规范哈夫曼树，耗时只与字符种类数相关
     public static HuffmanTree fromSerializableData(HuffmanTreeData data) {
         HuffmanTree tree = new HuffmanTree();
-        if (data != null && data.frequencyMap != null && !data.frequencyMap.isEmpty()) {
-            // 重建哈夫曼树
-            String simulatedText = generateTextFromFrequency(data.frequencyMap);
-            tree.buildTreeWithSteps(simulatedText);
+        if (data == null || data.frequencyMap == null || data.frequencyMap.isEmpty()) {
+            return tree;
         }
+
+        int[] symbols;
+        int[] lengths;
+        if (data.canonicalSymbols != null && data.codeLengths != null) {
+            symbols = new int[data.canonicalSymbols.length];
+            lengths = new int[data.codeLengths.length];
+            for (int i = 0; i < symbols.length; i++) {
+                symbols[i] = data.canonicalSymbols[i];
+                lengths[i] = data.codeLengths[i];
+            }
+        } else {
+            // 旧存档没有码长：优先取已保存编码的长度，否则由频率计算
+            symbols = new int[data.frequencyMap.size()];
+            lengths = new int[data.frequencyMap.size()];
+            int k = 0;
+            for (Character c : data.frequencyMap.keySet()) {
+                symbols[k++] = c;
+            }
+            if (!fillLengthsFromCodes(data.huffmanCodes, symbols, lengths)) {
+                fillLengthsFromFrequencies(data.frequencyMap, symbols, lengths);
+            }
+        }
+
+        tree.frequencyMap = new HashMap<Character, Integer>(data.frequencyMap);
+        tree.codec = new HuffmanCodec(symbols, lengths);
+        tree.root = tree.buildCanonicalTree(tree.codec, tree.frequencyMap);
         return tree;
     }
 
-    // 从频率映射生成模拟文本
-    private static String generateTextFromFrequency(Map<Character, Integer> frequencyMap) {
-        StringBuilder text = new StringBuilder();
+    private static boolean fillLengthsFromCodes(Map<Character, String> codes, int[] symbols, int[] lengths) {
+        if (codes == null || codes.size() != symbols.length) return false;
+        for (int i = 0; i < symbols.length; i++) {
+            String code = codes.get((char) symbols[i]);
+            if (code == null || code.length() > HuffmanCodec.MAX_CODE_LENGTH) return false;
+            lengths[i] = Math.max(1, code.length());
+        }
+        return true;
+    }
+
+    private static void fillLengthsFromFrequencies(Map<Character, Integer> frequencyMap, int[] symbols, int[] lengths) {
+        if (symbols.length == 1) {
+            lengths[0] = 1;
+            return;
+        }
+        long[] frequencies = new long[Character.MAX_VALUE + 1];
         for (Map.Entry<Character, Integer> entry : frequencyMap.entrySet()) {
-            for (int i = 0; i < entry.getValue(); i++) {
-                text.append(entry.getKey());
-            }
+            frequencies[entry.getKey()] = Math.max(1, entry.getValue());
+        }
+        int[] computed = HuffmanCodec.computeCodeLengths(frequencies);
+        for (int i = 0; i < symbols.length; i++) {
+            lengths[i] = computed[symbols[i]];
         }
-        return text.toString();
     }
 
     // 存档管理方法
@@ -113,73 +170,191 @@ public class HuffmanTree {
         }
     }
 
+    // 合并阶段的优先队列：按频率每次取出最小的节点
+    private interface MergeQueue {
+        void offer(HuffmanNode node);
+
+        HuffmanNode poll();
+
+        int size();
+
+        // 演示步骤里展示的队列副本
+        PriorityQueue<HuffmanNode> snapshot();
+    }
+
+    private static final class ObjectMergeQueue implements MergeQueue {
+        private final PriorityQueue<HuffmanNode> queue;
+
+        ObjectMergeQueue(List<HuffmanNode> leaves) {
+            queue = new PriorityQueue<HuffmanNode>(leaves);
+        }
+
+        @Override
+        public void offer(HuffmanNode node) {
+            queue.offer(node);
+        }
+
+        @Override
+        public HuffmanNode poll() {
+            return queue.poll();
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+        @Override
+        public PriorityQueue<HuffmanNode> snapshot() {
+            return new PriorityQueue<HuffmanNode>(queue);
+        }
+    }
+
+    // 堆里只有 int：频率作为键，节点在 nodes 中的下标作为编号（heapify 的编号就是叶子的下标，
+    // 之后插入的节点放在 IntHeap 分配的编号处，复用的编号覆盖已经取出的节点），初始叶子用 heapify 一次建好
+    private static final class IntHeapMergeQueue implements MergeQueue {
+        private final IntHeap heap = new IntHeap();
+        private final List<HuffmanNode> nodes;
+
+        IntHeapMergeQueue(List<HuffmanNode> leaves) {
+            nodes = new java.util.ArrayList<HuffmanNode>(leaves);
+            int[] frequencies = new int[leaves.size()];
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] = leaves.get(i).frequency;
+            }
+            heap.heapify(frequencies);
+        }
+
+        @Override
+        public void offer(HuffmanNode node) {
+            int id = heap.insert(node.frequency);
+            if (id == nodes.size()) {
+                nodes.add(node);
+            } else {
+                nodes.set(id, node);
+            }
+        }
+
+        @Override
+        public HuffmanNode poll() {
+            return nodes.get(heap.pollId());
+        }
+
+        @Override
+        public int size() {
+            return heap.size();
+        }
+
+        @Override
+        public PriorityQueue<HuffmanNode> snapshot() {
+            PriorityQueue<HuffmanNode> copy = new PriorityQueue<HuffmanNode>(Math.max(1, heap.size()));
+            for (int i = 0; i < heap.size(); i++) {
+                copy.offer(nodes.get(heap.idAt(i)));
+            }
+            return copy;
+        }
+    }
+
     public class HuffmanStep {
         public String type; // "frequency", "create_node", "combine", "build_tree", "generate_code"
-        public String description;
+        public StepMessage message;
         public Map<Character, Integer> frequencyMap;
         public PriorityQueue<HuffmanNode> currentQueue;
         public List<HuffmanNode> combinedNodes;
         public Map<Character, String> huffmanCodes;
         public HuffmanNode currentNode;
+        public String encodedBits;      // 实际编码比特流（截断显示）
+        public long encodedBitLength;
+        public int encodedByteLength;
 
-        public HuffmanStep(String type, String description) {
+        public HuffmanStep(String type, StepMessage message) {
             this.type = type;
-            this.description = description;
+            this.message = message;
             this.frequencyMap = new HashMap<>();
             this.currentQueue = new PriorityQueue<>();
             this.combinedNodes = new java.util.ArrayList<>();
             this.huffmanCodes = new HashMap<>();
         }
+
+        public String getDescription() {
+            return message.render();
+        }
     }
 
 
     // 带步骤演示的构建方法
     public List<HuffmanStep> buildTreeWithSteps(String text) {
         operationSteps.clear();
-        allNodes = new java.util.ArrayList<HuffmanNode>();
+        checkText(text);
+        produceBuildSteps(text, operationSteps::add, true);
+        return new java.util.ArrayList<HuffmanStep>(operationSteps);
+    }
 
+    // 不生成演示步骤，只得到树、规范编码和编码结果；合并阶段不复制队列，用于比较两种优先队列的耗时
+    public void buildTree(String text) {
+        checkText(text);
+        produceBuildSteps(text, StepSink.discard(), false);
+    }
+
+    private void checkText(String text) {
         if (text == null || text.isEmpty()) {
             throw new IllegalArgumentException("Text cannot be null or empty");
         }
+    }
 
-        // 步骤1: 统计字符频率
-        HuffmanStep step1 = new HuffmanStep("frequency", "统计字符频率");
-        Map<Character, Integer> frequencyMap = new HashMap<Character, Integer>();
-        for (char c : text.toCharArray()) {
-            frequencyMap.put(c, frequencyMap.getOrDefault(c, 0) + 1);
-        }
+    // recordSteps 为 false 时跳过合并过程中每一步的队列和森林副本
+    private void produceBuildSteps(String text, StepSink<HuffmanStep> steps, boolean recordSteps) {
+        allNodes = new java.util.ArrayList<HuffmanNode>();
+
+        // 步骤1: 统计字符频率（基本类型计数表，大文本并行统计）
+        HuffmanStep step1 = new HuffmanStep("frequency", StepMessage.of(StepTemplate.HUFFMAN_COUNT_FREQUENCY));
+        Map<Character, Integer> frequencyMap = FrequencyCounter.countChars(text).toCharacterMap();
         step1.frequencyMap = new HashMap<Character, Integer>(frequencyMap);
-        operationSteps.add(step1);
+        this.frequencyMap = frequencyMap;
+        steps.add(step1);
 
         // 步骤2: 创建初始叶子节点
-        HuffmanStep step2 = new HuffmanStep("create_node", "创建初始叶子节点");
-        PriorityQueue<HuffmanNode> pq = new PriorityQueue<HuffmanNode>();
+        HuffmanStep step2 = new HuffmanStep("create_node", StepMessage.of(StepTemplate.HUFFMAN_CREATE_LEAVES));
         for (Map.Entry<Character, Integer> entry : frequencyMap.entrySet()) {
             HuffmanNode node = new HuffmanNode(entry.getKey(), entry.getValue());
-            pq.offer(node);
             allNodes.add(node); // 保存节点
         }
-        step2.currentQueue = new PriorityQueue<HuffmanNode>(pq);
-        operationSteps.add(step2);
+        MergeQueue pq = queueKind == QueueKind.INT_HEAP
+                ? new IntHeapMergeQueue(allNodes) : new ObjectMergeQueue(allNodes);
+        if (recordSteps) {
+            step2.currentQueue = pq.snapshot();
+        }
+        steps.add(step2);
 
         // 步骤3: 逐步构建哈夫曼树
         int stepCount = 1;
-        List<HuffmanNode> currentForest = new java.util.ArrayList<HuffmanNode>(pq);
+        List<HuffmanNode> currentForest = recordSteps
+                ? new java.util.ArrayList<HuffmanNode>(step2.currentQueue) : null;
 
         while (pq.size() > 1) {
             HuffmanNode left = pq.poll();
             HuffmanNode right = pq.poll();
 
+            if (!recordSteps) {
+                HuffmanNode parent = new HuffmanNode(left.frequency + right.frequency, left, right);
+                pq.offer(parent);
+                allNodes.add(parent);
+                continue;
+            }
+
             // 创建合并步骤，显示当前森林状态
+            // 森林描述只在显示该步骤时才拼接
+            List<HuffmanNode> forest = new java.util.ArrayList<HuffmanNode>(currentForest);
+            Supplier<String> forestDescription = () -> getForestDescription(forest);
             HuffmanStep forestStep = new HuffmanStep("forest",
-                    "步骤 " + stepCount + ": 当前森林状态 - " + getForestDescription(currentForest));
-            forestStep.currentQueue = new PriorityQueue<HuffmanNode>(pq);
-            forestStep.combinedNodes = new java.util.ArrayList<HuffmanNode>(currentForest);
-            operationSteps.add(forestStep);
+                    StepMessage.withRefs(StepTemplate.HUFFMAN_FOREST, stepCount, 0, forestDescription, null));
+            forestStep.currentQueue = pq.snapshot();
+            forestStep.combinedNodes = forest;
+            steps.add(forestStep);
 
             HuffmanStep combineStep = new HuffmanStep("combine",
-                    "步骤 " + stepCount + ": 合并节点 " + left + " 和 " + right +
-                            " → 新节点频率: " + (left.frequency + right.frequency));
+                    StepMessage.withRefs(StepTemplate.HUFFMAN_COMBINE,
+                            stepCount, left.frequency + right.frequency, left, right));
             combineStep.combinedNodes.add(left);
             combineStep.combinedNodes.add(right);
 
@@ -193,9 +368,9 @@ public class HuffmanTree {
             currentForest.remove(right);
             currentForest.add(parent);
 
-            combineStep.currentQueue = new PriorityQueue<HuffmanNode>(pq);
+            combineStep.currentQueue = pq.snapshot();
             combineStep.combinedNodes.add(parent);
-            operationSteps.add(combineStep);
+            steps.add(combineStep);
 
 
 
@@ -205,47 +380,104 @@ public class HuffmanTree {
         root = pq.poll();
 
         // 步骤4: 构建完成，显示最终树
-        HuffmanStep buildStep = new HuffmanStep("build_tree", "哈夫曼树构建完成");
+        HuffmanStep buildStep = new HuffmanStep("build_tree", StepMessage.of(StepTemplate.HUFFMAN_TREE_BUILT));
         buildStep.currentNode = root;
-        operationSteps.add(buildStep);
+        steps.add(buildStep);
 
-        // 步骤5: 生成编码
-        HuffmanStep codeStep = new HuffmanStep("generate_code", "生成哈夫曼编码");
+        // 步骤5: 生成规范哈夫曼编码（只保留码长，按码长重新分配编码）
+        HuffmanStep codeStep = new HuffmanStep("generate_code", StepMessage.of(StepTemplate.HUFFMAN_GENERATE_CODES));
+        codec = createCanonicalCodec(root, frequencyMap);
+        root = buildCanonicalTree(codec, frequencyMap);
         Map<Character, String> huffmanCodes = new HashMap<Character, String>();
-        generateCodesWithSteps(root, "", huffmanCodes, codeStep);
+        for (Character c : frequencyMap.keySet()) {
+            huffmanCodes.put(c, codec.getCodeString(c));
+        }
         codeStep.huffmanCodes = new HashMap<Character, String>(huffmanCodes);
-        operationSteps.add(codeStep);
-
-        // 步骤6: 显示结果
-        HuffmanStep resultStep = new HuffmanStep("result", "哈夫曼编码结果");
+        codeStep.currentNode = root;
+        steps.add(codeStep);
+
+        // 步骤6: 实际编码并显示结果
+        long start = System.nanoTime();
+        HuffmanCodec.BitWriter writer = codec.encodeChars(text);
+        encodedBytes = writer.toByteArray();
+        encodedBitLength = writer.getBitLength();
+        long elapsed = System.nanoTime() - start;
+        boolean verified = codec.decodeChars(encodedBytes, text.length()).equals(text);
+
+        long originalBits = (long) text.length() * 8;
+        double compressionRatio = (1 - (double) encodedBitLength / originalBits) * 100;
+        HuffmanStep resultStep = new HuffmanStep("result", StepMessage.withRefs(StepTemplate.HUFFMAN_RESULT,
+                originalBits, encodedBitLength, encodedBytes.length, compressionRatio, elapsed / 1_000_000.0,
+                StepMessage.of(verified ? StepTemplate.VERIFY_PASSED : StepTemplate.VERIFY_FAILED)));
         resultStep.huffmanCodes = new HashMap<Character, String>(huffmanCodes);
+        resultStep.encodedBits = writer.toBitString(MAX_DISPLAY_BITS);
+        resultStep.encodedBitLength = encodedBitLength;
+        resultStep.encodedByteLength = encodedBytes.length;
+        steps.add(resultStep);
+    }
 
-        // 计算压缩信息
-        int originalBits = text.length() * 8;
-        int compressedBits = 0;
-        for (char c : text.toCharArray()) {
-            compressedBits += huffmanCodes.get(c).length();
+    // 由哈夫曼树的叶子深度得到码长，再交给编解码器分配规范编码
+    private HuffmanCodec createCanonicalCodec(HuffmanNode treeRoot, Map<Character, Integer> frequencyMap) {
+        int[] symbols = new int[frequencyMap.size()];
+        int[] lengths = new int[frequencyMap.size()];
+        int[] count = new int[1];
+        collectCodeLengths(treeRoot, 0, symbols, lengths, count);
+        long[] frequencies = new long[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            frequencies[i] = frequencyMap.get((char) symbols[i]);
         }
-        double compressionRatio = (1 - (double)compressedBits / originalBits) * 100;
-
-        resultStep.description = String.format("原始大小: %d 位, 压缩后: %d 位, 压缩率: %.2f%%",
-                originalBits, compressedBits, compressionRatio);
-        operationSteps.add(resultStep);
+        return HuffmanCodec.fromTreeDepths(symbols, lengths, frequencies);
+    }
 
-        return new java.util.ArrayList<HuffmanStep>(operationSteps);
+    private int collectCodeLengths(HuffmanNode node, int depth, int[] symbols, int[] lengths, int[] count) {
+        if (node == null) return 0;
+        if (node.isLeaf()) {
+            symbols[count[0]] = node.character;
+            lengths[count[0]] = depth;
+            count[0]++;
+            return depth;
+        }
+        return Math.max(collectCodeLengths(node.left, depth + 1, symbols, lengths, count),
+                collectCodeLengths(node.right, depth + 1, symbols, lengths, count));
     }
 
-    private void generateCodesWithSteps(HuffmanNode node, String code,
-                                        Map<Character, String> huffmanCodes,
-                                        HuffmanStep codeStep) {
-        if (node == null) return;
+    // 按规范编码重建树：左0右1，与显示的编码一致
+    private HuffmanNode buildCanonicalTree(HuffmanCodec canonicalCodec, Map<Character, Integer> frequencyMap) {
+        int[] symbols = canonicalCodec.getCanonicalSymbols();
+        if (symbols.length == 1) {
+            return new HuffmanNode((char) symbols[0], frequencyMap.getOrDefault((char) symbols[0], 0));
+        }
 
-        if (node.isLeaf()) {
-            huffmanCodes.put(node.character, code.isEmpty() ? "0" : code);
-        } else {
-            generateCodesWithSteps(node.left, code + "0", huffmanCodes, codeStep);
-            generateCodesWithSteps(node.right, code + "1", huffmanCodes, codeStep);
+        HuffmanNode canonicalRoot = new HuffmanNode(0, null, null);
+        for (int symbol : symbols) {
+            int code = canonicalCodec.getCode(symbol);
+            int length = canonicalCodec.getCodeLength(symbol);
+            HuffmanNode current = canonicalRoot;
+            for (int bit = length - 1; bit > 0; bit--) {
+                if (((code >>> bit) & 1) == 0) {
+                    if (current.left == null) current.left = new HuffmanNode(0, null, null);
+                    current = current.left;
+                } else {
+                    if (current.right == null) current.right = new HuffmanNode(0, null, null);
+                    current = current.right;
+                }
+            }
+            HuffmanNode leaf = new HuffmanNode((char) symbol, frequencyMap.getOrDefault((char) symbol, 0));
+            if ((code & 1) == 0) {
+                current.left = leaf;
+            } else {
+                current.right = leaf;
+            }
         }
+        sumFrequencies(canonicalRoot);
+        return canonicalRoot;
+    }
+
+    private int sumFrequencies(HuffmanNode node) {
+        if (node == null) return 0;
+        if (node.isLeaf()) return node.frequency;
+        node.frequency = sumFrequencies(node.left) + sumFrequencies(node.right);
+        return node.frequency;
     }
 
 
@@ -271,5 +503,25 @@ public class HuffmanTree {
         return root;
     }
 
+    public QueueKind getQueueKind() {
+        return queueKind;
+    }
+
+    public void setQueueKind(QueueKind queueKind) {
+        this.queueKind = queueKind;
+    }
+
+    public HuffmanCodec getCodec() {
+        return codec;
+    }
+
+    public byte[] getEncodedBytes() {
+        return encodedBytes != null ? encodedBytes.clone() : new byte[0];
+    }
+
+    public long getEncodedBitLength() {
+        return encodedBitLength;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,642 @@
+package com.datastructurevisualizer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 基本类型 int → int 的开放定址哈希表：键、值、探测距离放在三个平行数组里，不为每个条目创建对象，也不装箱。
+// 冲突时向后逐个探测（线性探测）；Robin Hood 方式插入时，探测距离更大的键会换下距离更小的键，
+// 让探测长度更均匀，查找未命中时也能在遇到距离更小的槽位时提前结束。删除一律向前移动后续条目，不留墓碑。
+// 扩容是渐进的：超过装载因子时只分配新表，旧表的条目在之后的每次写操作中迁移几个槽位，
+// 不会在某一次插入时集中复制整张表。迁移期间查找先查新表再查旧表。
+// 当作集合使用时忽略值即可（add / contains）
+public class IntHashMap {
+    public enum Probing { LINEAR, ROBIN_HOOD }
+
+    public static final double DEFAULT_MAX_LOAD = 0.75;
+    // 每次写操作从旧表迁移的槽位数：新表容量是旧表的两倍，迁移总能在新表再次装满之前完成
+    public static final int MIGRATE_SLOTS = 4;
+    private static final int MIN_CAPACITY = 8;
+    // 探测距离直方图的桶数，最后一个桶包含所有更长的探测
+    public static final int HISTOGRAM_BUCKETS = 8;
+
+    private static final int EMPTY = -1;
+    // 旧表中已迁走或已删除的槽位：查找时越过但不停止（旧表只减不增，不做前移）
+    private static final int MOVED = -2;
+
+    // 一张表：dist 为条目离自己哈希槽位的距离，EMPTY / MOVED 表示没有条目
+    private static final class Table {
+        final int[] keys;
+        final int[] values;
+        final int[] dist;
+        final int mask;
+        int count;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            dist = new int[capacity];
+            mask = capacity - 1;
+            Arrays.fill(dist, EMPTY);
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+    }
+
+    private final Probing probing;
+    private final double maxLoad;
+    private Table table;
+    private Table oldTable;     // 正在迁移的旧表，没有迁移时为 null
+    private int migrateIndex;   // 旧表中下一个要迁移的槽位
+    private int size;
+    private int resizes;
+    private List<HashStep> operationSteps;
+
+    // 演示步骤：每一步都带两张表的快照，槽位从 home 探测到 slot（循环区间）
+    public static class HashStep {
+        public String type; // "state", "hash", "probe", "swap", "insert", "update", "found", "not_found", "delete", "shift", "migrate", "resize", "complete"
+        public StepMessage message;
+        public int[] keys;          // 当前表的键
+        public int[] dist;          // 当前表的探测距离，-1 为空槽
+        public int[] oldKeys;       // 旧表快照，没有迁移时为 null
+        public int[] oldDist;       // 旧表的探测距离，-1 为空槽，-2 为已迁走
+        public boolean onOldTable;  // home、slot 指的是旧表的槽位
+        public int home;            // 这次探测的起点（哈希槽位），-1 表示没有
+        public int slot;            // 当前槽位，-1 表示没有
+
+        public HashStep(String type, StepMessage message, int[] keys, int[] dist, int[] oldKeys, int[] oldDist,
+                        boolean onOldTable, int home, int slot) {
+            this.type = type;
+            this.message = message;
+            this.keys = keys;
+            this.dist = dist;
+            this.oldKeys = oldKeys;
+            this.oldDist = oldDist;
+            this.onOldTable = onOldTable;
+            this.home = home;
+            this.slot = slot;
+        }
+
+        public String getDescription() {
+            return message.render();
+        }
+    }
+
+    public IntHashMap() {
+        this(Probing.LINEAR);
+    }
+
+    public IntHashMap(Probing probing) {
+        this(probing, MIN_CAPACITY, DEFAULT_MAX_LOAD);
+    }
+
+    // capacity 向上取到 2 的幂
+    public IntHashMap(Probing probing, int capacity, double maxLoad) {
+        if (maxLoad < 0.25 || maxLoad > 0.95) {
+            throw new IllegalArgumentException("装载因子必须在 0.25 到 0.95 之间: " + maxLoad);
+        }
+        if (capacity < 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("容量超出范围: " + capacity);
+        }
+        this.probing = probing;
+        this.maxLoad = maxLoad;
+        this.table = new Table(tableSize(capacity));
+        this.operationSteps = new ArrayList<>();
+    }
+
+    private static int tableSize(int capacity) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+    }
+
+    // 对整数键再做一次混合（MurmurHash3 的 fmix32），连续的键也能均匀落到各槽位
+    private static int hash(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // ========== 查找 ==========
+
+    public int get(int key, int defaultValue) {
+        int h = hash(key);
+        int slot = find(table, key, h, null, false);
+        if (slot >= 0) {
+            return table.values[slot];
+        }
+        if (oldTable != null) {
+            slot = find(oldTable, key, h, null, true);
+            if (slot >= 0) {
+                return oldTable.values[slot];
+            }
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        int h = hash(key);
+        return find(table, key, h, null, false) >= 0
+                || oldTable != null && find(oldTable, key, h, null, true) >= 0;
+    }
+
+    public boolean contains(int key) {
+        return containsKey(key);
+    }
+
+    public List<HashStep> findWithSteps(int key) {
+        operationSteps.clear();
+        StepSink<HashStep> steps = operationSteps::add;
+        int h = hash(key);
+        int slot = find(table, key, h, steps, false);
+        if (slot < 0 && oldTable != null) {
+            slot = find(oldTable, key, h, steps, true);
+        }
+        return new ArrayList<>(operationSteps);
+    }
+
+    // 返回 key 所在槽位，不存在时返回 -1
+    private int find(Table t, int key, int h, StepSink<HashStep> steps, boolean old) {
+        int home = h & t.mask;
+        int slot = home;
+        if (steps != null) {
+            steps.add(step("hash", StepMessage.of(old ? StepTemplate.HASH_HOME_OLD : StepTemplate.HASH_HOME,
+                    key, home), old, home, home));
+        }
+        for (int d = 0; ; d++) {
+            int sd = t.dist[slot];
+            if (sd == EMPTY) {
+                if (steps != null) {
+                    steps.add(step("not_found", StepMessage.of(StepTemplate.HASH_EMPTY_SLOT, slot, key),
+                            old, home, slot));
+                }
+                return -1;
+            }
+            // Robin Hood：若 key 存在，它不会排在探测距离比自己小的条目后面
+            if (probing == Probing.ROBIN_HOOD && sd != MOVED && sd < d) {
+                if (steps != null) {
+                    steps.add(step("not_found", StepMessage.of(StepTemplate.HASH_EARLY_STOP, slot, sd, d),
+                            old, home, slot));
+                }
+                return -1;
+            }
+            if (sd != MOVED && t.keys[slot] == key) {
+                if (steps != null) {
+                    steps.add(step("found", StepMessage.of(StepTemplate.HASH_FOUND, key, slot, d + 1),
+                            old, home, slot));
+                }
+                return slot;
+            }
+            if (steps != null) {
+                steps.add(step("probe", sd == MOVED
+                        ? StepMessage.of(StepTemplate.HASH_PROBE_MOVED, slot)
+                        : StepMessage.of(StepTemplate.HASH_PROBE, slot, t.keys[slot], sd), old, home, slot));
+            }
+            slot = (slot + 1) & t.mask;
+        }
+    }
+
+    // ========== 插入 ==========
+
+    // 返回 true 表示新增了键，false 表示更新了已有键的值
+    public boolean put(int key, int value) {
+        return upsert(key, value, null);
+    }
+
+    public boolean add(int key) {
+        return upsert(key, 0, null);
+    }
+
+    public List<HashStep> putWithSteps(int key, int value) {
+        operationSteps.clear();
+        upsert(key, value, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private boolean upsert(int key, int value, StepSink<HashStep> steps) {
+        if (oldTable != null) {
+            migrate(steps);
+        }
+        int h = hash(key);
+        Table t = table;
+        int home = h & t.mask;
+        int slot = home;
+        if (steps != null) {
+            steps.add(step("hash", StepMessage.of(StepTemplate.HASH_HOME, key, home), false, home, home));
+        }
+        // 在当前表中找 key；找不到时停下的位置就是插入的起点
+        int d = 0;
+        while (true) {
+            int sd = t.dist[slot];
+            if (sd == EMPTY || probing == Probing.ROBIN_HOOD && sd < d) {
+                break;
+            }
+            if (t.keys[slot] == key) {
+                t.values[slot] = value;
+                if (steps != null) {
+                    steps.add(step("update", StepMessage.of(StepTemplate.HASH_UPDATE, key, slot, value),
+                            false, home, slot));
+                }
+                return false;
+            }
+            if (steps != null) {
+                steps.add(step("probe", StepMessage.of(StepTemplate.HASH_PROBE, slot, t.keys[slot], sd),
+                        false, home, slot));
+            }
+            slot = (slot + 1) & t.mask;
+            d++;
+        }
+
+        // 迁移期间 key 可能还在旧表里：移到新表，算作更新
+        boolean existed = false;
+        if (oldTable != null) {
+            int oldSlot = find(oldTable, key, h, steps, true);
+            if (oldSlot >= 0) {
+                removeFromOld(oldSlot);
+                existed = true;
+                if (steps != null) {
+                    steps.add(step("delete", StepMessage.of(StepTemplate.HASH_LEAVE_OLD, key, oldSlot),
+                            true, -1, oldSlot));
+                }
+            }
+        }
+
+        if (size + 1 > threshold(t.capacity())) {
+            startResize(steps);
+            t = table;
+            home = h & t.mask;
+            slot = home;
+            d = 0;
+        }
+        slot = insertFrom(t, slot, d, key, value, home, steps);
+        size++;
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.HASH_INSERT_COMPLETE, size,
+                    Math.round(100.0 * size / table.capacity())), false, -1, slot));
+        }
+        return !existed;
+    }
+
+    // 从 slot 开始放入一个表中不存在的键（探测距离已是 d），返回 key 最终所在的槽位
+    private int insertFrom(Table t, int slot, int d, int key, int value, int home, StepSink<HashStep> steps) {
+        int placed = -1;
+        while (true) {
+            int sd = t.dist[slot];
+            if (sd == EMPTY) {
+                t.keys[slot] = key;
+                t.values[slot] = value;
+                t.dist[slot] = d;
+                t.count++;
+                if (steps != null) {
+                    steps.add(step("insert", StepMessage.of(StepTemplate.HASH_PLACE, key, slot, d + 1),
+                            false, home, slot));
+                }
+                return placed >= 0 ? placed : slot;
+            }
+            if (probing == Probing.ROBIN_HOOD && sd < d) {
+                // 换下探测距离更小的条目，接着为它找位置
+                int displacedKey = t.keys[slot];
+                int displacedValue = t.values[slot];
+                t.keys[slot] = key;
+                t.values[slot] = value;
+                t.dist[slot] = d;
+                if (steps != null) {
+                    steps.add(step("swap", StepMessage.of(StepTemplate.HASH_ROBIN_HOOD_SWAP, key, d, displacedKey),
+                            false, home, slot));
+                }
+                if (placed < 0) {
+                    placed = slot;
+                }
+                key = displacedKey;
+                value = displacedValue;
+                d = sd;
+            } else if (steps != null) {
+                steps.add(step("probe", StepMessage.of(StepTemplate.HASH_PROBE, slot, t.keys[slot], sd),
+                        false, home, slot));
+            }
+            slot = (slot + 1) & t.mask;
+            d++;
+        }
+    }
+
+    // ========== 删除 ==========
+
+    // 返回 false 表示键不存在
+    public boolean remove(int key) {
+        return delete(key, null);
+    }
+
+    public List<HashStep> removeWithSteps(int key) {
+        operationSteps.clear();
+        delete(key, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private boolean delete(int key, StepSink<HashStep> steps) {
+        if (oldTable != null) {
+            migrate(steps);
+        }
+        int h = hash(key);
+        int slot = find(table, key, h, steps, false);
+        if (slot >= 0) {
+            removeAt(table, slot, steps);
+            size--;
+        } else if (oldTable != null && (slot = find(oldTable, key, h, steps, true)) >= 0) {
+            removeFromOld(slot);
+        } else {
+            return false;
+        }
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.HASH_DELETE_COMPLETE, key, size),
+                    false, -1, -1));
+        }
+        return true;
+    }
+
+    // 删除当前表的槽位，不留墓碑。Robin Hood：后面探测距离大于 0 的条目依次前移一格，
+    // 直到空槽或已在自己哈希槽位上的条目；线性探测的条目不按距离有序，要一直扫到空槽，
+    // 把哈希槽位不在 (空位, 当前位置] 之间的条目挪进空位（Knuth 算法 R）
+    private void removeAt(Table t, int slot, StepSink<HashStep> steps) {
+        if (steps != null) {
+            steps.add(step("delete", StepMessage.of(StepTemplate.HASH_DELETE, t.keys[slot], slot), false, -1, slot));
+        }
+        int hole = slot;
+        int next = (slot + 1) & t.mask;
+        while (true) {
+            int nd = t.dist[next];
+            if (nd == EMPTY || probing == Probing.ROBIN_HOOD && nd == 0) {
+                break;
+            }
+            int distanceToHole = (next - hole) & t.mask;
+            if (nd >= distanceToHole) {
+                t.keys[hole] = t.keys[next];
+                t.values[hole] = t.values[next];
+                t.dist[hole] = nd - distanceToHole;
+                t.dist[next] = EMPTY;
+                if (steps != null) {
+                    steps.add(step("shift", StepMessage.of(StepTemplate.HASH_SHIFT, t.keys[hole], next, hole),
+                            false, -1, hole));
+                }
+                hole = next;
+            }
+            next = (next + 1) & t.mask;
+        }
+        t.dist[hole] = EMPTY;
+        t.count--;
+    }
+
+    private void removeFromOld(int slot) {
+        oldTable.dist[slot] = MOVED;
+        oldTable.count--;
+        size--;
+        if (oldTable.count == 0) {
+            oldTable = null;
+        }
+    }
+
+    public void clear() {
+        table = new Table(MIN_CAPACITY);
+        oldTable = null;
+        migrateIndex = 0;
+        size = 0;
+        operationSteps.clear();
+    }
+
+    // ========== 渐进扩容 ==========
+
+    private int threshold(int capacity) {
+        return (int) (capacity * maxLoad);
+    }
+
+    private void startResize(StepSink<HashStep> steps) {
+        // 上一次迁移还没完成（只删不插时可能发生）：先一次迁完
+        while (oldTable != null) {
+            migrate(null);
+        }
+        int capacity = table.capacity() * 2;
+        if (steps != null) {
+            steps.add(step("resize", StepMessage.of(StepTemplate.HASH_RESIZE,
+                    Math.round(100.0 * maxLoad), capacity, table.count), false, -1, -1));
+        }
+        oldTable = table;
+        table = new Table(capacity);
+        migrateIndex = 0;
+        resizes++;
+        if (oldTable.count == 0) {
+            oldTable = null;
+        }
+    }
+
+    // 迁移旧表中接下来的 MIGRATE_SLOTS 个槽位
+    private void migrate(StepSink<HashStep> steps) {
+        Table old = oldTable;
+        int end = Math.min(migrateIndex + MIGRATE_SLOTS, old.capacity());
+        for (int i = migrateIndex; i < end; i++) {
+            if (old.dist[i] >= 0) {
+                int key = old.keys[i];
+                int home = hash(key) & table.mask;
+                old.dist[i] = MOVED;
+                old.count--;
+                int slot = insertFrom(table, home, 0, key, old.values[i], home, null);
+                if (steps != null) {
+                    steps.add(step("migrate", StepMessage.of(StepTemplate.HASH_MIGRATE, i, key, slot),
+                            false, home, slot));
+                }
+            }
+        }
+        migrateIndex = end;
+        if (migrateIndex == old.capacity() || old.count == 0) {
+            oldTable = null;
+        }
+    }
+
+    public boolean isMigrating() {
+        return oldTable != null;
+    }
+
+    // ========== 状态 ==========
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    public Probing getProbing() {
+        return probing;
+    }
+
+    public double getMaxLoad() {
+        return maxLoad;
+    }
+
+    public double loadFactor() {
+        return (double) table.count / table.capacity();
+    }
+
+    public int getResizes() {
+        return resizes;
+    }
+
+    // 所有键（顺序为表中的顺序）
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = collect(table, result, 0);
+        if (oldTable != null) {
+            collect(oldTable, result, n);
+        }
+        return result;
+    }
+
+    private static int collect(Table t, int[] result, int n) {
+        for (int i = 0; i < t.capacity(); i++) {
+            if (t.dist[i] >= 0) {
+                result[n++] = t.keys[i];
+            }
+        }
+        return n;
+    }
+
+    // ========== 统计 ==========
+
+    // 探测长度直方图：第 i 个桶为查找时需要探测 i + 1 个槽位的键数（命中），最后一个桶包含更长的探测
+    public int[] probeLengthHistogram() {
+        int[] histogram = new int[HISTOGRAM_BUCKETS];
+        countProbes(table, histogram);
+        if (oldTable != null) {
+            countProbes(oldTable, histogram);
+        }
+        return histogram;
+    }
+
+    private static void countProbes(Table t, int[] histogram) {
+        for (int d : t.dist) {
+            if (d >= 0) {
+                histogram[Math.min(d, histogram.length - 1)]++;
+            }
+        }
+    }
+
+    public int maxProbeLength() {
+        int max = 0;
+        for (Table t : new Table[]{table, oldTable}) {
+            if (t != null) {
+                for (int d : t.dist) {
+                    max = Math.max(max, d + 1);
+                }
+            }
+        }
+        return max;
+    }
+
+    // 把当前表等分成 segments 段，每段的装载因子；线性探测的聚集会表现为相邻几段明显偏高
+    public double[] segmentLoads(int segments) {
+        int capacity = table.capacity();
+        segments = Math.max(1, Math.min(segments, capacity));
+        double[] loads = new double[segments];
+        int[] totals = new int[segments];
+        for (int i = 0; i < capacity; i++) {
+            int segment = (int) ((long) i * segments / capacity);
+            totals[segment]++;
+            if (table.dist[i] >= 0) {
+                loads[segment]++;
+            }
+        }
+        for (int s = 0; s < segments; s++) {
+            loads[s] /= totals[s];
+        }
+        return loads;
+    }
+
+    // 统计输出：容量与装载因子、迁移进度、探测长度直方图和分段装载因子直方图
+    public String getStatistics() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s, 大小: %d, 容量: %d, 装载因子: %.2f (上限 %.2f), 扩容次数: %d%n",
+                probing == Probing.LINEAR ? "线性探测" : "Robin Hood", size, table.capacity(),
+                loadFactor(), maxLoad, resizes));
+        if (oldTable != null) {
+            sb.append(String.format("迁移中: 旧表容量 %d, 剩余 %d 个键, 已扫描 %d/%d 个槽位%n",
+                    oldTable.capacity(), oldTable.count, migrateIndex, oldTable.capacity()));
+        }
+
+        int[] histogram = probeLengthHistogram();
+        long total = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            total += (long) histogram[i] * (i + 1);
+        }
+        sb.append(String.format("探测长度: 平均 %.2f, 最长 %d%n",
+                size == 0 ? 0.0 : (double) total / size, maxProbeLength()));
+        for (int i = 0; i < histogram.length; i++) {
+            String label = i == histogram.length - 1 ? "≥" + (i + 1) : String.valueOf(i + 1);
+            sb.append(String.format("  %3s | %-30s %d%n", label, bar(histogram[i], size), histogram[i]));
+        }
+
+        double[] loads = segmentLoads(HISTOGRAM_BUCKETS * 2);
+        sb.append("分段装载因子:").append(System.lineSeparator());
+        int segmentSize = table.capacity() / loads.length;
+        for (int s = 0; s < loads.length; s++) {
+            sb.append(String.format("  %6d | %-30s %.2f%n", s * segmentSize,
+                    bar((int) Math.round(loads[s] * 1000), 1000), loads[s]));
+        }
+        return sb.toString();
+    }
+
+    private static String bar(int count, int total) {
+        int width = total == 0 ? 0 : (int) Math.round(30.0 * count / total);
+        StringBuilder sb = new StringBuilder(width);
+        for (int i = 0; i < width; i++) {
+            sb.append('█');
+        }
+        return sb.toString();
+    }
+
+    // ========== 步骤 ==========
+
+    private HashStep step(String type, StepMessage message, boolean old, int home, int slot) {
+        int[] oldKeys = oldTable == null ? null : Arrays.copyOf(oldTable.keys, oldTable.capacity());
+        int[] oldDist = oldTable == null ? null : Arrays.copyOf(oldTable.dist, oldTable.capacity());
+        return new HashStep(type, message, Arrays.copyOf(table.keys, table.capacity()),
+                Arrays.copyOf(table.dist, table.capacity()), oldKeys, oldDist, old, home, slot);
+    }
+
+    // 当前状态的快照，用于不带演示时绘制整张表
+    public HashStep snapshot() {
+        return step("state", StepMessage.of(StepTemplate.HASH_STATE, size, table.capacity(),
+                Math.round(100.0 * loadFactor())), false, -1, -1);
+    }
+
+    public List<HashStep> getOperationSteps() {
+        return new ArrayList<>(operationSteps);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        appendEntries(table, sb);
+        if (oldTable != null) {
+            appendEntries(oldTable, sb);
+        }
+        return sb.append("}").toString();
+    }
+
+    private static void appendEntries(Table t, StringBuilder sb) {
+        for (int i = 0; i < t.capacity(); i++) {
+            if (t.dist[i] >= 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(t.keys[i]).append('=').append(t.values[i]);
+            }
+        }
+    }
+}
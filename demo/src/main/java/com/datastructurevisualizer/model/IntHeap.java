@@ -0,0 +1,492 @@
+package com.datastructurevisualizer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// 基本类型的 d 叉最小堆：键和元素编号放在两个平行的 int 数组里，按完全 d 叉树的层序排列，
+// 位置 i 的父节点是 (i - 1) / d，子节点是 d * i + 1 ~ d * i + d，不为每个元素创建节点对象。
+// 每个元素插入时得到一个编号，positions[编号] 记录它当前在堆中的位置，decreaseKey 因此不用查找。
+// 取出的元素的编号放进空闲链表，之后插入的元素优先复用，positions 的长度只随堆的最大规模增长，
+// 不随累计插入次数增长；因此元素取出后不应再使用它的编号。
+// 上浮、下沉时被移动的元素先拿在手里，只把经过的父/子元素挪一格，最后放一次，省去一半的写入
+public class IntHeap {
+    public static final int DEFAULT_ARITY = 2;
+    public static final int MAX_ARITY = 16;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int arity;
+    private int[] keys;
+    private int[] ids;          // 与 keys 同位置的元素编号
+    private int[] positions;    // 编号 → 堆中位置；空闲编号为负数，-2 - positions[编号] 是下一个空闲编号
+    private int size;
+    private int nextId;         // 从未分配过的最小编号
+    private int freeId = -1;    // 空闲链表的头，-1 表示没有
+    private List<HeapStep> operationSteps;
+
+    // 可序列化堆数据：按堆中顺序保存键和编号，加载时直接恢复，不重新建堆
+    public static class HeapData implements Serializable {
+        private static final long serialVersionUID = 1L;
+        public int arity;
+        public int[] keys;
+        public int[] ids;
+        public int nextId;
+
+        public HeapData(IntHeap heap) {
+            this.arity = heap.arity;
+            this.keys = Arrays.copyOf(heap.keys, heap.size);
+            this.ids = Arrays.copyOf(heap.ids, heap.size);
+            this.nextId = heap.nextId;
+        }
+    }
+
+    public static class HeapStep {
+        public String type; // "insert", "compare", "move", "remove_top", "decrease_key", "heapify", "complete"
+        public StepMessage message;
+        public int[] keys;      // 这一步之后堆中的键（按位置）
+        public int arity;
+        public int current;     // 正在移动的元素所在位置，-1 表示没有
+        public int other;       // 与之比较的父/子位置，-1 表示没有
+
+        public HeapStep(String type, StepMessage message, int[] keys, int arity, int current, int other) {
+            this.type = type;
+            this.message = message;
+            this.keys = keys;
+            this.arity = arity;
+            this.current = current;
+            this.other = other;
+        }
+
+        public String getDescription() {
+            return message.render();
+        }
+    }
+
+    public IntHeap() {
+        this(DEFAULT_ARITY);
+    }
+
+    public IntHeap(int arity) {
+        if (arity < 2 || arity > MAX_ARITY) {
+            throw new IllegalArgumentException("堆的叉数必须在 2 到 " + MAX_ARITY + " 之间: " + arity);
+        }
+        this.arity = arity;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.ids = new int[INITIAL_CAPACITY];
+        this.positions = new int[INITIAL_CAPACITY];
+        this.operationSteps = new ArrayList<>();
+    }
+
+    // ========== 存档 ==========
+
+    public HeapData getSerializableData() {
+        return new HeapData(this);
+    }
+
+    // 反序列化方法：数据不满足堆序（或编号损坏）时按键重新建堆
+    public static IntHeap fromSerializableData(HeapData data) {
+        if (data == null || data.keys == null) {
+            return new IntHeap();
+        }
+        IntHeap heap = new IntHeap(data.arity);
+        int n = data.keys.length;
+        heap.ensureCapacity(n);
+        System.arraycopy(data.keys, 0, heap.keys, 0, n);
+        heap.size = n;
+        boolean valid = data.ids != null && data.ids.length == n && data.nextId >= n;
+        if (valid) {
+            heap.ensureIdCapacity(data.nextId);
+            Arrays.fill(heap.positions, 0, data.nextId, -1);
+            for (int i = 0; i < n && valid; i++) {
+                int id = data.ids[i];
+                valid = id >= 0 && id < data.nextId && heap.positions[id] < 0;
+                if (valid) {
+                    heap.ids[i] = id;
+                    heap.positions[id] = i;
+                }
+            }
+            heap.nextId = data.nextId;
+            // 存档中不在堆里的编号放回空闲链表，小编号先复用
+            for (int id = data.nextId - 1; id >= 0 && valid; id--) {
+                if (heap.positions[id] < 0) {
+                    heap.releaseId(id);
+                }
+            }
+        }
+        if (!valid || !heap.isHeapOrdered()) {
+            heap.heapify(Arrays.copyOf(data.keys, n));
+        }
+        return heap;
+    }
+
+    public TreeArchiveManager.TreeArchiveData saveToArchive(String description) {
+        return new TreeArchiveManager.TreeArchiveData("heap", this.getSerializableData(), description);
+    }
+
+    public static IntHeap loadFromArchive(TreeArchiveManager.TreeArchiveData archiveData) {
+        if (archiveData != null && archiveData.data instanceof HeapData) {
+            return fromSerializableData((HeapData) archiveData.data);
+        }
+        return new IntHeap();
+    }
+
+    // ========== 插入 ==========
+
+    // 返回新元素的编号，之后可以用它 decreaseKey
+    public int insert(int key) {
+        return produceInsertSteps(key, null);
+    }
+
+    public List<HeapStep> insertWithSteps(int key) {
+        operationSteps.clear();
+        produceInsertSteps(key, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    // steps 为 null 时不记录步骤，也不复制数组
+    private int produceInsertSteps(int key, StepSink<HeapStep> steps) {
+        ensureCapacity(size + 1);
+        int id = allocateId();
+        int position = size++;
+        if (steps != null) {
+            steps.add(step("insert", StepMessage.of(StepTemplate.HEAP_INSERT, key, position), position, key, -1));
+        }
+        position = siftUp(position, key, id, steps);
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.HEAP_COMPLETE, size), position, key, -1));
+        }
+        return id;
+    }
+
+    // ========== 取出堆顶 ==========
+
+    public int peek() {
+        checkNotEmpty();
+        return keys[0];
+    }
+
+    public int peekId() {
+        checkNotEmpty();
+        return ids[0];
+    }
+
+    // 取出最小的键
+    public int poll() {
+        int key = peek();
+        removeTop(null);
+        return key;
+    }
+
+    // 取出键最小的元素，返回它的编号
+    public int pollId() {
+        checkNotEmpty();
+        return removeTop(null);
+    }
+
+    public List<HeapStep> pollWithSteps() {
+        checkNotEmpty();
+        operationSteps.clear();
+        removeTop(operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private int removeTop(StepSink<HeapStep> steps) {
+        int topKey = keys[0];
+        int topId = ids[0];
+        releaseId(topId);
+        size--;
+        if (size > 0) {
+            int lastKey = keys[size];
+            int lastId = ids[size];
+            if (steps != null) {
+                steps.add(step("remove_top", StepMessage.of(StepTemplate.HEAP_REMOVE_TOP, topKey, lastKey),
+                        0, lastKey, -1));
+            }
+            int position = siftDown(0, lastKey, lastId, steps);
+            if (steps != null) {
+                steps.add(step("complete", StepMessage.of(StepTemplate.HEAP_COMPLETE, size), position, lastKey, -1));
+            }
+        } else if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.HEAP_REMOVE_LAST, topKey), -1, 0, -1));
+        }
+        return topId;
+    }
+
+    // ========== 减小键 ==========
+
+    public void decreaseKey(int id, int newKey) {
+        produceDecreaseKeySteps(id, newKey, null);
+    }
+
+    public List<HeapStep> decreaseKeyWithSteps(int id, int newKey) {
+        operationSteps.clear();
+        produceDecreaseKeySteps(id, newKey, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private void produceDecreaseKeySteps(int id, int newKey, StepSink<HeapStep> steps) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("堆中没有编号为 " + id + " 的元素");
+        }
+        int position = positions[id];
+        int oldKey = keys[position];
+        if (newKey > oldKey) {
+            throw new IllegalArgumentException("新键 " + newKey + " 大于当前键 " + oldKey);
+        }
+        if (steps != null) {
+            steps.add(step("decrease_key", StepMessage.of(StepTemplate.HEAP_DECREASE_KEY, id, oldKey, newKey),
+                    position, newKey, -1));
+        }
+        position = siftUp(position, newKey, id, steps);
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.HEAP_COMPLETE, size), position, newKey, -1));
+        }
+    }
+
+    // ========== 自底向上建堆 ==========
+
+    // 用 values 替换堆中的全部元素，编号依次为 0 ~ n-1。从最后一个非叶子位置开始逐个下沉，
+    // 越靠下的位置下沉距离越短，总比较次数为 O(n)，比逐个插入的 O(n log n) 少
+    public void heapify(int[] values) {
+        produceHeapifySteps(values, null);
+    }
+
+    public List<HeapStep> heapifyWithSteps(int[] values) {
+        operationSteps.clear();
+        produceHeapifySteps(values, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private void produceHeapifySteps(int[] values, StepSink<HeapStep> steps) {
+        int n = values.length;
+        keys = Arrays.copyOf(values, Math.max(n, INITIAL_CAPACITY));
+        ids = new int[keys.length];
+        positions = new int[keys.length];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            positions[i] = i;
+        }
+        size = n;
+        nextId = n;
+        freeId = -1;
+
+        int lastParent = n > 1 ? (n - 2) / arity : -1;
+        if (steps != null) {
+            steps.add(step("heapify", StepMessage.of(StepTemplate.HEAP_HEAPIFY_START, n, Math.max(lastParent, 0)),
+                    -1, 0, -1));
+        }
+        for (int i = lastParent; i >= 0; i--) {
+            if (steps != null) {
+                steps.add(step("heapify", StepMessage.of(StepTemplate.HEAP_HEAPIFY_NODE, i, keys[i]), i, keys[i], -1));
+            }
+            siftDown(i, keys[i], ids[i], steps);
+        }
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.HEAP_COMPLETE, size), -1, 0, -1));
+        }
+    }
+
+    // ========== 上浮与下沉 ==========
+
+    // 把 (key, id) 从 position 向上移到合适的位置，返回最终位置
+    private int siftUp(int position, int key, int id, StepSink<HeapStep> steps) {
+        while (position > 0) {
+            int parent = (position - 1) / arity;
+            int parentKey = keys[parent];
+            if (key >= parentKey) {
+                if (steps != null) {
+                    steps.add(step("compare", StepMessage.of(StepTemplate.HEAP_SIFT_UP_DONE, key, parentKey),
+                            position, key, parent));
+                }
+                break;
+            }
+            keys[position] = parentKey;
+            ids[position] = ids[parent];
+            positions[ids[position]] = position;
+            if (steps != null) {
+                steps.add(step("move", StepMessage.of(StepTemplate.HEAP_SIFT_UP, key, parentKey),
+                        parent, key, position));
+            }
+            position = parent;
+        }
+        keys[position] = key;
+        ids[position] = id;
+        positions[id] = position;
+        return position;
+    }
+
+    // 把 (key, id) 从 position 向下移到合适的位置，每层与 d 个子节点中最小的比较，返回最终位置
+    private int siftDown(int position, int key, int id, StepSink<HeapStep> steps) {
+        while (true) {
+            int first = arity * position + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int min = first;
+            for (int child = first + 1; child < last; child++) {
+                if (keys[child] < keys[min]) {
+                    min = child;
+                }
+            }
+            int childKey = keys[min];
+            if (key <= childKey) {
+                if (steps != null) {
+                    steps.add(step("compare", StepMessage.of(StepTemplate.HEAP_SIFT_DOWN_DONE, key, childKey),
+                            position, key, min));
+                }
+                break;
+            }
+            keys[position] = childKey;
+            ids[position] = ids[min];
+            positions[ids[position]] = position;
+            if (steps != null) {
+                steps.add(step("move", StepMessage.of(StepTemplate.HEAP_SIFT_DOWN, key, childKey),
+                        min, key, position));
+            }
+            position = min;
+        }
+        keys[position] = key;
+        ids[position] = id;
+        positions[id] = position;
+        return position;
+    }
+
+    // 步骤快照：被移动的元素还拿在手里，快照中把它放在 current 位置
+    private HeapStep step(String type, StepMessage message, int current, int movingKey, int other) {
+        int[] snapshot = Arrays.copyOf(keys, size);
+        if (current >= 0 && current < size) {
+            snapshot[current] = movingKey;
+        }
+        return new HeapStep(type, message, snapshot, arity, current, other);
+    }
+
+    // ========== 容量 ==========
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, keys.length + (keys.length >> 1));
+            keys = Arrays.copyOf(keys, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+        }
+    }
+
+    private void ensureIdCapacity(int capacity) {
+        if (capacity > positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(capacity, positions.length + (positions.length >> 1)));
+        }
+    }
+
+    // ========== 编号分配 ==========
+
+    private int allocateId() {
+        if (freeId >= 0) {
+            int id = freeId;
+            freeId = -2 - positions[id];
+            return id;
+        }
+        ensureIdCapacity(nextId + 1);
+        return nextId++;
+    }
+
+    private void releaseId(int id) {
+        positions[id] = -2 - freeId;
+        freeId = id;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("堆为空");
+        }
+    }
+
+    // ========== 查询 ==========
+
+    public boolean contains(int id) {
+        return id >= 0 && id < nextId && positions[id] >= 0;
+    }
+
+    public int keyOf(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("堆中没有编号为 " + id + " 的元素");
+        }
+        return keys[positions[id]];
+    }
+
+    // 位置 position 上元素的编号
+    public int idAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+        }
+        return ids[position];
+    }
+
+    public boolean isHeapOrdered() {
+        for (int i = 1; i < size; i++) {
+            if (keys[i] < keys[(i - 1) / arity]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 按堆中位置排列的键
+    public int[] toArray() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    // 下一次插入将分配的编号
+    public int getNextId() {
+        return freeId >= 0 ? freeId : nextId;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 树的高度（层数），空堆为 0
+    public int height() {
+        int height = 0;
+        long levelEnd = 0;
+        long levelSize = 1;
+        while (levelEnd < size) {
+            levelEnd += levelSize;
+            levelSize *= arity;
+            height++;
+        }
+        return height;
+    }
+
+    public void clear() {
+        size = 0;
+        nextId = 0;
+        freeId = -1;
+        keys = new int[INITIAL_CAPACITY];
+        ids = new int[INITIAL_CAPACITY];
+        positions = new int[INITIAL_CAPACITY];
+    }
+
+    public List<HeapStep> getOperationSteps() {
+        return new ArrayList<>(operationSteps);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(keys[i]);
+        }
+        return sb.append("]").toString();
+    }
+}
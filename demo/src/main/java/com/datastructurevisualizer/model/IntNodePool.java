@@ -0,0 +1,116 @@
+package com.datastructurevisualizer.model;
+
+import java.util.Arrays;
+
+// 结构数组形式的二叉树节点池：值、左右子节点和高度分别存放在 int[] 中，
+// 节点用下标（句柄）表示，释放的槽位通过空闲链表复用
+public class IntNodePool {
+    // 空句柄，相当于 null
+    public static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values;
+    private int[] lefts;
+    private int[] rights;
+    private int[] heights;
+    private int highWaterMark;   // 从未分配过的第一个槽位
+    private int freeHead = NIL;  // 空闲链表头，链表借用 lefts 数组串联
+    private int liveCount;
+
+    public IntNodePool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntNodePool(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        values = new int[capacity];
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        heights = new int[capacity];
+    }
+
+    // 分配一个叶子节点，优先复用空闲槽位
+    public int allocate(int value) {
+        int handle;
+        if (freeHead != NIL) {
+            handle = freeHead;
+            freeHead = lefts[handle];
+        } else {
+            if (highWaterMark == values.length) {
+                grow();
+            }
+            handle = highWaterMark++;
+        }
+        values[handle] = value;
+        lefts[handle] = NIL;
+        rights[handle] = NIL;
+        heights[handle] = 1;
+        liveCount++;
+        return handle;
+    }
+
+    // 释放节点，槽位进入空闲链表（高度置0作为已释放标记）
+    public void free(int handle) {
+        checkLive(handle);
+        lefts[handle] = freeHead;
+        rights[handle] = NIL;
+        heights[handle] = 0;
+        freeHead = handle;
+        liveCount--;
+    }
+
+    public void clear() {
+        highWaterMark = 0;
+        freeHead = NIL;
+        liveCount = 0;
+    }
+
+    // 按1.5倍扩容，摊销 O(1)
+    private void grow() {
+        int newCapacity = values.length + (values.length >> 1) + 1;
+        values = Arrays.copyOf(values, newCapacity);
+        lefts = Arrays.copyOf(lefts, newCapacity);
+        rights = Arrays.copyOf(rights, newCapacity);
+        heights = Arrays.copyOf(heights, newCapacity);
+    }
+
+    private void checkLive(int handle) {
+        if (handle < 0 || handle >= highWaterMark || heights[handle] == 0) {
+            throw new IllegalArgumentException("无效的节点句柄: " + handle);
+        }
+    }
+
+    // ========== 句柄访问 ==========
+
+    public int value(int handle) { return values[handle]; }
+    public void setValue(int handle, int value) { values[handle] = value; }
+    public int left(int handle) { return lefts[handle]; }
+    public void setLeft(int handle, int child) { lefts[handle] = child; }
+    public int right(int handle) { return rights[handle]; }
+    public void setRight(int handle, int child) { rights[handle] = child; }
+    public int height(int handle) { return handle == NIL ? 0 : heights[handle]; }
+    public void setHeight(int handle, int height) { heights[handle] = height; }
+
+    public boolean isLeaf(int handle) {
+        return lefts[handle] == NIL && rights[handle] == NIL;
+    }
+
+    // ========== 统计信息 ==========
+
+    public int size() {
+        return liveCount;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public int freeSlots() {
+        return highWaterMark - liveCount;
+    }
+
+    // 节点数组占用的字节数（每个槽位4个int）
+    public long memoryBytes() {
+        return 16L * values.length;
+    }
+}
@@ -0,0 +1,12 @@
+package com.datastructurevisualizer.model;
+
+import java.util.List;
+
+// 可以记录操作日志的数据结构：OperationJournal 监听 changes() 的事件，把每次修改追加为一条记录；
+// 重新打开存档时把快照之后的记录交给 replay，重放结果必须与原来的修改完全一致（树结构包括树形）
+public interface Journaled<N> {
+    ChangeSupport<N> changes();
+
+    // 按顺序重放日志中的操作。线性结构按位置（栈顶位置的插入/删除即入栈/出栈），树按值
+    void replay(List<BatchOp> ops);
+}
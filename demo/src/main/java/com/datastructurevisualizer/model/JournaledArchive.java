@@ -0,0 +1,195 @@
+package com.datastructurevisualizer.model;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 一类存档文件（按扩展名区分）的快照与操作日志管理，ArchiveManager 和 TreeArchiveManager 共用：
+// 快照先写临时文件再原子替换，快照之后的修改由 OperationJournal 追加到 <存档>.log。
+// 同一个存档同一时间只有一个日志在写；保存、加载日志和日志失效时的改写快照都在本对象的锁下进行
+public final class JournaledArchive<D extends JournaledArchive.Snapshot> {
+    private static final String SAVE_DIRECTORY = "saves";
+    private static final String JOURNAL_EXTENSION = ".log";
+
+    // 快照中与日志有关的内容：时间戳写在日志文件头，用来判断日志属于哪个快照
+    public interface Snapshot extends Serializable {
+        String getDescription();
+        long getTimestamp();
+        void setTimestamp(long timestamp);
+    }
+
+    // 加载存档的结果：日志重放失败时 structure 是只由快照恢复的新对象，replayed 为 -1
+    public static final class Resumed<S> {
+        public final S structure;
+        public final int replayed;
+
+        private Resumed(S structure, int replayed) {
+            this.structure = structure;
+            this.replayed = replayed;
+        }
+    }
+
+    private final String extension;
+    private final Class<D> type;
+    private final Map<String, OperationJournal<?>> journals = new HashMap<>();
+
+    JournaledArchive(String extension, Class<D> type) {
+        this.extension = extension;
+        this.type = type;
+    }
+
+    // 创建保存目录
+    private static void ensureSaveDirectory() {
+        File directory = new File(SAVE_DIRECTORY);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+
+    // 保存完整快照，不记录之后的修改
+    synchronized boolean save(D archiveData, String filename) {
+        closeJournal(filename);
+        try {
+            ensureSaveDirectory();
+            writeSnapshot(archiveData, filename);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // 增量保存：structure 就是上次保存或加载到这个存档的数据结构时，之后的修改已经逐条追加在日志里，
+    // 这里只需 fsync 尚未落盘的记录。首次保存、换了数据结构或描述、出现日志无法表示的修改、
+    // 日志过长需要压缩时，才调用 snapshot 生成完整快照写入，并从空日志重新开始记录
+    synchronized <N> boolean save(Journaled<N> structure, String filename, String description,
+                                  Function<String, D> snapshot) {
+        OperationJournal<?> journal = journals.get(filename);
+        try {
+            if (journal != null && journal.canCommit(structure, description)) {
+                journal.commit();
+                return true;
+            }
+            D archiveData = snapshot.apply(description);
+            closeJournal(filename);
+            // 新快照的时间戳必须与旧日志不同，否则写完快照、清空日志之前崩溃会重复重放
+            if (journal != null && archiveData.getTimestamp() <= journal.getSnapshotStamp()) {
+                archiveData.setTimestamp(journal.getSnapshotStamp() + 1);
+            }
+            ensureSaveDirectory();
+            writeSnapshot(archiveData, filename);
+            journals.put(filename, OperationJournal.create(journalFile(filename), structure, description,
+                    archiveData.getTimestamp(), snapshotWriter(structure, filename, description, snapshot)));
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeJournal(filename);
+            return false;
+        }
+    }
+
+    // 先写临时文件并 fsync，再原子替换，崩溃时旧快照仍然完整
+    private void writeSnapshot(D archiveData, String filename) throws IOException {
+        File file = new File(SAVE_DIRECTORY, filename + extension);
+        File temp = new File(SAVE_DIRECTORY, filename + extension + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fos))) {
+            oos.writeObject(archiveData);
+            oos.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    D load(String filename) {
+        try {
+            File file = new File(SAVE_DIRECTORY, filename + extension);
+            if (!file.exists()) {
+                return null;
+            }
+
+            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+                return type.cast(ois.readObject());
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // 由 restore 从快照恢复出新的数据结构，把日志中快照之后的记录重放上去，之后的修改继续追加到日志。
+    // 重放到一半失败时这个对象只应用了部分记录，直接丢弃，改用 restore 重新恢复的快照；
+    // 此时不打开日志，下次保存会重写完整快照
+    synchronized <N, S extends Journaled<N>> Resumed<S> resume(String filename, D archiveData, Supplier<S> restore,
+                                                               BiFunction<S, String, D> snapshot) {
+        closeJournal(filename);
+        S structure = restore.get();
+        String description = archiveData.getDescription();
+        try {
+            OperationJournal<N> journal = OperationJournal.resume(journalFile(filename), structure, description,
+                    archiveData.getTimestamp(), snapshotWriter(structure, filename, description,
+                            target -> snapshot.apply(structure, target)));
+            journals.put(filename, journal);
+            return new Resumed<S>(structure, journal.getReplayed());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new Resumed<S>(restore.get(), -1);
+        }
+    }
+
+    // 日志失效（批量操作等无法逐条记录的修改）时立即改写快照，崩溃也不会丢失这些修改
+    private <N> Runnable snapshotWriter(Journaled<N> structure, String filename, String description,
+                                        Function<String, D> snapshot) {
+        return () -> {
+            synchronized (this) {
+                OperationJournal<?> current = journals.get(filename);
+                if (current != null && current.isAttachedTo(structure)) {
+                    save(structure, filename, description, snapshot);
+                }
+            }
+        };
+    }
+
+    private void closeJournal(String filename) {
+        OperationJournal<?> journal = journals.remove(filename);
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private File journalFile(String filename) {
+        return new File(SAVE_DIRECTORY, filename + extension + JOURNAL_EXTENSION);
+    }
+
+    List<String> list() {
+        List<String> files = new ArrayList<>();
+        ensureSaveDirectory();
+
+        File directory = new File(SAVE_DIRECTORY);
+        File[] savedFiles = directory.listFiles((dir, name) -> name.endsWith(extension));
+
+        if (savedFiles != null) {
+            for (File file : savedFiles) {
+                String filename = file.getName();
+                filename = filename.substring(0, filename.length() - extension.length());
+                files.add(filename);
+            }
+        }
+
+        return files;
+    }
+
+    synchronized boolean delete(String filename) {
+        closeJournal(filename);
+        journalFile(filename).delete();
+        File file = new File(SAVE_DIRECTORY, filename + extension);
+        return file.exists() && file.delete();
+    }
+}
@@ -3,11 +3,35 @@ package com.datastructurevisualizer.model;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class LinkedList {
+public class LinkedList implements Journaled<Void> {
     private Node head;
+    private Node tail;
     private int size;
     private List<OperationStep> operationSteps;
+    private ChangeSupport<Void> changes;
+
+    // 可索引跳表：部分节点带检查点，每层记录到下一个检查点跨越的节点数，
+    // 按位置定位时先在检查点上跳跃，最后在链表上走几步，期望 O(log n)
+    private static final int MAX_LEVEL = 16;
+    private final boolean indexed;
+    private Checkpoint sentinel;              // 位于位置 -1 的哨兵检查点
+    private Checkpoint[] lastCheckpoints;     // 每层最后一个检查点，尾部追加时直接使用
+    private final Checkpoint[] update = new Checkpoint[MAX_LEVEL];
+    private final int[] updatePositions = new int[MAX_LEVEL];
+
+    private static final class Checkpoint {
+        final Node node;
+        final Checkpoint[] next;
+        final int[] span;   // 到下一检查点的位置差，没有下一检查点时为到链表末尾(size)的距离
+
+        Checkpoint(Node node, int height) {
+            this.node = node;
+            this.next = new Checkpoint[height];
+            this.span = new int[height];
+        }
+    }
 
     public class Node {
         public int data;
@@ -68,9 +92,17 @@ public class LinkedList {
     }
 
     public LinkedList() {
+        this(true);
+    }
+
+    // indexed 为 false 时退化为普通单链表（仍保留尾指针）
+    public LinkedList(boolean indexed) {
         head = null;
+        tail = null;
         size = 0;
         operationSteps = new ArrayList<>();
+        this.indexed = indexed;
+        resetIndex();
     }
 
     public static class SerializableNode implements Serializable {
@@ -92,18 +124,17 @@ public class LinkedList {
 
         public LinkedListSerializable(LinkedList list) {
             this.size = list.size;
-            if (list.head != null) {
-                this.head = convertToSerializable(list.head);
+            SerializableNode last = null;
+            for (Node node = list.head; node != null; node = node.next) {
+                SerializableNode serialNode = new SerializableNode(node);
+                if (last == null) {
+                    this.head = serialNode;
+                } else {
+                    last.next = serialNode;
+                }
+                last = serialNode;
             }
         }
-
-        private SerializableNode convertToSerializable(Node node) {
-            if (node == null) return null;
-
-            SerializableNode serialNode = new SerializableNode(node);
-            serialNode.next = convertToSerializable(node.next);
-            return serialNode;
-        }
     }
 
     // 序列化方法
@@ -115,21 +146,14 @@ public class LinkedList {
     public static LinkedList fromSerializable(LinkedListSerializable serializable) {
         LinkedList list = new LinkedList();
         if (serializable != null) {
-            list.size = serializable.size;
-            list.head = convertFromSerializable(serializable.head);
+            // 逐个追加到尾部，同时重建尾指针和检查点索引
+            for (SerializableNode serialNode = serializable.head; serialNode != null; serialNode = serialNode.next) {
+                list.insert(serialNode.data, list.size);
+            }
         }
         return list;
     }
 
-    private static Node convertFromSerializable(SerializableNode serialNode) {
-        if (serialNode == null) return null;
-
-        LinkedList list = new LinkedList(); // 创建临时实例来创建Node
-        Node node = list.new Node(serialNode.data); // 使用临时实例创建内部类实例
-        node.next = convertFromSerializable(serialNode.next);
-        return node;
-    }
-
     // 存档管理方法
     public ArchiveManager.ArchiveData saveToArchive(String description) {
         return new ArchiveManager.ArchiveData("linkedlist", this.toSerializable(), description);
@@ -150,18 +174,62 @@ public class LinkedList {
             throw new IndexOutOfBoundsException("Invalid position: " + position);
         }
 
+        linkAt(data, position);
+        if (changes != null) {
+            int shifted = size - 1 - position;
+            changes.batch(() -> {
+                if (shifted > 0) {
+                    changes.fire(ChangeEvent.<Void>shifted(position, shifted, 1));
+                }
+                changes.fire(ChangeEvent.<Void>inserted(position, 1, data));
+            });
+        }
+    }
+
+    private void linkAt(int data, int position) {
         Node newNode = new Node(data);
 
-        if (position == 0) {
+        // 尾部追加：直接使用尾指针和每层最后的检查点，O(1)
+        if (position == size && tail != null) {
+            tail.next = newNode;
+            tail = newNode;
+            if (indexed) {
+                appendToIndex(newNode);
+            }
+            size++;
+            return;
+        }
+
+        Node previous = indexed ? findWithUpdate(position - 1) : walkTo(position - 1);
+        if (previous == null) {
             newNode.next = head;
             head = newNode;
         } else {
-            Node current = head;
-            for (int i = 0; i < position - 1; i++) {
-                current = current.next;
+            newNode.next = previous.next;
+            previous.next = newNode;
+        }
+        if (newNode.next == null) {
+            tail = newNode;
+        }
+
+        if (indexed) {
+            int height = randomLevel();
+            Checkpoint checkpoint = height > 0 ? new Checkpoint(newNode, height) : null;
+            for (int level = 0; level < MAX_LEVEL; level++) {
+                Checkpoint before = update[level];
+                if (level < height) {
+                    // 新检查点把原来的跨度一分为二（后面的检查点位置整体后移1）
+                    checkpoint.next[level] = before.next[level];
+                    checkpoint.span[level] = updatePositions[level] + before.span[level] + 1 - position;
+                    before.next[level] = checkpoint;
+                    before.span[level] = position - updatePositions[level];
+                    if (checkpoint.next[level] == null) {
+                        lastCheckpoints[level] = checkpoint;
+                    }
+                } else {
+                    before.span[level]++;
+                }
             }
-            newNode.next = current.next;
-            current.next = newNode;
         }
         size++;
     }
@@ -171,20 +239,181 @@ public class LinkedList {
             throw new IndexOutOfBoundsException("Invalid position: " + position);
         }
 
-        if (position == 0) {
-            head = head.next;
+        Node removed = unlinkAt(position);
+        if (changes != null) {
+            int shifted = size - position;
+            changes.batch(() -> {
+                changes.fire(ChangeEvent.<Void>removed(position, 1, removed.data));
+                if (shifted > 0) {
+                    changes.fire(ChangeEvent.<Void>shifted(position + 1, shifted, -1));
+                }
+            });
+        }
+    }
+
+    private Node unlinkAt(int position) {
+        Node previous = indexed ? findWithUpdate(position - 1) : walkTo(position - 1);
+        Node removed = previous == null ? head : previous.next;
+        if (previous == null) {
+            head = removed.next;
         } else {
-            Node current = head;
-            for (int i = 0; i < position - 1; i++) {
-                current = current.next;
+            previous.next = removed.next;
+        }
+        if (removed == tail) {
+            tail = previous;
+        }
+
+        if (indexed) {
+            for (int level = 0; level < MAX_LEVEL; level++) {
+                Checkpoint before = update[level];
+                Checkpoint next = before.next[level];
+                if (next != null && next.node == removed) {
+                    // 被删节点带检查点：把它的跨度并入前一个检查点
+                    before.span[level] += next.span[level] - 1;
+                    before.next[level] = next.next[level];
+                    if (lastCheckpoints[level] == next) {
+                        lastCheckpoints[level] = before;
+                    }
+                } else {
+                    before.span[level]--;
+                }
             }
-            current.next = current.next.next;
         }
         size--;
+        return removed;
+    }
+
+    // ========== 批量操作 ==========
+
+    // 按顺序执行一批插入/删除，结束后只发出一个 RESET 事件。追加走尾指针 O(1)，
+    // 其余位置借助检查点索引定位 O(log n)，逐项的事件和视图修补都省掉了。
+    // 整批先校验，任何一项越界都不会修改链表
+    public int applyBatch(List<BatchOp> ops) {
+        int expectedSize = size;
+        for (BatchOp op : ops) {
+            if (op.kind == BatchOp.Kind.INSERT) {
+                int position = op.insertIndex(expectedSize);
+                if (position < 0 || position > expectedSize) {
+                    throw new IndexOutOfBoundsException("Invalid position: " + position);
+                }
+                expectedSize++;
+            } else if (op.kind == BatchOp.Kind.DELETE) {
+                if (op.index < 0 || op.index >= expectedSize) {
+                    throw new IndexOutOfBoundsException("Invalid position: " + op.index);
+                }
+                expectedSize--;
+            } else {
+                throw new IllegalArgumentException("链表不支持的批量操作: " + op.kind);
+            }
+        }
+
+        for (BatchOp op : ops) {
+            if (op.kind == BatchOp.Kind.INSERT) {
+                linkAt(op.value, op.insertIndex(size));
+            } else {
+                unlinkAt(op.index);
+            }
+        }
+        if (!ops.isEmpty() && changes != null) {
+            changes.fire(ChangeEvent.<Void>reset());
+        }
+        return ops.size();
+    }
+
+    @Override
+    public void replay(List<BatchOp> ops) {
+        applyBatch(ops);
+    }
+
+    // 获取指定位置的节点
+    public Node get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid position: " + position);
+        }
+        if (position == size - 1) {
+            return tail;
+        }
+        return indexed ? findWithUpdate(position) : walkTo(position);
+    }
+
+    // ========== 检查点索引 ==========
+
+    private void resetIndex() {
+        if (!indexed) return;
+        sentinel = new Checkpoint(null, MAX_LEVEL);
+        lastCheckpoints = new Checkpoint[MAX_LEVEL];
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            sentinel.span[level] = size + 1;
+            lastCheckpoints[level] = sentinel;
+        }
+    }
+
+    // 从顶层向下跳跃定位 target 位置的节点（-1 返回 null），
+    // 同时在 update/updatePositions 中记录每层最后一个位置不超过 target 的检查点
+    private Node findWithUpdate(int target) {
+        Checkpoint current = sentinel;
+        int position = -1;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (current.next[level] != null && position + current.span[level] <= target) {
+                position += current.span[level];
+                current = current.next[level];
+            }
+            update[level] = current;
+            updatePositions[level] = position;
+        }
+
+        Node node = current.node;
+        while (position < target) {
+            node = node == null ? head : node.next;
+            position++;
+        }
+        return node;
+    }
+
+    // 追加节点时每层只需改最后一个检查点
+    private void appendToIndex(Node node) {
+        int height = randomLevel();
+        Checkpoint checkpoint = height > 0 ? new Checkpoint(node, height) : null;
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            Checkpoint last = lastCheckpoints[level];
+            if (level < height) {
+                // last 到链表末尾的跨度恰好等于到新节点的距离，保持不变
+                last.next[level] = checkpoint;
+                checkpoint.span[level] = 1;
+                lastCheckpoints[level] = checkpoint;
+            } else {
+                last.span[level]++;
+            }
+        }
+    }
+
+    // 每层以 1/4 的概率晋升
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt() | (1 << (2 * MAX_LEVEL - 2));
+        return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(bits) >> 1);
+    }
+
+    private Node walkTo(int position) {
+        Node current = null;
+        for (int i = 0; i <= position; i++) {
+            current = current == null ? head : current.next;
+        }
+        return current;
     }
 
     public int getSize() { return size; }
     public Node getHead() { return head; }
+    public Node getTail() { return tail; }
+    public boolean isIndexed() { return indexed; }
     public boolean isEmpty() { return size == 0; }
 
+    // 订阅插入、删除和节点位置变化
+    @Override
+    public ChangeSupport<Void> changes() {
+        if (changes == null) {
+            changes = new ChangeSupport<Void>();
+        }
+        return changes;
+    }
+
 }
@@ -0,0 +1,308 @@
+package com.datastructurevisualizer.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// 存档的追加式操作日志：保存过（或加载过）的数据结构之后的每次修改都从变更事件中提取出来，
+// 以定长二进制记录追加到 <存档>.log，再次保存时只需把尚未落盘的记录 fsync 一次。
+// 文件头记录对应快照的时间戳，快照被重写（压缩）后旧日志自动失效，不会重复重放。
+// 记录格式（16 字节）：操作类型、位置、值、前三项的 CRC32；崩溃时写了一半的尾部记录在重放时丢弃。
+// 无法用单条记录表示的修改（批量操作、清空重建等 RESET 事件）让当前日志失效，由存档管理器立即改写完整快照并换一个空日志
+public final class OperationJournal<N> implements ChangeListener<N> {
+    private static final int MAGIC = 0x44535641; // "DSVA"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 16;
+
+    // 每写入这么多条记录 fsync 一次；保存和关闭时无论多少都会 fsync
+    public static final int SYNC_BATCH = 64;
+    // 日志记录数超过该值时，下次保存改写完整快照并清空日志
+    public static final int COMPACT_THRESHOLD = 4096;
+
+    private final File file;
+    private final Journaled<N> structure;
+    private final String description;
+    private final long snapshotStamp;
+    private final int replayed;
+    private final Runnable snapshotWriter;
+    private final CRC32 crc = new CRC32();
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private long records;
+    private int unsynced;
+    private boolean snapshotRequired;
+
+    private OperationJournal(File file, Journaled<N> structure, String description, long snapshotStamp,
+                             Runnable snapshotWriter, int replayed, long records) throws IOException {
+        this.file = file;
+        this.snapshotWriter = snapshotWriter;
+        this.structure = structure;
+        this.description = description;
+        this.snapshotStamp = snapshotStamp;
+        this.replayed = replayed;
+        this.records = records;
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+    }
+
+    // 刚写完快照：清空日志，只写文件头。snapshotWriter 在日志失效时调用（可以为 null）
+    public static <N> OperationJournal<N> create(File file, Journaled<N> structure, String description,
+                                                 long snapshotStamp, Runnable snapshotWriter) throws IOException {
+        OperationJournal<N> journal = new OperationJournal<N>(file, structure, description, snapshotStamp,
+                snapshotWriter, 0, 0);
+        try {
+            journal.channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(snapshotStamp).flip();
+            journal.writeFully(header);
+            journal.channel.force(false);
+        } catch (IOException e) {
+            journal.closeQuietly();
+            throw e;
+        }
+        structure.changes().addListener(journal);
+        return journal;
+    }
+
+    // 刚从快照恢复出 structure：把日志里属于这个快照的记录重放上去，截掉不完整的尾部后继续追加。
+    // 日志不存在或属于更早的快照时等同于 create。重放失败时抛出 IOException，structure 可能只应用了部分记录，
+    // 调用方应丢弃它（JournaledArchive.resume 会重新由快照恢复）
+    public static <N> OperationJournal<N> resume(File file, Journaled<N> structure, String description,
+                                                 long snapshotStamp, Runnable snapshotWriter) throws IOException {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return create(file, structure, description, snapshotStamp, snapshotWriter);
+        }
+        ByteBuffer data;
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("日志文件过大: " + file);
+            }
+            data = ByteBuffer.allocate((int) length);
+            FileChannel readChannel = in.getChannel();
+            while (data.hasRemaining() && readChannel.read(data) >= 0) {
+                // 读满为止
+            }
+            data.flip();
+        }
+        if (data.getInt() != MAGIC || data.getInt() != VERSION || data.getLong() != snapshotStamp) {
+            return create(file, structure, description, snapshotStamp, snapshotWriter);
+        }
+
+        List<BatchOp> ops = new java.util.ArrayList<BatchOp>(data.remaining() / RECORD_SIZE);
+        CRC32 check = new CRC32();
+        BatchOp.Kind[] kinds = BatchOp.Kind.values();
+        while (data.remaining() >= RECORD_SIZE) {
+            int start = data.position();
+            int kind = data.getInt();
+            int index = data.getInt();
+            int value = data.getInt();
+            int checksum = data.getInt();
+            check.reset();
+            check.update(data.array(), start, RECORD_SIZE - 4);
+            if ((int) check.getValue() != checksum || kind < 0 || kind >= kinds.length) {
+                break;
+            }
+            ops.add(BatchOp.of(kinds[kind], value, index));
+        }
+        if (!ops.isEmpty()) {
+            try {
+                structure.replay(ops);
+            } catch (RuntimeException e) {
+                throw new IOException("日志无法重放: " + file, e);
+            }
+        }
+
+        OperationJournal<N> journal = new OperationJournal<N>(file, structure, description, snapshotStamp,
+                snapshotWriter, ops.size(), ops.size());
+        try {
+            long valid = HEADER_SIZE + (long) ops.size() * RECORD_SIZE;
+            journal.channel.truncate(valid);
+            journal.channel.position(valid);
+        } catch (IOException e) {
+            journal.closeQuietly();
+            throw e;
+        }
+        structure.changes().addListener(journal);
+        return journal;
+    }
+
+    // ========== 记录 ==========
+
+    @Override
+    public void onChanges(List<ChangeEvent<N>> events) {
+        // 在锁外写快照：写快照要拿存档管理器的锁，而保存时是先拿管理器的锁再来拿日志的锁
+        if (!append(events) && snapshotWriter != null) {
+            snapshotWriter.run();
+        }
+    }
+
+    // 返回 false 表示日志从这批事件起失效，需要改写快照
+    private synchronized boolean append(List<ChangeEvent<N>> events) {
+        if (channel == null || snapshotRequired) {
+            return true;
+        }
+        int capacity = 0;
+        for (ChangeEvent<N> event : events) {
+            capacity += event.kind == ChangeEvent.Kind.REMOVED && event.node == null ? event.count : 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(capacity * RECORD_SIZE);
+        // BST 删除有两个子节点的节点时先发出 VALUE_CHANGED（被删的值换成后继），
+        // 再发出后继节点的 REMOVED；两者合起来是一次按值删除
+        boolean successorPending = false;
+        int successor = 0;
+        boolean changed = false;
+        for (ChangeEvent<N> event : events) {
+            switch (event.kind) {
+                case INSERTED:
+                    if (event.count != 1) {
+                        snapshotRequired = true;
+                        return false;
+                    }
+                    // 线性结构按位置，树按值
+                    put(buffer, BatchOp.Kind.INSERT, event.node == null ? event.index : BatchOp.APPEND, event.value);
+                    changed = true;
+                    break;
+                case REMOVED:
+                    if (event.node == null) {
+                        // 一次删除多个（批量出栈、清空栈）记为同一位置上的多次删除
+                        for (int i = 0; i < event.count; i++) {
+                            put(buffer, BatchOp.Kind.DELETE, event.index, 0);
+                        }
+                    } else if (successorPending && event.value == successor) {
+                        successorPending = false;
+                    } else {
+                        put(buffer, BatchOp.Kind.DELETE, 0, event.value);
+                        changed = true;
+                    }
+                    break;
+                case VALUE_CHANGED:
+                    if (event.node == null) {
+                        snapshotRequired = true;
+                        return false;
+                    }
+                    put(buffer, BatchOp.Kind.DELETE, 0, event.oldValue);
+                    successorPending = true;
+                    successor = event.value;
+                    break;
+                case ROTATED:
+                    // AVL 树的旋转总是跟在同一批的按值插入或删除之后，重放时会重新发生；
+                    // 单独出现的旋转日志无法表示
+                    if (!changed) {
+                        snapshotRequired = true;
+                        return false;
+                    }
+                    break;
+                case SHIFTED:
+                    // 由插入/删除本身决定，重放时会重新发生
+                    break;
+                default:
+                    snapshotRequired = true;
+                    return false;
+            }
+        }
+        buffer.flip();
+        int added = buffer.remaining() / RECORD_SIZE;
+        try {
+            writeFully(buffer);
+            records += added;
+            unsynced += added;
+            if (unsynced >= SYNC_BATCH) {
+                channel.force(false);
+                unsynced = 0;
+            }
+            return true;
+        } catch (IOException e) {
+            // 日志已不可信
+            e.printStackTrace();
+            snapshotRequired = true;
+            return false;
+        }
+    }
+
+    private void put(ByteBuffer buffer, BatchOp.Kind kind, int index, int value) {
+        int start = buffer.position();
+        buffer.putInt(kind.ordinal()).putInt(index).putInt(value);
+        crc.reset();
+        crc.update(buffer.array(), start, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ========== 保存 ==========
+
+    // 增量保存：把尚未 fsync 的记录落盘，耗时只与上次保存以来的操作数有关
+    public synchronized void commit() throws IOException {
+        if (channel == null) {
+            throw new IOException("日志已关闭: " + file);
+        }
+        if (unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    // 同一个数据结构、同样的描述，并且日志完整可用、不需要压缩时，才能只同步日志
+    public synchronized boolean canCommit(Journaled<?> target, String targetDescription) {
+        return channel != null && structure == target && description.equals(targetDescription)
+                && !snapshotRequired && records < COMPACT_THRESHOLD;
+    }
+
+    public synchronized boolean isAttachedTo(Journaled<?> target) {
+        return channel != null && structure == target;
+    }
+
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        structure.changes().removeListener(this);
+        try {
+            if (unsynced > 0) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            raf.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        raf = null;
+        channel = null;
+    }
+
+    // ========== 状态 ==========
+
+    public long getSnapshotStamp() {
+        return snapshotStamp;
+    }
+
+    // 打开时从日志重放的操作数
+    public int getReplayed() {
+        return replayed;
+    }
+
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    public synchronized boolean isSnapshotRequired() {
+        return snapshotRequired;
+    }
+}
@@ -0,0 +1,543 @@
+package com.datastructurevisualizer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// 红黑树：节点带父指针，插入和删除后自底向上修复（染色 + 至多 2 次 / 3 次旋转），高度不超过 2log(n+1)。
+// 与 AVL 树相比平衡更宽松，插入删除的旋转更少，查找路径略长。
+// 带步骤的插入/删除每一步复制整棵树，只用于演示；insert / delete 不记录步骤
+public class RedBlackTree {
+    private RBNode root;
+    private int size;
+    private long rotations;
+    private long recolors;
+    private List<RBStep> operationSteps;
+
+    // 可序列化的红黑树数据：保存节点颜色，加载后树形与保存时完全相同
+    public static class RBTreeData implements Serializable {
+        private static final long serialVersionUID = 1L;
+        public RBNode.SerializableNode root;
+        public int size;
+
+        public RBTreeData(RedBlackTree tree) {
+            this.root = tree.root != null ? new RBNode.SerializableNode(tree.root) : null;
+            this.size = tree.size;
+        }
+    }
+
+    public static class RBNode {
+        public int value;
+        public boolean red;
+        public RBNode left;
+        public RBNode right;
+        public RBNode parent;
+
+        public static class SerializableNode implements Serializable {
+            private static final long serialVersionUID = 1L;
+            public int value;
+            public boolean red;
+            public SerializableNode left;
+            public SerializableNode right;
+
+            public SerializableNode(RBNode node) {
+                this.value = node.value;
+                this.red = node.red;
+                this.left = node.left != null ? new SerializableNode(node.left) : null;
+                this.right = node.right != null ? new SerializableNode(node.right) : null;
+            }
+        }
+
+        public RBNode(int value) {
+            this.value = value;
+            this.red = true;
+        }
+
+        @Override
+        public String toString() {
+            return value + (red ? "(红)" : "(黑)");
+        }
+    }
+
+    public static class RBStep {
+        public String type; // "insert", "recolor", "rotate", "delete", "replace", "fix", "complete", "not_found", "exists"
+        public StepMessage message;
+        public RBNode treeState;    // 这一步之后整棵树的副本
+        public RBNode currentNode;  // treeState 中正在处理的节点，可以为 null
+
+        public RBStep(String type, StepMessage message) {
+            this.type = type;
+            this.message = message;
+        }
+
+        public String getDescription() {
+            return message.render();
+        }
+    }
+
+    public RedBlackTree() {
+        operationSteps = new ArrayList<>();
+    }
+
+    // ========== 存档 ==========
+
+    public RBTreeData getSerializableData() {
+        return new RBTreeData(this);
+    }
+
+    public static RedBlackTree fromSerializableData(RBTreeData data) {
+        RedBlackTree tree = new RedBlackTree();
+        if (data != null && data.root != null) {
+            tree.root = fromSerializable(data.root, null);
+            tree.size = data.size;
+        }
+        return tree;
+    }
+
+    private static RBNode fromSerializable(RBNode.SerializableNode serialNode, RBNode parent) {
+        if (serialNode == null) return null;
+        RBNode node = new RBNode(serialNode.value);
+        node.red = serialNode.red;
+        node.parent = parent;
+        node.left = fromSerializable(serialNode.left, node);
+        node.right = fromSerializable(serialNode.right, node);
+        return node;
+    }
+
+    public TreeArchiveManager.TreeArchiveData saveToArchive(String description) {
+        return new TreeArchiveManager.TreeArchiveData("redblack", this.getSerializableData(), description);
+    }
+
+    public static RedBlackTree loadFromArchive(TreeArchiveManager.TreeArchiveData archiveData) {
+        if (archiveData != null && archiveData.data instanceof RBTreeData) {
+            return fromSerializableData((RBTreeData) archiveData.data);
+        }
+        return new RedBlackTree();
+    }
+
+    // ========== 插入 ==========
+
+    // 返回 false 表示值已存在
+    public boolean insert(int value) {
+        return insert(value, null);
+    }
+
+    public List<RBStep> insertWithSteps(int value) {
+        operationSteps.clear();
+        insert(value, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private boolean insert(int value, StepSink<RBStep> steps) {
+        RBNode parent = null;
+        RBNode current = root;
+        while (current != null) {
+            parent = current;
+            if (value < current.value) {
+                current = current.left;
+            } else if (value > current.value) {
+                current = current.right;
+            } else {
+                if (steps != null) {
+                    steps.add(step("exists", StepMessage.of(StepTemplate.RB_EXISTS, value), current));
+                }
+                return false;
+            }
+        }
+
+        RBNode node = new RBNode(value);
+        node.parent = parent;
+        if (parent == null) {
+            root = node;
+        } else if (value < parent.value) {
+            parent.left = node;
+        } else {
+            parent.right = node;
+        }
+        size++;
+        if (steps != null) {
+            steps.add(step("insert", parent == null
+                    ? StepMessage.of(StepTemplate.RB_INSERT_ROOT, value)
+                    : StepMessage.of(StepTemplate.RB_INSERT_PLACED, value, parent.value), node));
+        }
+
+        insertFixup(node, steps);
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.RB_INSERT_COMPLETE, value, size, height()), null));
+        }
+        return true;
+    }
+
+    // 新节点为红色，唯一可能被破坏的性质是"红节点的子节点为黑色"
+    private void insertFixup(RBNode node, StepSink<RBStep> steps) {
+        while (node.parent != null && node.parent.red) {
+            RBNode parent = node.parent;
+            RBNode grandparent = parent.parent;  // 父节点为红色，不是根，祖父一定存在
+            boolean parentIsLeft = parent == grandparent.left;
+            RBNode uncle = parentIsLeft ? grandparent.right : grandparent.left;
+
+            if (isRed(uncle)) {
+                // 情况1：叔节点为红色，父、叔染黑，祖父染红，问题上移两层
+                parent.red = false;
+                uncle.red = false;
+                grandparent.red = true;
+                recolors += 3;
+                if (steps != null) {
+                    steps.add(step("recolor", StepMessage.of(StepTemplate.RB_RED_UNCLE,
+                            parent.value, uncle.value, grandparent.value), grandparent));
+                }
+                node = grandparent;
+                continue;
+            }
+
+            // 情况2：node 与父节点方向相反，先绕父节点旋转成情况3
+            if (parentIsLeft ? node == parent.right : node == parent.left) {
+                if (steps != null) {
+                    steps.add(step("fix", StepMessage.of(StepTemplate.RB_INSERT_TRIANGLE,
+                            node.value, parent.value), node));
+                }
+                node = parent;
+                rotate(node, parentIsLeft, steps);
+                parent = node.parent;
+            }
+
+            // 情况3：node 与父节点同向，父节点染黑、祖父染红，绕祖父反向旋转
+            parent.red = false;
+            grandparent.red = true;
+            recolors += 2;
+            if (steps != null) {
+                steps.add(step("recolor", StepMessage.of(StepTemplate.RB_INSERT_LINE,
+                        parent.value, grandparent.value), parent));
+            }
+            rotate(grandparent, !parentIsLeft, steps);
+        }
+        if (root.red) {
+            root.red = false;
+            recolors++;
+            if (steps != null) {
+                steps.add(step("recolor", StepMessage.of(StepTemplate.RB_ROOT_BLACK, root.value), root));
+            }
+        }
+    }
+
+    // ========== 删除 ==========
+
+    // 返回 false 表示值不存在
+    public boolean delete(int value) {
+        return delete(value, null);
+    }
+
+    public List<RBStep> deleteWithSteps(int value) {
+        operationSteps.clear();
+        delete(value, operationSteps::add);
+        return new ArrayList<>(operationSteps);
+    }
+
+    private boolean delete(int value, StepSink<RBStep> steps) {
+        RBNode node = findNode(value);
+        if (node == null) {
+            if (steps != null) {
+                steps.add(step("not_found", StepMessage.of(StepTemplate.RB_NOT_FOUND, value), null));
+            }
+            return false;
+        }
+        if (steps != null) {
+            steps.add(step("delete", StepMessage.of(StepTemplate.RB_DELETE_START, value), node));
+        }
+
+        // removedRed：实际离开树的位置原来的颜色；x 顶替该位置（可能为 null），xParent 为它的父节点
+        boolean removedRed = node.red;
+        RBNode x;
+        RBNode xParent;
+        if (node.left == null) {
+            x = node.right;
+            xParent = node.parent;
+            transplant(node, node.right);
+        } else if (node.right == null) {
+            x = node.left;
+            xParent = node.parent;
+            transplant(node, node.left);
+        } else {
+            // 两个子节点：用右子树的最小节点（后继）顶替，后继原来的位置由它的右子节点顶替
+            RBNode successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            removedRed = successor.red;
+            x = successor.right;
+            if (successor.parent == node) {
+                xParent = successor;
+            } else {
+                xParent = successor.parent;
+                transplant(successor, successor.right);
+                successor.right = node.right;
+                successor.right.parent = successor;
+            }
+            transplant(node, successor);
+            successor.left = node.left;
+            successor.left.parent = successor;
+            successor.red = node.red;
+            if (steps != null) {
+                steps.add(step("replace", StepMessage.of(StepTemplate.RB_DELETE_SUCCESSOR,
+                        value, successor.value), successor));
+            }
+        }
+        size--;
+
+        if (!removedRed) {
+            deleteFixup(x, xParent, steps);
+        } else if (steps != null) {
+            steps.add(step("fix", StepMessage.of(StepTemplate.RB_DELETE_RED), null));
+        }
+        if (steps != null) {
+            steps.add(step("complete", StepMessage.of(StepTemplate.RB_DELETE_COMPLETE, value, size, height()), null));
+        }
+        return true;
+    }
+
+    // 删除了黑色位置后，x 所在的路径少一个黑节点（x 带"双重黑"）：向上修复直到 x 为红或到达根
+    private void deleteFixup(RBNode x, RBNode parent, StepSink<RBStep> steps) {
+        while (x != root && !isRed(x)) {
+            boolean xIsLeft = x == parent.left;
+            RBNode sibling = xIsLeft ? parent.right : parent.left;  // 黑高至少为 1，兄弟一定存在
+
+            if (isRed(sibling)) {
+                // 情况1：兄弟为红，兄弟染黑、父节点染红，绕父节点旋转，转为兄弟为黑的情况
+                sibling.red = false;
+                parent.red = true;
+                recolors += 2;
+                if (steps != null) {
+                    steps.add(step("recolor", StepMessage.of(StepTemplate.RB_DELETE_RED_SIBLING,
+                            sibling.value, parent.value), sibling));
+                }
+                rotate(parent, xIsLeft, steps);
+                sibling = xIsLeft ? parent.right : parent.left;
+            }
+
+            RBNode near = xIsLeft ? sibling.left : sibling.right;
+            RBNode far = xIsLeft ? sibling.right : sibling.left;
+            if (!isRed(near) && !isRed(far)) {
+                // 情况2：兄弟的两个子节点都为黑，兄弟染红，缺少的黑色上移到父节点
+                sibling.red = true;
+                recolors++;
+                if (steps != null) {
+                    steps.add(step("recolor", StepMessage.of(StepTemplate.RB_DELETE_BLACK_NEPHEWS,
+                            sibling.value, parent.value), parent));
+                }
+                x = parent;
+                parent = x.parent;
+                continue;
+            }
+
+            if (!isRed(far)) {
+                // 情况3：近侄子为红、远侄子为黑，绕兄弟旋转成情况4
+                near.red = false;
+                sibling.red = true;
+                recolors += 2;
+                if (steps != null) {
+                    steps.add(step("recolor", StepMessage.of(StepTemplate.RB_DELETE_NEAR_NEPHEW,
+                            near.value, sibling.value), near));
+                }
+                rotate(sibling, !xIsLeft, steps);
+                sibling = xIsLeft ? parent.right : parent.left;
+                far = xIsLeft ? sibling.right : sibling.left;
+            }
+
+            // 情况4：远侄子为红，兄弟继承父节点颜色，父节点和远侄子染黑，绕父节点旋转，修复结束
+            sibling.red = parent.red;
+            parent.red = false;
+            far.red = false;
+            recolors += 3;
+            if (steps != null) {
+                steps.add(step("recolor", StepMessage.of(StepTemplate.RB_DELETE_FAR_NEPHEW,
+                        far.value, sibling.value, parent.value), sibling));
+            }
+            rotate(parent, xIsLeft, steps);
+            x = root;
+        }
+        if (x != null && x.red) {
+            x.red = false;
+            recolors++;
+            if (steps != null) {
+                steps.add(step("recolor", StepMessage.of(StepTemplate.RB_ABSORB_BLACK, x.value), x));
+            }
+        }
+    }
+
+    // 用 replacement 顶替 node 在父节点中的位置
+    private void transplant(RBNode node, RBNode replacement) {
+        if (node.parent == null) {
+            root = replacement;
+        } else if (node == node.parent.left) {
+            node.parent.left = replacement;
+        } else {
+            node.parent.right = replacement;
+        }
+        if (replacement != null) {
+            replacement.parent = node.parent;
+        }
+    }
+
+    // ========== 旋转 ==========
+
+    // left 为 true 时左旋（右子节点上升），否则右旋
+    private void rotate(RBNode node, boolean left, StepSink<RBStep> steps) {
+        RBNode pivot = left ? node.right : node.left;
+        if (left) {
+            node.right = pivot.left;
+            if (pivot.left != null) {
+                pivot.left.parent = node;
+            }
+            pivot.left = node;
+        } else {
+            node.left = pivot.right;
+            if (pivot.right != null) {
+                pivot.right.parent = node;
+            }
+            pivot.right = node;
+        }
+        pivot.parent = node.parent;
+        if (node.parent == null) {
+            root = pivot;
+        } else if (node == node.parent.left) {
+            node.parent.left = pivot;
+        } else {
+            node.parent.right = pivot;
+        }
+        node.parent = pivot;
+        rotations++;
+        if (steps != null) {
+            steps.add(step("rotate", StepMessage.of(left ? StepTemplate.RB_ROTATE_LEFT : StepTemplate.RB_ROTATE_RIGHT,
+                    node.value, pivot.value), pivot));
+        }
+    }
+
+    // ========== 查询 ==========
+
+    public boolean search(int value) {
+        return findNode(value) != null;
+    }
+
+    private RBNode findNode(int value) {
+        RBNode current = root;
+        while (current != null && current.value != value) {
+            current = value < current.value ? current.left : current.right;
+        }
+        return current;
+    }
+
+    private static boolean isRed(RBNode node) {
+        return node != null && node.red;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // 高度不超过 2log(n+1)，可以直接递归
+    public int height() {
+        return height(root);
+    }
+
+    private static int height(RBNode node) {
+        return node == null ? 0 : 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    // 从根到任一空链接经过的黑节点数（不含空链接）
+    public int blackHeight() {
+        int count = 0;
+        for (RBNode node = root; node != null; node = node.left) {
+            if (!node.red) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 检查红黑树的全部性质和父指针，返回 null 表示正确，否则返回第一个违反的描述
+    public String validate() {
+        if (isRed(root)) {
+            return "根节点为红色";
+        }
+        String[] error = new String[1];
+        int count = validate(root, null, Long.MIN_VALUE, Long.MAX_VALUE, error);
+        if (error[0] == null && count < 0) {
+            error[0] = "黑高不一致";
+        }
+        return error[0];
+    }
+
+    // 返回子树的黑高，出错时返回 -1
+    private int validate(RBNode node, RBNode parent, long min, long max, String[] error) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.parent != parent) {
+            error[0] = "节点 " + node.value + " 的父指针错误";
+            return -1;
+        }
+        if (node.value <= min || node.value >= max) {
+            error[0] = "节点 " + node.value + " 违反二叉搜索树顺序";
+            return -1;
+        }
+        if (node.red && (isRed(node.left) || isRed(node.right))) {
+            error[0] = "红节点 " + node.value + " 有红色子节点";
+            return -1;
+        }
+        int left = validate(node.left, node, min, node.value, error);
+        int right = validate(node.right, node, node.value, max, error);
+        if (left < 0 || right < 0 || left != right) {
+            return -1;
+        }
+        return left + (node.red ? 0 : 1);
+    }
+
+    public RBNode getRoot() {
+        return root;
+    }
+
+    // 累计的旋转次数和改变颜色的次数
+    public long getRotations() {
+        return rotations;
+    }
+
+    public long getRecolors() {
+        return recolors;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+        operationSteps.clear();
+    }
+
+    // ========== 步骤 ==========
+
+    private RBStep step(String type, StepMessage message, RBNode current) {
+        RBStep step = new RBStep(type, message);
+        step.treeState = copyTree(root, null, current, step);
+        return step;
+    }
+
+    // 复制整棵树，current 对应的副本记到 step.currentNode
+    private static RBNode copyTree(RBNode node, RBNode parent, RBNode current, RBStep step) {
+        if (node == null) return null;
+        RBNode copy = new RBNode(node.value);
+        copy.red = node.red;
+        copy.parent = parent;
+        if (node == current) {
+            step.currentNode = copy;
+        }
+        copy.left = copyTree(node.left, copy, current, step);
+        copy.right = copyTree(node.right, copy, current, step);
+        return copy;
+    }
+
+    public List<RBStep> getOperationSteps() {
+        return new ArrayList<>(operationSteps);
+    }
+}
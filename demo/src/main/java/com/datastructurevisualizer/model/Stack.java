@@ -2,30 +2,72 @@
 package com.datastructurevisualizer.model;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
-public class Stack implements Serializable {
+public class Stack implements Serializable, Journaled<Void> {
     private static final long serialVersionUID = 1L;
+    private static final int INITIAL_ARRAY_SIZE = 16;
 
-    private List<Integer> elements;
+    // 基本类型数组存储，按需扩容（摊销 O(1)）
+    private int[] elements;
+    private int size;
     private int capacity;
+    // 快照共享了 elements 的前 sharedLength 个元素，覆盖这部分前需要先复制（写时复制）
+    private transient int sharedLength;
+    private transient ChangeSupport<Void> changes;
 
     // 可序列化的栈版本
     public static class SerializableData implements Serializable {
         private static final long serialVersionUID = 1L;
-        public List<Integer> elements;
+        public List<Integer> elements;  // 旧存档格式，仅用于读取
+        public int[] values;            // 栈中的 size 个元素，不含多余容量
+        public int size;
         public int capacity;
 
         public SerializableData(Stack stack) {
-            this.elements = stack.elements != null ? new ArrayList<>(stack.elements) : new ArrayList<>();
+            Snapshot snapshot = stack.snapshot();
+            this.values = Arrays.copyOf(snapshot.data, snapshot.size);
+            this.size = snapshot.size;
             this.capacity = stack.capacity;
         }
     }
 
+    // 栈内容的不可变快照：与栈共享数组，栈之后的修改不会影响快照
+    public static final class Snapshot {
+        private final int[] data;
+        private final int size;
+
+        private Snapshot(int[] data, int size) {
+            this.data = data;
+            this.size = size;
+        }
+
+        // index 0 为栈底
+        public int get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return data[index];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
     public Stack(int capacity) {
         this.capacity = capacity;
-        this.elements = new ArrayList<>();
+        this.elements = new int[Math.max(0, Math.min(capacity, INITIAL_ARRAY_SIZE))];
     }
 
     // 默认构造函数
@@ -45,7 +87,17 @@ public class Stack implements Serializable {
         }
 
         Stack stack = new Stack(serializable.capacity);
-        stack.elements = new ArrayList<>(serializable.elements);
+        if (serializable.values != null) {
+            // 直接共享存档中的数组，首次覆盖时才复制
+            stack.elements = serializable.values;
+            stack.size = serializable.size;
+            stack.sharedLength = serializable.size;
+        } else if (serializable.elements != null) {
+            stack.elements = new int[serializable.elements.size()];
+            for (int value : serializable.elements) {
+                stack.elements[stack.size++] = value;
+            }
+        }
         return stack;
     }
 
@@ -66,33 +118,207 @@ public class Stack implements Serializable {
         if (isFull()) {
             throw new IllegalStateException("Stack is full");
         }
-        elements.add(element);
+        prepareWrite(size, 1);
+        elements[size++] = element;
+        if (changes != null) {
+            changes.fire(ChangeEvent.<Void>inserted(size - 1, 1, element));
+        }
     }
 
     public int pop() {
         if (isEmpty()) {
             throw new IllegalStateException("Stack is empty");
         }
-        return elements.remove(elements.size() - 1);
+        int value = elements[--size];
+        if (changes != null) {
+            changes.fire(ChangeEvent.<Void>removed(size, 1, value));
+        }
+        return value;
+    }
+
+    public int peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return elements[size - 1];
+    }
+
+    // 批量入栈：values[offset] 最先入栈，一次扩容、一次数组复制
+    public void pushAll(int[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length);
+        }
+        if ((long) size + length > capacity) {
+            throw new IllegalStateException("Stack is full");
+        }
+        prepareWrite(size, length);
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+        if (length > 0 && changes != null) {
+            changes.fire(ChangeEvent.<Void>inserted(size - length, length, values[offset]));
+        }
+    }
+
+    public void pushAll(int[] values) {
+        pushAll(values, 0, values.length);
+    }
+
+    // 批量出栈：返回数组按出栈顺序排列（栈顶在前）
+    public int[] popN(int count) {
+        if (count < 0 || count > size) {
+            throw new IllegalStateException("Cannot pop " + count + " elements from stack of size " + size);
+        }
+        int[] popped = new int[count];
+        for (int i = 0; i < count; i++) {
+            popped[i] = elements[size - 1 - i];
+        }
+        size -= count;
+        if (count > 0 && changes != null) {
+            changes.fire(ChangeEvent.<Void>removed(size, count, elements[size]));
+        }
+        return popped;
+    }
+
+    public void clear() {
+        int removed = size;
+        size = 0;
+        if (removed > 0 && changes != null) {
+            changes.fire(ChangeEvent.<Void>removed(0, removed, elements[0]));
+        }
+    }
+
+    // 按顺序执行一批入栈/出栈，只把净效果写回数组：先算出原有元素保留到哪里（kept），
+    // 再把没有被批内出栈抵消的入栈值一次复制到栈顶。事件合并为一次移除和一次插入。
+    // 整批先推算，溢出或下溢时抛出异常且栈不变
+    public int applyBatch(List<BatchOp> ops) {
+        int kept = size;
+        int[] pushed = new int[16];
+        int pushedCount = 0;
+        for (BatchOp op : ops) {
+            if (op.kind == BatchOp.Kind.PUSH) {
+                if ((long) kept + pushedCount >= capacity) {
+                    throw new IllegalStateException("Stack is full");
+                }
+                if (pushedCount == pushed.length) {
+                    pushed = Arrays.copyOf(pushed, pushedCount * 2);
+                }
+                pushed[pushedCount++] = op.value;
+            } else if (op.kind == BatchOp.Kind.POP) {
+                if (pushedCount > 0) {
+                    pushedCount--;
+                } else if (kept > 0) {
+                    kept--;
+                } else {
+                    throw new IllegalStateException("Stack is empty");
+                }
+            } else {
+                throw new IllegalArgumentException("栈不支持的批量操作: " + op.kind);
+            }
+        }
+
+        int top = kept;
+        int removed = size - top;
+        int removedBottom = removed > 0 ? elements[top] : 0;
+        size = top;
+        if (pushedCount > 0) {
+            prepareWrite(size, pushedCount);
+            System.arraycopy(pushed, 0, elements, size, pushedCount);
+            size += pushedCount;
+        }
+        if (changes != null && (removed > 0 || pushedCount > 0)) {
+            int pushedBottom = pushed[0];
+            int pushedTotal = pushedCount;
+            changes.batch(() -> {
+                if (removed > 0) {
+                    changes.fire(ChangeEvent.<Void>removed(top, removed, removedBottom));
+                }
+                if (pushedTotal > 0) {
+                    changes.fire(ChangeEvent.<Void>inserted(top, pushedTotal, pushedBottom));
+                }
+            });
+        }
+        return ops.size();
+    }
+
+    // 日志把入栈/出栈记为栈顶位置的插入/删除，换回 PUSH/POP 后按批量操作一次执行
+    @Override
+    public void replay(List<BatchOp> ops) {
+        applyBatch(new AbstractList<BatchOp>() {
+            @Override
+            public BatchOp get(int i) {
+                BatchOp op = ops.get(i);
+                if (op.kind == BatchOp.Kind.INSERT) {
+                    return BatchOp.push(op.value);
+                }
+                return op.kind == BatchOp.Kind.DELETE ? BatchOp.pop() : op;
+            }
+
+            @Override
+            public int size() {
+                return ops.size();
+            }
+        });
+    }
+
+    // 写入 [from, from + length) 之前：与快照共享的部分先复制，容量不足时扩容
+    private void prepareWrite(int from, int length) {
+        int required = from + length;
+        if (required > elements.length) {
+            int newLength = Math.max(required, elements.length + (elements.length >> 1) + 1);
+            elements = Arrays.copyOf(elements, Math.min(newLength, Math.max(required, capacity)));
+            sharedLength = 0;
+        } else if (from < sharedLength) {
+            elements = elements.clone();
+            sharedLength = 0;
+        }
+    }
+
+    // 获取不可变快照，不复制数组
+    public Snapshot snapshot() {
+        sharedLength = Math.max(sharedLength, size);
+        return new Snapshot(elements, size);
     }
 
     public boolean isEmpty() {
-        return elements.isEmpty();
+        return size == 0;
     }
 
     public boolean isFull() {
-        return elements.size() >= capacity;
+        return size >= capacity;
     }
 
     public int size() {
-        return elements.size();
+        return size;
     }
 
+    // 兼容旧接口：返回基于快照的只读列表，按需装箱
     public List<Integer> getElements() {
-        return new ArrayList<>(elements);
+        final Snapshot snapshot = snapshot();
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return snapshot.get(index);
+            }
+
+            @Override
+            public int size() {
+                return snapshot.size();
+            }
+        };
     }
 
     public int getCapacity() {
         return capacity;
     }
-}
\ No newline at end of file
+
+    // ========== 变更通知 ==========
+
+    // 订阅入栈、出栈（批量操作各产生一个事件）
+    @Override
+    public ChangeSupport<Void> changes() {
+        if (changes == null) {
+            changes = new ChangeSupport<Void>();
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.datastructurevisualizer.model;
+
+import java.util.NoSuchElementException;
+
+// 在 StepStream 上提供前进/后退导航：只保留最近 historySize 个步骤的环形历史，
+// 因此无论操作有多少步，内存占用都是固定的。总步骤数在流取完之后才知道。
+public class StepCursor<S> implements AutoCloseable {
+    public static final int DEFAULT_HISTORY_SIZE = 512;
+
+    private final StepStream<S> source;
+    private final Object[] history;
+    private int loaded;         // 已从流中取出的步骤数
+    private int position = -1;  // 当前步骤的绝对序号
+
+    public StepCursor(StepStream<S> source) {
+        this(source, DEFAULT_HISTORY_SIZE);
+    }
+
+    public StepCursor(StepStream<S> source, int historySize) {
+        if (historySize <= 0) {
+            throw new IllegalArgumentException("历史大小必须为正数: " + historySize);
+        }
+        this.source = source;
+        this.history = new Object[historySize];
+    }
+
+    public boolean hasNext() {
+        return position + 1 < loaded || source.hasNext();
+    }
+
+    public S next() {
+        if (position + 1 < loaded) {
+            return stepAt(++position);
+        }
+        S step = source.next();
+        history[loaded % history.length] = step;
+        loaded++;
+        return stepAt(++position);
+    }
+
+    // 超出历史窗口的步骤已被丢弃，不能再后退到那里
+    public boolean hasPrevious() {
+        return position > 0 && position - 1 >= loaded - history.length;
+    }
+
+    public S previous() {
+        if (!hasPrevious()) {
+            throw new NoSuchElementException();
+        }
+        return stepAt(--position);
+    }
+
+    public S current() {
+        if (position < 0) {
+            throw new NoSuchElementException();
+        }
+        return stepAt(position);
+    }
+
+    @SuppressWarnings("unchecked")
+    private S stepAt(int index) {
+        return (S) history[index % history.length];
+    }
+
+    // 当前步骤的序号（从0开始），尚未前进时为 -1
+    public int getPosition() {
+        return position;
+    }
+
+    // 总步骤数，流未取完时返回 -1
+    public int getTotal() {
+        return source.isFinished() ? loaded : -1;
+    }
+
+    public int getLoadedCount() {
+        return loaded;
+    }
+
+    @Override
+    public void close() {
+        source.close();
+    }
+}
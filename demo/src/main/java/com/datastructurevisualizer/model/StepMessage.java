@@ -0,0 +1,153 @@
+package com.datastructurevisualizer.model;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// 惰性的步骤描述：创建步骤时只记录模板和参数（整数参数不装箱），
+// 真正显示时才按当前语言格式化成字符串，大多数从未显示的步骤因此不再拼接字符串。
+public final class StepMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Language { CHINESE, ENGLISH }
+
+    private static volatile Language language = Language.CHINESE;
+
+    private final StepTemplate template;
+    private final long a0;
+    private final long a1;
+    private final long a2;
+    // 对象参数：StepMessage 按同一语言嵌套渲染，Supplier 在渲染时求值，其余调用 toString。
+    // 不直接序列化，由 SerialForm 写出求值后的结果
+    private final transient Object r0;
+    private final transient Object r1;
+    private final transient Object r2;
+
+    private StepMessage(StepTemplate template, long a0, long a1, long a2, Object r0, Object r1, Object r2) {
+        this.template = template;
+        this.a0 = a0;
+        this.a1 = a1;
+        this.a2 = a2;
+        this.r0 = r0;
+        this.r1 = r1;
+        this.r2 = r2;
+    }
+
+    public static StepMessage of(StepTemplate template) {
+        return new StepMessage(template, 0, 0, 0, null, null, null);
+    }
+
+    public static StepMessage of(StepTemplate template, long a0) {
+        return new StepMessage(template, a0, 0, 0, null, null, null);
+    }
+
+    public static StepMessage of(StepTemplate template, long a0, long a1) {
+        return new StepMessage(template, a0, a1, 0, null, null, null);
+    }
+
+    public static StepMessage of(StepTemplate template, long a0, long a1, long a2) {
+        return new StepMessage(template, a0, a1, a2, null, null, null);
+    }
+
+    public static StepMessage withRefs(StepTemplate template, long a0, long a1, Object r0, Object r1) {
+        return new StepMessage(template, a0, a1, 0, r0, r1, null);
+    }
+
+    public static StepMessage withRefs(StepTemplate template, long a0, long a1, long a2,
+                                       Object r0, Object r1, Object r2) {
+        return new StepMessage(template, a0, a1, a2, r0, r1, r2);
+    }
+
+    // ========== 语言切换 ==========
+
+    public static Language getLanguage() {
+        return language;
+    }
+
+    // 切换后，已生成的步骤在下一次显示时即使用新语言
+    public static void setLanguage(Language newLanguage) {
+        language = newLanguage;
+    }
+
+    // ========== 渲染 ==========
+
+    public String render() {
+        return render(language);
+    }
+
+    public String render(Language target) {
+        return String.format(Locale.ROOT, template.pattern(target),
+                a0, a1, a2, resolve(r0, target), resolve(r1, target), resolve(r2, target));
+    }
+
+    private static Object resolve(Object ref, Language target) {
+        if (ref instanceof StepMessage) {
+            return ((StepMessage) ref).render(target);
+        }
+        if (ref instanceof Supplier) {
+            return ((Supplier<?>) ref).get();
+        }
+        return ref;
+    }
+
+    public StepTemplate getTemplate() {
+        return template;
+    }
+
+    // ========== 序列化 ==========
+
+    // 对象参数可能是节点、视图或 Supplier，不能直接写出：序列化时换成 SerialForm，先对参数求值，
+    // 只保留嵌套消息、数字、字符串等值，其余换成渲染时本来就会用到的 toString 结果
+    private Object writeReplace() {
+        return new SerialForm(template, a0, a1, a2, serializableRef(r0), serializableRef(r1), serializableRef(r2));
+    }
+
+    // 流中的 StepMessage 都是 SerialForm 写出的，直接出现的实例不是本类生成的
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("StepMessage 只能通过 SerialForm 反序列化");
+    }
+
+    private static Serializable serializableRef(Object ref) {
+        if (ref instanceof Supplier) {
+            ref = ((Supplier<?>) ref).get();
+        }
+        if (ref == null || ref instanceof StepMessage || ref instanceof Number || ref instanceof String
+                || ref instanceof Character || ref instanceof Boolean || ref instanceof Enum) {
+            return (Serializable) ref;
+        }
+        return String.valueOf(ref);
+    }
+
+    private static final class SerialForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final StepTemplate template;
+        private final long a0;
+        private final long a1;
+        private final long a2;
+        private final Serializable r0;
+        private final Serializable r1;
+        private final Serializable r2;
+
+        SerialForm(StepTemplate template, long a0, long a1, long a2, Serializable r0, Serializable r1, Serializable r2) {
+            this.template = template;
+            this.a0 = a0;
+            this.a1 = a1;
+            this.a2 = a2;
+            this.r0 = r0;
+            this.r1 = r1;
+            this.r2 = r2;
+        }
+
+        private Object readResolve() {
+            return new StepMessage(template, a0, a1, a2, r0, r1, r2);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -0,0 +1,12 @@
+package com.datastructurevisualizer.model;
+
+// 演示步骤的接收端：立即生成时就是 List::add，惰性生成时写入 StepStream 的有界缓冲区
+@FunctionalInterface
+public interface StepSink<S> {
+    void add(S step);
+
+    // 丢弃所有步骤，用于只需要结果、不需要演示的内部调用
+    static <S> StepSink<S> discard() {
+        return step -> { };
+    }
+}
@@ -0,0 +1,146 @@
+package com.datastructurevisualizer.model;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// 惰性生成的演示步骤流：生成逻辑在虚拟线程上运行，步骤写入有界缓冲区，
+// 缓冲区满时生成方阻塞，直到播放方取走步骤。第一个步骤生成后即可开始播放，
+// 内存占用只与缓冲区大小有关，与操作的总步骤数无关。
+//
+// 生成期间数据结构归生成线程所有：在 hasNext() 返回 false 或 awaitCompletion() 返回之前，
+// 调用方不应读写该数据结构（已取出的步骤对象本身可以安全读取）。
+public class StepStream<S> implements Iterator<S>, AutoCloseable {
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+    private static final Object END = new Object();
+
+    private final ArrayBlockingQueue<Object> buffer;
+    private final Thread producer;
+    private volatile boolean closed;
+    private Throwable failure;  // 在 END 入队之前写入，由队列保证可见性
+    private Object lookahead;
+    private boolean finished;
+
+    private StepStream(Consumer<StepSink<S>> body, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区大小必须为正数: " + bufferSize);
+        }
+        this.buffer = new ArrayBlockingQueue<Object>(bufferSize);
+        this.producer = Thread.ofVirtual().name("step-producer").unstarted(() -> produce(body));
+        this.producer.start();
+    }
+
+    public static <S> StepStream<S> generate(Consumer<StepSink<S>> body) {
+        return new StepStream<S>(body, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static <S> StepStream<S> generate(Consumer<StepSink<S>> body, int bufferSize) {
+        return new StepStream<S>(body, bufferSize);
+    }
+
+    private void produce(Consumer<StepSink<S>> body) {
+        try {
+            body.accept(this::put);
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            put(END);
+            if (closed) {
+                buffer.clear();
+            }
+        }
+    }
+
+    // 关闭后直接丢弃步骤，生成逻辑照常执行到结束，保证数据结构状态完整
+    private void put(Object item) {
+        if (closed) {
+            return;
+        }
+        try {
+            buffer.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (lookahead != null) {
+            return true;
+        }
+        if (finished || closed) {
+            return false;
+        }
+        Object item;
+        try {
+            item = buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待演示步骤时被中断", e);
+        }
+        if (item == END) {
+            finished = true;
+            rethrowFailure();
+            return false;
+        }
+        lookahead = item;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public S next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        S step = (S) lookahead;
+        lookahead = null;
+        return step;
+    }
+
+    private void rethrowFailure() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("生成演示步骤失败", failure);
+        }
+    }
+
+    // 是否已取完所有步骤
+    public boolean isFinished() {
+        return finished;
+    }
+
+    // 等待生成线程结束，之后可以安全访问数据结构
+    public void awaitCompletion() {
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Stream<S> stream() {
+        Spliterator<S> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    // 停止接收步骤：清空缓冲区使生成方不再阻塞，剩余步骤被丢弃。不等待生成线程结束
+    @Override
+    public void close() {
+        closed = true;
+        lookahead = null;
+        buffer.clear();
+    }
+}
@@ -0,0 +1,196 @@
+package com.datastructurevisualizer.model;
+
+// 演示步骤描述的消息模板，每个模板提供中英文两种格式。
+// 参数位置约定：%1$d ~ %3$d 为 StepMessage 中的整数参数，%4$s ~ %6$s 为对象参数（渲染时才转成字符串）
+public enum StepTemplate {
+    // ========== 顺序表 ==========
+    ARRAY_CHECK_CAPACITY("检查数组容量，当前大小: %1$d, 容量: %2$d", "Check capacity, size: %1$d, capacity: %2$d"),
+    ARRAY_INSERT_FIRST("插入第一个元素: %1$d", "Insert first element: %1$d"),
+    ARRAY_PREPARE_SHIFT("从位置 %1$d 开始，后续元素需要向后移动", "Elements from position %1$d onwards must shift right"),
+    ARRAY_MOVE("移动元素 %1$d 从位置 %2$d 到位置 %3$d", "Move element %1$d from position %2$d to position %3$d"),
+    ARRAY_INSERT_AT("在位置 %1$d 插入新元素: %2$d", "Insert new element at position %1$d: %2$d"),
+    ARRAY_INSERT_COMPLETE("插入完成！新数组大小: %1$d", "Insert complete! New size: %1$d"),
+    ARRAY_DELETE_MARK("标记要删除位置 %1$d 的元素: %2$d", "Mark element at position %1$d for deletion: %2$d"),
+    ARRAY_DELETE_COMPLETE("删除完成！删除元素: %1$d, 新数组大小: %2$d", "Delete complete! Removed: %1$d, new size: %2$d"),
+
+    // ========== 排序 ==========
+    SORT_INSERTION("插入排序", "insertion sort"),
+    SORT_MERGE("归并排序", "merge sort"),
+    SORT_QUICK("快速排序", "quicksort"),
+    SORT_HEAP("堆排序", "heap sort"),
+    SORT_RADIX("基数排序", "radix sort"),
+    SORT_PARALLEL_MERGE("并行归并排序", "parallel merge sort"),
+    SORT_START("开始%4$s，共 %1$d 个元素", "Start %4$s on %1$d elements"),
+    SORT_SAMPLED("元素较多：每 %1$d 个操作显示一步，每 %2$d 个元素画一个",
+            "Large input: showing one step every %1$d operations and one element every %2$d"),
+    SORT_COMPARE("比较位置 %1$d 的 %3$d 和位置 %2$d 的 %5$s", "Compare %3$d at position %1$d with %5$s at position %2$d"),
+    SORT_SWAP("交换位置 %1$d 和位置 %2$d 的元素，现在分别是 %3$d 和 %5$s",
+            "Swap positions %1$d and %2$d, which now hold %3$d and %5$s"),
+    SORT_MOVE("元素 %3$d 从位置 %1$d 移到位置 %2$d", "Move element %3$d from position %1$d to position %2$d"),
+    SORT_WRITE("从辅助数组把 %2$d 写回位置 %1$d", "Write %2$d back from the buffer to position %1$d"),
+    SORT_COMPLETE("%4$s完成！比较 %1$d 次，交换 %2$d 次，写入 %3$d 次，用时 %5$.2f ms",
+            "%4$s complete! %1$d compares, %2$d swaps, %3$d writes, %5$.2f ms"),
+
+    // ========== BST 查找与删除 ==========
+    BST_SEARCH_FOUND("找到目标节点: %1$d", "Found target node: %1$d"),
+    BST_SEARCH_GO_LEFT("%1$d < %2$d，转向左子树", "%1$d < %2$d, go to left subtree"),
+    BST_SEARCH_GO_RIGHT("%1$d > %2$d，转向右子树", "%1$d > %2$d, go to right subtree"),
+    BST_NOT_FOUND("未找到值为 %1$d 的节点", "No node with value %1$d"),
+    BST_DELETE_START("开始删除值为 %1$d 的节点", "Start deleting node with value %1$d"),
+    BST_DELETE_DEMO_COMPLETE("删除策略演示完成", "Deletion strategy demo complete"),
+    BST_DELETE_COMPARE("比较: %1$d 与 %2$d", "Compare: %1$d with %2$d"),
+    BST_DELETE_FOUND("🎯 找到要删除的节点: %1$d", "🎯 Found node to delete: %1$d"),
+    BST_DELETE_GO_LEFT("%1$d < %2$d，向左子树查找", "%1$d < %2$d, search left subtree"),
+    BST_DELETE_GO_RIGHT("%1$d > %2$d，向右子树查找", "%1$d > %2$d, search right subtree"),
+    BST_ANALYZE("正在分析节点类型...", "Analyzing node type..."),
+    BST_LEAF_IDENTIFIED("该节点是叶子节点（没有子节点）", "The node is a leaf (no children)"),
+    BST_LEAF_STRATEGY("删除策略: 直接移除该节点", "Strategy: remove the node directly"),
+    BST_ONLY_RIGHT_CHILD("该节点只有右子节点: %1$d", "The node only has a right child: %1$d"),
+    BST_REPLACE_WITH_RIGHT("删除策略: 用右子节点替换当前节点", "Strategy: replace the node with its right child"),
+    BST_ONLY_LEFT_CHILD("该节点只有左子节点: %1$d", "The node only has a left child: %1$d"),
+    BST_REPLACE_WITH_LEFT("删除策略: 用左子节点替换当前节点", "Strategy: replace the node with its left child"),
+    BST_TWO_CHILDREN("该节点有两个子节点", "The node has two children"),
+    BST_SUCCESSOR_FOUND("找到后继节点: %1$d", "Found successor: %1$d"),
+    BST_TWO_CHILDREN_STRATEGY("删除策略: 将节点值替换为 %1$d，然后删除原后继节点",
+            "Strategy: replace the value with %1$d, then delete the original successor"),
+    BST_MIN_FOUND("找到最小值节点: %1$d", "Found minimum node: %1$d"),
+    BST_CONTINUE_MIN_AT("继续在左子树中查找最小值，当前节点: %1$d", "Keep searching the left subtree for the minimum, at: %1$d"),
+    BST_EXECUTION_PLAN("总结删除执行步骤...", "Summarizing the deletion steps..."),
+    BST_LEAF_EXECUTION("执行步骤: 找到父节点，将其对应指针设为null", "Execute: set the parent's pointer to null"),
+    BST_ONE_CHILD_EXECUTION("执行步骤: 将父节点的指针指向子节点 %1$d", "Execute: point the parent's pointer to child %1$d"),
+    BST_COPY_VALUE_EXECUTION("执行步骤1: 将节点值改为 %1$d", "Execute step 1: change the value to %1$d"),
+    BST_DELETE_SUCCESSOR_EXECUTION("执行步骤2: 删除原来的后继节点 %1$d", "Execute step 2: delete the original successor %1$d"),
+
+    // ========== AVL 树 ==========
+    AVL_INSERT_START("开始插入节点: %1$d", "Start inserting node: %1$d"),
+    AVL_BST_INSERT_DONE("BST插入完成，开始平衡检查", "BST insert done, checking balance"),
+    AVL_INSERT_COMPLETE("AVL树插入完成", "AVL insert complete"),
+    AVL_CHECK_BALANCE("检查节点 %1$d 的平衡因子: %2$d", "Check balance factor of node %1$d: %2$d"),
+    AVL_EXISTS("值 %1$d 已存在，树不变", "Value %1$d already exists, tree unchanged"),
+    AVL_HEIGHT_UNCHANGED("节点 %1$d 的平衡因子: %2$d，高度仍为 %3$d，上方节点不受影响，停止回溯",
+            "Node %1$d has balance factor %2$d and its height stays %3$d, nodes above are unaffected, stop retracing"),
+    AVL_ROTATE_AT("节点 %1$d 的平衡因子为 %2$d，属于 %4$s 情况，执行%5$s",
+            "Node %1$d has balance factor %2$d, case %4$s, perform %5$s"),
+    AVL_ROTATION_DONE("%4$s完成，新根节点: %1$d", "Finished %4$s, new root: %1$d"),
+    AVL_ROTATE_RIGHT("右旋转", "right rotation"),
+    AVL_ROTATE_LEFT_RIGHT("左右旋转", "left-right rotation"),
+    AVL_ROTATE_LEFT("左旋转", "left rotation"),
+    AVL_ROTATE_RIGHT_LEFT("右左旋转", "right-left rotation"),
+    AVL_DELETE_START("开始删除节点: %1$d", "Start deleting node: %1$d"),
+    AVL_DELETE_NOT_FOUND("值 %1$d 不存在", "Value %1$d not found"),
+    AVL_DELETE_SPLICE("摘除节点 %1$d，由它唯一的子节点（或空）顶替，开始回溯",
+            "Unlink node %1$d, its only child (or nothing) takes its place, start retracing"),
+    AVL_DELETE_SUCCESSOR("%1$d 有两个子节点，用后继 %2$d 顶替，从后继原来的父节点开始回溯",
+            "%1$d has two children, replace it with successor %2$d and retrace from the successor's old parent"),
+    AVL_DELETE_COMPLETE("AVL树删除 %1$d 完成", "AVL delete of %1$d complete"),
+
+    // ========== 堆 ==========
+    HEAP_INSERT("把 %1$d 放到末尾位置 %2$d", "Place %1$d at the last position %2$d"),
+    HEAP_SIFT_UP("%1$d < 父节点 %2$d，父节点下移，%1$d 上浮一层", "%1$d < parent %2$d, move the parent down and sift %1$d up"),
+    HEAP_SIFT_UP_DONE("%1$d ≥ 父节点 %2$d，上浮结束", "%1$d ≥ parent %2$d, sift-up done"),
+    HEAP_REMOVE_TOP("取出堆顶 %1$d，把末尾元素 %2$d 移到堆顶", "Remove top %1$d and move the last element %2$d to the top"),
+    HEAP_REMOVE_LAST("取出最后一个元素 %1$d，堆已为空", "Removed the last element %1$d, the heap is empty"),
+    HEAP_SIFT_DOWN("%1$d > 最小的子节点 %2$d，子节点上移，%1$d 下沉一层",
+            "%1$d > smallest child %2$d, move the child up and sift %1$d down"),
+    HEAP_SIFT_DOWN_DONE("%1$d ≤ 最小的子节点 %2$d，下沉结束", "%1$d ≤ smallest child %2$d, sift-down done"),
+    HEAP_DECREASE_KEY("把编号 %1$d 的键从 %2$d 减小到 %3$d", "Decrease the key of element %1$d from %2$d to %3$d"),
+    HEAP_HEAPIFY_START("自底向上建堆：共 %1$d 个元素，从最后一个非叶子位置 %2$d 开始依次下沉",
+            "Bottom-up heapify: %1$d elements, sift down from the last internal position %2$d"),
+    HEAP_HEAPIFY_NODE("下沉位置 %1$d 的元素 %2$d", "Sift down element %2$d at position %1$d"),
+    HEAP_COMPLETE("完成，堆大小: %1$d", "Done, heap size: %1$d"),
+
+    // ========== 哈希表 ==========
+    HASH_HOME("键 %1$d 的哈希槽位: %2$d", "Key %1$d hashes to slot %2$d"),
+    HASH_HOME_OLD("在旧表中查找：键 %1$d 的哈希槽位: %2$d", "Look in the old table: key %1$d hashes to slot %2$d"),
+    HASH_PROBE("槽位 %1$d 是键 %2$d（探测距离 %3$d），继续探测下一个槽位",
+            "Slot %1$d holds key %2$d (probe distance %3$d), probe the next slot"),
+    HASH_PROBE_MOVED("槽位 %1$d 的键已迁到新表，继续探测", "Slot %1$d was migrated to the new table, keep probing"),
+    HASH_EMPTY_SLOT("槽位 %1$d 为空，键 %2$d 不在表中", "Slot %1$d is empty, key %2$d is not in the table"),
+    HASH_EARLY_STOP("槽位 %1$d 的探测距离 %2$d 小于当前距离 %3$d，键不存在，提前结束",
+            "Slot %1$d has probe distance %2$d < current distance %3$d, the key is absent, stop early"),
+    HASH_FOUND("在槽位 %2$d 找到键 %1$d，探测了 %3$d 个槽位", "Found key %1$d at slot %2$d after probing %3$d slots"),
+    HASH_UPDATE("键 %1$d 已在槽位 %2$d，值更新为 %3$d", "Key %1$d is already at slot %2$d, value updated to %3$d"),
+    HASH_LEAVE_OLD("键 %1$d 在旧表槽位 %2$d，标记为已迁走，改写到新表",
+            "Key %1$d is at old slot %2$d, mark it migrated and write it to the new table"),
+    HASH_PLACE("把键 %1$d 放入空槽位 %2$d，探测长度 %3$d", "Place key %1$d in empty slot %2$d, probe length %3$d"),
+    HASH_ROBIN_HOOD_SWAP("键 %1$d 的探测距离 %2$d 更大，换下键 %3$d，继续为 %3$d 找位置",
+            "Key %1$d has the larger probe distance %2$d, displace key %3$d and keep probing for it"),
+    HASH_INSERT_COMPLETE("插入完成！大小: %1$d，装载因子: %2$d%%", "Insert complete! Size: %1$d, load factor: %2$d%%"),
+    HASH_DELETE("删除槽位 %2$d 的键 %1$d", "Delete key %1$d at slot %2$d"),
+    HASH_SHIFT("键 %1$d 从槽位 %2$d 前移到槽位 %3$d", "Shift key %1$d back from slot %2$d to slot %3$d"),
+    HASH_DELETE_COMPLETE("删除完成！删除键: %1$d，大小: %2$d", "Delete complete! Removed key: %1$d, size: %2$d"),
+    HASH_RESIZE("装载因子将超过 %1$d%%：分配容量 %2$d 的新表，旧表的 %3$d 个键在之后的写操作中逐步迁移",
+            "Load factor would exceed %1$d%%: allocate a new table of capacity %2$d, "
+                    + "the old table's %3$d keys migrate during the following writes"),
+    HASH_STATE("大小: %1$d，容量: %2$d，装载因子: %3$d%%", "Size: %1$d, capacity: %2$d, load factor: %3$d%%"),
+    HASH_MIGRATE("迁移：旧表槽位 %1$d 的键 %2$d 移到新表槽位 %3$d",
+            "Migrate: key %2$d from old slot %1$d to new slot %3$d"),
+
+    // ========== 红黑树 ==========
+    RB_INSERT_ROOT("树为空，%1$d 作为根节点插入", "The tree is empty, insert %1$d as the root"),
+    RB_INSERT_PLACED("把 %1$d 作为红色节点插入到 %2$d 下方", "Insert %1$d as a red node under %2$d"),
+    RB_EXISTS("值 %1$d 已存在", "Value %1$d already exists"),
+    RB_RED_UNCLE("父节点 %1$d 和叔节点 %2$d 都为红色：两者染黑，祖父 %3$d 染红，继续向上检查",
+            "Parent %1$d and uncle %2$d are both red: paint them black, paint grandparent %3$d red and continue upwards"),
+    RB_INSERT_TRIANGLE("%1$d 与父节点 %2$d 方向相反，先绕 %2$d 旋转成同向",
+            "%1$d and its parent %2$d point in opposite directions, rotate at %2$d first"),
+    RB_INSERT_LINE("父节点 %1$d 染黑，祖父 %2$d 染红，准备绕 %2$d 旋转",
+            "Paint parent %1$d black and grandparent %2$d red, then rotate at %2$d"),
+    RB_ROOT_BLACK("根节点 %1$d 染黑", "Paint root %1$d black"),
+    RB_ROTATE_LEFT("绕 %1$d 左旋，%2$d 上升", "Rotate left at %1$d, %2$d moves up"),
+    RB_ROTATE_RIGHT("绕 %1$d 右旋，%2$d 上升", "Rotate right at %1$d, %2$d moves up"),
+    RB_INSERT_COMPLETE("插入 %1$d 完成，节点数: %2$d，高度: %3$d", "Inserted %1$d, nodes: %2$d, height: %3$d"),
+    RB_NOT_FOUND("值 %1$d 不存在", "Value %1$d not found"),
+    RB_DELETE_START("找到要删除的节点 %1$d", "Found node %1$d to delete"),
+    RB_DELETE_SUCCESSOR("%1$d 有两个子节点，用后继 %2$d 顶替它的位置和颜色",
+            "%1$d has two children, replace it with successor %2$d, keeping its colour"),
+    RB_DELETE_RED("移走的位置是红色，黑高不变，无需修复", "The removed position was red, black height unchanged, no fix needed"),
+    RB_DELETE_RED_SIBLING("兄弟 %1$d 为红色：兄弟染黑，父节点 %2$d 染红，绕 %2$d 旋转",
+            "Sibling %1$d is red: paint it black, paint parent %2$d red and rotate at %2$d"),
+    RB_DELETE_BLACK_NEPHEWS("兄弟 %1$d 的子节点都为黑色：兄弟染红，缺少的黑色上移到 %2$d",
+            "Both children of sibling %1$d are black: paint the sibling red and move the missing black up to %2$d"),
+    RB_DELETE_NEAR_NEPHEW("近侄子 %1$d 为红色：它染黑，兄弟 %2$d 染红，绕 %2$d 旋转",
+            "Near nephew %1$d is red: paint it black, paint sibling %2$d red and rotate at %2$d"),
+    RB_DELETE_FAR_NEPHEW("远侄子 %1$d 为红色：兄弟 %2$d 取父节点 %3$d 的颜色，%3$d 和 %1$d 染黑，绕 %3$d 旋转",
+            "Far nephew %1$d is red: sibling %2$d takes the colour of parent %3$d, paint %3$d and %1$d black, rotate at %3$d"),
+    RB_ABSORB_BLACK("%1$d 为红色，直接染黑补上缺少的黑色", "%1$d is red, paint it black to restore the missing black"),
+    RB_DELETE_COMPLETE("删除 %1$d 完成，节点数: %2$d，高度: %3$d", "Deleted %1$d, nodes: %2$d, height: %3$d"),
+
+    // ========== 哈夫曼树 ==========
+    HUFFMAN_COUNT_FREQUENCY("统计字符频率", "Count character frequencies"),
+    HUFFMAN_CREATE_LEAVES("创建初始叶子节点", "Create initial leaf nodes"),
+    HUFFMAN_FOREST("步骤 %1$d: 当前森林状态 - %4$s", "Step %1$d: current forest - %4$s"),
+    HUFFMAN_COMBINE("步骤 %1$d: 合并节点 %4$s 和 %5$s → 新节点频率: %2$d",
+            "Step %1$d: combine %4$s and %5$s → new frequency: %2$d"),
+    HUFFMAN_TREE_BUILT("哈夫曼树构建完成", "Huffman tree built"),
+    HUFFMAN_GENERATE_CODES("生成规范哈夫曼编码", "Generate canonical Huffman codes"),
+    HUFFMAN_RESULT("原始大小: %1$d 位, 压缩后: %2$d 位 (%3$d 字节), 压缩率: %4$.2f%%, 编码耗时: %5$.3f ms, 解码校验: %6$s",
+            "Original: %1$d bits, compressed: %2$d bits (%3$d bytes), ratio: %4$.2f%%, encode time: %5$.3f ms, decode check: %6$s"),
+    VERIFY_PASSED("通过", "passed"),
+    VERIFY_FAILED("失败", "failed"),
+
+    // ========== 二叉树遍历 ==========
+    PRE_ORDER("前序遍历", "pre-order traversal"),
+    IN_ORDER("中序遍历", "in-order traversal"),
+    POST_ORDER("后序遍历", "post-order traversal"),
+    LEVEL_ORDER("层次遍历", "level-order traversal"),
+    TRAVERSAL_START("开始%4$s", "Start %4$s"),
+    TRAVERSAL_COMPLETE("%4$s完成", "Finished %4$s"),
+    TRAVERSAL_VISIT("访问节点: %1$d", "Visit node: %1$d"),
+    TRAVERSAL_GO_LEFT("转向左子树: %1$d", "Go to left subtree: %1$d"),
+    TRAVERSAL_GO_RIGHT("转向右子树: %1$d", "Go to right subtree: %1$d"),
+    TRAVERSAL_LEVEL("遍历第 %1$d 层，节点数: %2$d", "Traverse level %1$d, nodes: %2$d"),
+    TRAVERSAL_VISIT_AT_LEVEL("访问节点: %1$d (第 %2$d 层)", "Visit node: %1$d (level %2$d)");
+
+    private final String chinese;
+    private final String english;
+
+    StepTemplate(String chinese, String english) {
+        this.chinese = chinese;
+        this.english = english;
+    }
+
+    public String pattern(StepMessage.Language language) {
+        return language == StepMessage.Language.ENGLISH ? english : chinese;
+    }
+}
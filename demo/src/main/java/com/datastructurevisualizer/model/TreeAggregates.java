@@ -0,0 +1,357 @@
+package com.datastructurevisualizer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// 树的并行聚合：节点数、高度、和、最小值、最大值，平衡检查，以及中序导出，
+// 适用于 TreeNode（二叉树、BST）和 AVLNode。
+// 每个任务用显式栈顺序遍历，先处理至多 SEQUENTIAL_THRESHOLD 个节点，规模不超过这个数的子树
+// 不会被拆分；超出后还没走到的子树交给新任务放进 ForkJoinPool 并行处理。
+// 小树只有一个任务；退化成链表的树也不会递归栈溢出
+public final class TreeAggregates {
+
+    static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    // 读取节点的左右子节点和值，让同一套遍历适用于不同的节点类型
+    public interface Shape<N> {
+        N left(N node);
+        N right(N node);
+        int value(N node);
+    }
+
+    public static final Shape<TreeNode> TREE_NODE = new Shape<TreeNode>() {
+        @Override public TreeNode left(TreeNode node) { return node.getLeft(); }
+        @Override public TreeNode right(TreeNode node) { return node.getRight(); }
+        @Override public int value(TreeNode node) { return node.getValue(); }
+    };
+
+    public static final Shape<AVLTree.AVLNode> AVL_NODE = new Shape<AVLTree.AVLNode>() {
+        @Override public AVLTree.AVLNode left(AVLTree.AVLNode node) { return node.left; }
+        @Override public AVLTree.AVLNode right(AVLTree.AVLNode node) { return node.right; }
+        @Override public int value(AVLTree.AVLNode node) { return node.value; }
+    };
+
+    public static final class Stats {
+        public static final Stats EMPTY = new Stats(0, 0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+        public final int size;
+        public final int height;
+        public final long sum;
+        // 空树时 min 为 Integer.MAX_VALUE，max 为 Integer.MIN_VALUE
+        public final int min;
+        public final int max;
+
+        private Stats(int size, int height, long sum, int min, int max) {
+            this.size = size;
+            this.height = height;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private TreeAggregates() {
+    }
+
+    public static <N> Stats compute(N root, Shape<N> shape) {
+        if (root == null) {
+            return Stats.EMPTY;
+        }
+        return POOL.invoke(new StatsTask<N>(root, 1, shape));
+    }
+
+    // 每个节点左右子树高度差都不超过 1；遇到第一个不平衡的节点就停止
+    public static <N> boolean isBalanced(N root, Shape<N> shape) {
+        return root == null || POOL.invoke(new BalanceTask<N>(root, shape)) >= 0;
+    }
+
+    // 中序导出所有值
+    public static <N> int[] inOrder(N root, Shape<N> shape) {
+        if (root == null) {
+            return new int[0];
+        }
+        Chunk chunk = POOL.invoke(new InOrderTask<N>(root, shape));
+        int[] values = new int[chunk.length()];
+        chunk.copyTo(values, 0);
+        return values;
+    }
+
+    // ========== 聚合 ==========
+
+    // 前序遍历，栈里同时记节点的深度，高度就是最大深度；各项都可以按任意顺序合并，
+    // 预算用完时把栈里剩下的子树原样交给子任务即可
+    @SuppressWarnings("serial")
+    private static final class StatsTask<N> extends RecursiveTask<Stats> {
+        private final N root;
+        private final int rootDepth;
+        private final Shape<N> shape;
+
+        StatsTask(N root, int rootDepth, Shape<N> shape) {
+            this.root = root;
+            this.rootDepth = rootDepth;
+            this.shape = shape;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Stats compute() {
+            Object[] nodes = new Object[64];
+            int[] depths = new int[64];
+            int top = 0;
+            nodes[top] = root;
+            depths[top++] = rootDepth;
+
+            int size = 0;
+            int height = 0;
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            while (top > 0 && size < SEQUENTIAL_THRESHOLD) {
+                N node = (N) nodes[--top];
+                int depth = depths[top];
+                int value = shape.value(node);
+                size++;
+                height = Math.max(height, depth);
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+
+                if (top + 2 > nodes.length) {
+                    nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                    depths = Arrays.copyOf(depths, depths.length * 2);
+                }
+                N right = shape.right(node);
+                N left = shape.left(node);
+                if (right != null) {
+                    nodes[top] = right;
+                    depths[top++] = depth + 1;
+                }
+                if (left != null) {
+                    nodes[top] = left;
+                    depths[top++] = depth + 1;
+                }
+            }
+            if (top == 0) {
+                return new Stats(size, height, sum, min, max);
+            }
+
+            List<StatsTask<N>> forked = new ArrayList<>(top);
+            for (int i = 0; i < top; i++) {
+                StatsTask<N> task = new StatsTask<N>((N) nodes[i], depths[i], shape);
+                task.fork();
+                forked.add(task);
+            }
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                Stats child = forked.get(i).join();
+                size += child.size;
+                height = Math.max(height, child.height);
+                sum += child.sum;
+                min = Math.min(min, child.min);
+                max = Math.max(max, child.max);
+            }
+            return new Stats(size, height, sum, min, max);
+        }
+    }
+
+    // ========== 平衡检查 ==========
+
+    // 后序遍历用显式栈，每层记节点、下行到哪一侧和左右子树高度，返回子树高度，不平衡时返回 -1。
+    // 顺序处理的节点数到达阈值后不再入栈，还没走到的子树都交给子任务，出栈时合并它们的高度
+    @SuppressWarnings("serial")
+    private static final class BalanceTask<N> extends RecursiveTask<Integer> {
+        private final N root;
+        private final Shape<N> shape;
+
+        BalanceTask(N root, Shape<N> shape) {
+            this.root = root;
+            this.shape = shape;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Integer compute() {
+            Object[] nodes = new Object[64];
+            // 0: 还没下行，1: 正在左子树，2: 正在右子树，3: 左右都已处理
+            byte[] states = new byte[64];
+            int[] leftHeights = new int[64];
+            int[] rightHeights = new int[64];
+            // 第 depth 层交出去的左、右子树任务分别在 2 * depth 和 2 * depth + 1；
+            // 交出子任务之后不会再入栈，这个数组不需要扩容
+            Object[] forked = null;
+
+            int depth = 0;
+            nodes[0] = root;
+            int visited = 1;
+            while (true) {
+                byte state = states[depth];
+                if (state < 2) {
+                    states[depth] = (byte) (state + 1);
+                    N child = state == 0 ? shape.left((N) nodes[depth]) : shape.right((N) nodes[depth]);
+                    if (child == null) {
+                        continue;
+                    }
+                    if (visited < SEQUENTIAL_THRESHOLD) {
+                        visited++;
+                        if (++depth == nodes.length) {
+                            nodes = Arrays.copyOf(nodes, depth * 2);
+                            states = Arrays.copyOf(states, depth * 2);
+                            leftHeights = Arrays.copyOf(leftHeights, depth * 2);
+                            rightHeights = Arrays.copyOf(rightHeights, depth * 2);
+                        }
+                        nodes[depth] = child;
+                        states[depth] = 0;
+                        leftHeights[depth] = 0;
+                        rightHeights[depth] = 0;
+                    } else {
+                        if (forked == null) {
+                            forked = new Object[nodes.length * 2];
+                        }
+                        forked[2 * depth + state] = new BalanceTask<N>(child, shape).fork();
+                    }
+                    continue;
+                }
+
+                if (forked != null) {
+                    for (int side = 1; side >= 0; side--) {
+                        Object task = forked[2 * depth + side];
+                        if (task == null) {
+                            continue;
+                        }
+                        int childHeight = ((BalanceTask<N>) task).join();
+                        if (childHeight < 0) {
+                            cancelAll(forked);
+                            return -1;
+                        }
+                        if (side == 0) {
+                            leftHeights[depth] = childHeight;
+                        } else {
+                            rightHeights[depth] = childHeight;
+                        }
+                    }
+                }
+                int leftHeight = leftHeights[depth];
+                int rightHeight = rightHeights[depth];
+                if (Math.abs(leftHeight - rightHeight) > 1) {
+                    cancelAll(forked);
+                    return -1;
+                }
+                int height = Math.max(leftHeight, rightHeight) + 1;
+                if (depth == 0) {
+                    return height;
+                }
+                depth--;
+                // 父节点的 state 表明刚才下行的是左子树（1）还是右子树（2）
+                if (states[depth] == 1) {
+                    leftHeights[depth] = height;
+                } else {
+                    rightHeights[depth] = height;
+                }
+            }
+        }
+
+        private static void cancelAll(Object[] forked) {
+            if (forked == null) {
+                return;
+            }
+            for (Object task : forked) {
+                if (task != null) {
+                    ((BalanceTask<?>) task).cancel(false);
+                }
+            }
+        }
+    }
+
+    // ========== 中序导出 ==========
+
+    // 一段中序结果：依次由顺序写下的值块和子任务的结果组成
+    private static final class Chunk {
+        private final List<Object> pieces = new ArrayList<>();
+        private int[] buffer = new int[64];
+        private int count;
+
+        void add(int value) {
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, count * 2);
+            }
+            buffer[count++] = value;
+        }
+
+        void addTask(InOrderTask<?> task) {
+            flush();
+            pieces.add(task);
+        }
+
+        void flush() {
+            if (count > 0) {
+                pieces.add(Arrays.copyOf(buffer, count));
+                count = 0;
+            }
+        }
+
+        int length() {
+            int length = 0;
+            for (Object piece : pieces) {
+                length += piece instanceof int[] ? ((int[]) piece).length : ((InOrderTask<?>) piece).join().length();
+            }
+            return length;
+        }
+
+        int copyTo(int[] target, int offset) {
+            for (Object piece : pieces) {
+                if (piece instanceof int[]) {
+                    int[] values = (int[]) piece;
+                    System.arraycopy(values, 0, target, offset, values.length);
+                    offset += values.length;
+                } else {
+                    offset = ((InOrderTask<?>) piece).join().copyTo(target, offset);
+                }
+            }
+            return offset;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class InOrderTask<N> extends RecursiveTask<Chunk> {
+        private final N root;
+        private final Shape<N> shape;
+
+        InOrderTask(N root, Shape<N> shape) {
+            this.root = root;
+            this.shape = shape;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk chunk = new Chunk();
+            List<N> stack = new ArrayList<>();
+            int visited = 0;
+            N current = root;
+            while (true) {
+                while (current != null) {
+                    if (visited >= SEQUENTIAL_THRESHOLD) {
+                        // 这棵子树的中序结果正好排在这里，交给子任务
+                        InOrderTask<N> task = new InOrderTask<N>(current, shape);
+                        task.fork();
+                        chunk.addTask(task);
+                        break;
+                    }
+                    visited++;
+                    stack.add(current);
+                    current = shape.left(current);
+                }
+                if (stack.isEmpty()) {
+                    chunk.flush();
+                    return chunk;
+                }
+                N node = stack.remove(stack.size() - 1);
+                chunk.add(shape.value(node));
+                current = shape.right(node);
+            }
+        }
+    }
+}
@@ -1,15 +1,19 @@
 // TreeArchiveManager.java
 package com.datastructurevisualizer.model;
 
-import java.io.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class TreeArchiveManager {
-    private static final String SAVE_DIRECTORY = "saves";
     private static final String TREE_STRUCTURE_EXTENSION = ".tree";
 
-    public static class TreeArchiveData implements Serializable {
+    // 只有 BST、AVL 树记录操作日志，二叉树和哈夫曼树每次保存完整快照
+    private static final JournaledArchive<TreeArchiveData> archive =
+            new JournaledArchive<>(TREE_STRUCTURE_EXTENSION, TreeArchiveData.class);
+
+    public static class TreeArchiveData implements JournaledArchive.Snapshot {
         private static final long serialVersionUID = 1L;
         public String treeType; // "binary", "bst", "huffman", "avl"
         public Object data;
@@ -23,6 +27,21 @@ public class TreeArchiveManager {
             this.timestamp = System.currentTimeMillis();
         }
 
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
         @Override
         public String toString() {
             return String.format("%s - %s (%tF %tT)",
@@ -30,69 +49,37 @@ public class TreeArchiveManager {
         }
     }
 
-    // 创建保存目录
-    private static void ensureSaveDirectory() {
-        File directory = new File(SAVE_DIRECTORY);
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
-    }
-
-    // 保存树形结构
+    // 保存树形结构（完整快照，不记录之后的修改）
     public static boolean saveTreeStructure(TreeArchiveData archiveData, String filename) {
-        try {
-            ensureSaveDirectory();
-            File file = new File(SAVE_DIRECTORY, filename + TREE_STRUCTURE_EXTENSION);
+        return archive.save(archiveData, filename);
+    }
 
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-                oos.writeObject(archiveData);
-            }
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
+    // 增量保存，规则与 ArchiveManager.saveLinearStructure 相同：日志可用时只 fsync 上次保存以来的记录，
+    // 否则调用 snapshot 写完整快照并从空日志重新开始记录
+    public static <N> boolean saveTreeStructure(Journaled<N> structure, String filename, String description,
+                                                Function<String, TreeArchiveData> snapshot) {
+        return archive.save(structure, filename, description, snapshot);
     }
 
     // 加载树形结构
     public static TreeArchiveData loadTreeStructure(String filename) {
-        try {
-            File file = new File(SAVE_DIRECTORY, filename + TREE_STRUCTURE_EXTENSION);
-            if (!file.exists()) {
-                return null;
-            }
+        return archive.load(filename);
+    }
 
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                return (TreeArchiveData) ois.readObject();
-            }
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return null;
-        }
+    // 恢复数据结构并重放存档日志，规则与 ArchiveManager.resumeJournal 相同
+    public static <N, S extends Journaled<N>> JournaledArchive.Resumed<S> resumeJournal(
+            String filename, TreeArchiveData archiveData, Supplier<S> restore,
+            BiFunction<S, String, TreeArchiveData> snapshot) {
+        return archive.resume(filename, archiveData, restore, snapshot);
     }
 
     // 获取所有保存的树文件列表
     public static List<String> getSavedTreeFiles() {
-        List<String> files = new ArrayList<>();
-        ensureSaveDirectory();
-
-        File directory = new File(SAVE_DIRECTORY);
-        File[] savedFiles = directory.listFiles((dir, name) -> name.endsWith(TREE_STRUCTURE_EXTENSION));
-
-        if (savedFiles != null) {
-            for (File file : savedFiles) {
-                String filename = file.getName();
-                filename = filename.substring(0, filename.length() - TREE_STRUCTURE_EXTENSION.length());
-                files.add(filename);
-            }
-        }
-
-        return files;
+        return archive.list();
     }
 
     // 删除保存文件
     public static boolean deleteTreeSaveFile(String filename) {
-        File file = new File(SAVE_DIRECTORY, filename + TREE_STRUCTURE_EXTENSION);
-        return file.exists() && file.delete();
+        return archive.delete(filename);
     }
 }
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.datastructurevisualizer.view.components;
 
 import com.datastructurevisualizer.model.ArrayList;
+import com.datastructurevisualizer.model.ChangeEvent;
+import com.datastructurevisualizer.model.ChangeListener;
+import com.datastructurevisualizer.model.ChangeSupport;
+import com.datastructurevisualizer.model.IntHashMap;
 import com.datastructurevisualizer.model.LinkedList;
 import com.datastructurevisualizer.model.Stack;
+import javafx.application.Platform;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public class LinearStructureView {
     private Pane canvas;
     private static final double ELEMENT_WIDTH = 50;
@@ -16,14 +24,246 @@ public class LinearStructureView {
     private static final double SPACING = 5;
     private static final double START_X = 50;
     private static final double START_Y = 200;
+    private static final double LIST_START_X = 50;
+    private static final double LIST_START_Y = 100;
+    private static final double LIST_NODE_SPACING = 80;
+    private static final double STACK_SPACING = 5;
+    private static final double HASH_START_Y = 130;
+    private static final double HASH_ROW_HEIGHT = ELEMENT_HEIGHT + 35;
+    // 每张表最多画出的槽位数，更大的表只画前面的部分
+    private static final int MAX_HASH_SLOTS = 128;
+    private static final double SORT_TOP_Y = 130;
+    // 排序柱状图最多画出的柱子数，更多的元素按间隔取样
+    private static final int MAX_SORT_BARS = 256;
+    // 柱子不多于这个数时在柱子上标出值和下标
+    private static final int SORT_LABEL_BARS = 32;
+
+    // 画布上的一个格子（数组元素、链表节点或栈元素）
+    private static class Cell {
+        final double x;
+        final double y;
+        final Rectangle box;
+        final Text valueText;
+        final Text indexText;
+        Line[] arrow;   // 链表节点指向下一节点的箭头
+
+        Cell(double x, double y, Rectangle box, Text valueText, Text indexText) {
+            this.x = x;
+            this.y = y;
+            this.box = box;
+            this.valueText = valueText;
+            this.indexText = indexText;
+        }
+    }
+
+    // ========== 增量更新状态 ==========
+    // 绑定数据结构后，画布显示其完整绘制结果时（live）按变更事件只修补受影响的格子；
+    // 画布显示步骤演示时忽略事件，由演示流程负责之后的重绘；画布尚未绘制时收到事件则完整绘制
+    private final java.util.List<Cell> cells = new java.util.ArrayList<Cell>();
+    private Runnable detachAction;
+    private boolean live;
+    private boolean showingSteps;
+
+    // 栈的布局参数，在完整绘制时确定
+    private double stackStartX;
+    private double stackStartY;
+    private double stackElementWidth;
+    private double stackElementHeight;
+    private int stackMaxVisible;
+    private boolean stackTruncated;
+    private Text stackTopText;
+    private Text stackInfoText;
+    private RenderScheduler renderScheduler;
 
     public LinearStructureView(Pane canvas) {
         this.canvas = canvas;
     }
 
+    // 设置后，变更事件引起的完整重绘交给调度器，同一脉冲内只画一次；未设置时立即重绘
+    public void setRenderScheduler(RenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
+    }
+
+    // ========== 绑定数据结构 ==========
+
+    public void attach(ArrayList arrayList) {
+        bind(arrayList.changes(), () -> drawArrayList(arrayList), events -> patchArrayList(arrayList, events));
+    }
+
+    public void attach(LinkedList list) {
+        bind(list.changes(), () -> drawLinkedList(list), events -> patchLinkedList(list, events));
+    }
+
+    public void attach(Stack stack) {
+        bind(stack.changes(), () -> drawStack(stack), events -> patchStack(stack, events));
+    }
+
+    // 取消对当前数据结构的订阅
+    public void detach() {
+        if (detachAction != null) {
+            detachAction.run();
+            detachAction = null;
+        }
+        live = false;
+        showingSteps = false;
+    }
+
+    private void bind(ChangeSupport<Void> changes, Runnable redraw, Consumer<List<ChangeEvent<Void>>> patch) {
+        detach();
+        ChangeListener<Void> listener = events -> {
+            // 在后台线程上修改的结构：等修改结束后在界面线程完整重绘
+            if (!Platform.isFxApplicationThread()) {
+                Platform.runLater(() -> requestRedraw(redraw));
+            } else if (live && !containsReset(events)) {
+                patch.accept(events);
+            } else if (!showingSteps) {
+                requestRedraw(redraw);
+            }
+        };
+        changes.addListener(listener);
+        detachAction = () -> changes.removeListener(listener);
+    }
+
+    private void requestRedraw(Runnable redraw) {
+        if (renderScheduler == null) {
+            redraw.run();
+            return;
+        }
+        // 等待重绘期间画布已过期，之后的事件不再修补，只合并到这次重绘里
+        live = false;
+        renderScheduler.request(this, redraw);
+    }
+
+    private void clearCanvas() {
+        canvas.getChildren().clear();
+        cells.clear();
+        live = false;
+        showingSteps = false;
+    }
+
+    // ========== 增量修补 ==========
+
+    private void patchArrayList(ArrayList arrayList, List<ChangeEvent<Void>> events) {
+        int size = arrayList.size();
+        int oldCount = cells.size();
+        // 从空数组变为非空（或反之）要替换提示文字，直接完整绘制
+        if (oldCount == 0 || size == 0) {
+            drawArrayList(arrayList);
+            return;
+        }
+
+        trimCells(size);
+        for (int i = oldCount; i < size; i++) {
+            cells.add(createArrayCell(i, arrayList.get(i)));
+        }
+        int[] dirty = dirtyRange(events);
+        for (int i = dirty[0]; i < Math.min(dirty[1], Math.min(oldCount, size)); i++) {
+            setCellValue(cells.get(i), arrayList.get(i));
+        }
+    }
+
+    private void patchLinkedList(LinkedList list, List<ChangeEvent<Void>> events) {
+        int size = list.getSize();
+        int oldCount = cells.size();
+        if (oldCount == 0 || size == 0) {
+            drawLinkedList(list);
+            return;
+        }
+
+        // 新增节点的值在补画时按位置读取，只有新旧都存在的位置需要改值
+        int[] dirty = dirtyRange(events);
+        int to = Math.min(dirty[1], Math.min(oldCount, size));
+        if (dirty[0] < to) {
+            LinkedList.Node node = list.get(dirty[0]);
+            for (int i = dirty[0]; i < to; i++, node = node.next) {
+                setCellValue(cells.get(i), node.data);
+            }
+        }
+
+        trimCells(size);
+        if (oldCount < size) {
+            LinkedList.Node node = list.get(oldCount);
+            for (int i = oldCount; i < size; i++, node = node.next) {
+                cells.add(createListCell(i, node.data));
+            }
+        }
+
+        // 只有原来和现在的末尾附近的箭头可能变化
+        for (int i = Math.max(0, Math.min(oldCount, size) - 1); i < size; i++) {
+            Cell cell = cells.get(i);
+            boolean needsArrow = i < size - 1;
+            if (needsArrow && cell.arrow == null) {
+                addListArrow(cell);
+            } else if (!needsArrow && cell.arrow != null) {
+                canvas.getChildren().removeAll(cell.arrow);
+                cell.arrow = null;
+            }
+        }
+    }
+
+    private void patchStack(Stack stack, List<ChangeEvent<Void>> events) {
+        int size = stack.size();
+        int oldCount = cells.size();
+        // 只显示了栈顶部分时，每次出入栈所有格子都要换位置，直接完整绘制
+        if (oldCount == 0 || size == 0 || stackTruncated || size > stackMaxVisible) {
+            drawStack(stack);
+            return;
+        }
+
+        Stack.Snapshot elements = stack.snapshot();
+        trimCells(size);
+        for (int i = oldCount; i < size; i++) {
+            cells.add(createStackCell(i, i, elements.get(i)));
+        }
+        int[] dirty = dirtyRange(events);
+        for (int i = dirty[0]; i < Math.min(dirty[1], Math.min(oldCount, size)); i++) {
+            setCellValue(cells.get(i), elements.get(i));
+        }
+        placeStackTop(size);
+        stackInfoText.setText(formatStackInfo(stack));
+    }
+
+    // 移除尾部多出的格子
+    private void trimCells(int size) {
+        while (cells.size() > size) {
+            Cell cell = cells.remove(cells.size() - 1);
+            canvas.getChildren().removeAll(cell.box, cell.valueText, cell.indexText);
+            if (cell.arrow != null) {
+                canvas.getChildren().removeAll(cell.arrow);
+            }
+        }
+    }
+
+    // 一批事件影响到的位置范围 [from, to)，元素移动时原位置和新位置都算在内
+    private static int[] dirtyRange(List<ChangeEvent<Void>> events) {
+        int from = Integer.MAX_VALUE;
+        int to = 0;
+        for (ChangeEvent<Void> event : events) {
+            int low = event.index;
+            int high = event.index + event.count;
+            if (event.kind == ChangeEvent.Kind.SHIFTED) {
+                low += Math.min(0, event.offset);
+                high += Math.max(0, event.offset);
+            }
+            from = Math.min(from, Math.max(0, low));
+            to = Math.max(to, high);
+        }
+        return new int[]{from, to};
+    }
+
+    private static boolean containsReset(List<ChangeEvent<Void>> events) {
+        for (ChangeEvent<Void> event : events) {
+            if (event.kind == ChangeEvent.Kind.RESET) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // 新的方法：绘制顺序表步骤演示
     public void drawArrayListWithSteps(ArrayList arrayList, ArrayList.OperationStep step) {
-        canvas.getChildren().clear();
+        clearCanvas();
+        showingSteps = true;
 
         if (arrayList == null || step == null) {
             drawEmptyArray();
@@ -100,7 +340,7 @@ public class LinearStructureView {
 
     // 原有的绘制方法（保持兼容性）
     public void drawArrayList(ArrayList arrayList) {
-        canvas.getChildren().clear();
+        clearCanvas();
 
         if (arrayList == null || arrayList.isEmpty()) {
             drawEmptyArray();
@@ -108,27 +348,43 @@ public class LinearStructureView {
         }
 
         for (int i = 0; i < arrayList.size(); i++) {
-            double elementX = START_X + i * (ELEMENT_WIDTH + SPACING);
+            cells.add(createArrayCell(i, arrayList.get(i)));
+        }
+        live = true;
+    }
 
-            Rectangle element = new Rectangle(elementX, START_Y, ELEMENT_WIDTH, ELEMENT_HEIGHT);
-            element.setFill(Color.LIGHTCORAL);
-            element.setStroke(Color.DARKRED);
-            element.setStrokeWidth(2);
+    private Cell createArrayCell(int index, int value) {
+        double elementX = START_X + index * (ELEMENT_WIDTH + SPACING);
 
-            // 索引文本
-            Text indexText = new Text(String.valueOf(i));
-            indexText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
-            indexText.setX(elementX + 5);
-            indexText.setY(START_Y - 5);
+        Rectangle element = new Rectangle(elementX, START_Y, ELEMENT_WIDTH, ELEMENT_HEIGHT);
+        element.setFill(Color.LIGHTCORAL);
+        element.setStroke(Color.DARKRED);
+        element.setStrokeWidth(2);
 
-            // 值文本
-            Text valueText = new Text(String.valueOf(arrayList.get(i)));
-            valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
-            valueText.setX(elementX + ELEMENT_WIDTH / 2 - valueText.getLayoutBounds().getWidth() / 2);
-            valueText.setY(START_Y + ELEMENT_HEIGHT / 2 + valueText.getLayoutBounds().getHeight() / 4);
+        // 索引文本
+        Text indexText = new Text(String.valueOf(index));
+        indexText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
+        indexText.setX(elementX + 5);
+        indexText.setY(START_Y - 5);
 
-            canvas.getChildren().addAll(element, indexText, valueText);
-        }
+        // 值文本
+        Text valueText = new Text();
+        valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+        Cell cell = new Cell(elementX, START_Y, element, valueText, indexText);
+        setCellValue(cell, value);
+
+        canvas.getChildren().addAll(element, indexText, valueText);
+        return cell;
+    }
+
+    // 更新格子中的值并保持水平居中
+    private void setCellValue(Cell cell, int value) {
+        Text valueText = cell.valueText;
+        valueText.setText(String.valueOf(value));
+        double width = cell.box.getWidth();
+        double height = cell.box.getHeight();
+        valueText.setX(cell.x + width / 2 - valueText.getLayoutBounds().getWidth() / 2);
+        valueText.setY(cell.y + height / 2 + valueText.getLayoutBounds().getHeight() / 4);
     }
 
     // 绘制空数组提示
@@ -142,7 +398,7 @@ public class LinearStructureView {
 
     // 绘制链表
     public void drawLinkedList(LinkedList list) {
-        canvas.getChildren().clear();
+        clearCanvas();
 
         if (list == null || list.isEmpty()) {
             drawEmptyLinkedList();
@@ -150,70 +406,81 @@ public class LinearStructureView {
         }
 
         LinkedList.Node current = list.getHead();
-        double startX = 50;
-        double startY = 100;
         int position = 0;
-        double NODE_SPACING = 80;
 
         while (current != null) {
-            double centerX = startX + position * NODE_SPACING;
-            double centerY = startY;
-
-            // 创建节点
-            Rectangle nodeRect = new Rectangle(centerX - 20, centerY - 20, 40, 40);
-            nodeRect.setFill(Color.LIGHTBLUE);
-            nodeRect.setStroke(Color.BLUE);
-            nodeRect.setStrokeWidth(2);
-
-            // 节点值
-            Text valueText = new Text(String.valueOf(current.data));
-            valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
-            valueText.setX(centerX - valueText.getLayoutBounds().getWidth() / 2);
-            valueText.setY(centerY + valueText.getLayoutBounds().getHeight() / 4);
-
-            // 位置索引
-            Text indexText = new Text(String.valueOf(position));
-            indexText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
-            indexText.setX(centerX - 20);
-            indexText.setY(startY - 25);
-
-            canvas.getChildren().addAll(nodeRect, valueText, indexText);
+            Cell cell = createListCell(position, current.data);
+            cells.add(cell);
 
             // 绘制箭头（如果不是最后一个节点）
             if (current.next != null) {
-                double arrowStartX = centerX + 20;
-                double arrowEndX = centerX + NODE_SPACING - 20;
-
-                Line arrow = new Line(arrowStartX, centerY, arrowEndX, centerY);
-                arrow.setStroke(Color.BLACK);
-                arrow.setStrokeWidth(2);
-
-                // 箭头头部
-                Line arrowHead1 = new Line(arrowEndX, centerY, arrowEndX - 10, centerY - 5);
-                Line arrowHead2 = new Line(arrowEndX, centerY, arrowEndX - 10, centerY + 5);
-                arrowHead1.setStroke(Color.BLACK);
-                arrowHead2.setStroke(Color.BLACK);
-
-                canvas.getChildren().addAll(arrow, arrowHead1, arrowHead2);
+                addListArrow(cell);
             }
 
             current = current.next;
             position++;
         }
+        live = true;
+    }
+
+    private Cell createListCell(int position, int value) {
+        double centerX = LIST_START_X + position * LIST_NODE_SPACING;
+        double centerY = LIST_START_Y;
+
+        // 创建节点
+        Rectangle nodeRect = new Rectangle(centerX - 20, centerY - 20, 40, 40);
+        nodeRect.setFill(Color.LIGHTBLUE);
+        nodeRect.setStroke(Color.BLUE);
+        nodeRect.setStrokeWidth(2);
+
+        // 节点值
+        Text valueText = new Text();
+        valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+
+        // 位置索引
+        Text indexText = new Text(String.valueOf(position));
+        indexText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
+        indexText.setX(centerX - 20);
+        indexText.setY(LIST_START_Y - 25);
+
+        Cell cell = new Cell(centerX - 20, centerY - 20, nodeRect, valueText, indexText);
+        setCellValue(cell, value);
+        canvas.getChildren().addAll(nodeRect, valueText, indexText);
+        return cell;
+    }
+
+    private void addListArrow(Cell cell) {
+        double centerX = cell.x + 20;
+        double centerY = cell.y + 20;
+        double arrowStartX = centerX + 20;
+        double arrowEndX = centerX + LIST_NODE_SPACING - 20;
+
+        Line arrow = new Line(arrowStartX, centerY, arrowEndX, centerY);
+        arrow.setStroke(Color.BLACK);
+        arrow.setStrokeWidth(2);
+
+        // 箭头头部
+        Line arrowHead1 = new Line(arrowEndX, centerY, arrowEndX - 10, centerY - 5);
+        Line arrowHead2 = new Line(arrowEndX, centerY, arrowEndX - 10, centerY + 5);
+        arrowHead1.setStroke(Color.BLACK);
+        arrowHead2.setStroke(Color.BLACK);
+
+        cell.arrow = new Line[]{arrow, arrowHead1, arrowHead2};
+        canvas.getChildren().addAll(cell.arrow);
     }
 
     // 绘制空链表提示
     private void drawEmptyLinkedList() {
         Text emptyText = new Text("空链表");
         emptyText.setStyle("-fx-font-size: 16; -fx-font-weight: bold; -fx-fill: #7f8c8d;");
-        emptyText.setX(50);
-        emptyText.setY(100);
+        emptyText.setX(LIST_START_X);
+        emptyText.setY(LIST_START_Y);
         canvas.getChildren().add(emptyText);
     }
 
     // 绘制栈
     public void drawStack(Stack stack) {
-        canvas.getChildren().clear();
+        clearCanvas();
 
         if (stack == null || stack.isEmpty()) {
             drawEmptyStack();
@@ -228,7 +495,7 @@ public class LinearStructureView {
         double elementHeight = Math.min(40, canvasHeight * 0.08);
         double startX = (canvasWidth - elementWidth) / 2; // 水平居中
         double startY = canvasHeight - 50; // 底部留出空间
-        double spacing = 5;
+        double spacing = STACK_SPACING;
         double maxStackHeight = canvasHeight * 0.7; // 栈最大高度限制
 
         // 绘制栈底
@@ -238,54 +505,40 @@ public class LinearStructureView {
         canvas.getChildren().add(stackBase);
 
         // 绘制栈元素
-        java.util.List<Integer> elements = stack.getElements();
+        // 使用共享数组的快照，只读取可见的栈顶部分
+        Stack.Snapshot elements = stack.snapshot();
         int visibleElements = elements.size();
 
         // 如果栈太高，只显示部分元素
+        stackStartX = startX;
+        stackStartY = startY;
+        stackElementWidth = elementWidth;
+        stackElementHeight = elementHeight;
+        stackMaxVisible = (int) (maxStackHeight / (elementHeight + spacing));
         double totalHeight = elements.size() * (elementHeight + spacing);
         if (totalHeight > maxStackHeight) {
-            visibleElements = (int) (maxStackHeight / (elementHeight + spacing));
+            visibleElements = stackMaxVisible;
         }
+        stackTruncated = visibleElements < elements.size();
 
         for (int i = 0; i < visibleElements; i++) {
             int elementIndex = elements.size() - visibleElements + i;
-            double elementY = startY - (i + 1) * (elementHeight + spacing);
-
-            Rectangle element = new Rectangle(startX, elementY, elementWidth, elementHeight);
-            element.setFill(Color.LIGHTGREEN);
-            element.setStroke(Color.DARKGREEN);
-            element.setStrokeWidth(2);
-
-            Text valueText = new Text(String.valueOf(elements.get(elementIndex)));
-            valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
-            valueText.setX(startX + elementWidth / 2 - valueText.getLayoutBounds().getWidth() / 2);
-            valueText.setY(elementY + elementHeight / 2 + valueText.getLayoutBounds().getHeight() / 4);
-
-            // 位置索引
-            Text indexText = new Text(String.valueOf(elementIndex));
-            indexText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
-            indexText.setX(startX - 25);
-            indexText.setY(elementY + elementHeight / 2);
-
-            canvas.getChildren().addAll(element, valueText, indexText);
+            cells.add(createStackCell(i, elementIndex, elements.get(elementIndex)));
         }
 
         // 标记栈顶
-        if (!elements.isEmpty()) {
-            double topY = startY - Math.min(visibleElements, elements.size()) * (elementHeight + spacing);
-            Text topText = new Text("↑ 栈顶");
-            topText.setStyle("-fx-font-size: 12; -fx-fill: #e74c3c;");
-            topText.setX(startX + elementWidth + 10);
-            topText.setY(topY + elementHeight / 2);
-            canvas.getChildren().add(topText);
-        }
+        stackTopText = new Text("↑ 栈顶");
+        stackTopText.setStyle("-fx-font-size: 12; -fx-fill: #e74c3c;");
+        stackTopText.setX(startX + elementWidth + 10);
+        placeStackTop(Math.min(visibleElements, elements.size()));
+        canvas.getChildren().add(stackTopText);
 
         // 显示栈信息
-        Text infoText = new Text("栈大小: " + stack.size() + " / " + stack.getCapacity());
-        infoText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
-        infoText.setX(10);
-        infoText.setY(20);
-        canvas.getChildren().add(infoText);
+        stackInfoText = new Text(formatStackInfo(stack));
+        stackInfoText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
+        stackInfoText.setX(10);
+        stackInfoText.setY(20);
+        canvas.getChildren().add(stackInfoText);
 
         // 如果栈被截断，显示提示
         if (visibleElements < elements.size()) {
@@ -295,6 +548,40 @@ public class LinearStructureView {
             overflowText.setY(40);
             canvas.getChildren().add(overflowText);
         }
+        live = true;
+    }
+
+    // slot 为从栈底数起的显示位置
+    private Cell createStackCell(int slot, int elementIndex, int value) {
+        double elementY = stackStartY - (slot + 1) * (stackElementHeight + STACK_SPACING);
+
+        Rectangle element = new Rectangle(stackStartX, elementY, stackElementWidth, stackElementHeight);
+        element.setFill(Color.LIGHTGREEN);
+        element.setStroke(Color.DARKGREEN);
+        element.setStrokeWidth(2);
+
+        Text valueText = new Text();
+        valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+
+        // 位置索引
+        Text indexText = new Text(String.valueOf(elementIndex));
+        indexText.setStyle("-fx-font-size: 12; -fx-fill: #2c3e50;");
+        indexText.setX(stackStartX - 25);
+        indexText.setY(elementY + stackElementHeight / 2);
+
+        Cell cell = new Cell(stackStartX, elementY, element, valueText, indexText);
+        setCellValue(cell, value);
+        canvas.getChildren().addAll(element, valueText, indexText);
+        return cell;
+    }
+
+    private void placeStackTop(int visibleElements) {
+        double topY = stackStartY - visibleElements * (stackElementHeight + STACK_SPACING);
+        stackTopText.setY(topY + stackElementHeight / 2);
+    }
+
+    private String formatStackInfo(Stack stack) {
+        return "栈大小: " + stack.size() + " / " + stack.getCapacity();
     }
 
     // 绘制空栈提示
@@ -318,6 +605,348 @@ public class LinearStructureView {
         canvas.getChildren().add(emptyText);
     }
 
+    // ========== 哈希表 ==========
+
+    // 绘制整张表（不带演示步骤）
+    public void drawHashTable(IntHashMap map) {
+        clearCanvas();
+        if (map == null || map.isEmpty()) {
+            Text emptyText = new Text("空哈希表");
+            emptyText.setStyle("-fx-font-size: 16; -fx-font-weight: bold; -fx-fill: #7f8c8d;");
+            emptyText.setX(START_X);
+            emptyText.setY(START_Y + ELEMENT_HEIGHT / 2);
+            canvas.getChildren().add(emptyText);
+            return;
+        }
+        IntHashMap.HashStep state = map.snapshot();
+        drawHashViews(state);
+
+        Text infoText = new Text(state.getDescription());
+        infoText.setStyle("-fx-font-size: 14; -fx-font-weight: bold; -fx-fill: #2c3e50;");
+        infoText.setX(START_X);
+        infoText.setY(HASH_START_Y - 40);
+        canvas.getChildren().add(infoText);
+    }
+
+    // 绘制探测过程的一步：当前表在上，迁移中的旧表在下
+    public void drawHashTableStep(IntHashMap.HashStep step) {
+        clearCanvas();
+        showingSteps = true;
+        if (step == null) {
+            return;
+        }
+        drawHashViews(step);
+        addHashStepDescription(step);
+    }
+
+    private void drawHashViews(IntHashMap.HashStep step) {
+        double canvasWidth = canvas.getWidth() > 0 ? canvas.getWidth() : 1000;
+        int perRow = Math.max(4, (int) ((canvasWidth - 2 * START_X + SPACING) / (ELEMENT_WIDTH + SPACING)));
+
+        double y = drawHashSlots(step.keys, step.dist, step, !step.onOldTable, perRow, HASH_START_Y, "当前表");
+        if (step.oldKeys != null) {
+            drawHashSlots(step.oldKeys, step.oldDist, step, step.onOldTable, perRow, y + 30, "旧表（迁移中）");
+        }
+    }
+
+    // 按行画出一张表的槽位，返回下一个可用的 y 坐标
+    private double drawHashSlots(int[] keys, int[] dist, IntHashMap.HashStep step, boolean active,
+                                 int perRow, double startY, String title) {
+        Text titleText = new Text(title + "  容量 " + keys.length);
+        titleText.setStyle("-fx-font-size: 12; -fx-font-weight: bold; -fx-fill: #2c3e50;");
+        titleText.setX(START_X);
+        titleText.setY(startY - 22);
+        canvas.getChildren().add(titleText);
+
+        int shown = Math.min(keys.length, MAX_HASH_SLOTS);
+        for (int i = 0; i < shown; i++) {
+            double x = START_X + (i % perRow) * (ELEMENT_WIDTH + SPACING);
+            double y = startY + (i / perRow) * HASH_ROW_HEIGHT;
+
+            Rectangle box = new Rectangle(x, y, ELEMENT_WIDTH, ELEMENT_HEIGHT);
+            box.setFill(getHashSlotColor(i, dist[i], step, active, keys.length));
+            box.setStroke(active && i == step.home ? Color.BLUE : Color.DARKRED);
+            box.setStrokeWidth(active && i == step.home ? 3 : 1.5);
+
+            Text indexText = new Text(String.valueOf(i));
+            indexText.setStyle("-fx-font-size: 10; -fx-fill: #2c3e50;");
+            indexText.setX(x + 3);
+            indexText.setY(y - 3);
+            canvas.getChildren().addAll(box, indexText);
+
+            if (dist[i] >= 0) {
+                Text valueText = new Text();
+                valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 13;");
+                setCellValue(new Cell(x, y, box, valueText, indexText), keys[i]);
+
+                Text distText = new Text("d=" + dist[i]);
+                distText.setStyle("-fx-font-size: 10; -fx-fill: #7f8c8d;");
+                distText.setX(x + 3);
+                distText.setY(y + ELEMENT_HEIGHT + 12);
+                canvas.getChildren().addAll(valueText, distText);
+            } else if (dist[i] == -2) {
+                // 旧表中已迁走的槽位
+                Text movedText = new Text("已迁");
+                movedText.setStyle("-fx-font-size: 11; -fx-fill: #95a5a6;");
+                movedText.setX(x + 13);
+                movedText.setY(y + ELEMENT_HEIGHT / 2 + 4);
+                canvas.getChildren().add(movedText);
+            }
+        }
+
+        int rows = (shown + perRow - 1) / perRow;
+        double nextY = startY + rows * HASH_ROW_HEIGHT;
+        if (shown < keys.length) {
+            Text moreText = new Text("... 共 " + keys.length + " 个槽位，只显示前 " + shown + " 个");
+            moreText.setStyle("-fx-font-size: 12; -fx-fill: #e74c3c;");
+            moreText.setX(START_X);
+            moreText.setY(nextY);
+            canvas.getChildren().add(moreText);
+            nextY += 20;
+        }
+        return nextY;
+    }
+
+    // 当前槽位按步骤类型着色；从哈希槽位到当前槽位之间已经探测过的槽位为黄色
+    private Color getHashSlotColor(int slot, int dist, IntHashMap.HashStep step, boolean active, int length) {
+        if (active && slot == step.slot) {
+            return getHashStepColor(step.type);
+        }
+        if (active && step.home >= 0 && step.slot >= 0) {
+            int probed = (step.slot - step.home + length) % length;
+            int offset = (slot - step.home + length) % length;
+            if (offset < probed) {
+                return Color.LIGHTYELLOW;
+            }
+        }
+        if (dist == -1) {
+            return Color.WHITESMOKE;
+        }
+        if (dist == -2) {
+            return Color.GAINSBORO;
+        }
+        return Color.LIGHTCORAL;
+    }
+
+    private Color getHashStepColor(String stepType) {
+        switch (stepType) {
+            case "insert": return Color.LIGHTGREEN;
+            case "update": return Color.LIGHTGREEN;
+            case "found": return Color.LIGHTGREEN;
+            case "migrate": return Color.LIGHTSKYBLUE;
+            case "swap": return Color.ORANGE;
+            case "shift": return Color.ORANGE;
+            case "delete": return Color.TOMATO;
+            case "not_found": return Color.LIGHTGRAY;
+            case "probe": return Color.GOLD;
+            default: return Color.LIGHTBLUE;
+        }
+    }
+
+    private String getHashStepTypeChinese(String stepType) {
+        switch (stepType) {
+            case "hash": return "计算哈希";
+            case "probe": return "探测";
+            case "swap": return "换位";
+            case "insert": return "放入";
+            case "update": return "更新";
+            case "found": return "命中";
+            case "not_found": return "未命中";
+            case "delete": return "删除";
+            case "shift": return "前移";
+            case "migrate": return "迁移";
+            case "resize": return "扩容";
+            case "complete": return "完成";
+            default: return stepType;
+        }
+    }
+
+    private void addHashStepDescription(IntHashMap.HashStep step) {
+        Rectangle infoPanel = new Rectangle(520, 80);
+        infoPanel.setFill(Color.rgb(255, 255, 255, 0.95));
+        infoPanel.setStroke(Color.DARKGRAY);
+        infoPanel.setStrokeWidth(1);
+        infoPanel.setLayoutX(10);
+        infoPanel.setLayoutY(10);
+        infoPanel.setArcWidth(10);
+        infoPanel.setArcHeight(10);
+
+        Text stepTypeText = new Text("步骤类型: " + getHashStepTypeChinese(step.type));
+        stepTypeText.setStyle("-fx-font-weight: bold; -fx-font-size: 14; -fx-fill: #2c3e50;");
+        stepTypeText.setX(20);
+        stepTypeText.setY(30);
+
+        Text descText = new Text(step.getDescription());
+        descText.setStyle("-fx-font-size: 12; -fx-fill: #34495e;");
+        descText.setX(20);
+        descText.setY(50);
+
+        Text colorInfoText = new Text("颜色说明: 蓝框-哈希槽位, 黄色-已探测, 金色-探测中, 绿色-放入/命中, 橙色-换位/前移, 灰色-已迁走");
+        colorInfoText.setStyle("-fx-font-size: 10; -fx-fill: #7f8c8d;");
+        colorInfoText.setX(20);
+        colorInfoText.setY(70);
+
+        canvas.getChildren().addAll(infoPanel, stepTypeText, descText, colorInfoText);
+    }
+
+    // ========== 排序 ==========
+
+    // 排序前的数据：每个元素一根柱子，元素太多时按间隔取样
+    public void drawArrayBars(int[] values, int minValue, int maxValue) {
+        clearCanvas();
+        if (values == null || values.length == 0) {
+            drawEmptyArray();
+            return;
+        }
+        int stride = Math.max(1, (values.length + MAX_SORT_BARS - 1) / MAX_SORT_BARS);
+        int[] state = new int[(values.length + stride - 1) / stride];
+        for (int k = 0; k < state.length; k++) {
+            state[k] = values[k * stride];
+        }
+        drawSortBars(state, stride, minValue, maxValue, null);
+
+        Text infoText = new Text(stride > 1
+                ? String.format("%d 个元素，每 %d 个画一个", values.length, stride)
+                : values.length + " 个元素");
+        infoText.setStyle("-fx-font-size: 14; -fx-font-weight: bold; -fx-fill: #2c3e50;");
+        infoText.setX(START_X);
+        infoText.setY(SORT_TOP_Y - 40);
+        canvas.getChildren().add(infoText);
+    }
+
+    // 排序演示的一步；柱子高度按 [minValue, maxValue] 缩放，各步之间保持一致
+    public void drawArraySortStep(ArrayList.OperationStep step, int minValue, int maxValue) {
+        clearCanvas();
+        showingSteps = true;
+        if (step == null || step.arrayState == null || step.arrayState.length == 0) {
+            drawEmptyArray();
+            return;
+        }
+        drawSortBars(step.arrayState, step.stateStride, minValue, maxValue, step);
+        addSortStepDescription(step);
+    }
+
+    private void drawSortBars(int[] state, int stride, int minValue, int maxValue, ArrayList.OperationStep step) {
+        double canvasWidth = canvas.getWidth() > 0 ? canvas.getWidth() : 1000;
+        double canvasHeight = canvas.getHeight() > 0 ? canvas.getHeight() : 500;
+        double bottom = Math.max(SORT_TOP_Y + 100, canvasHeight - 30);
+        double slot = (canvasWidth - 2 * START_X) / state.length;
+        double gap = slot > 4 ? Math.min(SPACING, slot / 5) : 0;
+        double range = Math.max(1, (double) maxValue - minValue);
+        boolean labeled = state.length <= SORT_LABEL_BARS;
+
+        for (int i = 0; i < state.length; i++) {
+            double x = START_X + i * slot;
+            double height = 4 + (bottom - SORT_TOP_Y - 4) * ((state[i] - (double) minValue) / range);
+            Rectangle bar = new Rectangle(x, bottom - height, Math.max(1, slot - gap), height);
+            bar.setFill(getSortBarColor(i, step));
+            if (labeled) {
+                bar.setStroke(Color.DARKSLATEGRAY);
+                bar.setStrokeWidth(1);
+            }
+            canvas.getChildren().add(bar);
+
+            if (labeled) {
+                Text valueText = new Text(String.valueOf(state[i]));
+                valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 12;");
+                valueText.setX(x + (slot - gap) / 2 - valueText.getLayoutBounds().getWidth() / 2);
+                valueText.setY(bottom - height - 4);
+
+                Text indexText = new Text(String.valueOf(i));
+                indexText.setStyle("-fx-font-size: 10; -fx-fill: #7f8c8d;");
+                indexText.setX(x + (slot - gap) / 2 - indexText.getLayoutBounds().getWidth() / 2);
+                indexText.setY(bottom + 14);
+                canvas.getChildren().addAll(valueText, indexText);
+            }
+        }
+
+        // 交换和移动在柱子上方画出从第一个位置指向第二个位置的箭头
+        if (step != null && step.movingIndexes.length == 2 && step.movingIndexes[0] != step.movingIndexes[1]
+                && (step.type.equals("swap") || step.type.equals("move"))) {
+            double fromX = START_X + step.movingIndexes[0] * slot + (slot - gap) / 2;
+            double toX = START_X + step.movingIndexes[1] * slot + (slot - gap) / 2;
+            double y = SORT_TOP_Y - 20;
+            double head = fromX < toX ? -8 : 8;
+            Line arrowLine = new Line(fromX, y, toX, y);
+            Line arrowHead1 = new Line(toX, y, toX + head, y - 6);
+            Line arrowHead2 = new Line(toX, y, toX + head, y + 6);
+            for (Line line : new Line[]{arrowLine, arrowHead1, arrowHead2}) {
+                line.setStroke(Color.RED);
+                line.setStrokeWidth(2);
+            }
+            canvas.getChildren().addAll(arrowLine, arrowHead1, arrowHead2);
+        }
+    }
+
+    private Color getSortBarColor(int index, ArrayList.OperationStep step) {
+        if (step == null) {
+            return Color.LIGHTSTEELBLUE;
+        }
+        if (step.type.equals("complete")) {
+            return Color.LIGHTGREEN;
+        }
+        if (index == step.highlightedIndex) {
+            return getSortStepColor(step.type);
+        }
+        if (isInMovingIndexes(index, step.movingIndexes)) {
+            return Color.LIGHTYELLOW;
+        }
+        return Color.LIGHTSTEELBLUE;
+    }
+
+    private Color getSortStepColor(String stepType) {
+        switch (stepType) {
+            case "compare": return Color.GOLD;
+            case "swap": return Color.ORANGE;
+            case "move": return Color.LIGHTSKYBLUE;
+            case "write": return Color.LIGHTGREEN;
+            default: return Color.LIGHTSTEELBLUE;
+        }
+    }
+
+    private String getSortStepTypeChinese(String stepType) {
+        switch (stepType) {
+            case "check": return "开始";
+            case "prepare": return "取样";
+            case "compare": return "比较";
+            case "swap": return "交换";
+            case "move": return "移动";
+            case "write": return "写回";
+            case "complete": return "完成";
+            default: return stepType;
+        }
+    }
+
+    private void addSortStepDescription(ArrayList.OperationStep step) {
+        Rectangle infoPanel = new Rectangle(520, 80);
+        infoPanel.setFill(Color.rgb(255, 255, 255, 0.95));
+        infoPanel.setStroke(Color.DARKGRAY);
+        infoPanel.setStrokeWidth(1);
+        infoPanel.setLayoutX(10);
+        infoPanel.setLayoutY(10);
+        infoPanel.setArcWidth(10);
+        infoPanel.setArcHeight(10);
+
+        Text stepTypeText = new Text("步骤类型: " + getSortStepTypeChinese(step.type));
+        stepTypeText.setStyle("-fx-font-weight: bold; -fx-font-size: 14; -fx-fill: #2c3e50;");
+        stepTypeText.setX(20);
+        stepTypeText.setY(30);
+
+        Text descText = new Text(step.getDescription());
+        descText.setStyle("-fx-font-size: 12; -fx-fill: #34495e;");
+        descText.setX(20);
+        descText.setY(50);
+
+        Text colorInfoText = new Text(step.stateStride > 1
+                ? "颜色说明: 金色-比较, 橙色-交换, 蓝色-移动, 绿色-写回；每 " + step.stateStride + " 个元素画一根柱子"
+                : "颜色说明: 金色-比较, 橙色-交换, 蓝色-移动, 绿色-写回, 黄色-另一个位置");
+        colorInfoText.setStyle("-fx-font-size: 10; -fx-fill: #7f8c8d;");
+        colorInfoText.setX(20);
+        colorInfoText.setY(70);
+
+        canvas.getChildren().addAll(infoPanel, stepTypeText, descText, colorInfoText);
+    }
+
     // 绘制移动箭头
     private void drawMovementArrow(int fromIndex, int toIndex, double startX) {
         double fromX = startX + fromIndex * (ELEMENT_WIDTH + SPACING) + ELEMENT_WIDTH / 2;
@@ -369,7 +998,7 @@ public class LinearStructureView {
         stepTypeText.setX(20);
         stepTypeText.setY(30);
 
-        Text descText = new Text(step.description);
+        Text descText = new Text(step.getDescription());
         descText.setStyle("-fx-font-size: 12; -fx-fill: #34495e;");
         descText.setX(20);
         descText.setY(50);
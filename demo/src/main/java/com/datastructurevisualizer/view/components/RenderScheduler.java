@@ -0,0 +1,98 @@
+package com.datastructurevisualizer.view.components;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 合并重绘请求：调用方只把目标（通常是某个视图）标记为脏并登记绘制动作，
+// 真正的绘制在下一个 JavaFX 脉冲里统一执行。同一脉冲内对同一目标的多次请求只执行最后一次，
+// 例如按住方向键连续切换步骤、插入后紧跟着刷新信息栏，都只会画一次。
+// 没有待绘制的目标时计时器停止，空闲时不占用脉冲。
+public class RenderScheduler {
+    private final Map<Object, Runnable> dirty = new LinkedHashMap<Object, Runnable>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            pulse();
+        }
+    };
+    private boolean running;
+
+    // 统计：实际执行的绘制次数、被同一脉冲内后续请求覆盖而省掉的绘制次数、执行过绘制的脉冲数
+    private long framesRendered;
+    private long framesSkipped;
+    private long pulses;
+
+    // 标记 target 为脏，下一个脉冲执行 render；之前尚未执行的同一 target 的绘制被替换
+    public void request(Object target, Runnable render) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> request(target, render));
+            return;
+        }
+        if (dirty.put(target, render) != null) {
+            framesSkipped++;
+        }
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    // 以绘制动作本身作为目标，适合信息栏刷新这类固定的方法引用
+    public void request(Runnable render) {
+        request(render, render);
+    }
+
+    // 丢弃 target 尚未执行的绘制
+    public void cancel(Object target) {
+        if (dirty.remove(target) != null) {
+            framesSkipped++;
+        }
+    }
+
+    public boolean isDirty(Object target) {
+        return dirty.containsKey(target);
+    }
+
+    // 立即执行所有待绘制的动作，不等下一个脉冲（例如关闭窗口或截图之前）
+    public void flush() {
+        pulse();
+    }
+
+    private void pulse() {
+        if (dirty.isEmpty()) {
+            running = false;
+            timer.stop();
+            return;
+        }
+        // 先取出本帧的动作再执行，绘制过程中产生的新请求留到下一个脉冲
+        Runnable[] renders = dirty.values().toArray(new Runnable[0]);
+        dirty.clear();
+        pulses++;
+        for (Runnable render : renders) {
+            framesRendered++;
+            render.run();
+        }
+    }
+
+    // ========== 统计 ==========
+
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    public long getPulses() {
+        return pulses;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("已渲染: %d, 已合并跳过: %d, 脉冲: %d", framesRendered, framesSkipped, pulses);
+    }
+}
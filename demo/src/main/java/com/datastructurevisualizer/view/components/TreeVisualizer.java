@@ -2,9 +2,20 @@ package com.datastructurevisualizer.view.components;
 
 import com.datastructurevisualizer.model.AVLTree;
 import com.datastructurevisualizer.model.BST;
+import com.datastructurevisualizer.model.BTree;
 import com.datastructurevisualizer.model.BinaryTree;
+import com.datastructurevisualizer.model.ChangeEvent;
+import com.datastructurevisualizer.model.ChangeListener;
+import com.datastructurevisualizer.model.ChangeSupport;
+import com.datastructurevisualizer.model.CompactTree;
+import com.datastructurevisualizer.model.ConcurrentBST;
+import com.datastructurevisualizer.model.HuffmanFileCompressor;
 import com.datastructurevisualizer.model.HuffmanTree;
+import com.datastructurevisualizer.model.IntHeap;
+import com.datastructurevisualizer.model.IntNodePool;
+import com.datastructurevisualizer.model.RedBlackTree;
 import com.datastructurevisualizer.model.TreeNode;
+import javafx.application.Platform;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -13,10 +24,16 @@ import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class TreeVisualizer {
     private Pane canvas;
@@ -24,10 +41,322 @@ public class TreeVisualizer {
     private static final double NODE_RADIUS = 20;
     private static final double MIN_HORIZONTAL_GAP = 60; // 最小水平间距
 
+    // ========== 增量更新状态 ==========
+    // 绑定二叉树/BST 后，画布显示其完整绘制结果时（live）按变更事件只重画受影响的节点或子树，
+    // 画布显示的是步骤演示或其他内容时收到事件则完整绘制
+
+    // 已绘制节点的图形和布局参数，子节点位置由父节点的 x、y、hGap 推出
+    private static class NodeShapes {
+        final Circle circle;
+        final Text text;
+        final Line edge;    // 来自父节点的连线，根节点为 null
+        final double x;
+        final double y;
+        final double hGap;
+
+        NodeShapes(Circle circle, Text text, Line edge, double x, double y, double hGap) {
+            this.circle = circle;
+            this.text = text;
+            this.edge = edge;
+            this.x = x;
+            this.y = y;
+            this.hGap = hGap;
+        }
+    }
+
+    private final Map<TreeNode, NodeShapes> liveShapes = new IdentityHashMap<TreeNode, NodeShapes>();
+    private Supplier<TreeNode> attachedRoot;
+    private String attachedType;
+    private Runnable detachAction;
+    private boolean live;
+    private int liveHeight;
+    private double liveVerticalSpacing;
+    private RenderScheduler renderScheduler;
+
+    // 节点标记：只改已绘制节点的颜色，不重绘
+    public enum NodeMark { HIGHLIGHT, FOUND, DELETED }
+
+    private final Map<TreeNode, NodeShapes> markedShapes = new IdentityHashMap<TreeNode, NodeShapes>();
+    // 在 live 画布上显示搜索步骤时复用的信息面板，画布清空后重新挂上
+    private Rectangle stepPanel;
+    private Text stepPanelTitle;
+    private Text stepPanelDescription;
+    private Text stepPanelHint;
+    private boolean stepPanelAttached;
+
     public TreeVisualizer(Pane canvas) {
         this.canvas = canvas;
     }
 
+    // 设置后，变更事件引起的完整重绘交给调度器，同一脉冲内只画一次；未设置时立即重绘
+    public void setRenderScheduler(RenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
+    }
+
+    // ========== 绑定数据结构 ==========
+
+    public void attach(BinaryTree tree) {
+        bindTree(tree.changes(), tree::getRoot, "binary");
+    }
+
+    public void attach(BST bst) {
+        bindTree(bst.changes(), bst::getRoot, "bst");
+    }
+
+    // 取消对当前数据结构的订阅
+    public void detach() {
+        if (detachAction != null) {
+            detachAction.run();
+            detachAction = null;
+        }
+        attachedRoot = null;
+        attachedType = null;
+        live = false;
+    }
+
+    // 画布不是已绑定树的当前状态（例如正显示步骤演示）时完整重绘，否则保持不变
+    public void redrawIfStale() {
+        if (attachedRoot != null && !live) {
+            drawBinaryTree(attachedRoot.get(), attachedType);
+        }
+    }
+
+    private void bindTree(ChangeSupport<TreeNode> changes, Supplier<TreeNode> root, String treeType) {
+        detach();
+        attachedRoot = root;
+        attachedType = treeType;
+        Runnable redraw = () -> drawBinaryTree(root.get(), treeType);
+        ChangeListener<TreeNode> listener = events -> {
+            // 在后台线程上修改的树：等修改结束后在界面线程完整重绘
+            if (!Platform.isFxApplicationThread()) {
+                Platform.runLater(() -> requestRedraw(redraw));
+            } else if (!live || !patchTree(events)) {
+                requestRedraw(redraw);
+            }
+        };
+        changes.addListener(listener);
+        detachAction = () -> changes.removeListener(listener);
+    }
+
+    private void requestRedraw(Runnable redraw) {
+        if (renderScheduler == null) {
+            redraw.run();
+            return;
+        }
+        // 等待重绘期间画布已过期，之后的事件不再修补，只合并到这次重绘里
+        live = false;
+        renderScheduler.request(this, redraw);
+    }
+
+    private void clearCanvas() {
+        canvas.getChildren().clear();
+        liveShapes.clear();
+        markedShapes.clear();
+        stepPanelAttached = false;
+        live = false;
+    }
+
+    // ========== 节点标记 ==========
+
+    // 在 live 画布上给 node 加标记；画布不是已绑定树的完整绘制或 node 没有画出来时返回 false
+    public boolean markNode(TreeNode node, NodeMark mark) {
+        NodeShapes shapes = live ? liveShapes.get(node) : null;
+        if (shapes == null) {
+            return false;
+        }
+        switch (mark) {
+            case HIGHLIGHT:
+                shapes.circle.setFill(Color.GOLD);
+                shapes.circle.setStroke(Color.RED);
+                break;
+            case FOUND:
+                shapes.circle.setFill(Color.LIGHTGREEN);
+                shapes.circle.setStroke(Color.DARKGREEN);
+                break;
+            case DELETED:
+                shapes.circle.setFill(Color.LIGHTCORAL);
+                shapes.circle.setStroke(Color.DARKRED);
+                break;
+        }
+        shapes.circle.setStrokeWidth(3);
+        shapes.text.setStyle("-fx-font-weight: bold; -fx-font-size: 14; -fx-fill: #c0392b;");
+        markedShapes.put(node, shapes);
+        return true;
+    }
+
+    // 去掉所有标记并隐藏搜索步骤面板，只涉及被标记过的节点
+    public void clearMarks() {
+        for (NodeShapes shapes : markedShapes.values()) {
+            shapes.circle.setFill(getNodeColor(attachedType));
+            shapes.circle.setStroke(Color.DARKBLUE);
+            shapes.circle.setStrokeWidth(2);
+            shapes.text.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+        }
+        markedShapes.clear();
+        if (stepPanelAttached) {
+            setStepPanelVisible(false);
+        }
+    }
+
+    // 搜索步骤直接标记在已绑定树的完整绘制上：切换步骤只改当前节点的颜色和信息面板的文字。
+    // 画布还不是 live 时先完整绘制一次；root 不是已绑定的树时退回 drawSearchStep
+    public void showSearchStep(TreeNode root, BST.SearchStep step, int stepIndex, int totalSteps) {
+        if (!live && attachedRoot != null && root == attachedRoot.get()) {
+            drawBinaryTree(root, attachedType);
+        }
+        clearMarks();
+        if (!live || (step.currentNode != null
+                && !markNode(step.currentNode, step.found ? NodeMark.FOUND : NodeMark.HIGHLIGHT))) {
+            drawSearchStep(root, step, stepIndex, totalSteps);
+            return;
+        }
+        updateStepPanel(step, stepIndex, totalSteps);
+    }
+
+    private void updateStepPanel(BST.SearchStep step, int stepIndex, int totalSteps) {
+        if (stepPanel == null) {
+            stepPanel = new Rectangle(350, 60);
+            stepPanel.setFill(Color.rgb(255, 255, 255, 0.95));
+            stepPanel.setStroke(Color.DARKGRAY);
+            stepPanel.setStrokeWidth(1);
+            stepPanel.setLayoutX(10);
+            stepPanel.setLayoutY(10);
+            stepPanel.setArcWidth(10);
+            stepPanel.setArcHeight(10);
+
+            stepPanelTitle = new Text();
+            stepPanelTitle.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+            stepPanelTitle.setX(20);
+            stepPanelTitle.setY(30);
+
+            stepPanelDescription = new Text();
+            stepPanelDescription.setStyle("-fx-font-size: 12;");
+            stepPanelDescription.setX(20);
+            stepPanelDescription.setY(50);
+
+            stepPanelHint = new Text("使用 ← → 箭头键导航步骤");
+            stepPanelHint.setStyle("-fx-font-size: 10; -fx-fill: #7f8c8d;");
+            stepPanelHint.setX(20);
+            stepPanelHint.setY(70);
+        }
+        if (!stepPanelAttached) {
+            canvas.getChildren().addAll(stepPanel, stepPanelTitle, stepPanelDescription, stepPanelHint);
+            stepPanelAttached = true;
+        }
+
+        stepPanelTitle.setText("步骤 " + (stepIndex + 1) + "/" + totalSteps);
+        stepPanelDescription.setText(step.getDescription());
+        Color color = step.found ? Color.GREEN : step.currentNode == null ? Color.RED : Color.BLACK;
+        stepPanelTitle.setFill(color);
+        stepPanelDescription.setFill(color);
+        setStepPanelVisible(true);
+    }
+
+    private void setStepPanelVisible(boolean visible) {
+        stepPanel.setVisible(visible);
+        stepPanelTitle.setVisible(visible);
+        stepPanelDescription.setVisible(visible);
+        stepPanelHint.setVisible(visible);
+    }
+
+    // ========== 增量修补 ==========
+
+    // 按事件修补画布，无法局部修补（树高变化、找不到已绘制的节点等）时返回 false，由调用方完整重绘
+    private boolean patchTree(List<ChangeEvent<TreeNode>> events) {
+        TreeNode root = attachedRoot.get();
+        // 间距由树高决定，树高变化后所有节点的位置都会变
+        if (root == null || getTreeHeight(root) != liveHeight) {
+            return false;
+        }
+        // 批量操作中一批有多处结构变化时，中间状态可能改变过树高或节点的相对位置，直接完整重绘
+        int structural = 0;
+        for (ChangeEvent<TreeNode> event : events) {
+            if (event.kind != ChangeEvent.Kind.VALUE_CHANGED && ++structural > 1) {
+                return false;
+            }
+        }
+
+        for (ChangeEvent<TreeNode> event : events) {
+            switch (event.kind) {
+                case INSERTED: {
+                    NodeShapes parentShapes = event.parent != null ? liveShapes.get(event.parent) : null;
+                    if (parentShapes == null) {
+                        return false;
+                    }
+                    boolean isLeft = event.parent.getLeft() == event.node;
+                    if (!isLeft && event.parent.getRight() != event.node) {
+                        return false;
+                    }
+                    drawChild(event.node, parentShapes, isLeft);
+                    break;
+                }
+                case REMOVED:
+                case ROTATED: {
+                    // replacement 子树接替 node 原来的位置
+                    NodeShapes slot = liveShapes.get(event.node);
+                    if (slot == null) {
+                        return false;
+                    }
+                    removeShapes(event.node);
+                    if (event.replacement != null) {
+                        removeSubtreeShapes(event.replacement);
+                        Line edge = slot.edge != null ? createEdge(slot.edge.getStartX(), slot.edge.getStartY(),
+                                slot.edge.getEndX(), slot.edge.getEndY()) : null;
+                        drawTreeRecursive(event.replacement, slot.x, slot.y, slot.hGap,
+                                liveVerticalSpacing, attachedType, edge);
+                    }
+                    break;
+                }
+                case VALUE_CHANGED: {
+                    NodeShapes shapes = liveShapes.get(event.node);
+                    if (shapes == null) {
+                        return false;
+                    }
+                    shapes.text.setText(String.valueOf(event.node.getValue()));
+                    shapes.text.setX(shapes.x - shapes.text.getLayoutBounds().getWidth() / 2);
+                    break;
+                }
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private void drawChild(TreeNode child, NodeShapes parentShapes, boolean isLeft) {
+        double childHGap = Math.max(parentShapes.hGap * 0.6, NODE_RADIUS * 3);
+        double childX = isLeft ? parentShapes.x - childHGap : parentShapes.x + childHGap;
+        double childY = parentShapes.y + liveVerticalSpacing;
+        Line edge = createEdge(parentShapes.x, parentShapes.y + NODE_RADIUS, childX, childY - NODE_RADIUS);
+        drawTreeRecursive(child, childX, childY, childHGap, liveVerticalSpacing, attachedType, edge);
+    }
+
+    private void removeShapes(TreeNode node) {
+        NodeShapes shapes = liveShapes.remove(node);
+        markedShapes.remove(node);
+        if (shapes != null) {
+            canvas.getChildren().removeAll(shapes.circle, shapes.text);
+            if (shapes.edge != null) {
+                canvas.getChildren().remove(shapes.edge);
+            }
+        }
+    }
+
+    private void removeSubtreeShapes(TreeNode node) {
+        if (node == null) return;
+        removeShapes(node);
+        removeSubtreeShapes(node.getLeft());
+        removeSubtreeShapes(node.getRight());
+    }
+
+    private Line createEdge(double fromX, double fromY, double toX, double toY) {
+        Line line = new Line(fromX, fromY, toX, toY);
+        line.setStroke(Color.BLACK);
+        line.setStrokeWidth(2);
+        canvas.getChildren().add(line);
+        return line;
+    }
+
     // ========== 树布局信息类 ==========
     private class TreeLayoutInfo {
         int height;
@@ -100,6 +429,8 @@ public class TreeVisualizer {
             case "bst": return Color.LIGHTCORAL;
             case "huffman": return Color.LIGHTGREEN;
             case "avl": return Color.LIGHTBLUE;
+            case "heap": return Color.LIGHTSALMON;
+            case "btree": return Color.LIGHTYELLOW;
             default: return Color.LIGHTGRAY;
         }
     }
@@ -124,6 +455,10 @@ public class TreeVisualizer {
             case "bst": return "空二叉搜索树";
             case "huffman": return "空哈夫曼树";
             case "avl": return "空AVL树";
+            case "heap": return "空堆";
+            case "redblack": return "空红黑树";
+            case "btree": return "空B+树";
+            case "concurrent": return "空并发BST";
             default: return "空树";
         }
     }
@@ -209,6 +544,10 @@ public class TreeVisualizer {
     }
     private void drawTreeWithPositions(TreeNode root, Map<TreeNode, Position> positions,
                                        String treeType, BinaryTree.TraversalStep step) {
+        // 已访问状态取自步骤本身，生成步骤时不再修改节点的访问标记
+        Set<Integer> visitedValues = step != null
+                ? new HashSet<Integer>(step.visitedNodes) : Collections.<Integer>emptySet();
+
         // 首先绘制所有连接线
         for (Map.Entry<TreeNode, Position> entry : positions.entrySet()) {
             TreeNode node = entry.getKey();
@@ -246,11 +585,12 @@ public class TreeVisualizer {
             Position pos = entry.getValue();
 
             if (isPositionInCanvas(pos.x, pos.y)) {
-                drawTreeNode(node, pos.x, pos.y, treeType, step);
+                drawTreeNode(node, pos.x, pos.y, treeType, step, visitedValues);
             }
         }
     }
-    private void drawTreeNode(TreeNode node, double x, double y, String treeType, BinaryTree.TraversalStep step) {
+    private void drawTreeNode(TreeNode node, double x, double y, String treeType,
+                              BinaryTree.TraversalStep step, Set<Integer> visitedValues) {
         // 创建节点圆圈
         Circle circle = new Circle(x, y, NODE_RADIUS);
 
@@ -259,7 +599,7 @@ public class TreeVisualizer {
             circle.setFill(Color.GOLD);
             circle.setStroke(Color.RED);
             circle.setStrokeWidth(3);
-        } else if (step != null && node.isVisited()) {
+        } else if (visitedValues.contains(node.getValue())) {
             circle.setFill(Color.LIGHTGREEN);
             circle.setStroke(Color.DARKGREEN);
             circle.setStrokeWidth(2);
@@ -298,7 +638,7 @@ public class TreeVisualizer {
             return;
         }
 
-        canvas.getChildren().clear();
+        clearCanvas();
         System.out.println("画布已清空");
 
         if (root == null) {
@@ -332,11 +672,20 @@ public class TreeVisualizer {
         System.out.println("水平间距: " + baseHGap + ", 垂直间距: " + verticalSpacing);
 
         // 绘制树
-        drawTreeRecursive(root, startX, startY, baseHGap, verticalSpacing, treeType);
+        drawTreeRecursive(root, startX, startY, baseHGap, verticalSpacing, treeType, null);
+        markLive(root, treeType, treeHeight, verticalSpacing);
         System.out.println("=== 绘制完成 ===");
     }
+
+    // 画布上是已绑定的树本身时，之后的变更可以局部修补
+    private void markLive(TreeNode root, String treeType, int treeHeight, double verticalSpacing) {
+        live = attachedRoot != null && root == attachedRoot.get() && treeType.equals(attachedType);
+        liveHeight = treeHeight;
+        liveVerticalSpacing = verticalSpacing;
+    }
+
     private void drawTreeRecursive(TreeNode node, double x, double y, double hGap,
-                                   double verticalSpacing, String treeType) {
+                                   double verticalSpacing, String treeType, Line edge) {
         if (node == null) return;
 
         System.out.println("绘制节点: " + node.getValue() + " 位置: (" + x + ", " + y + ")");
@@ -357,6 +706,7 @@ public class TreeVisualizer {
         valueText.setY(y + textHeight / 4);
 
         canvas.getChildren().addAll(circle, valueText);
+        liveShapes.put(node, new NodeShapes(circle, valueText, edge, x, y, hGap));
         System.out.println("节点 " + node.getValue() + " 已添加到画布");
 
         // 动态调整子节点间距
@@ -370,12 +720,9 @@ public class TreeVisualizer {
             System.out.println("左子节点 " + node.getLeft().getValue() + " 位置: (" + childX + ", " + childY + ")");
 
             // 绘制连接线
-            Line leftLine = new Line(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
-            leftLine.setStroke(Color.BLACK);
-            leftLine.setStrokeWidth(2);
-            canvas.getChildren().add(leftLine);
+            Line leftLine = createEdge(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
 
-            drawTreeRecursive(node.getLeft(), childX, childY, childHGap, verticalSpacing, treeType);
+            drawTreeRecursive(node.getLeft(), childX, childY, childHGap, verticalSpacing, treeType, leftLine);
         }
 
         // 绘制右子树
@@ -386,14 +733,73 @@ public class TreeVisualizer {
             System.out.println("右子节点 " + node.getRight().getValue() + " 位置: (" + childX + ", " + childY + ")");
 
             // 绘制连接线
-            Line rightLine = new Line(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
-            rightLine.setStroke(Color.BLACK);
-            rightLine.setStrokeWidth(2);
-            canvas.getChildren().add(rightLine);
+            Line rightLine = createEdge(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
+
+            drawTreeRecursive(node.getRight(), childX, childY, childHGap, verticalSpacing, treeType, rightLine);
+        }
+    }
+
+    // 绘制紧凑存储的树：直接按节点句柄读取节点池，不转换为 TreeNode 对象
+    public void drawCompactTree(CompactTree tree, String treeType) {
+        clearCanvas();
+        if (tree == null || tree.isEmpty()) {
+            drawEmptyTree(treeType);
+            return;
+        }
+
+        double canvasWidth = canvas.getWidth() > 0 ? canvas.getWidth() : 600;
+        double canvasHeight = canvas.getHeight() > 0 ? canvas.getHeight() : 400;
+        int treeHeight = tree.height();
+
+        double startX = canvasWidth / 2;
+        double startY = 80;
+        double baseHGap = Math.max(80, canvasWidth * 0.3 / treeHeight);
+        double verticalSpacing = Math.max(NODE_RADIUS * 2.5, Math.min(80, (canvasHeight - startY - 50) / treeHeight));
+
+        drawCompactTreeRecursive(tree.getPool(), tree.getRoot(), startX, startY, baseHGap, verticalSpacing,
+                treeType, tree.isBalanced());
+    }
+
+    private void drawCompactTreeRecursive(IntNodePool pool, int handle, double x, double y, double hGap,
+                                          double verticalSpacing, String treeType, boolean showHeight) {
+        if (handle == IntNodePool.NIL) return;
+        // 超出画布的子树不再绘制，大树只展示顶部若干层
+        if (y > canvas.getHeight() - NODE_RADIUS && canvas.getHeight() > 0) return;
+
+        Circle circle = new Circle(x, y, NODE_RADIUS);
+        circle.setFill(getNodeColor(treeType));
+        circle.setStroke(Color.DARKBLUE);
+        circle.setStrokeWidth(2);
+
+        Text valueText = new Text(String.valueOf(pool.value(handle)));
+        valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+        valueText.setX(x - valueText.getLayoutBounds().getWidth() / 2);
+        valueText.setY(y + valueText.getLayoutBounds().getHeight() / 4);
+        canvas.getChildren().addAll(circle, valueText);
+
+        if (showHeight) {
+            Text heightText = new Text("h=" + pool.height(handle));
+            heightText.setStyle("-fx-font-size: 10; -fx-fill: #7f8c8d;");
+            heightText.setX(x + NODE_RADIUS + 2);
+            heightText.setY(y - NODE_RADIUS + 4);
+            canvas.getChildren().add(heightText);
+        }
 
-            drawTreeRecursive(node.getRight(), childX, childY, childHGap, verticalSpacing, treeType);
+        double childHGap = Math.max(hGap * 0.6, NODE_RADIUS * 3);
+        double childY = y + verticalSpacing;
+        int left = pool.left(handle);
+        int right = pool.right(handle);
+
+        if (left != IntNodePool.NIL) {
+            createEdge(x, y + NODE_RADIUS, x - childHGap, childY - NODE_RADIUS);
+            drawCompactTreeRecursive(pool, left, x - childHGap, childY, childHGap, verticalSpacing, treeType, showHeight);
+        }
+        if (right != IntNodePool.NIL) {
+            createEdge(x, y + NODE_RADIUS, x + childHGap, childY - NODE_RADIUS);
+            drawCompactTreeRecursive(pool, right, x + childHGap, childY, childHGap, verticalSpacing, treeType, showHeight);
         }
     }
+
     // 计算树的最大宽度（叶子节点数量）
     private int calculateTreeWidth(TreeNode node) {
         if (node == null) return 0;
@@ -487,7 +893,8 @@ public class TreeVisualizer {
         infoPanel.setArcWidth(10);
         infoPanel.setArcHeight(10);
 
-        Text stepText = new Text("步骤 " + (stepIndex + 1) + "/" + totalSteps);
+        // 惰性生成的步骤在取完之前总数未知（totalSteps < 0）
+        Text stepText = new Text("步骤 " + (stepIndex + 1) + "/" + (totalSteps < 0 ? "?" : String.valueOf(totalSteps)));
         stepText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
         stepText.setX(20);
         stepText.setY(30);
@@ -497,7 +904,7 @@ public class TreeVisualizer {
         typeText.setX(20);
         typeText.setY(50);
 
-        Text descText = new Text(step.description);
+        Text descText = new Text(step.getDescription());
         descText.setStyle("-fx-font-size: 12;");
         descText.setX(20);
         descText.setY(70);
@@ -527,7 +934,7 @@ public class TreeVisualizer {
 
     // 逐步演示搜索过程
     public void drawSearchStep(TreeNode root, BST.SearchStep step, int stepIndex, int totalSteps) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             TreeLayoutInfo layoutInfo = calculateTreeLayout(root);
             double canvasWidth = canvas.getWidth();
@@ -641,7 +1048,7 @@ public class TreeVisualizer {
         stepText.setX(20);
         stepText.setY(30);
 
-        Text descText = new Text(step.description);
+        Text descText = new Text(step.getDescription());
         descText.setStyle("-fx-font-size: 12;");
         descText.setX(20);
         descText.setY(50);
@@ -665,7 +1072,7 @@ public class TreeVisualizer {
     }
     // BST删除步骤演示
     public void drawDeleteStep(TreeNode root, BST.DeleteStep step, int stepIndex, int totalSteps) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             TreeLayoutInfo layoutInfo = calculateTreeLayout(root);
             double canvasWidth = canvas.getWidth();
@@ -754,7 +1161,7 @@ public class TreeVisualizer {
                 Line leftLine = new Line(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
 
                 // 如果是比较步骤且向左查找，高亮左边线
-                if (isCurrent && step.stepType.equals("compare") && step.description.contains("向左")) {
+                if (isCurrent && step.stepType.equals("compare") && step.getDescription().contains("向左")) {
                     leftLine.setStroke(Color.RED);
                     leftLine.setStrokeWidth(3);
                 } else {
@@ -777,7 +1184,7 @@ public class TreeVisualizer {
                 Line rightLine = new Line(x, y + NODE_RADIUS, childX, childY - NODE_RADIUS);
 
                 // 如果是比较步骤且向右查找，高亮右边线
-                if (isCurrent && step.stepType.equals("compare") && step.description.contains("向右")) {
+                if (isCurrent && step.stepType.equals("compare") && step.getDescription().contains("向右")) {
                     rightLine.setStroke(Color.RED);
                     rightLine.setStrokeWidth(3);
                 } else {
@@ -846,7 +1253,7 @@ public class TreeVisualizer {
             // 查找步骤 - 显示比较信息
             String info = "";
             if (step.stepType.equals("compare")) {
-                info = "比较: " + step.description.split(": ")[1];
+                info = step.getDescription();
             } else if (step.stepType.equals("traverse_left")) {
                 info = "← 向左查找";
             } else {
@@ -922,7 +1329,7 @@ public class TreeVisualizer {
     private String getDeleteActionDescription(BST.DeleteStep step) {
         switch (step.stepType) {
             case "find":
-                return step.description;
+                return step.getDescription();
             case "mark":
                 return "🎯 标记要删除的节点: " + step.nodeToDelete.getValue();
             case "find_replacement":
@@ -937,7 +1344,7 @@ public class TreeVisualizer {
             case "complete":
                 return "✅ 删除操作完成";
             default:
-                return step.description;
+                return step.getDescription();
         }
     }
 
@@ -955,7 +1362,7 @@ public class TreeVisualizer {
      */
     public void drawAVLTreeWithSteps(AVLTree.AVLNode currentTree, AVLTree.AVLStep step,
                                      int stepIndex, int totalSteps) {
-        canvas.getChildren().clear();
+        clearCanvas();
 
         if (currentTree == null) {
             drawEmptyTree("avl");
@@ -1100,6 +1507,10 @@ public class TreeVisualizer {
                 markText = "📥 插入";
                 markColor = Color.BLUE;
                 break;
+            case "delete":
+                markText = "🗑 删除";
+                markColor = Color.RED;
+                break;
             case "check_balance":
                 if (step.needsRotation) {
                     markText = "⚖️ 不平衡";
@@ -1135,7 +1546,7 @@ public class TreeVisualizer {
     private void addStepStateInfo(AVLTree.AVLStep step, double x, double y) {
         if (step == null) return;
 
-        String stateInfo = step.description;
+        String stateInfo = step.getDescription();
         Color color = Color.BLACK;
 
         switch (step.type) {
@@ -1157,6 +1568,11 @@ public class TreeVisualizer {
             case "insert":
                 color = Color.BLUE;
                 break;
+            case "delete":
+            case "not_found":
+            case "exists":
+                color = Color.RED;
+                break;
         }
 
         Text stateText = new Text(stateInfo);
@@ -1171,6 +1587,8 @@ public class TreeVisualizer {
      * 增强的步骤信息面板
      */
     private void addAVLStepInfo(AVLTree.AVLStep step, int stepIndex, int totalSteps) {
+        if (step == null) return;
+
         Rectangle infoPanel = new Rectangle(450, 100);
         infoPanel.setFill(Color.rgb(255, 255, 255, 0.95));
         infoPanel.setStroke(Color.DARKGRAY);
@@ -1190,7 +1608,7 @@ public class TreeVisualizer {
         typeText.setX(20);
         typeText.setY(50);
 
-        Text descText = new Text(step.description);
+        Text descText = new Text(step.getDescription());
         descText.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
         descText.setX(20);
         descText.setY(70);
@@ -1226,12 +1644,13 @@ public class TreeVisualizer {
     private String getAVLStepTypeChinese(String stepType) {
         switch (stepType) {
             case "insert": return "插入节点";
-            case "start_rotate": return "开始旋转";
-            case "rotate": return "旋转操作";
-            case "balance": return "平衡调整";
+            case "exists": return "值已存在";
+            case "delete": return "删除节点";
+            case "not_found": return "未找到";
             case "check_balance": return "检查平衡";
-            case "end_rotate": return "旋转完成";
-            case "complete": return "完成插入";
+            case "before_rotate": return "准备旋转";
+            case "after_rotate": return "旋转完成";
+            case "complete": return "完成";
             default: return stepType;
         }
     }
@@ -1239,8 +1658,476 @@ public class TreeVisualizer {
     // ========== 哈夫曼树可视化方法 ==========
 
 
+    // ========== 堆（数组 + 树双视图） ==========
+
+    // 数组视图最多显示的格子数、树视图最多显示的层数，更大的堆只显示前面一部分
+    private static final int MAX_HEAP_CELLS = 64;
+    private static final int MAX_HEAP_LEVELS = 6;
+
+    public void drawHeap(IntHeap heap) {
+        clearCanvas();
+        if (heap == null || heap.isEmpty()) {
+            drawEmptyTree("heap");
+            return;
+        }
+        drawHeapViews(heap.toArray(), heap.getArity(), -1, -1);
+    }
+
+    public void drawHeapStep(IntHeap.HeapStep step, int stepIndex, int totalSteps) {
+        clearCanvas();
+        if (step.keys.length == 0) {
+            drawEmptyTree("heap");
+        } else {
+            drawHeapViews(step.keys, step.arity, step.current, step.other);
+        }
+        addHeapStepInfo(step, stepIndex, totalSteps);
+    }
+
+    // 上方是按位置排列的数组，下方是同一个数组对应的完全 d 叉树，
+    // current（正在移动的元素）和 other（与之比较的父/子节点）在两个视图中同时高亮
+    private void drawHeapViews(int[] keys, int arity, int current, int other) {
+        double canvasWidth = canvas.getWidth() > 0 ? canvas.getWidth() : 600;
+        double canvasHeight = canvas.getHeight() > 0 ? canvas.getHeight() : 400;
+        int n = keys.length;
+
+        // 数组视图
+        double arrayY = 90;
+        int cells = Math.min(n, MAX_HEAP_CELLS);
+        double cellWidth = Math.max(18, Math.min(44, (canvasWidth - 120) / cells));
+        for (int i = 0; i < cells; i++) {
+            double x = 20 + i * cellWidth;
+            Rectangle cell = new Rectangle(x, arrayY, cellWidth, 28);
+            cell.setFill(getHeapColor(i, current, other));
+            cell.setStroke(Color.DARKBLUE);
+            cell.setStrokeWidth(1);
+
+            Text valueText = new Text(String.valueOf(keys[i]));
+            valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 11;");
+            valueText.setX(x + cellWidth / 2 - valueText.getLayoutBounds().getWidth() / 2);
+            valueText.setY(arrayY + 18);
+
+            Text indexText = new Text(String.valueOf(i));
+            indexText.setStyle("-fx-font-size: 9; -fx-fill: #7f8c8d;");
+            indexText.setX(x + cellWidth / 2 - indexText.getLayoutBounds().getWidth() / 2);
+            indexText.setY(arrayY + 40);
+            canvas.getChildren().addAll(cell, valueText, indexText);
+        }
+        if (n > cells) {
+            Text moreText = new Text("… 共 " + n + " 个");
+            moreText.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
+            moreText.setX(24 + cells * cellWidth);
+            moreText.setY(arrayY + 18);
+            canvas.getChildren().add(moreText);
+        }
+
+        // 树视图：第 level 层有 arity^level 个位置，按位置在该层中的序号均分画布宽度
+        int levels = 0;
+        long shown = 0;
+        long levelSize = 1;
+        while (shown < n && levels < MAX_HEAP_LEVELS) {
+            shown += levelSize;
+            levelSize *= arity;
+            levels++;
+        }
+        int count = (int) Math.min(n, shown);
+        double treeTop = arrayY + 80;
+        double levelGap = Math.max(NODE_RADIUS * 2, Math.min(80, (canvasHeight - treeTop - 30) / levels));
+        long lastLevelSize = levelSize / arity;
+        double radius = Math.max(6, Math.min(NODE_RADIUS, (canvasWidth - 40) / lastLevelSize / 2 - 2));
+
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        int position = 0;
+        long width = 1;
+        for (int level = 0; level < levels; level++) {
+            for (long k = 0; k < width && position < count; k++, position++) {
+                xs[position] = 20 + (k + 0.5) * (canvasWidth - 40) / width;
+                ys[position] = treeTop + level * levelGap;
+            }
+            width *= arity;
+        }
+
+        // 先画连线，节点盖在连线上面
+        for (int i = 1; i < count; i++) {
+            int parent = (i - 1) / arity;
+            Line edge = new Line(xs[parent], ys[parent] + radius, xs[i], ys[i] - radius);
+            edge.setStroke(i == current && parent == other || i == other && parent == current
+                    ? Color.RED : Color.BLACK);
+            edge.setStrokeWidth(i == current && parent == other || i == other && parent == current ? 3 : 1.5);
+            canvas.getChildren().add(edge);
+        }
+        for (int i = 0; i < count; i++) {
+            Circle circle = new Circle(xs[i], ys[i], radius);
+            circle.setFill(getHeapColor(i, current, other));
+            circle.setStroke(i == current ? Color.RED : Color.DARKBLUE);
+            circle.setStrokeWidth(i == current ? 3 : 2);
+
+            Text valueText = new Text(String.valueOf(keys[i]));
+            valueText.setStyle(radius < NODE_RADIUS
+                    ? "-fx-font-weight: bold; -fx-font-size: 9;" : "-fx-font-weight: bold; -fx-font-size: 14;");
+            valueText.setX(xs[i] - valueText.getLayoutBounds().getWidth() / 2);
+            valueText.setY(ys[i] + valueText.getLayoutBounds().getHeight() / 4);
+            canvas.getChildren().addAll(circle, valueText);
+        }
+        if (n > count) {
+            Text moreText = new Text("树视图只显示前 " + levels + " 层（" + count + "/" + n + "）");
+            moreText.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
+            moreText.setX(20);
+            moreText.setY(treeTop + levels * levelGap);
+            canvas.getChildren().add(moreText);
+        }
+    }
+
+    private Color getHeapColor(int position, int current, int other) {
+        if (position == current) return Color.GOLD;
+        if (position == other) return Color.LIGHTGREEN;
+        return getNodeColor("heap");
+    }
+
+    private void addHeapStepInfo(IntHeap.HeapStep step, int stepIndex, int totalSteps) {
+        Rectangle infoPanel = new Rectangle(420, 60);
+        infoPanel.setFill(Color.rgb(255, 255, 255, 0.95));
+        infoPanel.setStroke(Color.DARKGRAY);
+        infoPanel.setStrokeWidth(1);
+        infoPanel.setLayoutX(10);
+        infoPanel.setLayoutY(10);
+        infoPanel.setArcWidth(10);
+        infoPanel.setArcHeight(10);
+
+        Text stepText = new Text("步骤 " + (stepIndex + 1) + "/" + totalSteps + "（" + step.arity + " 叉堆）");
+        stepText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+        stepText.setX(20);
+        stepText.setY(30);
+
+        Text descText = new Text(step.getDescription());
+        descText.setStyle("-fx-font-size: 12;");
+        descText.setX(20);
+        descText.setY(50);
+        if ("complete".equals(step.type)) {
+            stepText.setFill(Color.GREEN);
+            descText.setFill(Color.GREEN);
+        }
+
+        canvas.getChildren().addAll(infoPanel, stepText, descText);
+    }
+
+    // ========== 红黑树 ==========
+
+    public void drawRedBlackTree(RedBlackTree.RBNode root) {
+        clearCanvas();
+        if (root == null) {
+            drawEmptyTree("redblack");
+            return;
+        }
+        drawRedBlackLayout(root, null);
+    }
+
+    public void drawRedBlackStep(RedBlackTree.RBStep step, int stepIndex, int totalSteps) {
+        clearCanvas();
+        if (step.treeState == null) {
+            drawEmptyTree("redblack");
+        } else {
+            drawRedBlackLayout(step.treeState, step.currentNode);
+        }
+        addRedBlackStepInfo(step, stepIndex, totalSteps);
+    }
+
+    // 红黑树高度可达 2log(n+1)，水平间距每层减半，超出画布的部分不画
+    private void drawRedBlackLayout(RedBlackTree.RBNode root, RedBlackTree.RBNode current) {
+        double canvasWidth = getCanvasWidth();
+        double canvasHeight = getCanvasHeight();
+        int treeHeight = getRedBlackTreeHeight(root);
+        double startY = Math.min(100, canvasHeight * 0.2);
+        double verticalSpacing = Math.min(VERTICAL_SPACING,
+                (canvasHeight - startY - 60) / Math.max(1, treeHeight));
+        drawRedBlackNode(root, canvasWidth / 2, startY, canvasWidth / 4, verticalSpacing, current);
+    }
+
+    private void drawRedBlackNode(RedBlackTree.RBNode node, double x, double y, double hGap,
+                                  double verticalSpacing, RedBlackTree.RBNode current) {
+        if (!isPointInCanvas(x, y)) {
+            return;
+        }
+        double childY = y + verticalSpacing;
+        double childHGap = Math.max(hGap / 2, NODE_RADIUS * 0.6);
+        if (node.left != null) {
+            canvas.getChildren().add(new Line(x, y + NODE_RADIUS, x - hGap, childY - NODE_RADIUS));
+            drawRedBlackNode(node.left, x - hGap, childY, childHGap, verticalSpacing, current);
+        }
+        if (node.right != null) {
+            canvas.getChildren().add(new Line(x, y + NODE_RADIUS, x + hGap, childY - NODE_RADIUS));
+            drawRedBlackNode(node.right, x + hGap, childY, childHGap, verticalSpacing, current);
+        }
+
+        Circle circle = new Circle(x, y, NODE_RADIUS);
+        circle.setFill(node.red ? Color.CRIMSON : Color.rgb(44, 62, 80));
+        circle.setStroke(node == current ? Color.GOLD : Color.DARKGRAY);
+        circle.setStrokeWidth(node == current ? 4 : 2);
+
+        Text valueText = new Text(String.valueOf(node.value));
+        valueText.setStyle("-fx-font-weight: bold; -fx-font-size: 14; -fx-fill: white;");
+        valueText.setX(x - valueText.getLayoutBounds().getWidth() / 2);
+        valueText.setY(y + valueText.getLayoutBounds().getHeight() / 4);
+        canvas.getChildren().addAll(circle, valueText);
+    }
+
+    private int getRedBlackTreeHeight(RedBlackTree.RBNode node) {
+        if (node == null) return 0;
+        return 1 + Math.max(getRedBlackTreeHeight(node.left), getRedBlackTreeHeight(node.right));
+    }
+
+    private void addRedBlackStepInfo(RedBlackTree.RBStep step, int stepIndex, int totalSteps) {
+        Rectangle infoPanel = new Rectangle(520, 60);
+        infoPanel.setFill(Color.rgb(255, 255, 255, 0.95));
+        infoPanel.setStroke(Color.DARKGRAY);
+        infoPanel.setStrokeWidth(1);
+        infoPanel.setLayoutX(10);
+        infoPanel.setLayoutY(10);
+        infoPanel.setArcWidth(10);
+        infoPanel.setArcHeight(10);
+
+        Text stepText = new Text("步骤 " + (stepIndex + 1) + "/" + totalSteps
+                + "  操作: " + getRedBlackStepTypeChinese(step.type));
+        stepText.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
+        stepText.setX(20);
+        stepText.setY(30);
+
+        Text descText = new Text(step.getDescription());
+        descText.setStyle("-fx-font-size: 12;");
+        descText.setX(20);
+        descText.setY(50);
+        if ("complete".equals(step.type)) {
+            stepText.setFill(Color.GREEN);
+            descText.setFill(Color.GREEN);
+        } else if ("not_found".equals(step.type) || "exists".equals(step.type)) {
+            stepText.setFill(Color.RED);
+            descText.setFill(Color.RED);
+        }
+
+        canvas.getChildren().addAll(infoPanel, stepText, descText);
+    }
+
+    private String getRedBlackStepTypeChinese(String stepType) {
+        switch (stepType) {
+            case "insert": return "插入节点";
+            case "recolor": return "重新染色";
+            case "rotate": return "旋转";
+            case "delete": return "删除节点";
+            case "replace": return "后继顶替";
+            case "fix": return "修复";
+            case "complete": return "完成";
+            case "not_found": return "未找到";
+            case "exists": return "已存在";
+            default: return stepType;
+        }
+    }
+
+    // ========== B+ 树 ==========
+
+    // 最多显示的层数，键格的最小宽度；一层放不下时只显示能放下的前面一部分节点
+    private static final int MAX_BTREE_LEVELS = 6;
+    private static final double MIN_BTREE_CELL = 16;
+
+    // highlightKey 所在的叶子和沿途经过的节点高亮，为 null 时不高亮
+    public void drawBTree(BTree tree, Integer highlightKey) {
+        clearCanvas();
+        if (tree == null || tree.isEmpty()) {
+            drawEmptyTree("btree");
+            return;
+        }
+        double canvasWidth = getCanvasWidth();
+        double canvasHeight = getCanvasHeight();
+        List<List<int[]>> levels = tree.levels();
+        int levelCount = Math.min(levels.size(), MAX_BTREE_LEVELS);
+        double top = 90;
+        double levelGap = Math.max(50, Math.min(100, (canvasHeight - top - 40) / levelCount));
+        double cellHeight = 24;
+
+        // 上一层每个节点底边中点，以及它的第一个子节点在下一层的序号
+        double[] parentXs = new double[0];
+        int[] firstChild = new int[0];
+        int shownNodes = 0;
+        for (int level = 0; level < levelCount; level++) {
+            List<int[]> nodes = levels.get(level);
+            int totalKeys = 0;
+            for (int[] keys : nodes) {
+                totalKeys += Math.max(1, keys.length);
+            }
+            double nodeGap = 10;
+            double cellWidth = Math.max(MIN_BTREE_CELL,
+                    Math.min(36, (canvasWidth - 40 - nodeGap * nodes.size()) / totalKeys));
+            double y = top + level * levelGap;
+
+            double[] xs = new double[nodes.size()];
+            int[] childStart = new int[nodes.size()];
+            int nextChild = 0;
+            double x = 20;
+            double used = 0;
+            for (int[] keys : nodes) {
+                used += Math.max(1, keys.length) * cellWidth + nodeGap;
+            }
+            // 放得下时整层居中，放不下时从左边开始画到画布边缘为止
+            if (used < canvasWidth - 40) {
+                x = (canvasWidth - used) / 2;
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                int[] keys = nodes.get(i);
+                double width = Math.max(1, keys.length) * cellWidth;
+                childStart[i] = nextChild;
+                nextChild += keys.length + 1;
+                if (x + width > canvasWidth - 10) {
+                    xs[i] = Double.NaN;
+                    continue;
+                }
+                xs[i] = x + width / 2;
+                boolean onPath = highlightKey != null && containsRange(keys, highlightKey, level == levels.size() - 1);
+                for (int k = 0; k < keys.length; k++) {
+                    Rectangle cell = new Rectangle(x + k * cellWidth, y, cellWidth, cellHeight);
+                    boolean hit = highlightKey != null && keys[k] == highlightKey && level == levels.size() - 1;
+                    cell.setFill(hit ? Color.GOLD : getNodeColor("btree"));
+                    cell.setStroke(onPath ? Color.RED : Color.DARKBLUE);
+                    cell.setStrokeWidth(onPath ? 2 : 1);
+
+                    Text keyText = new Text(String.valueOf(keys[k]));
+                    keyText.setStyle(cellWidth < 28
+                            ? "-fx-font-size: 9;" : "-fx-font-weight: bold; -fx-font-size: 11;");
+                    keyText.setX(x + k * cellWidth + cellWidth / 2 - keyText.getLayoutBounds().getWidth() / 2);
+                    keyText.setY(y + cellHeight / 2 + 4);
+                    canvas.getChildren().addAll(cell, keyText);
+                }
+                shownNodes++;
+                x += width + nodeGap;
+            }
+
+            // 父节点到子节点的连线
+            for (int p = 0; p < parentXs.length; p++) {
+                if (Double.isNaN(parentXs[p])) continue;
+                int childCount = (p + 1 < firstChild.length ? firstChild[p + 1] : nodes.size()) - firstChild[p];
+                for (int c = 0; c < childCount; c++) {
+                    int child = firstChild[p] + c;
+                    if (child < xs.length && !Double.isNaN(xs[child])) {
+                        Line edge = new Line(parentXs[p], y - levelGap + cellHeight, xs[child], y);
+                        edge.setStroke(Color.GRAY);
+                        canvas.getChildren().add(edge);
+                    }
+                }
+            }
+            parentXs = xs;
+            firstChild = childStart;
+        }
+
+        Text infoText = new Text(String.format("B+ 树  阶数: %d  键数: %d  高度: %d  节点数: %d  分裂: %d  合并: %d",
+                tree.getOrder(), tree.size(), tree.height(), tree.getNodeCount(), tree.getSplits(), tree.getMerges()));
+        infoText.setStyle("-fx-font-weight: bold; -fx-font-size: 13;");
+        infoText.setX(20);
+        infoText.setY(40);
+        canvas.getChildren().add(infoText);
+        if (levels.size() > levelCount || shownNodes < tree.getNodeCount()) {
+            Text moreText = new Text("只显示了 " + shownNodes + "/" + tree.getNodeCount() + " 个节点");
+            moreText.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
+            moreText.setX(20);
+            moreText.setY(60);
+            canvas.getChildren().add(moreText);
+        }
+    }
+
+    // 叶子：键是否在节点中；内部节点：键是否落在节点的键范围之内（近似表示查找路径）
+    private boolean containsRange(int[] keys, int key, boolean leaf) {
+        if (keys.length == 0) return false;
+        if (leaf) {
+            return Arrays.binarySearch(keys, key) >= 0;
+        }
+        return key >= keys[0] && key <= keys[keys.length - 1];
+    }
+
+    // ========== 并发BST锁竞争 ==========
+
+    private static final int MAX_CONCURRENT_LEVELS = 10;
+
+    // 最近 windowNanos 内发生过锁竞争的节点按竞争次数从橙到红着色，空心灰色的是逻辑删除留下的路由节点。
+    // 工作线程仍在修改树时也可以调用，读到的是某一时刻附近的近似形状
+    public void drawConcurrentTree(ConcurrentBST tree, long windowNanos) {
+        clearCanvas();
+        ConcurrentBST.Node root = tree == null ? null : tree.getRoot();
+        if (root == null) {
+            drawEmptyTree("concurrent");
+            return;
+        }
+        double canvasWidth = getCanvasWidth();
+        double canvasHeight = getCanvasHeight();
+        int treeHeight = tree.height();
+        double startY = Math.min(90, canvasHeight * 0.2);
+        // 太深的部分超出画布不画，只画上面 MAX_CONCURRENT_LEVELS 层
+        double verticalSpacing = Math.min(VERTICAL_SPACING,
+                (canvasHeight - startY - 40) / Math.max(1, Math.min(treeHeight, MAX_CONCURRENT_LEVELS)));
+        long since = System.nanoTime() - windowNanos;
+        int[] hot = new int[1];
+        drawConcurrentNode(root, canvasWidth / 2, startY, canvasWidth / 4, verticalSpacing, since, hot);
+
+        Text infoText = new Text(String.format("并发BST  节点数: %d  高度: %d  锁竞争: %d  重试: %d  最近竞争节点: %d",
+                tree.getNodeCount(), treeHeight, tree.getContentions(), tree.getRetries(), hot[0]));
+        infoText.setStyle("-fx-font-weight: bold; -fx-font-size: 13;");
+        infoText.setX(20);
+        infoText.setY(30);
+        Text legendText = new Text("橙→红: 最近 " + windowNanos / 1_000_000 + " ms 内发生锁竞争（越红次数越多）  空心: 路由节点");
+        legendText.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
+        legendText.setX(20);
+        legendText.setY(50);
+        canvas.getChildren().addAll(infoText, legendText);
+    }
+
+    private void drawConcurrentNode(ConcurrentBST.Node node, double x, double y, double hGap,
+                                    double verticalSpacing, long since, int[] hot) {
+        if (!isPointInCanvas(x, y)) {
+            return;
+        }
+        double childY = y + verticalSpacing;
+        double childHGap = Math.max(hGap / 2, NODE_RADIUS * 0.6);
+        // 读一次子指针，避免画线和递归之间被其他线程改掉
+        ConcurrentBST.Node left = node.getLeft();
+        ConcurrentBST.Node right = node.getRight();
+        if (left != null) {
+            canvas.getChildren().add(new Line(x, y + NODE_RADIUS, x - hGap, childY - NODE_RADIUS));
+            drawConcurrentNode(left, x - hGap, childY, childHGap, verticalSpacing, since, hot);
+        }
+        if (right != null) {
+            canvas.getChildren().add(new Line(x, y + NODE_RADIUS, x + hGap, childY - NODE_RADIUS));
+            drawConcurrentNode(right, x + hGap, childY, childHGap, verticalSpacing, since, hot);
+        }
+
+        boolean present = node.isPresent();
+        long lastContended = node.getLastContended();
+        boolean recent = lastContended != 0 && lastContended - since > 0;
+        Circle circle = new Circle(x, y, NODE_RADIUS);
+        if (recent) {
+            hot[0]++;
+            // 竞争 1 次为橙色，16 次及以上为红色
+            double heat = Math.min(1.0, node.getContentions() / 16.0);
+            circle.setFill(Color.ORANGE.interpolate(Color.RED, heat));
+            circle.setStroke(Color.DARKRED);
+            circle.setStrokeWidth(3);
+        } else if (present) {
+            circle.setFill(getNodeColor("bst"));
+            circle.setStroke(Color.DARKGRAY);
+            circle.setStrokeWidth(2);
+        } else {
+            circle.setFill(Color.WHITE);
+            circle.setStroke(Color.LIGHTGRAY);
+            circle.setStrokeWidth(2);
+            circle.getStrokeDashArray().addAll(4.0, 3.0);
+        }
+
+        Text valueText = new Text(String.valueOf(node.getValue()));
+        valueText.setStyle(present || recent
+                ? "-fx-font-weight: bold; -fx-font-size: 14;"
+                : "-fx-font-size: 13; -fx-fill: #95a5a6;");
+        valueText.setX(x - valueText.getLayoutBounds().getWidth() / 2);
+        valueText.setY(y + valueText.getLayoutBounds().getHeight() / 4);
+        canvas.getChildren().addAll(circle, valueText);
+    }
+
     public void drawHuffmanTree(HuffmanTree.HuffmanNode root) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             double canvasWidth = canvas.getWidth();
             double canvasHeight = canvas.getHeight();
@@ -1265,7 +2152,7 @@ public class TreeVisualizer {
     // 哈夫曼树步骤演示
     public void drawHuffmanStep(HuffmanTree.HuffmanNode root, HuffmanTree.HuffmanStep step,
                                 int stepIndex, int totalSteps) {
-        canvas.getChildren().clear();
+        clearCanvas();
 
         if (step == null) return;
 
@@ -1431,7 +2318,7 @@ public class TreeVisualizer {
             return;
         }
 
-        canvas.getChildren().clear();
+        clearCanvas();
 
         if (root == null) {
             drawEmptyTree("binary");
@@ -1856,14 +2743,122 @@ public class TreeVisualizer {
             }
         }
 
+        // 显示实际编码后的比特流
+        if (step.encodedBits != null) {
+            drawEncodedBitstream(step, canvasWidth * 0.15, 470);
+        }
+
         // 显示压缩信息 - 放在底部
-        Text infoText = new Text(step.description);
+        Text infoText = new Text(step.getDescription());
         infoText.setStyle("-fx-font-size: 14; -fx-font-weight: bold; -fx-fill: #27ae60;");
         infoText.setX(canvasWidth / 2 - infoText.getLayoutBounds().getWidth() / 2);
         infoText.setY(canvasHeight - 80);
         canvas.getChildren().add(infoText);
     }
 
+    // 绘制编码比特流：每行64位，每8位一组
+    private void drawEncodedBitstream(HuffmanTree.HuffmanStep step, double x, double y) {
+        Text bitsTitle = new Text("编码比特流 (" + step.encodedBitLength + " 位, " + step.encodedByteLength + " 字节):");
+        bitsTitle.setStyle("-fx-font-size: 14; -fx-font-weight: bold; -fx-fill: #34495e;");
+        bitsTitle.setX(x);
+        bitsTitle.setY(y);
+        canvas.getChildren().add(bitsTitle);
+
+        String bits = step.encodedBits;
+        double lineY = y + 22;
+        for (int lineStart = 0; lineStart < bits.length(); lineStart += 64) {
+            StringBuilder line = new StringBuilder();
+            int lineEnd = Math.min(bits.length(), lineStart + 64);
+            for (int i = lineStart; i < lineEnd; i += 8) {
+                line.append(bits, i, Math.min(lineEnd, i + 8)).append(' ');
+            }
+            if (lineEnd == bits.length() && bits.length() < step.encodedBitLength) {
+                line.append("...");
+            }
+
+            Text bitsText = new Text(line.toString().trim());
+            bitsText.setStyle("-fx-font-family: 'Consolas'; -fx-font-size: 12; -fx-fill: #8e44ad;");
+            bitsText.setX(x + 20);
+            bitsText.setY(lineY);
+            canvas.getChildren().add(bitsText);
+            lineY += 18;
+        }
+    }
+
+    // 文件压缩报告：每块一根柱子，高度为压缩后/原始大小
+    public void drawCompressionReport(HuffmanFileCompressor.CompressionReport report, String title) {
+        clearCanvas();
+        if (report == null) return;
+
+        double canvasWidth = Math.max(canvas.getWidth(), 600);
+        double canvasHeight = Math.max(canvas.getHeight(), 400);
+
+        Text titleText = new Text(title);
+        titleText.setStyle("-fx-font-size: 18; -fx-font-weight: bold; -fx-fill: #2c3e50;");
+        titleText.setX(40);
+        titleText.setY(40);
+
+        Text summaryText = new Text(report.toString());
+        summaryText.setStyle("-fx-font-size: 13; -fx-fill: #34495e;");
+        summaryText.setX(40);
+        summaryText.setY(65);
+        canvas.getChildren().addAll(titleText, summaryText);
+
+        List<HuffmanFileCompressor.BlockStats> blocks = report.blocks;
+        if (blocks.isEmpty()) return;
+
+        double chartLeft = 60;
+        double chartBottom = canvasHeight - 60;
+        double chartHeight = chartBottom - 110;
+        double chartWidth = canvasWidth - chartLeft - 40;
+        // 块太多时按组取平均，避免柱子宽度小于2像素
+        int groupSize = (int) Math.ceil(blocks.size() / Math.max(1.0, chartWidth / 4));
+        int bars = (blocks.size() + groupSize - 1) / groupSize;
+        double barWidth = chartWidth / bars;
+
+        Line axis = new Line(chartLeft, chartBottom, chartLeft + chartWidth, chartBottom);
+        axis.setStroke(Color.DARKGRAY);
+        Line fullLine = new Line(chartLeft, chartBottom - chartHeight, chartLeft + chartWidth, chartBottom - chartHeight);
+        fullLine.setStroke(Color.LIGHTGRAY);
+        fullLine.getStrokeDashArray().addAll(6.0, 4.0);
+        Text fullLabel = new Text("100%");
+        fullLabel.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
+        fullLabel.setX(chartLeft - 40);
+        fullLabel.setY(chartBottom - chartHeight + 4);
+        canvas.getChildren().addAll(axis, fullLine, fullLabel);
+
+        for (int bar = 0; bar < bars; bar++) {
+            long raw = 0;
+            long encoded = 0;
+            for (int i = bar * groupSize; i < Math.min(blocks.size(), (bar + 1) * groupSize); i++) {
+                raw += blocks.get(i).rawLength;
+                encoded += blocks.get(i).encodedSize;
+            }
+            double ratio = raw == 0 ? 0 : Math.min(1.0, (double) encoded / raw);
+            double height = chartHeight * ratio;
+
+            Rectangle rect = new Rectangle(chartLeft + bar * barWidth + 1, chartBottom - height,
+                    Math.max(1, barWidth - 2), height);
+            rect.setFill(ratio < 0.75 ? Color.MEDIUMPURPLE : Color.LIGHTCORAL);
+            canvas.getChildren().add(rect);
+
+            if (barWidth >= 28) {
+                Text label = new Text(String.format("%.0f%%", ratio * 100));
+                label.setStyle("-fx-font-size: 10; -fx-fill: #2c3e50;");
+                label.setX(chartLeft + bar * barWidth + 2);
+                label.setY(chartBottom - height - 4);
+                canvas.getChildren().add(label);
+            }
+        }
+
+        Text axisLabel = new Text(groupSize == 1 ? "块序号 (柱高 = 压缩后大小 / 原始大小)"
+                : "每 " + groupSize + " 块为一组 (柱高 = 压缩后大小 / 原始大小)");
+        axisLabel.setStyle("-fx-font-size: 12; -fx-fill: #7f8c8d;");
+        axisLabel.setX(chartLeft);
+        axisLabel.setY(chartBottom + 25);
+        canvas.getChildren().add(axisLabel);
+    }
+
     // 修改原有的哈夫曼树绘制方法以支持步骤高亮
     private void drawHuffmanTreeRecursiveImproved(HuffmanTree.HuffmanNode node, double x, double y,
                                                   double hGap, double verticalSpacing,
@@ -1973,15 +2968,16 @@ public class TreeVisualizer {
         typeText.setX(20);
         typeText.setY(panelY + 45);
 
-        Text descText = new Text(step.description);
+        String description = step.getDescription();
+        Text descText = new Text(description);
         descText.setStyle("-fx-font-size: 11; -fx-fill: #7f8c8d;");
         descText.setX(20);
         descText.setY(panelY + 65);
 
         // 限制描述文本长度
         if (descText.getLayoutBounds().getWidth() > 350) {
-            String shortDesc = step.description.length() > 50 ?
-                    step.description.substring(0, 50) + "..." : step.description;
+            String shortDesc = description.length() > 50 ?
+                    description.substring(0, 50) + "..." : description;
             descText.setText(shortDesc);
         }
 
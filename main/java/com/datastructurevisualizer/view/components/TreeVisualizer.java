@@ -10,35 +10,59 @@ import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TreeVisualizer {
     private Pane canvas;
     private static final double VERTICAL_SPACING = 80;
     private static final double NODE_RADIUS = 18;
 
+    // 最近一次 drawBinaryTree 画出的树：节点值 → 图形（同值取先画的），高亮只改颜色、不重绘。
+    // 调用方修改树之后都会重新绘制，索引随之重建
+    private static class NodeShapes {
+        final Circle circle;
+        final Text text;
+
+        NodeShapes(Circle circle, Text text) {
+            this.circle = circle;
+            this.text = text;
+        }
+    }
+
+    private final Map<Integer, NodeShapes> shapeIndex = new HashMap<>();
+    private TreeNode drawnRoot;
+    private String drawnType;
+    private NodeShapes highlighted;
+
     public TreeVisualizer(Pane canvas) {
         this.canvas = canvas;
     }
 
     public void drawBinaryTree(TreeNode root, String treeType) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             drawTreeRecursive(root, 400, 50, 200, treeType, false, -1);
         }
+        drawnRoot = root;
+        drawnType = treeType;
     }
 
     // 增强的绘制方法，支持高亮特定节点
     public void drawBinaryTreeWithHighlight(TreeNode root, String treeType, int highlightValue) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             drawTreeRecursive(root, 400, 50, 200, treeType, true, highlightValue);
         }
+        drawnRoot = root;
+        drawnType = treeType;
+        highlighted = shapeIndex.get(highlightValue);
     }
 
     // 逐步演示搜索过程
     public void drawSearchStep(TreeNode root, BST.SearchStep step, int stepIndex, int totalSteps) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             drawTreeRecursiveWithStep(root, 400, 50, 200, "bst", step, stepIndex, totalSteps);
         }
@@ -70,6 +94,7 @@ public class TreeVisualizer {
         }
 
         canvas.getChildren().addAll(circle, valueText);
+        shapeIndex.putIfAbsent(node.getValue(), new NodeShapes(circle, valueText));
 
         if (node.getLeft() != null) {
             double childX = x - hGap;
@@ -198,7 +223,7 @@ public class TreeVisualizer {
     }
 
     public void drawHuffmanTree(HuffmanTree.HuffmanNode root) {
-        canvas.getChildren().clear();
+        clearCanvas();
         if (root != null) {
             drawHuffmanTreeRecursive(root, 400, 50, 300);
         }
@@ -258,9 +283,21 @@ public class TreeVisualizer {
         }
     }
 
-    // 保持向后兼容的方法
+    // 保持向后兼容的方法：画布上已经是这棵树时只改两个节点的颜色，否则完整绘制
     public void highlightNode(TreeNode root, int value) {
-        drawBinaryTreeWithHighlight(root, "bst", value);
+        if (root == null || root != drawnRoot) {
+            drawBinaryTreeWithHighlight(root, "bst", value);
+            return;
+        }
+        if (highlighted != null) {
+            highlighted.circle.setFill(getNodeColor(drawnType));
+            highlighted.text.setStyle("");
+        }
+        highlighted = shapeIndex.get(value);
+        if (highlighted != null) {
+            highlighted.circle.setFill(Color.GOLD);
+            highlighted.text.setStyle("-fx-font-weight: bold; -fx-fill: #c0392b;");
+        }
     }
 
     private Color getNodeColor(String treeType) {
@@ -274,6 +311,13 @@ public class TreeVisualizer {
 
     // 清空画布
     public void clear() {
+        clearCanvas();
+    }
+
+    private void clearCanvas() {
         canvas.getChildren().clear();
+        shapeIndex.clear();
+        drawnRoot = null;
+        highlighted = null;
     }
 }
\ No newline at end of file